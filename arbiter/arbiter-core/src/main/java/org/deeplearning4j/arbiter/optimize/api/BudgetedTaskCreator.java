@@ -0,0 +1,52 @@
+/*-
+ *
+ *  * Copyright 2016 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ */
+package org.deeplearning4j.arbiter.optimize.api;
+
+import org.deeplearning4j.arbiter.optimize.api.data.DataProvider;
+import org.deeplearning4j.arbiter.optimize.api.score.ScoreFunction;
+import org.deeplearning4j.arbiter.optimize.runner.IOptimizationRunner;
+import org.deeplearning4j.arbiter.optimize.runner.listener.StatusListener;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * A TaskCreator whose tasks train a candidate for a limited budget (number of epochs, iterations, etc) and can be
+ * resumed from the state reached at the end of a previous task, as used by successive halving
+ * (see {@link org.deeplearning4j.arbiter.optimize.runner.SuccessiveHalvingOptimizationRunner}).<br>
+ * The task should set {@link OptimizationResult#setCheckpoint(Object)} on its result to allow the candidate to be
+ * resumed later; if no checkpoint is returned, the candidate is trained from scratch for the larger budget.
+ */
+public interface BudgetedTaskCreator extends TaskCreator {
+
+    /**
+     * Generate a callable that trains the candidate until a total budget has been used
+     *
+     * @param candidate       Candidate (model) configuration to be trained
+     * @param dataProvider    DataProvider, for the data
+     * @param scoreFunction   Score function to be used to evaluate the model
+     * @param statusListeners Status listeners, that can be used for callbacks (to UI, for example)
+     * @param previousBudget  Budget already used by the checkpoint. 0 when the candidate is trained from scratch
+     * @param budget          Total budget the candidate should be trained for, when the task completes
+     * @param checkpoint      Checkpoint returned by the previous task for this candidate, or null
+     * @return A callable that returns an OptimizationResult, once optimization is complete
+     */
+    Callable<OptimizationResult> create(Candidate candidate, DataProvider dataProvider, ScoreFunction scoreFunction,
+                                        List<StatusListener> statusListeners, IOptimizationRunner runner,
+                                        int previousBudget, int budget, Object checkpoint);
+}
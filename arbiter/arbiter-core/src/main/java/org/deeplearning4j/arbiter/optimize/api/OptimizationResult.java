@@ -34,7 +34,7 @@ import java.io.Serializable;
  */
 @Data
 @JsonTypeInfo(use = JsonTypeInfo.Id.CLASS, include = JsonTypeInfo.As.PROPERTY, property = "@class")
-@JsonIgnoreProperties({"resultReference"})
+@JsonIgnoreProperties({"resultReference", "checkpoint"})
 public class OptimizationResult implements Serializable {
     @JsonProperty
     private Candidate candidate;
@@ -47,6 +47,10 @@ public class OptimizationResult implements Serializable {
     @JsonProperty
     private CandidateInfo candidateInfo;
     private ResultReference resultReference;
+    /**
+     * In-memory state (usually the trained model) a {@link BudgetedTaskCreator} task can be resumed from, if any
+     */
+    private transient Object checkpoint;
 
 
     public OptimizationResult(Candidate candidate, Double score, int index, Object modelSpecificResults,
@@ -0,0 +1,501 @@
+/*-
+ *
+ *  * Copyright 2016 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ */
+package org.deeplearning4j.arbiter.optimize.generator;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.math3.distribution.IntegerDistribution;
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.special.Erf;
+import org.deeplearning4j.arbiter.optimize.api.Candidate;
+import org.deeplearning4j.arbiter.optimize.api.OptimizationResult;
+import org.deeplearning4j.arbiter.optimize.api.ParameterSpace;
+import org.deeplearning4j.arbiter.optimize.parameter.discrete.DiscreteParameterSpace;
+import org.deeplearning4j.arbiter.optimize.parameter.integer.IntegerParameterSpace;
+import org.deeplearning4j.arbiter.util.LeafUtils;
+import org.nd4j.shade.jackson.annotation.JsonCreator;
+import org.nd4j.shade.jackson.annotation.JsonIgnoreProperties;
+import org.nd4j.shade.jackson.annotation.JsonProperty;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * TPECandidateGenerator: generates candidates using a tree-structured Parzen estimator (TPE), a model-based
+ * (Bayesian) optimization method. See Bergstra et al., Algorithms for Hyper-Parameter Optimization (2011).<br>
+ * The reported results are split into the best fraction (gamma) and the rest; for each parameter, a density l(x) is
+ * fitted on the best results and a density g(x) on the rest, and the value maximizing l(x)/g(x) among a number of
+ * values sampled from l(x) is proposed. Continuous parameters use truncated Gaussian Parzen estimators over the
+ * [0,1] range of the parameter space, while discrete parameters (and integer parameters with a small number of
+ * values) use categorical estimators. The categories of an integer parameter are its values, with a prior following
+ * the distribution of the parameter space. The first candidates are generated at random.<br>
+ * <br>
+ * Candidates proposed but not yet reported are added to the history with the worst score reported so far
+ * ("constant liar"), so that candidates proposed for parallel workers do not all collapse onto the same point.<br>
+ * <br>
+ * If a history file is provided, every reported result is written to it (one line per candidate), and the history
+ * is loaded from it on creation: a search can be resumed after a crash by creating a new generator with the same history file.
+ */
+@Slf4j
+@EqualsAndHashCode(callSuper = true, exclude = {"numCategories", "integerDistributions", "history", "pending"})
+@JsonIgnoreProperties({"numCategories", "integerDistributions", "history", "pending", "candidateCounter", "rng",
+                "candidate"})
+public class TPECandidateGenerator extends BaseCandidateGenerator {
+
+    public static final double DEFAULT_GAMMA = 0.25;
+    public static final int DEFAULT_NUM_INITIAL_CANDIDATES = 10;
+    public static final int DEFAULT_NUM_SAMPLES = 24;
+    /**
+     * Integer parameters with more values than this are modelled as continuous parameters
+     */
+    public static final int MAX_INTEGER_CATEGORIES = 64;
+
+    private static final double PRIOR_MEAN = 0.5;
+    private static final double PRIOR_SIGMA = 1.0;
+    private static final double SQRT_2 = Math.sqrt(2.0);
+
+    @Getter
+    private boolean minimize;
+    @Getter
+    private double gamma;
+    @Getter
+    private int numInitialCandidates;
+    @Getter
+    private int numSamples;
+    @Getter
+    private String historyFile;
+
+    //Number of categories for each parameter, 0 for continuous parameters
+    private int[] numCategories;
+    //Distribution of the values of each integer parameter modelled with categories, null for other parameters
+    private IntegerDistribution[] integerDistributions;
+    private Map<Integer, Observation> history = new LinkedHashMap<>();
+    private Map<Integer, double[]> pending = new LinkedHashMap<>();
+
+    /**
+     * @param parameterSpace       ParameterSpace from which to generate candidates
+     * @param dataParameters       Data parameters for the candidates
+     * @param minimize             Whether the score is minimized (same as {@link org.deeplearning4j.arbiter.optimize.api.score.ScoreFunction#minimize()})
+     * @param gamma                Fraction of the results considered as good results, for example 0.25
+     * @param numInitialCandidates Number of results required before using the model: candidates are random until then
+     * @param numSamples           Number of values sampled from l(x), for each parameter, to choose the next candidate
+     * @param historyFile          Path of the history file, may be null
+     */
+    @JsonCreator
+    public TPECandidateGenerator(@JsonProperty("parameterSpace") ParameterSpace<?> parameterSpace,
+                    @JsonProperty("dataParameters") Map<String, Object> dataParameters,
+                    @JsonProperty("initDone") boolean initDone, @JsonProperty("minimize") boolean minimize,
+                    @JsonProperty("gamma") double gamma,
+                    @JsonProperty("numInitialCandidates") int numInitialCandidates,
+                    @JsonProperty("numSamples") int numSamples, @JsonProperty("historyFile") String historyFile) {
+        super(parameterSpace, dataParameters, initDone);
+        if (gamma <= 0 || gamma >= 1)
+            throw new IllegalArgumentException("gamma must be in range (0,1) (got: " + gamma + ")");
+        if (numSamples <= 0)
+            throw new IllegalArgumentException("numSamples must be > 0 (got: " + numSamples + ")");
+        this.minimize = minimize;
+        this.gamma = gamma;
+        this.numInitialCandidates = Math.max(numInitialCandidates, 1);
+        this.numSamples = numSamples;
+        this.historyFile = historyFile;
+        initialize();
+        loadHistory();
+    }
+
+    public TPECandidateGenerator(ParameterSpace<?> parameterSpace, Map<String, Object> dataParameters,
+                    boolean minimize, String historyFile) {
+        this(parameterSpace, dataParameters, false, minimize, DEFAULT_GAMMA, DEFAULT_NUM_INITIAL_CANDIDATES,
+                        DEFAULT_NUM_SAMPLES, historyFile);
+    }
+
+    public TPECandidateGenerator(ParameterSpace<?> parameterSpace, boolean minimize) {
+        this(parameterSpace, null, minimize, null);
+    }
+
+    @Override
+    protected void initialize() {
+        super.initialize();
+
+        numCategories = new int[parameterSpace.numParameters()];
+        integerDistributions = new IntegerDistribution[numCategories.length];
+        List<ParameterSpace> leaves = LeafUtils.getUniqueObjects(parameterSpace.collectLeaves());
+        int i = 0;
+        for (ParameterSpace ps : leaves) {
+            int categories = 0;
+            IntegerDistribution distribution = null;
+            if (ps instanceof DiscreteParameterSpace) {
+                categories = ((DiscreteParameterSpace) ps).numValues();
+            } else if (ps instanceof IntegerParameterSpace) {
+                IntegerParameterSpace ips = (IntegerParameterSpace) ps;
+                long n = (long) ips.getMax() - ips.getMin() + 1;
+                categories = (n <= MAX_INTEGER_CATEGORIES ? (int) n : 0);
+                distribution = (categories > 0 ? ips.getDistribution() : null);
+            }
+            for (int j = 0; j < ps.numParameters() && i < numCategories.length; j++) {
+                integerDistributions[i] = distribution;
+                numCategories[i++] = categories;
+            }
+        }
+    }
+
+    @Override
+    public boolean hasMoreCandidates() {
+        return true;
+    }
+
+    @Override
+    public synchronized Candidate getCandidate() {
+        double[] values;
+        if (history.size() < numInitialCandidates) {
+            values = new double[parameterSpace.numParameters()];
+            for (int i = 0; i < values.length; i++)
+                values[i] = rng.nextDouble();
+        } else {
+            values = suggest();
+        }
+
+        Object value = null;
+        Exception e = null;
+        try {
+            value = parameterSpace.getValue(values);
+        } catch (Exception e2) {
+            log.warn("Error getting configuration for candidate", e2);
+            e = e2;
+        }
+
+        int index = candidateCounter.getAndIncrement();
+        if (e == null) {
+            pending.put(index, values);
+        }
+        return new Candidate(value, index, values, dataParameters, e);
+    }
+
+    @Override
+    public synchronized void reportResults(OptimizationResult result) {
+        pending.remove(result.getIndex());
+        Double score = result.getScore();
+        if (score == null || Double.isNaN(score) || Double.isInfinite(score) || result.getCandidate() == null
+                        || result.getCandidate().getFlatParameters() == null) {
+            return;
+        }
+        //If a result is reported more than once for the same candidate, the last one is kept
+        Observation o = new Observation(result.getCandidate().getFlatParameters().clone(), score);
+        if (history.put(result.getIndex(), o) == null) {
+            appendHistory(result.getIndex(), o);
+        } else {
+            writeHistory();
+        }
+    }
+
+    /**
+     * @return Number of results in the history
+     */
+    public synchronized int getHistorySize() {
+        return history.size();
+    }
+
+    @Override
+    public Class<?> getCandidateType() {
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "TPECandidateGenerator(gamma=" + gamma + ")";
+    }
+
+    private double[] suggest() {
+        //Observations, plus the pending candidates scored with the worst score so far (constant liar)
+        List<double[]> xs = new ArrayList<>(history.size() + pending.size());
+        List<Double> ys = new ArrayList<>(history.size() + pending.size());
+        double lie = minimize ? -Double.MAX_VALUE : Double.MAX_VALUE;
+        for (Observation o : history.values()) {
+            xs.add(o.values);
+            ys.add(o.score);
+            lie = minimize ? Math.max(lie, o.score) : Math.min(lie, o.score);
+        }
+        for (double[] p : pending.values()) {
+            xs.add(p);
+            ys.add(lie);
+        }
+
+        Integer[] order = new Integer[xs.size()];
+        for (int i = 0; i < order.length; i++)
+            order[i] = i;
+        final List<Double> scores = ys;
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer i1, Integer i2) {
+                return minimize ? Double.compare(scores.get(i1), scores.get(i2))
+                                : Double.compare(scores.get(i2), scores.get(i1));
+            }
+        });
+        int nGood = Math.max(1, (int) Math.ceil(gamma * order.length));
+        int nBad = order.length - nGood;
+
+        double[] values = new double[numCategories.length];
+        double[] good = new double[nGood];
+        double[] bad = new double[nBad];
+        for (int d = 0; d < values.length; d++) {
+            for (int i = 0; i < nGood; i++)
+                good[i] = xs.get(order[i])[d];
+            for (int i = 0; i < nBad; i++)
+                bad[i] = xs.get(order[nGood + i])[d];
+
+            if (numCategories[d] > 0) {
+                values[d] = suggestCategorical(good, bad, numCategories[d], integerDistributions[d]);
+            } else {
+                values[d] = suggestContinuous(good, bad);
+            }
+        }
+        return values;
+    }
+
+    private double suggestCategorical(double[] good, double[] bad, int numCategories,
+                    IntegerDistribution distribution) {
+        double[] l = categoryProbabilities(good, numCategories, distribution);
+        double[] g = categoryProbabilities(bad, numCategories, distribution);
+
+        int best = -1;
+        double bestRatio = -Double.MAX_VALUE;
+        for (int s = 0; s < numSamples; s++) {
+            int k = sampleCategory(l, rng);
+            double ratio = Math.log(l[k]) - Math.log(g[k]);
+            if (ratio > bestRatio) {
+                bestRatio = ratio;
+                best = k;
+            }
+        }
+        if (distribution == null) {
+            //Center of the category in [0,1]
+            return (best + 0.5) / numCategories;
+        }
+        //Center of the range of [0,1] mapped to that value by the parameter space
+        int value = distribution.getSupportLowerBound() + best;
+        return 0.5 * (distribution.cumulativeProbability(value - 1) + distribution.cumulativeProbability(value));
+    }
+
+    private double suggestContinuous(double[] good, double[] bad) {
+        ParzenEstimator l = new ParzenEstimator(good);
+        ParzenEstimator g = new ParzenEstimator(bad);
+
+        double best = PRIOR_MEAN;
+        double bestRatio = -Double.MAX_VALUE;
+        for (int s = 0; s < numSamples; s++) {
+            double x = l.sample(rng);
+            double ratio = l.logPdf(x) - g.logPdf(x);
+            if (ratio > bestRatio) {
+                bestRatio = ratio;
+                best = x;
+            }
+        }
+        return best;
+    }
+
+    private static double[] categoryProbabilities(double[] values, int numCategories,
+                    IntegerDistribution distribution) {
+        //Counts with a prior of numCategories pseudo-counts: uniform, or following the distribution of the integers
+        double[] p = new double[numCategories];
+        if (distribution == null) {
+            Arrays.fill(p, 1.0);
+        } else {
+            int min = distribution.getSupportLowerBound();
+            for (int k = 0; k < numCategories; k++)
+                p[k] = numCategories * distribution.probability(min + k);
+        }
+        for (double v : values) {
+            int k = (distribution == null ? (int) (v * numCategories)
+                            : distribution.inverseCumulativeProbability(v) - distribution.getSupportLowerBound());
+            p[Math.max(0, Math.min(k, numCategories - 1))] += 1.0;
+        }
+        double sum = 0;
+        for (double c : p)
+            sum += c;
+        for (int k = 0; k < numCategories; k++)
+            p[k] /= sum;
+        return p;
+    }
+
+    private static int sampleCategory(double[] p, RandomGenerator rng) {
+        double u = rng.nextDouble();
+        double cumSum = 0;
+        for (int k = 0; k < p.length; k++) {
+            cumSum += p[k];
+            if (u < cumSum)
+                return k;
+        }
+        return p.length - 1;
+    }
+
+    private static double normalCdf(double x) {
+        return 0.5 * (1.0 + Erf.erf(x / SQRT_2));
+    }
+
+    private void loadHistory() {
+        if (historyFile == null)
+            return;
+        File f = new File(historyFile);
+        if (!f.exists())
+            return;
+
+        int maxIndex = -1;
+        try (BufferedReader br = new BufferedReader(
+                        new InputStreamReader(new FileInputStream(f), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty())
+                    continue;
+                String[] split = line.split(",");
+                if (split.length != numCategories.length + 2) {
+                    log.warn("Skipping invalid line in history file {}: {}", historyFile, line);
+                    continue;
+                }
+                int index = Integer.parseInt(split[0]);
+                double score = Double.parseDouble(split[1]);
+                double[] values = new double[numCategories.length];
+                for (int i = 0; i < values.length; i++)
+                    values[i] = Double.parseDouble(split[i + 2]);
+                history.put(index, new Observation(values, score));
+                maxIndex = Math.max(maxIndex, index);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading history file " + historyFile, e);
+        }
+
+        //New candidates get new indices
+        if (candidateCounter.get() <= maxIndex)
+            candidateCounter.set(maxIndex + 1);
+        log.info("Loaded {} results from history file {}", history.size(), historyFile);
+    }
+
+    private void appendHistory(int index, Observation o) {
+        if (historyFile == null)
+            return;
+        StringBuilder sb = new StringBuilder();
+        appendLine(sb, index, o);
+        try (Writer w = new OutputStreamWriter(new FileOutputStream(historyFile, true), StandardCharsets.UTF_8)) {
+            w.write(sb.toString());
+        } catch (IOException e) {
+            log.warn("Error writing result {} to history file {}", index, historyFile, e);
+        }
+    }
+
+    /**
+     * Write the whole history again, when the result of a candidate already in the file has changed
+     */
+    private void writeHistory() {
+        if (historyFile == null)
+            return;
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<Integer, Observation> e : history.entrySet())
+            appendLine(sb, e.getKey(), e.getValue());
+        File f = new File(historyFile);
+        File tmp = new File(f.getAbsoluteFile().getParentFile(), f.getName() + ".tmp");
+        try {
+            try (Writer w = new OutputStreamWriter(new FileOutputStream(tmp), StandardCharsets.UTF_8)) {
+                w.write(sb.toString());
+            }
+            if (!f.delete() || !tmp.renameTo(f))
+                throw new IOException("Could not replace " + f + " with " + tmp);
+        } catch (IOException e) {
+            log.warn("Error writing history file {}", historyFile, e);
+        }
+    }
+
+    private static void appendLine(StringBuilder sb, int index, Observation o) {
+        sb.append(index).append(",").append(o.score);
+        for (double v : o.values)
+            sb.append(",").append(v);
+        sb.append("\n");
+    }
+
+    @AllArgsConstructor
+    private static class Observation {
+        private final double[] values;
+        private final double score;
+    }
+
+    /**
+     * Mixture of Gaussians truncated to [0,1], one per observation plus a wide prior component; the bandwidth of
+     * each component is the largest distance to its neighbours (adaptive Parzen estimator)
+     */
+    private static class ParzenEstimator {
+        private final double[] means;
+        private final double[] sigmas;
+        private final double[] logNorms;
+
+        private ParzenEstimator(double[] values) {
+            int n = values.length + 1;
+            means = new double[n];
+            sigmas = new double[n];
+            logNorms = new double[n];
+
+            double[] sorted = new double[n];
+            System.arraycopy(values, 0, sorted, 0, values.length);
+            sorted[n - 1] = PRIOR_MEAN;
+            Arrays.sort(sorted);
+
+            double minSigma = 1.0 / Math.min(100, n);
+            boolean priorDone = false;
+            for (int i = 0; i < n; i++) {
+                means[i] = sorted[i];
+                if (!priorDone && sorted[i] == PRIOR_MEAN) {
+                    sigmas[i] = PRIOR_SIGMA;
+                    priorDone = true;
+                } else {
+                    double left = sorted[i] - (i == 0 ? 0.0 : sorted[i - 1]);
+                    double right = (i == n - 1 ? 1.0 : sorted[i + 1]) - sorted[i];
+                    sigmas[i] = Math.min(1.0, Math.max(minSigma, Math.max(left, right)));
+                }
+                //Mass of the component in [0,1], and uniform mixture weights
+                double mass = normalCdf((1.0 - means[i]) / sigmas[i]) - normalCdf(-means[i] / sigmas[i]);
+                logNorms[i] = -Math.log(Math.max(mass, 1e-12)) - Math.log(sigmas[i] * Math.sqrt(2 * Math.PI))
+                                - Math.log(n);
+            }
+        }
+
+        private double sample(RandomGenerator rng) {
+            int i = rng.nextInt(means.length);
+            for (int attempt = 0; attempt < 100; attempt++) {
+                double x = means[i] + sigmas[i] * rng.nextGaussian();
+                if (x >= 0.0 && x <= 1.0)
+                    return x;
+            }
+            return Math.min(1.0, Math.max(0.0, means[i]));
+        }
+
+        private double logPdf(double x) {
+            //log-sum-exp over the components
+            double[] logs = new double[means.length];
+            double max = -Double.MAX_VALUE;
+            for (int i = 0; i < means.length; i++) {
+                double z = (x - means[i]) / sigmas[i];
+                logs[i] = logNorms[i] - 0.5 * z * z;
+                max = Math.max(max, logs[i]);
+            }
+            double sum = 0;
+            for (double l : logs)
+                sum += Math.exp(l - max);
+            return max + Math.log(sum);
+        }
+    }
+}
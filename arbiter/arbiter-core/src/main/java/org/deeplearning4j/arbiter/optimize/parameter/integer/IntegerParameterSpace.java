@@ -77,6 +77,13 @@ public class IntegerParameterSpace implements ParameterSpace<Integer> {
         return distribution.getSupportUpperBound();
     }
 
+    /**
+     * @return Distribution of the values of this parameter space
+     */
+    public IntegerDistribution getDistribution() {
+        return distribution;
+    }
+
     @Override
     public Integer getValue(double[] input) {
         if (index == -1) {
@@ -142,28 +142,8 @@ public abstract class BaseOptimizationRunner implements IOptimizationRunner {
             }
 
             //Add additional tasks
-            while (config.getCandidateGenerator().hasMoreCandidates() && queuedFutures.size() < maxConcurrentTasks()) {
-                Candidate candidate = config.getCandidateGenerator().getCandidate();
-                CandidateInfo status;
-                if (candidate.getException() != null) {
-                    //Failed on generation...
-                    status = processFailedCandidates(candidate);
-                } else {
-                    long created = System.currentTimeMillis();
-                    ListenableFuture<OptimizationResult> f =
-                            execute(candidate, config.getDataProvider(), config.getScoreFunction());
-                    f.addListener(new OnCompletionListener(f), futureListenerExecutor);
-                    queuedFutures.add(f);
-                    totalCandidateCount.getAndIncrement();
-
-                    status = new CandidateInfo(candidate.getIndex(), CandidateStatus.Created, null,
-                            created, null, null, candidate.getFlatParameters(), null);
-                    currentStatus.put(candidate.getIndex(), status);
-                }
-
-                for (StatusListener listener : statusListeners) {
-                    listener.onCandidateStatusChange(status, this, null);
-                }
+            while (hasMoreTasks() && queuedFutures.size() < maxConcurrentTasks()) {
+                scheduleNextTask();
             }
         }
 
@@ -182,6 +162,59 @@ public abstract class BaseOptimizationRunner implements IOptimizationRunner {
     }
 
 
+    /**
+     * @return True if more tasks can be scheduled. By default, while the candidate generator has more candidates
+     */
+    protected boolean hasMoreTasks() {
+        return config.getCandidateGenerator().hasMoreCandidates();
+    }
+
+    /**
+     * Schedule the next task. By default, a new candidate from the candidate generator
+     */
+    protected void scheduleNextTask() {
+        Candidate candidate = config.getCandidateGenerator().getCandidate();
+        CandidateInfo status;
+        if (candidate.getException() != null) {
+            //Failed on generation...
+            status = processFailedCandidates(candidate);
+        } else {
+            long created = System.currentTimeMillis();
+            ListenableFuture<OptimizationResult> f =
+                    execute(candidate, config.getDataProvider(), config.getScoreFunction());
+            schedule(f);
+            totalCandidateCount.getAndIncrement();
+
+            status = new CandidateInfo(candidate.getIndex(), CandidateStatus.Created, null,
+                    created, null, null, candidate.getFlatParameters(), null);
+            currentStatus.put(candidate.getIndex(), status);
+        }
+
+        for (StatusListener listener : statusListeners) {
+            listener.onCandidateStatusChange(status, this, null);
+        }
+    }
+
+    /**
+     * Track a submitted task: its result will be processed once it completes
+     */
+    protected void schedule(ListenableFuture<OptimizationResult> future) {
+        future.addListener(new OnCompletionListener(future), futureListenerExecutor);
+        queuedFutures.add(future);
+    }
+
+    /**
+     * Called for every task that returned successfully, before it is recorded as complete.
+     *
+     * @param result Result of the task
+     * @return True if the candidate is complete, false if this is an intermediate result (for example, after a
+     * partial training budget) in which case the candidate is neither counted as completed nor used for the best score,
+     * nor reported to the candidate generator
+     */
+    protected boolean onTaskResult(OptimizationResult result) {
+        return true;
+    }
+
     private CandidateInfo processFailedCandidates(Candidate<?> candidate) {
         //In case the candidate fails during the creation of the candidate
 
@@ -215,49 +248,63 @@ public abstract class BaseOptimizationRunner implements IOptimizationRunner {
             throw new RuntimeException(e); //TODO
         }
 
+        boolean failed = result.getCandidateInfo().getCandidateStatus() == CandidateStatus.Failed;
+        boolean complete = failed || onTaskResult(result);
+
         //Update internal status:
         CandidateInfo status = currentStatus.get(result.getIndex());
-        CandidateInfo newStatus = new CandidateInfo(result.getIndex(), result.getCandidateInfo().getCandidateStatus(),
+        CandidateInfo newStatus = new CandidateInfo(result.getIndex(),
+                complete ? result.getCandidateInfo().getCandidateStatus() : CandidateStatus.Running,
                 result.getScore(), status.getCreatedTime(), result.getCandidateInfo().getStartTime(),
-                currentTime, status.getFlatParams(), result.getCandidateInfo().getExceptionStackTrace());
+                complete ? currentTime : null, status.getFlatParams(), result.getCandidateInfo().getExceptionStackTrace());
         currentStatus.put(result.getIndex(), newStatus);
 
         //Listeners (on complete, etc) should be executed in underlying task
 
 
-        if (result.getCandidateInfo().getCandidateStatus() == CandidateStatus.Failed) {
+        if (failed) {
             log.info("Task {} failed during execution: {}", result.getIndex(), result.getCandidateInfo().getExceptionStackTrace());
             numCandidatesFailed.getAndIncrement();
+        } else if (complete) {
+            recordCompletedResult(result);
         } else {
+            //Only final results are reported to the candidate generator, once per candidate
+            log.info("Task {} returned intermediate score = {}", result.getIndex(), result.getScore());
+        }
+    }
 
-            //Report completion to candidate generator
-            config.getCandidateGenerator().reportResults(result);
-
-            Double score = result.getScore();
-            log.info("Completed task {}, score = {}", result.getIndex(), result.getScore());
-
-            boolean minimize = config.getScoreFunction().minimize();
-            if (score != null && (bestScore == null
-                    || ((minimize && score < bestScore) || (!minimize && score > bestScore)))) {
-                if (bestScore == null) {
-                    log.info("New best score: {} (first completed model)", score);
-                } else {
-                    int idx = result.getIndex();
-                    int lastBestIdx = bestScoreCandidateIndex.get();
-                    log.info("New best score: {}, model {} (prev={}, model {})", score, idx, bestScore, lastBestIdx);
-                }
-                bestScore = score;
-                bestScoreTime = System.currentTimeMillis();
-                bestScoreCandidateIndex.set(result.getIndex());
+    /**
+     * Record the final result of a candidate: report it to the candidate generator, update the best score
+     * and keep its result reference
+     */
+    protected void recordCompletedResult(OptimizationResult result) {
+        //Report completion to candidate generator
+        config.getCandidateGenerator().reportResults(result);
+
+        Double score = result.getScore();
+        log.info("Completed task {}, score = {}", result.getIndex(), result.getScore());
+
+        boolean minimize = config.getScoreFunction().minimize();
+        if (score != null && (bestScore == null
+                || ((minimize && score < bestScore) || (!minimize && score > bestScore)))) {
+            if (bestScore == null) {
+                log.info("New best score: {} (first completed model)", score);
+            } else {
+                int idx = result.getIndex();
+                int lastBestIdx = bestScoreCandidateIndex.get();
+                log.info("New best score: {}, model {} (prev={}, model {})", score, idx, bestScore, lastBestIdx);
             }
-            numCandidatesCompleted.getAndIncrement();
+            bestScore = score;
+            bestScoreTime = System.currentTimeMillis();
+            bestScoreCandidateIndex.set(result.getIndex());
+        }
+        numCandidatesCompleted.getAndIncrement();
 
-            //Model saving is done in the optimization tasks, to avoid CUDA threading issues
-            ResultReference resultReference = result.getResultReference();
+        //Model saving is done in the optimization tasks, to avoid CUDA threading issues
+        ResultReference resultReference = result.getResultReference();
 
-            if (resultReference != null)
-                allResults.add(resultReference);
-        }
+        if (resultReference != null)
+            allResults.add(resultReference);
     }
 
     @Override
@@ -336,7 +383,7 @@ public abstract class BaseOptimizationRunner implements IOptimizationRunner {
         return list;
     }
 
-    private boolean terminate() {
+    protected boolean terminate() {
         for (TerminationCondition c : config.getTerminationConditions()) {
             if (c.terminate(this)) {
                 log.info("BaseOptimizationRunner global termination condition hit: {}", c);
@@ -96,11 +96,18 @@ public class LocalOptimizationRunner extends BaseOptimizationRunner {
         for (Candidate candidate : candidates) {
             Callable<OptimizationResult> task =
                             taskCreator.create(candidate, dataProvider, scoreFunction, statusListeners, this);
-            list.add(executor.submit(task));
+            list.add(submit(task));
         }
         return list;
     }
 
+    /**
+     * Submit a task to the local executor
+     */
+    protected ListenableFuture<OptimizationResult> submit(Callable<OptimizationResult> task) {
+        return executor.submit(task);
+    }
+
     @Override
     public void shutdown(boolean awaitTermination) {
         if(awaitTermination){
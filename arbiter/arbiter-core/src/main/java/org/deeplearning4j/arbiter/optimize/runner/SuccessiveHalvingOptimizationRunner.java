@@ -0,0 +1,346 @@
+/*-
+ *
+ *  * Copyright 2016 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ */
+package org.deeplearning4j.arbiter.optimize.runner;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.deeplearning4j.arbiter.optimize.api.BudgetedTaskCreator;
+import org.deeplearning4j.arbiter.optimize.api.Candidate;
+import org.deeplearning4j.arbiter.optimize.api.OptimizationResult;
+import org.deeplearning4j.arbiter.optimize.api.data.DataProvider;
+import org.deeplearning4j.arbiter.optimize.api.saving.ResultReference;
+import org.deeplearning4j.arbiter.optimize.api.score.ScoreFunction;
+import org.deeplearning4j.arbiter.optimize.config.OptimizationConfiguration;
+import org.deeplearning4j.arbiter.optimize.runner.listener.StatusListener;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+/**
+ * SuccessiveHalvingOptimizationRunner: execute hyperparameter optimization locally, using asynchronous successive
+ * halving (ASHA - see <a href="https://arxiv.org/abs/1810.05934">https://arxiv.org/abs/1810.05934</a>).<br>
+ * Candidates are first trained for a small budget (minBudget - for example, a number of epochs). Candidates in the
+ * top 1/reductionFactor of a rung (according to the ScoreFunction) are promoted to the next rung, and trained
+ * further - resuming from the checkpoint returned by the previous task - for reductionFactor times the budget, up
+ * to maxBudget. Candidates that are never promoted are stopped early.<br>
+ * Promotions are made asynchronously: whenever a worker is free, the runner promotes a candidate from the highest
+ * possible rung, or samples a new candidate otherwise; hence all workers are kept busy.<br>
+ * <br>
+ * Note that termination conditions only stop the sampling of new candidates: the runner then finishes promoting the
+ * candidates already sampled. Only candidates trained for maxBudget, or stopped early at the end of the search,
+ * are counted as completed.<br>
+ * <br>
+ * If a {@link org.deeplearning4j.arbiter.optimize.api.saving.ResultSaver} is configured, the checkpoints of candidates
+ * waiting for promotion are not kept in memory: they are loaded back from the saved result when the candidate is
+ * promoted. Otherwise, the in-memory checkpoints are kept until the candidate is promoted or stopped. Candidates
+ * that can no longer be promoted (once no more candidates can reach their rung) are stopped as soon as possible.
+ * Note that the saved model of an intermediate rung is replaced when the promoted candidate is saved again (for
+ * example, {@code FileModelSaver} saves to one directory per candidate index).
+ */
+@Slf4j
+public class SuccessiveHalvingOptimizationRunner extends LocalOptimizationRunner {
+
+    public static final int DEFAULT_REDUCTION_FACTOR = 3;
+
+    private final BudgetedTaskCreator budgetedTaskCreator;
+    private final int reductionFactor;
+    private final int[] budgets;
+
+    //Scores of the candidates that reached each rung
+    private final List<Map<Integer, Double>> rungScores;
+    //Candidates not promoted (yet) from the highest rung they reached. Their results don't hold the checkpoint
+    private final Map<Integer, Pending> pending = new HashMap<>();
+    //Rung of the currently scheduled tasks
+    private final Map<Integer, Integer> runningRung = new HashMap<>();
+    //Candidate index of the scheduled tasks, to drop the tasks that failed without calling onTaskResult
+    private final Map<Future<OptimizationResult>, Integer> runningTasks = new HashMap<>();
+    private boolean samplingStopped = false;
+
+    public SuccessiveHalvingOptimizationRunner(int maxConcurrentTasks, OptimizationConfiguration config,
+                    BudgetedTaskCreator taskCreator, int minBudget, int maxBudget) {
+        this(maxConcurrentTasks, config, taskCreator, minBudget, maxBudget, DEFAULT_REDUCTION_FACTOR);
+    }
+
+    /**
+     * @param maxConcurrentTasks Maximum number of tasks (new candidates and promotions) executed in parallel
+     * @param config             Optimization configuration
+     * @param taskCreator        Task creator, for training candidates for a given budget
+     * @param minBudget          Budget of the first rung
+     * @param maxBudget          Budget of the last rung
+     * @param reductionFactor    Budget multiplier between rungs: the top 1/reductionFactor candidates are promoted
+     */
+    public SuccessiveHalvingOptimizationRunner(int maxConcurrentTasks, OptimizationConfiguration config,
+                    BudgetedTaskCreator taskCreator, int minBudget, int maxBudget, int reductionFactor) {
+        super(maxConcurrentTasks, config, taskCreator);
+        if (minBudget <= 0 || maxBudget < minBudget)
+            throw new IllegalArgumentException("Invalid budgets: must have 0 < minBudget <= maxBudget (got minBudget="
+                            + minBudget + ", maxBudget=" + maxBudget + ")");
+        if (reductionFactor < 2)
+            throw new IllegalArgumentException("reductionFactor must be >= 2 (got: " + reductionFactor + ")");
+        this.budgetedTaskCreator = taskCreator;
+        this.reductionFactor = reductionFactor;
+
+        List<Integer> b = new ArrayList<>();
+        long budget = minBudget;
+        while (budget < maxBudget) {
+            b.add((int) budget);
+            budget *= reductionFactor;
+        }
+        b.add(maxBudget);
+        budgets = new int[b.size()];
+        rungScores = new ArrayList<>(budgets.length);
+        for (int i = 0; i < budgets.length; i++) {
+            budgets[i] = b.get(i);
+            rungScores.add(new HashMap<Integer, Double>());
+        }
+        log.info("Successive halving budgets: {}", Arrays.toString(budgets));
+    }
+
+    /**
+     * @return The budget of each rung
+     */
+    public int[] getBudgets() {
+        return budgets.clone();
+    }
+
+    @Override
+    protected List<ListenableFuture<OptimizationResult>> execute(List<Candidate> candidates, DataProvider dataProvider,
+                    ScoreFunction scoreFunction) {
+        List<ListenableFuture<OptimizationResult>> list = new ArrayList<>(candidates.size());
+        for (Candidate candidate : candidates) {
+            Callable<OptimizationResult> task = budgetedTaskCreator.create(candidate, dataProvider, scoreFunction,
+                            statusListeners, this, 0, budgets[0], null);
+            ListenableFuture<OptimizationResult> future = submit(task);
+            runningRung.put(candidate.getIndex(), 0);
+            runningTasks.put(future, candidate.getIndex());
+            list.add(future);
+        }
+        return list;
+    }
+
+    @Override
+    protected boolean hasMoreTasks() {
+        if (nextPromotion() != null) {
+            return true;
+        }
+        //Termination conditions are checked before every new candidate, not only once per scheduling round
+        checkSamplingStopped();
+        return !samplingStopped && super.hasMoreTasks();
+    }
+
+    @Override
+    protected void scheduleNextTask() {
+        Integer index = nextPromotion();
+        if (index == null) {
+            super.scheduleNextTask();
+            return;
+        }
+
+        Pending p = pending.remove(index);
+        int next = p.rung + 1;
+        Object checkpoint = p.checkpoint;
+        ResultReference reference = p.result.getResultReference();
+        if (checkpoint == null && reference != null) {
+            try {
+                checkpoint = reference.getResultModel();
+            } catch (IOException e) {
+                log.warn("Error loading checkpoint of candidate {}, training from scratch", index, e);
+            }
+        }
+        int previousBudget = (checkpoint == null ? 0 : budgets[p.rung]);
+        log.info("Promoting candidate {} to rung {} (budget {}), score at rung {} = {}", index, next, budgets[next],
+                        p.rung, p.result.getScore());
+
+        Callable<OptimizationResult> task = budgetedTaskCreator.create(p.result.getCandidate(),
+                        config.getDataProvider(), config.getScoreFunction(), statusListeners, this, previousBudget,
+                        budgets[next], checkpoint);
+        ListenableFuture<OptimizationResult> future = submit(task);
+        //The previous task of this candidate was processed already: don't let it remove the new one
+        dropFinishedTasks();
+        runningRung.put(index, next);
+        runningTasks.put(future, index);
+        schedule(future);
+
+        CandidateInfo status = currentStatus.get(index);
+        for (StatusListener listener : statusListeners) {
+            listener.onCandidateStatusChange(status, this, null);
+        }
+    }
+
+    @Override
+    protected boolean onTaskResult(OptimizationResult result) {
+        Integer rung = runningRung.remove(result.getIndex());
+        Object checkpoint = result.getCheckpoint();
+        result.setCheckpoint(null);
+        if (rung == null || rung == budgets.length - 1) {
+            return true;
+        }
+        rungScores.get(rung).put(result.getIndex(), result.getScore());
+        //Saved checkpoints are loaded back on promotion
+        Object inMemory = (result.getResultReference() == null ? checkpoint : null);
+        pending.put(result.getIndex(), new Pending(rung, result, inMemory));
+        return false;
+    }
+
+    @Override
+    protected boolean terminate() {
+        checkSamplingStopped();
+
+        boolean noNewCandidates = samplingStopped || !config.getCandidateGenerator().hasMoreCandidates();
+        stopNonPromotable(noNewCandidates);
+        if (!noNewCandidates || !queuedFutures.isEmpty() || nextPromotion() != null) {
+            return false;
+        }
+
+        for (Pending p : new ArrayList<>(pending.values())) {
+            stop(p);
+        }
+        return true;
+    }
+
+    /**
+     * Stop the pending candidates that can no longer be promoted: once no more candidates can reach a rung, only
+     * the top 1/reductionFactor of its candidates will ever be promoted
+     */
+    private void stopNonPromotable(boolean noNewCandidates) {
+        dropFinishedTasks();
+        Set<Integer> running = new HashSet<>(runningRung.values());
+        boolean open = !noNewCandidates;
+        for (int rung = 0; rung < budgets.length - 1; rung++) {
+            open |= running.contains(rung);
+            if (open) {
+                return;
+            }
+
+            List<Integer> ranked = rank(rung);
+            int numToPromote = ranked.size() / reductionFactor;
+            for (int i = 0; i < ranked.size(); i++) {
+                Pending p = pending.get(ranked.get(i));
+                if (p == null || p.rung != rung) {
+                    continue;
+                }
+                if (i >= numToPromote || !isValid(rungScores.get(rung).get(ranked.get(i)))) {
+                    stop(p);
+                } else {
+                    //Still to be promoted: the next rung will receive more candidates
+                    open = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Forget the tasks that were processed already. Failed tasks (which don't go through onTaskResult) would otherwise
+     * keep their rung open forever
+     */
+    private void dropFinishedTasks() {
+        Iterator<Map.Entry<Future<OptimizationResult>, Integer>> iter = runningTasks.entrySet().iterator();
+        while (iter.hasNext()) {
+            Map.Entry<Future<OptimizationResult>, Integer> e = iter.next();
+            if (!queuedFutures.contains(e.getKey())) {
+                runningRung.remove(e.getValue());
+                iter.remove();
+            }
+        }
+    }
+
+    /**
+     * Candidates never promoted to the last rung are stopped early: their last result is their final one
+     */
+    private void stop(Pending p) {
+        pending.remove(p.result.getIndex());
+        recordCompletedResult(p.result);
+        CandidateInfo status = currentStatus.get(p.result.getIndex());
+        CandidateInfo newStatus = new CandidateInfo(status.getIndex(), CandidateStatus.Complete, status.getScore(),
+                        status.getCreatedTime(), status.getStartTime(), System.currentTimeMillis(),
+                        status.getFlatParams(), null);
+        currentStatus.put(status.getIndex(), newStatus);
+        for (StatusListener listener : statusListeners) {
+            listener.onCandidateStatusChange(newStatus, this, p.result);
+        }
+    }
+
+    private void checkSamplingStopped() {
+        if (!samplingStopped && super.terminate()) {
+            log.info("Sampling of new candidates stopped, promoting {} remaining candidates", pending.size());
+            samplingStopped = true;
+        }
+    }
+
+    /**
+     * @return Index of the next candidate to promote (from the highest rung possible), or null if no candidate can be
+     * promoted at this point
+     */
+    private Integer nextPromotion() {
+        for (int rung = budgets.length - 2; rung >= 0; rung--) {
+            List<Integer> ranked = rank(rung);
+            int numToPromote = ranked.size() / reductionFactor;
+            for (int i = 0; i < numToPromote; i++) {
+                Integer index = ranked.get(i);
+                if (!isValid(rungScores.get(rung).get(index))) {
+                    break;
+                }
+                Pending p = pending.get(index);
+                //Candidates of this rung that are not pending here have already been promoted
+                if (p != null && p.rung == rung) {
+                    return index;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return Indexes of the candidates that reached the rung, best score first
+     */
+    private List<Integer> rank(int rung) {
+        final boolean minimize = config.getScoreFunction().minimize();
+        final Map<Integer, Double> scores = rungScores.get(rung);
+        List<Integer> sorted = new ArrayList<>(scores.keySet());
+        Collections.sort(sorted, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer i1, Integer i2) {
+                Double s1 = scores.get(i1);
+                Double s2 = scores.get(i2);
+                //Missing or NaN scores are never promoted
+                boolean invalid1 = !isValid(s1);
+                boolean invalid2 = !isValid(s2);
+                if (invalid1 || invalid2) {
+                    return Boolean.compare(invalid1, invalid2);
+                }
+                return minimize ? Double.compare(s1, s2) : Double.compare(s2, s1);
+            }
+        });
+        return sorted;
+    }
+
+    private static boolean isValid(Double score) {
+        return score != null && !Double.isNaN(score);
+    }
+
+    @AllArgsConstructor
+    private static class Pending {
+        private final int rung;
+        private final OptimizationResult result;
+        //In-memory checkpoint, only when the result hasn't been saved
+        private final Object checkpoint;
+    }
+}
@@ -0,0 +1,233 @@
+/*-
+ *  * Copyright 2016 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.deeplearning4j.arbiter.optimize;
+
+import org.deeplearning4j.arbiter.optimize.api.*;
+import org.deeplearning4j.arbiter.optimize.api.data.DataProvider;
+import org.deeplearning4j.arbiter.optimize.api.data.DataSetIteratorFactoryProvider;
+import org.deeplearning4j.arbiter.optimize.api.saving.InMemoryResultSaver;
+import org.deeplearning4j.arbiter.optimize.api.saving.ResultReference;
+import org.deeplearning4j.arbiter.optimize.api.saving.ResultSaver;
+import org.deeplearning4j.arbiter.optimize.api.score.ScoreFunction;
+import org.deeplearning4j.arbiter.optimize.api.termination.MaxCandidatesCondition;
+import org.deeplearning4j.arbiter.optimize.config.OptimizationConfiguration;
+import org.deeplearning4j.arbiter.optimize.generator.RandomSearchGenerator;
+import org.deeplearning4j.arbiter.optimize.runner.CandidateInfo;
+import org.deeplearning4j.arbiter.optimize.runner.CandidateStatus;
+import org.deeplearning4j.arbiter.optimize.runner.IOptimizationRunner;
+import org.deeplearning4j.arbiter.optimize.runner.SuccessiveHalvingOptimizationRunner;
+import org.deeplearning4j.arbiter.optimize.runner.listener.BaseStatusListener;
+import org.deeplearning4j.arbiter.optimize.runner.listener.StatusListener;
+import org.deeplearning4j.arbiter.optimize.runner.listener.impl.LoggingStatusListener;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test successive halving on the Branin Function, with a score that improves with the training budget
+ */
+public class TestSuccessiveHalving {
+
+    @Test
+    public void testPromotions() throws Exception {
+        Map<String, Object> commands = new HashMap<>();
+        commands.put(DataSetIteratorFactoryProvider.FACTORY_KEY, new HashMap<>());
+
+        ReportingGenerator candidateGenerator = new ReportingGenerator(commands);
+        OptimizationConfiguration configuration = new OptimizationConfiguration.Builder()
+                        .candidateGenerator(candidateGenerator).scoreFunction(new TestGridSearch.BraninScoreFunction())
+                        .terminationConditions(new MaxCandidatesCondition(27)).build();
+
+        BudgetedBraninTaskCreator taskCreator = new BudgetedBraninTaskCreator();
+        SuccessiveHalvingOptimizationRunner runner =
+                        new SuccessiveHalvingOptimizationRunner(4, configuration, taskCreator, 1, 9, 3);
+        assertArrayEquals(new int[] {1, 3, 9}, runner.getBudgets());
+
+        runner.addListeners(new LoggingStatusListener());
+        runner.execute();
+
+        assertTrue(taskCreator.errors.toString(), taskCreator.errors.isEmpty());
+        assertEquals(27, runner.numCandidatesTotal());
+        assertEquals(27, runner.numCandidatesCompleted());
+        assertEquals(27, taskCreator.tasksPerBudget.get(1).get());
+        //Promotions are asynchronous: at least the final top 1/3 of each rung has been promoted
+        int rung1 = taskCreator.tasksPerBudget.get(3).get();
+        int rung2 = taskCreator.tasksPerBudget.get(9).get();
+        assertTrue(String.valueOf(rung1), rung1 >= 9 && rung1 < 27);
+        assertTrue(String.valueOf(rung2), rung2 >= rung1 / 3 && rung2 < rung1);
+
+        for (CandidateInfo ci : runner.getCandidateStatus()) {
+            assertEquals(CandidateStatus.Complete, ci.getCandidateStatus());
+        }
+
+        //Intermediate results aren't reported to the candidate generator: only the final result of each candidate
+        assertEquals(27, candidateGenerator.reported.size());
+        assertEquals(27, new HashSet<>(candidateGenerator.reported).size());
+    }
+
+    @Test
+    public void testFailedCandidates() throws Exception {
+        Map<String, Object> commands = new HashMap<>();
+        commands.put(DataSetIteratorFactoryProvider.FACTORY_KEY, new HashMap<>());
+
+        CandidateGenerator candidateGenerator = new RandomSearchGenerator(new TestGridSearch.BraninSpace(), commands);
+        OptimizationConfiguration configuration = new OptimizationConfiguration.Builder()
+                        .candidateGenerator(candidateGenerator).scoreFunction(new TestGridSearch.BraninScoreFunction())
+                        .terminationConditions(new MaxCandidatesCondition(27)).build();
+
+        //Some candidates return a failed result, others throw an exception
+        BudgetedBraninTaskCreator taskCreator = new BudgetedBraninTaskCreator(9);
+        SuccessiveHalvingOptimizationRunner runner =
+                        new SuccessiveHalvingOptimizationRunner(4, configuration, taskCreator, 1, 9, 3);
+        final List<String> events = taskCreator.events;
+        runner.addListeners(new BaseStatusListener() {
+            @Override
+            public void onCandidateStatusChange(CandidateInfo candidateInfo, IOptimizationRunner runner,
+                            OptimizationResult result) {
+                if (candidateInfo.getCandidateStatus() == CandidateStatus.Complete) {
+                    events.add("stop, queued: " + runner.numCandidatesQueued());
+                }
+            }
+        });
+        runner.execute();
+
+        assertTrue(taskCreator.errors.toString(), taskCreator.errors.isEmpty());
+        assertEquals(27, runner.numCandidatesTotal());
+        assertEquals(6, runner.numCandidatesFailed());
+        assertEquals(21, runner.numCandidatesCompleted());
+
+        //Failed tasks must not keep their rung open: non-promotable candidates are still stopped early, while
+        // promoted candidates are still training (and not only once all tasks are done)
+        String firstStop = null;
+        for (String e : events) {
+            if (e.startsWith("stop")) {
+                firstStop = e;
+                break;
+            }
+        }
+        assertNotNull(events.toString(), firstStop);
+        assertNotEquals(events.toString(), "stop, queued: 0", firstStop);
+    }
+
+    @Test
+    public void testPromotionsWithResultSaver() throws Exception {
+        Map<String, Object> commands = new HashMap<>();
+        commands.put(DataSetIteratorFactoryProvider.FACTORY_KEY, new HashMap<>());
+
+        //Checkpoints are only returned through the result saver: they have to be loaded back on promotion
+        CandidateGenerator candidateGenerator = new RandomSearchGenerator(new TestGridSearch.BraninSpace(), commands);
+        OptimizationConfiguration configuration = new OptimizationConfiguration.Builder()
+                        .candidateGenerator(candidateGenerator).scoreFunction(new TestGridSearch.BraninScoreFunction())
+                        .modelSaver(new InMemoryResultSaver())
+                        .terminationConditions(new MaxCandidatesCondition(27)).build();
+
+        BudgetedBraninTaskCreator taskCreator = new BudgetedBraninTaskCreator();
+        SuccessiveHalvingOptimizationRunner runner =
+                        new SuccessiveHalvingOptimizationRunner(4, configuration, taskCreator, 1, 9, 3);
+        runner.execute();
+
+        assertTrue(taskCreator.errors.toString(), taskCreator.errors.isEmpty());
+        assertEquals(27, runner.numCandidatesCompleted());
+        assertEquals(27, runner.getResults().size());
+        assertTrue(taskCreator.tasksPerBudget.get(9).get() >= 1);
+
+        for (ResultReference reference : runner.getResults()) {
+            assertNull(reference.getResult().getCheckpoint());
+        }
+    }
+
+    public static class BudgetedBraninTaskCreator extends TestGridSearch.BraninTaskCreator
+                    implements BudgetedTaskCreator {
+
+        private final Map<Integer, AtomicInteger> tasksPerBudget = new ConcurrentHashMap<>();
+        private final List<String> errors = new CopyOnWriteArrayList<>();
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        //If > 0: candidates with index % failEvery == 1 return a failed result, == 2 throw an exception
+        private final int failEvery;
+
+        public BudgetedBraninTaskCreator() {
+            this(0);
+        }
+
+        public BudgetedBraninTaskCreator(int failEvery) {
+            this.failEvery = failEvery;
+            for (int b : new int[] {1, 3, 9}) {
+                tasksPerBudget.put(b, new AtomicInteger());
+            }
+        }
+
+        @Override
+        public Callable<OptimizationResult> create(final Candidate c, DataProvider dataProvider,
+                        final ScoreFunction scoreFunction, List<StatusListener> statusListeners,
+                        final IOptimizationRunner runner, final int previousBudget, final int budget,
+                        final Object checkpoint) {
+            return new Callable<OptimizationResult>() {
+                @Override
+                public OptimizationResult call() throws Exception {
+                    tasksPerBudget.get(budget).getAndIncrement();
+                    events.add("start:" + budget);
+                    if (failEvery > 0 && c.getIndex() % failEvery == 2) {
+                        throw new IllegalStateException("Candidate " + c.getIndex() + " failed");
+                    }
+                    if (failEvery > 0 && c.getIndex() % failEvery == 1) {
+                        CandidateInfo ci = new CandidateInfo(-1, CandidateStatus.Failed, null,
+                                        System.currentTimeMillis(), null, null, null, "Candidate failed");
+                        return new OptimizationResult(c, null, c.getIndex(), null, ci, null);
+                    }
+                    int trained = (checkpoint == null ? 0 : (Integer) checkpoint);
+                    if (trained != previousBudget) {
+                        errors.add("Candidate " + c.getIndex() + ": resumed from " + trained + ", expected "
+                                        + previousBudget);
+                    }
+
+                    double score = scoreFunction.score(c.getValue(), null, null) + 10.0 / budget;
+                    Thread.sleep(10L * (budget - trained));
+
+                    CandidateInfo ci = new CandidateInfo(-1, CandidateStatus.Complete, score,
+                                    System.currentTimeMillis(), null, null, null, null);
+                    OptimizationResult result = new OptimizationResult(c, score, c.getIndex(), null, ci, null);
+                    ResultSaver saver = runner.getConfiguration().getResultSaver();
+                    if (saver != null) {
+                        result.setResultReference(saver.saveModel(result, budget));
+                    } else {
+                        result.setCheckpoint(budget);
+                    }
+                    return result;
+                }
+            };
+        }
+    }
+
+    private static class ReportingGenerator extends RandomSearchGenerator {
+        private final List<Integer> reported = new CopyOnWriteArrayList<>();
+
+        private ReportingGenerator(Map<String, Object> commands) {
+            super(new TestGridSearch.BraninSpace(), commands);
+        }
+
+        @Override
+        public void reportResults(OptimizationResult result) {
+            reported.add(result.getIndex());
+        }
+    }
+}
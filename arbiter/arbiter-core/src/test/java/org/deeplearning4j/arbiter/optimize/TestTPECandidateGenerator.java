@@ -0,0 +1,182 @@
+/*-
+ *  * Copyright 2016 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.deeplearning4j.arbiter.optimize;
+
+import org.apache.commons.math3.distribution.EnumeratedIntegerDistribution;
+import org.deeplearning4j.arbiter.optimize.api.Candidate;
+import org.deeplearning4j.arbiter.optimize.api.OptimizationResult;
+import org.deeplearning4j.arbiter.optimize.generator.TPECandidateGenerator;
+import org.deeplearning4j.arbiter.optimize.parameter.discrete.DiscreteParameterSpace;
+import org.deeplearning4j.arbiter.optimize.parameter.integer.IntegerParameterSpace;
+import org.deeplearning4j.arbiter.optimize.runner.CandidateInfo;
+import org.deeplearning4j.arbiter.optimize.runner.CandidateStatus;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TestTPECandidateGenerator {
+
+    @Rule
+    public TemporaryFolder testDir = new TemporaryFolder();
+
+    @Test
+    public void testBranin() {
+        TestGridSearch.BraninScoreFunction sf = new TestGridSearch.BraninScoreFunction();
+        TPECandidateGenerator generator = new TPECandidateGenerator(new TestGridSearch.BraninSpace(), true);
+        generator.setRngSeed(12345);
+
+        double bestInitial = Double.MAX_VALUE;
+        double best = Double.MAX_VALUE;
+        for (int i = 0; i < 100; i++) {
+            Candidate c = generator.getCandidate();
+            double score = sf.score(c.getValue(), null, null);
+            generator.reportResults(result(c, score));
+            if (i < TPECandidateGenerator.DEFAULT_NUM_INITIAL_CANDIDATES)
+                bestInitial = Math.min(bestInitial, score);
+            best = Math.min(best, score);
+        }
+
+        //Global minimum: 0.397887
+        assertTrue(String.valueOf(best), best < bestInitial);
+        assertTrue(String.valueOf(best), best < 1.0);
+    }
+
+    @Test
+    public void testDiscreteAndInteger() {
+        DiscreteParameterSpace<Integer> discrete = new DiscreteParameterSpace<>(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+        TPECandidateGenerator generator = new TPECandidateGenerator(discrete, false);
+        generator.setRngSeed(12345);
+
+        int countBest = 0;
+        for (int i = 0; i < 60; i++) {
+            Candidate c = generator.getCandidate();
+            int v = (Integer) c.getValue();
+            if (i >= 40 && v == 3)
+                countBest++;
+            //Maximize
+            generator.reportResults(result(c, -(v - 3) * (v - 3)));
+        }
+        assertTrue(String.valueOf(countBest), countBest >= 10);
+
+        generator = new TPECandidateGenerator(new IntegerParameterSpace(0, 20), true);
+        generator.setRngSeed(12345);
+        for (int i = 0; i < 40; i++) {
+            Candidate c = generator.getCandidate();
+            int v = (Integer) c.getValue();
+            assertTrue(v >= 0 && v <= 20);
+            generator.reportResults(result(c, Math.abs(v - 17)));
+        }
+    }
+
+    @Test
+    public void testIntegerDistribution() {
+        //Most of the probability mass of the parameter space is far from the best value
+        int[] values = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+        double[] probabilities = {0.3, 0.3, 0.05, 0.05, 0.05, 0.05, 0.05, 0.05, 0.05, 0.05};
+        IntegerParameterSpace space = new IntegerParameterSpace(
+                        new EnumeratedIntegerDistribution(values, probabilities));
+        TPECandidateGenerator generator = new TPECandidateGenerator(space, false);
+        generator.setRngSeed(12345);
+
+        int countBest = 0;
+        for (int i = 0; i < 60; i++) {
+            Candidate c = generator.getCandidate();
+            int v = (Integer) c.getValue();
+            if (i >= 40 && v == 7)
+                countBest++;
+            generator.reportResults(result(c, -(v - 7) * (v - 7)));
+        }
+        assertTrue(String.valueOf(countBest), countBest >= 10);
+    }
+
+    @Test
+    public void testConstantLiar() {
+        TPECandidateGenerator generator = new TPECandidateGenerator(new TestGridSearch.BraninSpace(), true);
+        generator.setRngSeed(12345);
+        TestGridSearch.BraninScoreFunction sf = new TestGridSearch.BraninScoreFunction();
+        for (int i = 0; i < 20; i++) {
+            Candidate c = generator.getCandidate();
+            generator.reportResults(result(c, sf.score(c.getValue(), null, null)));
+        }
+
+        //Batch of proposals for parallel workers, without any result in between: all must be different
+        Candidate[] batch = new Candidate[4];
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = generator.getCandidate();
+            for (int j = 0; j < i; j++) {
+                assertFalse(java.util.Arrays.equals(batch[i].getFlatParameters(), batch[j].getFlatParameters()));
+            }
+        }
+    }
+
+    @Test
+    public void testResumeFromHistory() throws Exception {
+        File f = new File(testDir.newFolder(), "history.csv");
+        TestGridSearch.BraninScoreFunction sf = new TestGridSearch.BraninScoreFunction();
+
+        TPECandidateGenerator generator = new TPECandidateGenerator(new TestGridSearch.BraninSpace(), null, true,
+                        f.getAbsolutePath());
+        for (int i = 0; i < 15; i++) {
+            Candidate c = generator.getCandidate();
+            generator.reportResults(result(c, sf.score(c.getValue(), null, null)));
+        }
+        assertEquals(15, generator.getHistorySize());
+
+        TPECandidateGenerator restored = new TPECandidateGenerator(new TestGridSearch.BraninSpace(), null, true,
+                        f.getAbsolutePath());
+        assertEquals(15, restored.getHistorySize());
+        assertEquals(15, restored.getCandidate().getIndex());
+    }
+
+    @Test
+    public void testHistoryReportedTwice() throws Exception {
+        File f = new File(testDir.newFolder(), "history.csv");
+        TestGridSearch.BraninScoreFunction sf = new TestGridSearch.BraninScoreFunction();
+
+        TPECandidateGenerator generator = new TPECandidateGenerator(new TestGridSearch.BraninSpace(), null, true,
+                        f.getAbsolutePath());
+        for (int i = 0; i < 5; i++) {
+            Candidate c = generator.getCandidate();
+            double score = sf.score(c.getValue(), null, null);
+            generator.reportResults(result(c, score + 1.0));
+            generator.reportResults(result(c, score));
+        }
+        assertEquals(5, generator.getHistorySize());
+
+        List<String> lines = Files.readAllLines(f.toPath(), StandardCharsets.UTF_8);
+        assertEquals(5, lines.size());
+        for (int i = 0; i < 5; i++)
+            assertTrue(lines.get(i), lines.get(i).startsWith(i + ","));
+
+        TPECandidateGenerator restored = new TPECandidateGenerator(new TestGridSearch.BraninSpace(), null, true,
+                        f.getAbsolutePath());
+        assertEquals(5, restored.getHistorySize());
+    }
+
+    private static OptimizationResult result(Candidate c, double score) {
+        CandidateInfo ci = new CandidateInfo(c.getIndex(), CandidateStatus.Complete, score, 0, null, null,
+                        c.getFlatParameters(), null);
+        return new OptimizationResult(c, score, c.getIndex(), null, ci, null);
+    }
+}
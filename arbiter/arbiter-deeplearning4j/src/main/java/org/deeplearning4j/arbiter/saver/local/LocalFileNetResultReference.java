@@ -88,11 +88,12 @@ public class LocalFileNetResultReference implements ResultReference {
 
     @Override
     public Object getResultModel() throws IOException {
+        //Updater state is restored too, as the model may be used to resume training (successive halving)
         Model m;
         if (isGraph) {
-            m = ModelSerializer.restoreComputationGraph(modelFile, false);
+            m = ModelSerializer.restoreComputationGraph(modelFile, true);
         } else {
-            m = ModelSerializer.restoreMultiLayerNetwork(modelFile, false);
+            m = ModelSerializer.restoreMultiLayerNetwork(modelFile, true);
         }
         return m;
     }
@@ -27,7 +27,7 @@ import org.deeplearning4j.arbiter.GraphConfiguration;
 import org.deeplearning4j.arbiter.listener.DL4JArbiterStatusReportingListener;
 import org.deeplearning4j.arbiter.optimize.api.Candidate;
 import org.deeplearning4j.arbiter.optimize.api.OptimizationResult;
-import org.deeplearning4j.arbiter.optimize.api.TaskCreator;
+import org.deeplearning4j.arbiter.optimize.api.BudgetedTaskCreator;
 import org.deeplearning4j.arbiter.optimize.api.data.DataProvider;
 import org.deeplearning4j.arbiter.optimize.api.evaluation.ModelEvaluator;
 import org.deeplearning4j.arbiter.optimize.api.saving.ResultReference;
@@ -43,6 +43,7 @@ import org.deeplearning4j.earlystopping.EarlyStoppingResult;
 import org.deeplearning4j.earlystopping.trainer.EarlyStoppingGraphTrainer;
 import org.deeplearning4j.nn.api.Model;
 import org.deeplearning4j.nn.graph.ComputationGraph;
+import org.deeplearning4j.optimize.api.TrainingListener;
 import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
 import org.nd4j.linalg.dataset.api.iterator.MultiDataSetIterator;
 import org.nd4j.linalg.factory.Nd4j;
@@ -50,6 +51,7 @@ import org.nd4j.linalg.function.BiConsumer;
 import org.nd4j.linalg.function.BiFunction;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
 
@@ -61,7 +63,7 @@ import java.util.concurrent.Callable;
 @AllArgsConstructor
 @NoArgsConstructor
 @Slf4j
-public class ComputationGraphTaskCreator implements TaskCreator {
+public class ComputationGraphTaskCreator implements BudgetedTaskCreator {
 
     private ModelEvaluator modelEvaluator;
     @Getter
@@ -81,6 +83,20 @@ public class ComputationGraphTaskCreator implements TaskCreator {
                 taskListener, runner);
     }
 
+    /**
+     * Train the candidate for a number of epochs: budget - previousBudget epochs, starting from the checkpoint
+     * network if one is provided. The early stopping configuration (if any) is not used, and the trained network is
+     * returned as the checkpoint of the result.
+     */
+    @Override
+    public Callable<OptimizationResult> create(Candidate candidate, DataProvider dataProvider,
+                                               ScoreFunction scoreFunction, List<StatusListener> statusListeners,
+                                               IOptimizationRunner runner, int previousBudget, int budget,
+                                               Object checkpoint) {
+        return new GraphLearningTask(candidate, dataProvider, scoreFunction, modelEvaluator, statusListeners, taskListener,
+                runner, previousBudget, budget, (ComputationGraph) checkpoint);
+    }
+
     @AllArgsConstructor
     private static class GraphLearningTask implements Callable<OptimizationResult> {
 
@@ -91,6 +107,10 @@ public class ComputationGraphTaskCreator implements TaskCreator {
         private List<StatusListener> listeners;
         private TaskListener taskListener;
         private IOptimizationRunner runner;
+        //Budget (number of epochs) of a BudgetedTaskCreator task, -1 otherwise
+        private int previousBudget = 0;
+        private int budget = -1;
+        private ComputationGraph checkpoint;
 
         private long startTime;
 
@@ -106,6 +126,15 @@ public class ComputationGraphTaskCreator implements TaskCreator {
             this.runner = runner;
         }
 
+        public GraphLearningTask(Candidate candidate, DataProvider dataProvider, ScoreFunction scoreFunction,
+                        ModelEvaluator modelEvaluator, List<StatusListener> listeners, TaskListener taskListener,
+                        IOptimizationRunner runner, int previousBudget, int budget, ComputationGraph checkpoint) {
+            this(candidate, dataProvider, scoreFunction, modelEvaluator, listeners, taskListener, runner);
+            this.previousBudget = previousBudget;
+            this.budget = budget;
+            this.checkpoint = checkpoint;
+        }
+
 
         @Override
         public OptimizationResult call() throws Exception {
@@ -150,12 +179,25 @@ public class ComputationGraphTaskCreator implements TaskCreator {
             CandidateInfo ci = new CandidateInfo(candidate.getIndex(), CandidateStatus.Running, null, startTime, startTime,
                     null, candidate.getFlatParameters(), null);
 
-            //Create network
-            ComputationGraph net = new ComputationGraph(((GraphConfiguration) candidate.getValue()).getConfiguration());
-            net.init();
+            ComputationGraph net;
+            if (checkpoint != null) {
+                //Resume training: replace the status listener of the previous task
+                net = checkpoint;
+                List<TrainingListener> netListeners = new ArrayList<>();
+                for (TrainingListener l : net.getListeners()) {
+                    if (!(l instanceof DL4JArbiterStatusReportingListener)) {
+                        netListeners.add(l);
+                    }
+                }
+                net.setListeners(netListeners);
+            } else {
+                //Create network
+                net = new ComputationGraph(((GraphConfiguration) candidate.getValue()).getConfiguration());
+                net.init();
 
-            if(taskListener != null){
-                net = taskListener.preProcess(net, candidate);
+                if(taskListener != null){
+                    net = taskListener.preProcess(net, candidate);
+                }
             }
 
             if (listeners != null) {
@@ -169,7 +211,7 @@ public class ComputationGraphTaskCreator implements TaskCreator {
             EarlyStoppingConfiguration<ComputationGraph> esConfig =
                     ((GraphConfiguration) candidate.getValue()).getEarlyStoppingConfiguration();
             EarlyStoppingResult<ComputationGraph> esResult = null;
-            if (esConfig != null) {
+            if (esConfig != null && budget < 0) {
                 EarlyStoppingGraphTrainer trainer = new EarlyStoppingGraphTrainer(esConfig, net, iterator, null);
                 esResult = trainer.fit();
                 net = esResult.getBestModel(); //Can return null if failed OR if
@@ -187,7 +229,7 @@ public class ComputationGraphTaskCreator implements TaskCreator {
 
             } else {
                 //Fixed number of epochs
-                int nEpochs = ((GraphConfiguration) candidate.getValue()).getNumEpochs();
+                int nEpochs = (budget >= 0 ? budget - previousBudget : ((GraphConfiguration) candidate.getValue()).getNumEpochs());
                 for (int i = 0; i < nEpochs; i++) {
                     net.fit(iterator);
                 }
@@ -196,7 +238,7 @@ public class ComputationGraphTaskCreator implements TaskCreator {
             Nd4j.getExecutioner().commit();
 
             Object additionalEvaluation = null;
-            if (esConfig != null && esResult.getTerminationReason() != EarlyStoppingResult.TerminationReason.Error) {
+            if (esResult != null && esResult.getTerminationReason() != EarlyStoppingResult.TerminationReason.Error) {
                 additionalEvaluation =
                         (modelEvaluator != null ? modelEvaluator.evaluateModel(net, dataProvider) : null);
             }
@@ -212,6 +254,9 @@ public class ComputationGraphTaskCreator implements TaskCreator {
             }
 
             OptimizationResult result = new OptimizationResult(candidate, score, candidate.getIndex(), additionalEvaluation, ci, null);
+            if (budget >= 0) {
+                result.setCheckpoint(net);
+            }
 
             //Save the model:
             ResultSaver saver = runner.getConfiguration().getResultSaver();
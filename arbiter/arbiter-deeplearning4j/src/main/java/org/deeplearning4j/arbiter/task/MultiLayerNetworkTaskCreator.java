@@ -28,7 +28,7 @@ import org.deeplearning4j.arbiter.DL4JConfiguration;
 import org.deeplearning4j.arbiter.listener.DL4JArbiterStatusReportingListener;
 import org.deeplearning4j.arbiter.optimize.api.Candidate;
 import org.deeplearning4j.arbiter.optimize.api.OptimizationResult;
-import org.deeplearning4j.arbiter.optimize.api.TaskCreator;
+import org.deeplearning4j.arbiter.optimize.api.BudgetedTaskCreator;
 import org.deeplearning4j.arbiter.optimize.api.data.DataProvider;
 import org.deeplearning4j.arbiter.optimize.api.evaluation.ModelEvaluator;
 import org.deeplearning4j.arbiter.optimize.api.saving.ResultReference;
@@ -44,12 +44,14 @@ import org.deeplearning4j.earlystopping.EarlyStoppingResult;
 import org.deeplearning4j.earlystopping.trainer.EarlyStoppingTrainer;
 import org.deeplearning4j.nn.api.Model;
 import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.deeplearning4j.optimize.api.TrainingListener;
 import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.function.BiFunction;
 import org.nd4j.util.StringUtils;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
 
@@ -61,7 +63,7 @@ import java.util.concurrent.Callable;
 @AllArgsConstructor
 @NoArgsConstructor
 @Slf4j
-public class MultiLayerNetworkTaskCreator implements TaskCreator {
+public class MultiLayerNetworkTaskCreator implements BudgetedTaskCreator {
 
     private ModelEvaluator modelEvaluator;
     @Getter
@@ -81,6 +83,20 @@ public class MultiLayerNetworkTaskCreator implements TaskCreator {
 
     }
 
+    /**
+     * Train the candidate for a number of epochs: budget - previousBudget epochs, starting from the checkpoint
+     * network if one is provided. The early stopping configuration (if any) is not used, and the trained network is
+     * returned as the checkpoint of the result.
+     */
+    @Override
+    public Callable<OptimizationResult> create(Candidate candidate, DataProvider dataProvider,
+                                               ScoreFunction scoreFunction, List<StatusListener> statusListeners,
+                                               IOptimizationRunner runner, int previousBudget, int budget,
+                                               Object checkpoint) {
+        return new DL4JLearningTask(candidate, dataProvider, scoreFunction, modelEvaluator, statusListeners, taskListener,
+                runner, previousBudget, budget, (MultiLayerNetwork) checkpoint);
+    }
+
 
     private static class DL4JLearningTask implements Callable<OptimizationResult> {
 
@@ -91,6 +107,10 @@ public class MultiLayerNetworkTaskCreator implements TaskCreator {
         private List<StatusListener> listeners;
         private TaskListener taskListener;
         private IOptimizationRunner runner;
+        //Budget (number of epochs) of a BudgetedTaskCreator task, -1 otherwise
+        private int previousBudget = 0;
+        private int budget = -1;
+        private MultiLayerNetwork checkpoint;
 
         private long startTime;
 
@@ -106,6 +126,15 @@ public class MultiLayerNetworkTaskCreator implements TaskCreator {
             this.runner = runner;
         }
 
+        public DL4JLearningTask(Candidate candidate, DataProvider dataProvider, ScoreFunction scoreFunction,
+                        ModelEvaluator modelEvaluator, List<StatusListener> listeners, TaskListener taskListener,
+                        IOptimizationRunner runner, int previousBudget, int budget, MultiLayerNetwork checkpoint) {
+            this(candidate, dataProvider, scoreFunction, modelEvaluator, listeners, taskListener, runner);
+            this.previousBudget = previousBudget;
+            this.budget = budget;
+            this.checkpoint = checkpoint;
+        }
+
 
         @Override
         public OptimizationResult call() {
@@ -150,13 +179,26 @@ public class MultiLayerNetworkTaskCreator implements TaskCreator {
             CandidateInfo ci = new CandidateInfo(candidate.getIndex(), CandidateStatus.Running, null,
                     startTime, startTime, null, candidate.getFlatParameters(), null);
 
-            //Create network
-            MultiLayerNetwork net = new MultiLayerNetwork(
-                            ((DL4JConfiguration) candidate.getValue()).getMultiLayerConfiguration());
-            net.init();
+            MultiLayerNetwork net;
+            if (checkpoint != null) {
+                //Resume training: replace the status listener of the previous task
+                net = checkpoint;
+                List<TrainingListener> netListeners = new ArrayList<>();
+                for (TrainingListener l : net.getListeners()) {
+                    if (!(l instanceof DL4JArbiterStatusReportingListener)) {
+                        netListeners.add(l);
+                    }
+                }
+                net.setListeners(netListeners);
+            } else {
+                //Create network
+                net = new MultiLayerNetwork(
+                                ((DL4JConfiguration) candidate.getValue()).getMultiLayerConfiguration());
+                net.init();
 
-            if(taskListener != null){
-                net = taskListener.preProcess(net, candidate);
+                if(taskListener != null){
+                    net = taskListener.preProcess(net, candidate);
+                }
             }
 
             if (listeners != null) {
@@ -171,7 +213,7 @@ public class MultiLayerNetworkTaskCreator implements TaskCreator {
             EarlyStoppingConfiguration<MultiLayerNetwork> esConfig =
                             ((DL4JConfiguration) candidate.getValue()).getEarlyStoppingConfiguration();
             EarlyStoppingResult<MultiLayerNetwork> esResult = null;
-            if (esConfig != null) {
+            if (esConfig != null && budget < 0) {
                 EarlyStoppingTrainer trainer = new EarlyStoppingTrainer(esConfig, net, dataSetIterator, null);
                 esResult = trainer.fit();
                 net = esResult.getBestModel(); //Can return null if failed OR if
@@ -189,7 +231,7 @@ public class MultiLayerNetworkTaskCreator implements TaskCreator {
 
             } else {
                 //Fixed number of epochs
-                int nEpochs = ((DL4JConfiguration) candidate.getValue()).getNumEpochs();
+                int nEpochs = (budget >= 0 ? budget - previousBudget : ((DL4JConfiguration) candidate.getValue()).getNumEpochs());
                 for (int i = 0; i < nEpochs; i++) {
                     net.fit(dataSetIterator);
                 }
@@ -197,7 +239,7 @@ public class MultiLayerNetworkTaskCreator implements TaskCreator {
             }
 
             Object additionalEvaluation = null;
-            if (esConfig != null && esResult.getTerminationReason() != EarlyStoppingResult.TerminationReason.Error) {
+            if (esResult != null && esResult.getTerminationReason() != EarlyStoppingResult.TerminationReason.Error) {
                 additionalEvaluation =
                                 (modelEvaluator != null ? modelEvaluator.evaluateModel(net, dataProvider) : null);
             }
@@ -213,6 +255,9 @@ public class MultiLayerNetworkTaskCreator implements TaskCreator {
             }
 
             OptimizationResult result = new OptimizationResult(candidate, score, candidate.getIndex(), additionalEvaluation, ci, null);
+            if (budget >= 0) {
+                result.setCheckpoint(net);
+            }
             //Save the model:
             ResultSaver saver = runner.getConfiguration().getResultSaver();
             ResultReference resultReference = null;
@@ -0,0 +1,40 @@
+/*-
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.records.reader;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+
+/**
+ * A record reader that can return minibatches of records directly as a 2d INDArray (one row per record), without
+ * creating any writable.
+ */
+public interface ArrayRecordReader extends RecordReader {
+
+    /**
+     * @return true if {@link #nextArray(int)} can be used for the records of this reader
+     */
+    boolean arrayBatchesSupported();
+
+    /**
+     * Read up to num records into a [numRecords, numColumns] array
+     *
+     * @param num the maximum number of records
+     * @return the records
+     */
+    INDArray nextArray(int num);
+
+}
@@ -0,0 +1,719 @@
+/*-
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.records.reader.impl.csv;
+
+import org.datavec.api.conf.Configuration;
+import org.datavec.api.records.Record;
+import org.datavec.api.records.metadata.RecordMetaData;
+import org.datavec.api.records.metadata.RecordMetaDataIndex;
+import org.datavec.api.records.reader.ArrayRecordReader;
+import org.datavec.api.records.reader.BaseRecordReader;
+import org.datavec.api.split.InputSplit;
+import org.datavec.api.transform.ColumnType;
+import org.datavec.api.transform.schema.Schema;
+import org.datavec.api.writable.*;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.io.*;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Schema aware CSV record reader.
+ *
+ * Unlike {@link CSVRecordReader}, which decodes every line to a String and returns Text writables,
+ * this reader scans the raw bytes of the files through a large buffer and parses the columns straight
+ * to the writable of their {@link ColumnType}: IntWritable, LongWritable, DoubleWritable, FloatWritable and
+ * BooleanWritable (LongWritable for Time columns written as epoch milliseconds), Text for the other columns
+ * and for the values that cannot be parsed as their column type. When all columns are numerical,
+ * {@link #nextArray(int)} parses a minibatch directly into an INDArray without creating any writable.
+ *
+ * A single large file can be parsed in parallel by several readers, each initialized on a range of
+ * bytes with {@link #initialize(File, long, long)} (see {@link #byteRanges(File, int)}): a reader returns the
+ * lines starting in its range. Ranges assume no line break within quoted values.
+ *
+ * The metadata of a record is the byte offset of its line (see {@link RecordMetaDataIndex}).
+ * Files are expected to be UTF-8 (or ASCII) encoded.
+ */
+public class CSVSchemaRecordReader extends BaseRecordReader implements ArrayRecordReader {
+
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    //powers of ten exactly representable as a double
+    private static final double[] POW10 = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12,
+                    1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    private final Schema schema;
+    private final ColumnType[] types;
+    private final int skipNumLines;
+    private final byte delimiter;
+    private final byte quote;
+    private final int bufferSize;
+    private Configuration conf;
+
+    private URI[] locations;
+    private int locationIndex;
+    private long rangeStart = 0;
+    private long rangeEnd = Long.MAX_VALUE;
+    private Cursor cursor;
+
+    //field boundaries of the current line
+    private final int[] fieldStart;
+    private final int[] fieldEnd;
+    private final boolean[] fieldQuoted;
+    //result of the last successful parse
+    private long parsedLong;
+    private double parsedDouble;
+
+    public CSVSchemaRecordReader(Schema schema) {
+        this(schema, 0, CSVRecordReader.DEFAULT_DELIMITER, CSVRecordReader.DEFAULT_QUOTE);
+    }
+
+    public CSVSchemaRecordReader(Schema schema, int skipNumLines, char delimiter) {
+        this(schema, skipNumLines, delimiter, CSVRecordReader.DEFAULT_QUOTE);
+    }
+
+    public CSVSchemaRecordReader(Schema schema, int skipNumLines, char delimiter, char quote) {
+        this(schema, skipNumLines, delimiter, quote, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param schema       the schema of the records
+     * @param skipNumLines number of lines to skip at the beginning of every file
+     * @param delimiter    delimiter character (ASCII)
+     * @param quote        quote character (ASCII)
+     * @param bufferSize   size of the read buffer, grown when a line does not fit in it
+     */
+    public CSVSchemaRecordReader(Schema schema, int skipNumLines, char delimiter, char quote, int bufferSize) {
+        if (delimiter > 127 || quote > 127)
+            throw new IllegalArgumentException("Delimiter and quote must be ASCII characters");
+        this.schema = schema;
+        this.skipNumLines = skipNumLines;
+        this.delimiter = (byte) delimiter;
+        this.quote = (byte) quote;
+        this.bufferSize = bufferSize;
+
+        int numColumns = schema.numColumns();
+        this.types = new ColumnType[numColumns];
+        for (int i = 0; i < numColumns; i++)
+            types[i] = schema.getType(i);
+        this.fieldStart = new int[numColumns];
+        this.fieldEnd = new int[numColumns];
+        this.fieldQuoted = new boolean[numColumns];
+    }
+
+    /**
+     * Split a file in ranges of about the same number of bytes, see {@link #initialize(File, long, long)}
+     * @param file      the file to split
+     * @param numRanges the number of ranges
+     * @return the numRanges + 1 boundaries of the ranges
+     */
+    public static long[] byteRanges(File file, int numRanges) {
+        long length = file.length();
+        long[] ranges = new long[numRanges + 1];
+        for (int i = 0; i <= numRanges; i++)
+            ranges[i] = length * i / numRanges;
+        return ranges;
+    }
+
+    @Override
+    public void initialize(InputSplit split) throws IOException, InterruptedException {
+        this.locations = split.locations();
+        this.rangeStart = 0;
+        this.rangeEnd = Long.MAX_VALUE;
+        reset();
+    }
+
+    @Override
+    public void initialize(Configuration conf, InputSplit split) throws IOException, InterruptedException {
+        setConf(conf);
+        initialize(split);
+    }
+
+    /**
+     * Initialize the reader on the lines of a file starting in [start, end)
+     * @param file  the file to read
+     * @param start first byte of the range
+     * @param end   end (exclusive) of the range
+     */
+    public void initialize(File file, long start, long end) throws IOException {
+        this.locations = new URI[] {file.toURI()};
+        this.rangeStart = start;
+        this.rangeEnd = end;
+        reset();
+    }
+
+    @Override
+    public boolean batchesSupported() {
+        return true;
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            while (true) {
+                if (cursor != null && cursor.lineEnd() >= 0)
+                    return true;
+                if (locations == null || locationIndex >= locations.length - 1)
+                    return false;
+                open(++locationIndex);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public List<Writable> next() {
+        if (!hasNext())
+            throw new NoSuchElementException("No next element found!");
+        List<Writable> ret;
+        try {
+            ret = parseLine(cursor);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        invokeListeners(ret);
+        return ret;
+    }
+
+    @Override
+    public List<List<Writable>> next(int num) {
+        List<List<Writable>> ret = new ArrayList<>(num);
+        while (ret.size() < num && hasNext())
+            ret.add(next());
+        return ret;
+    }
+
+    /**
+     * @return true if all the columns are numerical, that is if {@link #nextArray(int)} can be used
+     */
+    public boolean isNumerical() {
+        for (ColumnType type : types) {
+            if (!isNumerical(type))
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean arrayBatchesSupported() {
+        return isNumerical();
+    }
+
+    /**
+     * Parse up to num records into a [numRecords, numColumns] array, all the columns must be numerical
+     * @param num the maximum number of records
+     * @return the records
+     */
+    @Override
+    public INDArray nextArray(int num) {
+        int numColumns = types.length;
+        for (ColumnType type : types) {
+            if (!isNumerical(type))
+                throw new IllegalStateException("Cannot parse column of type " + type + " into an INDArray");
+        }
+
+        if (!hasNext())
+            throw new NoSuchElementException("No next element found!");
+        double[] data = new double[num * numColumns];
+        int n = 0;
+        try {
+            while (n < num && hasNext()) {
+                int lineStart = cursor.pos;
+                splitFields(cursor);
+                byte[] buf = cursor.buf;
+                for (int c = 0; c < numColumns; c++) {
+                    int start = fieldStart[c];
+                    int end = fieldEnd[c];
+                    boolean ok = types[c] == ColumnType.Double || types[c] == ColumnType.Float
+                                    ? parseDouble(buf, start, end) : parseLong(buf, start, end);
+                    if (!ok)
+                        throw new NumberFormatException("Could not parse \"" + new String(buf, start, end - start, UTF8)
+                                        + "\" as " + types[c] + " in column " + schema.getName(c) + ", line at offset "
+                                        + (cursor.bufferOffset + lineStart));
+                    data[n * numColumns + c] = types[c] == ColumnType.Double || types[c] == ColumnType.Float
+                                    ? parsedDouble : parsedLong;
+                }
+                cursor.nextLine();
+                n++;
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+
+        if (n < num) {
+            double[] trimmed = new double[n * numColumns];
+            System.arraycopy(data, 0, trimmed, 0, trimmed.length);
+            data = trimmed;
+        }
+        return Nd4j.create(data, new int[] {n, numColumns}, 'c');
+    }
+
+    @Override
+    public List<String> getLabels() {
+        return null;
+    }
+
+    @Override
+    public void reset() {
+        if (locations == null)
+            throw new UnsupportedOperationException("Cannot reset without first initializing");
+        locationIndex = 0;
+        try {
+            if (locations.length > 0)
+                open(0);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public boolean resetSupported() {
+        return true;
+    }
+
+    @Override
+    public List<Writable> record(URI uri, DataInputStream dataInputStream) throws IOException {
+        //a single line
+        Cursor c = new Cursor(Channels.newChannel(dataInputStream), 0, Long.MAX_VALUE, 1024);
+        if (c.lineEnd() < 0)
+            throw new IOException("No line found in the stream");
+        return parseLine(c);
+    }
+
+    @Override
+    public Record nextRecord() {
+        if (!hasNext())
+            throw new NoSuchElementException("No next element found!");
+        long offset = cursor.lineOffset();
+        List<Writable> next = next();
+        return new org.datavec.api.records.impl.Record(next,
+                        new RecordMetaDataIndex(offset, locations[locationIndex], CSVSchemaRecordReader.class));
+    }
+
+    @Override
+    public Record loadFromMetaData(RecordMetaData recordMetaData) throws IOException {
+        return loadFromMetaData(Collections.singletonList(recordMetaData)).get(0);
+    }
+
+    @Override
+    public List<Record> loadFromMetaData(List<RecordMetaData> recordMetaDatas) throws IOException {
+        List<Record> out = new ArrayList<>(recordMetaDatas.size());
+        for (RecordMetaData meta : recordMetaDatas) {
+            if (!(meta instanceof RecordMetaDataIndex))
+                throw new IllegalArgumentException("Expected RecordMetaDataIndex, got " + meta.getClass().getName());
+            long offset = ((RecordMetaDataIndex) meta).getIndex();
+            try (FileChannel channel = new FileInputStream(new File(meta.getURI())).getChannel()) {
+                channel.position(offset);
+                Cursor c = new Cursor(channel, offset, Long.MAX_VALUE, 1024);
+                if (c.lineEnd() < 0)
+                    throw new IOException("No line at offset " + offset + " of " + meta.getURI());
+                out.add(new org.datavec.api.records.impl.Record(parseLine(c), meta));
+            }
+        }
+        return out;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (cursor != null) {
+            cursor.channel.close();
+            cursor = null;
+        }
+    }
+
+    @Override
+    public void setConf(Configuration conf) {
+        this.conf = conf;
+    }
+
+    @Override
+    public Configuration getConf() {
+        return conf;
+    }
+
+    public Schema getSchema() {
+        return schema;
+    }
+
+    private void open(int location) throws IOException {
+        close();
+        FileChannel channel = new FileInputStream(new File(locations[location])).getChannel();
+        long start = Math.min(rangeStart, channel.size());
+        if (start > 0) {
+            //the line overlapping the start of the range belongs to the previous range
+            channel.position(start - 1);
+            cursor = new Cursor(channel, start - 1, rangeEnd, bufferSize);
+            cursor.skipPartialLine();
+        } else {
+            cursor = new Cursor(channel, 0, rangeEnd, bufferSize);
+            for (int i = 0; i < skipNumLines && cursor.lineEnd() >= 0; i++)
+                cursor.nextLine();
+        }
+    }
+
+    private static boolean isNumerical(ColumnType type) {
+        switch (type) {
+            case Integer:
+            case Long:
+            case Double:
+            case Float:
+            case Time:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private List<Writable> parseLine(Cursor c) throws IOException {
+        splitFields(c);
+        byte[] buf = c.buf;
+        List<Writable> ret = new ArrayList<>(types.length);
+        for (int i = 0; i < types.length; i++) {
+            int start = fieldStart[i];
+            int end = fieldEnd[i];
+            Writable w = null;
+            if (!fieldQuoted[i]) {
+                switch (types[i]) {
+                    case Integer:
+                        if (parseLong(buf, start, end) && parsedLong == (int) parsedLong)
+                            w = new IntWritable((int) parsedLong);
+                        break;
+                    case Long:
+                    case Time:
+                        if (parseLong(buf, start, end))
+                            w = new LongWritable(parsedLong);
+                        break;
+                    case Double:
+                        if (parseDouble(buf, start, end))
+                            w = new DoubleWritable(parsedDouble);
+                        break;
+                    case Float:
+                        if (parseDouble(buf, start, end))
+                            w = new FloatWritable(Float.parseFloat(new String(buf, start, end - start, UTF8)));
+                        break;
+                    case Boolean:
+                        if (equalsIgnoreCase(buf, start, end, "true"))
+                            w = new BooleanWritable(true);
+                        else if (equalsIgnoreCase(buf, start, end, "false"))
+                            w = new BooleanWritable(false);
+                        break;
+                    default:
+                        break;
+                }
+            }
+            if (w == null)
+                w = new Text(fieldQuoted[i] ? unquote(buf, start, end) : new String(buf, start, end - start, UTF8));
+            ret.add(w);
+        }
+        c.nextLine();
+        return ret;
+    }
+
+    /**
+     * Find the fields of the current line of the cursor
+     */
+    private void splitFields(Cursor c) throws IOException {
+        byte[] buf = c.buf;
+        int lineStart = c.pos;
+        int lineEnd = c.lineEnd();
+        if (lineEnd > lineStart && buf[lineEnd - 1] == '\r')
+            lineEnd--;
+
+        int numColumns = types.length;
+        int field = 0;
+        int i = lineStart;
+        while (true) {
+            if (field >= numColumns)
+                throw new IllegalStateException("Expected " + numColumns + " columns, found more in line at offset "
+                                + (c.bufferOffset + lineStart) + ": " + new String(buf, lineStart, lineEnd - lineStart, UTF8));
+            boolean quoted = i < lineEnd && buf[i] == quote;
+            int end;
+            if (quoted) {
+                //closing quote, doubled quotes being escaped quotes
+                end = i + 1;
+                while (end < lineEnd && !(buf[end] == quote && (end + 1 >= lineEnd || buf[end + 1] != quote)))
+                    end += buf[end] == quote ? 2 : 1;
+                fieldStart[field] = i + 1;
+                fieldEnd[field] = Math.min(end, lineEnd);
+                end = Math.min(end + 1, lineEnd);
+                while (end < lineEnd && buf[end] != delimiter)
+                    end++;
+            } else {
+                end = i;
+                while (end < lineEnd && buf[end] != delimiter)
+                    end++;
+                fieldStart[field] = i;
+                fieldEnd[field] = end;
+            }
+            fieldQuoted[field] = quoted;
+            field++;
+            if (end >= lineEnd)
+                break;
+            i = end + 1;
+        }
+        if (field != numColumns)
+            throw new IllegalStateException("Expected " + numColumns + " columns, found " + field
+                            + " in line at offset " + (c.bufferOffset + lineStart) + ": "
+                            + new String(buf, lineStart, lineEnd - lineStart, UTF8));
+    }
+
+    private static boolean equalsIgnoreCase(byte[] buf, int start, int end, String value) {
+        if (end - start != value.length())
+            return false;
+        for (int i = 0; i < value.length(); i++) {
+            if (Character.toLowerCase((char) buf[start + i]) != value.charAt(i))
+                return false;
+        }
+        return true;
+    }
+
+    private String unquote(byte[] buf, int start, int end) {
+        String s = new String(buf, start, end - start, UTF8);
+        String q = String.valueOf((char) quote);
+        return s.replace(q + q, q);
+    }
+
+    /**
+     * Parse an integer, the result being stored in parsedLong
+     * @return false if the bytes are not an integer
+     */
+    private boolean parseLong(byte[] buf, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (buf[i] == '-' || buf[i] == '+')) {
+            negative = buf[i] == '-';
+            i++;
+        }
+        if (i >= end)
+            return false;
+        if (end - i > 18) {
+            //may overflow
+            try {
+                parsedLong = Long.parseLong(new String(buf, start, end - start, UTF8));
+                return true;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            int d = buf[i] - '0';
+            if (d < 0 || d > 9)
+                return false;
+            value = value * 10 + d;
+        }
+        parsedLong = negative ? -value : value;
+        return true;
+    }
+
+    /**
+     * Parse a decimal number, the result being stored in parsedDouble. Numbers with at most 18 significant
+     * digits and a small exponent are converted exactly with a single multiplication or division, the others
+     * through Double.parseDouble
+     * @return false if the bytes are not a number
+     */
+    private boolean parseDouble(byte[] buf, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (buf[i] == '-' || buf[i] == '+')) {
+            negative = buf[i] == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean seenDigit = false;
+        boolean slowPath = false;
+        for (; i < end && buf[i] >= '0' && buf[i] <= '9'; i++) {
+            seenDigit = true;
+            if (mantissa == 0 && buf[i] == '0')
+                continue;
+            if (digits < 18) {
+                mantissa = mantissa * 10 + (buf[i] - '0');
+                digits++;
+            } else {
+                slowPath = true;
+            }
+        }
+        if (i < end && buf[i] == '.') {
+            i++;
+            for (; i < end && buf[i] >= '0' && buf[i] <= '9'; i++) {
+                seenDigit = true;
+                if (mantissa == 0 && buf[i] == '0') {
+                    exponent--;
+                    continue;
+                }
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (buf[i] - '0');
+                    digits++;
+                    exponent--;
+                } else {
+                    slowPath = true;
+                }
+            }
+        }
+        if (!seenDigit)
+            return parseDoubleSlow(buf, start, end);
+        if (i < end && (buf[i] == 'e' || buf[i] == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (buf[i] == '-' || buf[i] == '+')) {
+                negativeExponent = buf[i] == '-';
+                i++;
+            }
+            if (i >= end)
+                return false;
+            int e = 0;
+            for (; i < end && buf[i] >= '0' && buf[i] <= '9'; i++) {
+                if (e < 100000)
+                    e = e * 10 + (buf[i] - '0');
+            }
+            exponent += negativeExponent ? -e : e;
+        }
+        if (i != end)
+            return parseDoubleSlow(buf, start, end);
+
+        if (slowPath || mantissa > (1L << 53) || exponent < -22 || exponent > 22)
+            return parseDoubleSlow(buf, start, end);
+        double value = exponent >= 0 ? mantissa * POW10[exponent] : mantissa / POW10[-exponent];
+        parsedDouble = negative ? -value : value;
+        return true;
+    }
+
+    private boolean parseDoubleSlow(byte[] buf, int start, int end) {
+        try {
+            parsedDouble = Double.parseDouble(new String(buf, start, end - start, UTF8));
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Buffered view of a channel, line by line
+     */
+    private class Cursor {
+        private final ReadableByteChannel channel;
+        private final long end;
+        private byte[] buf;
+        //file offset of buf[0]
+        private long bufferOffset;
+        private int pos;
+        private int limit;
+        private boolean eof;
+        //end of the current line in buf, -1 if not searched yet
+        private int lineEnd = -1;
+
+        private Cursor(ReadableByteChannel channel, long offset, long end, int bufferSize) {
+            this.channel = channel;
+            this.bufferOffset = offset;
+            this.end = end;
+            this.buf = new byte[bufferSize];
+        }
+
+        private long lineOffset() {
+            return bufferOffset + pos;
+        }
+
+        /**
+         * @return the position in buf of the end (line break or end of data) of the current line, -1 if there
+         * is no more line in the range
+         */
+        private int lineEnd() throws IOException {
+            if (lineEnd >= 0)
+                return lineEnd;
+            if (lineOffset() >= end)
+                return -1;
+            int scan = pos;
+            boolean inQuote = false;
+            while (true) {
+                for (; scan < limit; scan++) {
+                    byte b = buf[scan];
+                    if (b == quote)
+                        inQuote = !inQuote;
+                    else if (b == '\n' && !inQuote) {
+                        if (scan > pos + 1 || (scan == pos + 1 && buf[pos] != '\r'))
+                            return lineEnd = scan;
+                        //skip empty lines
+                        pos = scan + 1;
+                        if (lineOffset() >= end)
+                            return -1;
+                    }
+                }
+                if (eof)
+                    return scan > pos ? (lineEnd = scan) : -1;
+                scan -= pos;
+                fill();
+            }
+        }
+
+        /**
+         * Move to the byte following the next line break, whatever the quotes
+         */
+        private void skipPartialLine() throws IOException {
+            while (true) {
+                for (int i = pos; i < limit; i++) {
+                    if (buf[i] == '\n') {
+                        pos = i + 1;
+                        return;
+                    }
+                }
+                pos = limit;
+                if (eof)
+                    return;
+                fill();
+            }
+        }
+
+        private void nextLine() {
+            pos = Math.min(lineEnd + 1, limit);
+            lineEnd = -1;
+        }
+
+        private void fill() throws IOException {
+            //move the current line to the beginning of the buffer
+            if (pos > 0) {
+                System.arraycopy(buf, pos, buf, 0, limit - pos);
+                bufferOffset += pos;
+                limit -= pos;
+                pos = 0;
+            }
+            if (limit == buf.length) {
+                byte[] larger = new byte[2 * buf.length];
+                System.arraycopy(buf, 0, larger, 0, limit);
+                buf = larger;
+            }
+            int read = channel.read(ByteBuffer.wrap(buf, limit, buf.length - limit));
+            if (read < 0)
+                eof = true;
+            else
+                limit += read;
+        }
+    }
+}
@@ -0,0 +1,392 @@
+/*-
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.records.reader.impl.shard;
+
+import lombok.Getter;
+import org.datavec.api.conf.Configuration;
+import org.datavec.api.records.Record;
+import org.datavec.api.records.metadata.RecordMetaData;
+import org.datavec.api.records.metadata.RecordMetaDataIndex;
+import org.datavec.api.records.reader.BaseRecordReader;
+import org.datavec.api.split.InputSplit;
+import org.datavec.api.writable.Writable;
+import org.datavec.api.writable.WritableFactory;
+
+import java.io.*;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.*;
+
+/**
+ * Record reader for record shards written by {@link org.datavec.api.records.writer.impl.shard.ShardRecordWriter}.
+ *
+ * A shard is a binary file of length-prefixed records, each column being written with its
+ * {@link org.datavec.api.writable.WritableType}, followed by an index of the record offsets:
+ *
+ * MAGIC VERSION (LENGTH NUM_COLUMNS (TYPE WRITABLE)*)* (OFFSET)* INDEX_OFFSET NUM_RECORDS FOOTER_MAGIC
+ *
+ * Shards are memory mapped, so reading a record only decodes its writables, and any record can be loaded
+ * with {@link #loadFromMetaData(RecordMetaData)} in constant time through the index. A shard without index
+ * (when the stream was switched by the caller before the writer could close it) is indexed with a single
+ * pass over the record lengths.
+ *
+ * When created with a seed, records are returned in a different random order after every reset, without
+ * loading the data in memory: the order of the shards is shuffled, and within a shard the order of the blocks
+ * of blockSize consecutive records and the order of the records in a block are shuffled.
+ */
+public class ShardRecordReader extends BaseRecordReader {
+
+    public static final int MAGIC = 0x44565253; //DVRS
+    public static final int FOOTER_MAGIC = 0x44564958; //DVIX
+    public static final int VERSION = 1;
+    public static final int HEADER_LENGTH = 8;
+    public static final int FOOTER_LENGTH = 16;
+    public static final int DEFAULT_BLOCK_SIZE = 64;
+
+    @Getter
+    private final boolean shuffle;
+    private final Random rng;
+    @Getter
+    private final int blockSize;
+
+    private Configuration conf;
+    private Shard[] shards;
+    private Map<URI, Integer> shardIndexes;
+
+    //iteration state
+    private int[] shardOrder;
+    private int shardPosition;
+    private int[] recordOrder;
+    private int recordPosition;
+    private int currentShard;
+    private int lastRecord;
+
+    /**
+     * Read the records in the order they were written
+     */
+    public ShardRecordReader() {
+        this(false, 0, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Shuffle the records, see {@link #ShardRecordReader(long, int)}
+     * @param seed the seed of the shuffling
+     */
+    public ShardRecordReader(long seed) {
+        this(true, seed, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Shuffle the records with blocks of blockSize consecutive records: the smaller the blocks,
+     * the better the shuffling, the larger the blocks, the more sequential the reads
+     *
+     * @param seed the seed of the shuffling
+     * @param blockSize the number of records in a block
+     */
+    public ShardRecordReader(long seed, int blockSize) {
+        this(true, seed, blockSize);
+    }
+
+    private ShardRecordReader(boolean shuffle, long seed, int blockSize) {
+        if (blockSize <= 0)
+            throw new IllegalArgumentException("Block size must be > 0, got " + blockSize);
+        this.shuffle = shuffle;
+        this.rng = new Random(seed);
+        this.blockSize = blockSize;
+    }
+
+    @Override
+    public void initialize(InputSplit split) throws IOException, InterruptedException {
+        URI[] locations = split.locations();
+        if (locations == null || locations.length == 0)
+            throw new IllegalArgumentException("No shards found in the split");
+
+        shards = new Shard[locations.length];
+        shardIndexes = new HashMap<>();
+        for (int i = 0; i < locations.length; i++) {
+            shards[i] = new Shard(locations[i]);
+            shardIndexes.put(locations[i], i);
+        }
+        reset();
+    }
+
+    @Override
+    public void initialize(Configuration conf, InputSplit split) throws IOException, InterruptedException {
+        setConf(conf);
+        initialize(split);
+    }
+
+    @Override
+    public List<Writable> next() {
+        if (!hasNext())
+            throw new NoSuchElementException("No more records");
+        int record = recordOrder == null ? recordPosition : recordOrder[recordPosition];
+        recordPosition++;
+        lastRecord = record;
+        List<Writable> ret = shard(currentShard).read(record);
+        invokeListeners(ret);
+        return ret;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (shards == null)
+            throw new IllegalStateException("Record reader has not been initialized");
+        while (shardPosition < shards.length) {
+            if (recordPosition < shard(currentShard).numRecords)
+                return true;
+            shardPosition++;
+            if (shardPosition < shards.length)
+                startShard();
+        }
+        return false;
+    }
+
+    @Override
+    public List<String> getLabels() {
+        return null;
+    }
+
+    @Override
+    public void reset() {
+        if (shards == null)
+            throw new IllegalStateException("Cannot reset without first initializing");
+        shardOrder = new int[shards.length];
+        for (int i = 0; i < shardOrder.length; i++)
+            shardOrder[i] = i;
+        if (shuffle)
+            shuffle(shardOrder, 0, shardOrder.length);
+        shardPosition = 0;
+        startShard();
+    }
+
+    @Override
+    public boolean resetSupported() {
+        return true;
+    }
+
+    @Override
+    public List<Writable> record(URI uri, DataInputStream dataInputStream) throws IOException {
+        //A single record, without the record length
+        return readRecord(dataInputStream);
+    }
+
+    @Override
+    public Record nextRecord() {
+        List<Writable> next = next();
+        Shard shard = shard(currentShard);
+        return new org.datavec.api.records.impl.Record(next,
+                        new RecordMetaDataIndex(lastRecord, shard.location, ShardRecordReader.class));
+    }
+
+    @Override
+    public Record loadFromMetaData(RecordMetaData recordMetaData) throws IOException {
+        if (!(recordMetaData instanceof RecordMetaDataIndex))
+            throw new IllegalArgumentException("Expected RecordMetaDataIndex, got "
+                            + (recordMetaData == null ? null : recordMetaData.getClass().getName()));
+        Integer shard = shardIndexes == null ? null : shardIndexes.get(recordMetaData.getURI());
+        if (shard == null)
+            throw new IllegalArgumentException("Shard " + recordMetaData.getURI() + " is not part of the split");
+        long index = ((RecordMetaDataIndex) recordMetaData).getIndex();
+        return new org.datavec.api.records.impl.Record(shard(shard).read((int) index), recordMetaData);
+    }
+
+    @Override
+    public List<Record> loadFromMetaData(List<RecordMetaData> recordMetaDatas) throws IOException {
+        List<Record> out = new ArrayList<>(recordMetaDatas.size());
+        for (RecordMetaData meta : recordMetaDatas)
+            out.add(loadFromMetaData(meta));
+        return out;
+    }
+
+    /**
+     * @return the total number of records of the shards
+     */
+    public long numRecords() {
+        long count = 0;
+        for (int i = 0; i < shards.length; i++)
+            count += shard(i).numRecords;
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        //mapped buffers are released when collected
+        shards = null;
+        shardIndexes = null;
+    }
+
+    @Override
+    public void setConf(Configuration conf) {
+        this.conf = conf;
+    }
+
+    @Override
+    public Configuration getConf() {
+        return conf;
+    }
+
+    private void startShard() {
+        currentShard = shardOrder[shardPosition];
+        recordPosition = 0;
+        recordOrder = null;
+        if (!shuffle)
+            return;
+
+        int numRecords = shard(currentShard).numRecords;
+        int numBlocks = (numRecords + blockSize - 1) / blockSize;
+        int[] blocks = new int[numBlocks];
+        for (int i = 0; i < numBlocks; i++)
+            blocks[i] = i;
+        shuffle(blocks, 0, numBlocks);
+
+        recordOrder = new int[numRecords];
+        int position = 0;
+        for (int block : blocks) {
+            int start = position;
+            for (int r = block * blockSize; r < Math.min(numRecords, (block + 1) * blockSize); r++)
+                recordOrder[position++] = r;
+            shuffle(recordOrder, start, position);
+        }
+    }
+
+    private void shuffle(int[] array, int from, int to) {
+        for (int i = to - 1; i > from; i--) {
+            int j = from + rng.nextInt(i - from + 1);
+            int tmp = array[i];
+            array[i] = array[j];
+            array[j] = tmp;
+        }
+    }
+
+    private Shard shard(int i) {
+        Shard shard = shards[i];
+        if (shard.buffer == null) {
+            try {
+                shard.open();
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not open shard " + shard.location, e);
+            }
+        }
+        return shard;
+    }
+
+    private static List<Writable> readRecord(DataInput in) throws IOException {
+        int numColumns = in.readInt();
+        List<Writable> record = new ArrayList<>(numColumns);
+        WritableFactory factory = WritableFactory.getInstance();
+        for (int i = 0; i < numColumns; i++)
+            record.add(factory.readWithType(in));
+        return record;
+    }
+
+    private static class Shard {
+        private final URI location;
+        private ByteBuffer buffer;
+        private int numRecords;
+        //position of the index in the buffer, or -1 if the offsets were found by scanning the shard
+        private int indexOffset = -1;
+        private int[] offsets;
+
+        private Shard(URI location) {
+            this.location = location;
+        }
+
+        private void open() throws IOException {
+            File file = new File(location);
+            MappedByteBuffer mapped;
+            try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+                if (channel.size() > Integer.MAX_VALUE)
+                    throw new IOException("Shard " + location + " is larger than 2GB");
+                mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            ByteBuffer buffer = mapped.order(ByteOrder.BIG_ENDIAN);
+            int length = buffer.limit();
+            if (length < HEADER_LENGTH || buffer.getInt(0) != MAGIC)
+                throw new IOException("Not a record shard: " + location);
+            if (buffer.getInt(4) != VERSION)
+                throw new IOException("Unsupported shard version " + buffer.getInt(4) + " in " + location);
+
+            if (length >= HEADER_LENGTH + FOOTER_LENGTH && buffer.getInt(length - 4) == FOOTER_MAGIC) {
+                indexOffset = (int) buffer.getLong(length - FOOTER_LENGTH);
+                numRecords = buffer.getInt(length - 8);
+            } else {
+                //no index: scan the record lengths
+                int[] found = new int[1024];
+                int count = 0;
+                int position = HEADER_LENGTH;
+                while (position + 4 <= length) {
+                    int recordLength = buffer.getInt(position);
+                    if (recordLength < 0 || position + 4 + recordLength > length)
+                        throw new IOException("Truncated record at offset " + position + " in " + location);
+                    if (count == found.length)
+                        found = Arrays.copyOf(found, 2 * count);
+                    found[count++] = position;
+                    position += 4 + recordLength;
+                }
+                offsets = Arrays.copyOf(found, count);
+                numRecords = count;
+            }
+            this.buffer = buffer;
+        }
+
+        private List<Writable> read(int record) {
+            if (record < 0 || record >= numRecords)
+                throw new IndexOutOfBoundsException("Record " + record + " out of bounds for shard " + location
+                                + " of " + numRecords + " records");
+            int offset = indexOffset >= 0 ? (int) buffer.getLong(indexOffset + 8 * record) : offsets[record];
+            ByteBuffer view = buffer.duplicate();
+            view.position(offset + 4);
+            view.limit(offset + 4 + buffer.getInt(offset));
+            try {
+                return readRecord(new DataInputStream(new ByteBufferInputStream(view)));
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not read record " + record + " of shard " + location, e);
+            }
+        }
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!buffer.hasRemaining())
+                return -1;
+            len = Math.min(len, buffer.remaining());
+            buffer.get(b, off, len);
+            return len;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
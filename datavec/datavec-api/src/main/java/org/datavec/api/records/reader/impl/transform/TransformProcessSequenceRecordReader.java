@@ -1,6 +1,5 @@
 package org.datavec.api.records.reader.impl.transform;
 
-import lombok.AllArgsConstructor;
 import org.datavec.api.conf.Configuration;
 import org.datavec.api.records.Record;
 import org.datavec.api.records.SequenceRecord;
@@ -15,22 +14,51 @@ import java.io.DataInputStream;
 import java.io.IOException;
 import java.net.URI;
 import java.util.Collection;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.*;
 
 /**
  * This wraps a {@link SequenceRecordReader} with a {@link TransformProcess}
  * which will allow every {@link Record} returned from the {@link SequenceRecordReader}
  * to be transformed before being returned.
  *
+ * With more than one thread, sequences are read ahead on the caller thread and transformed in parallel
+ * (independent sequences are transformed concurrently), while still being returned in the order of the
+ * underlying reader by {@link #sequenceRecord()} and {@link #nextSequence()}. At most 2 x numThreads sequences
+ * are held in memory ahead of the consumer. For long sequences, see also
+ * {@link org.datavec.api.transform.sequence.StreamingSequenceExecutor}.
+ *
  * @author Adam Gibson
  */
-@AllArgsConstructor
 public class TransformProcessSequenceRecordReader implements SequenceRecordReader {
 
     protected SequenceRecordReader sequenceRecordReader;
     protected TransformProcess transformProcess;
+    protected int numThreads;
+
+    private transient ExecutorService executor;
+    private transient LinkedList<Future<SequenceRecord>> inFlight;
 
+    public TransformProcessSequenceRecordReader(SequenceRecordReader sequenceRecordReader,
+                    TransformProcess transformProcess) {
+        this(sequenceRecordReader, transformProcess, 1);
+    }
 
+    /**
+     * @param sequenceRecordReader Underlying reader
+     * @param transformProcess     Transform process to apply to every sequence
+     * @param numThreads           Number of threads transforming sequences, 1 to transform them on the caller thread
+     */
+    public TransformProcessSequenceRecordReader(SequenceRecordReader sequenceRecordReader,
+                    TransformProcess transformProcess, int numThreads) {
+        if (numThreads < 1)
+            throw new IllegalArgumentException("Number of threads must be >= 1, got " + numThreads);
+        this.sequenceRecordReader = sequenceRecordReader;
+        this.transformProcess = transformProcess;
+        this.numThreads = numThreads;
+    }
 
     /**
      * Set the configuration to be used by this object.
@@ -57,6 +85,8 @@ public class TransformProcessSequenceRecordReader implements SequenceRecordReade
      */
     @Override
     public List<List<Writable>> sequenceRecord() {
+        if (numThreads > 1)
+            return nextSequence().getSequenceRecord();
         return transformProcess.executeSequence(sequenceRecordReader.sequenceRecord());
     }
 
@@ -92,6 +122,23 @@ public class TransformProcessSequenceRecordReader implements SequenceRecordReade
      */
     @Override
     public SequenceRecord nextSequence() {
+        if (numThreads > 1) {
+            fillInFlight();
+            if (inFlight.isEmpty())
+                throw new NoSuchElementException("No next sequence");
+            Future<SequenceRecord> future = inFlight.removeFirst();
+            fillInFlight();
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException)
+                    throw (RuntimeException) e.getCause();
+                throw new RuntimeException(e.getCause());
+            }
+        }
         SequenceRecord next = sequenceRecordReader.nextSequence();
         next.setSequenceRecord(transformProcess.executeSequence(next.getSequenceRecord()));
         return next;
@@ -167,7 +214,7 @@ public class TransformProcessSequenceRecordReader implements SequenceRecordReade
      */
     @Override
     public boolean hasNext() {
-        return sequenceRecordReader.hasNext();
+        return (inFlight != null && !inFlight.isEmpty()) || sequenceRecordReader.hasNext();
     }
 
     /**
@@ -187,6 +234,7 @@ public class TransformProcessSequenceRecordReader implements SequenceRecordReade
      */
     @Override
     public void reset() {
+        cancelInFlight();
         sequenceRecordReader.reset();
     }
 
@@ -296,6 +344,49 @@ public class TransformProcessSequenceRecordReader implements SequenceRecordReade
      */
     @Override
     public void close() throws IOException {
+        cancelInFlight();
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
         sequenceRecordReader.close();
     }
+
+    /**
+     * Read sequences from the underlying reader and submit them for transformation,
+     * until 2 x numThreads sequences are in flight or the reader is exhausted
+     */
+    private void fillInFlight() {
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(numThreads, new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread t = Executors.defaultThreadFactory().newThread(r);
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+        }
+        if (inFlight == null)
+            inFlight = new LinkedList<>();
+
+        while (inFlight.size() < 2 * numThreads && sequenceRecordReader.hasNext()) {
+            final SequenceRecord record = sequenceRecordReader.nextSequence();
+            inFlight.add(executor.submit(new Callable<SequenceRecord>() {
+                @Override
+                public SequenceRecord call() {
+                    record.setSequenceRecord(transformProcess.executeSequence(record.getSequenceRecord()));
+                    return record;
+                }
+            }));
+        }
+    }
+
+    private void cancelInFlight() {
+        if (inFlight == null)
+            return;
+        for (Future<SequenceRecord> future : inFlight)
+            future.cancel(true);
+        inFlight.clear();
+    }
 }
@@ -0,0 +1,168 @@
+/*-
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.records.writer.impl.shard;
+
+import org.datavec.api.conf.Configuration;
+import org.datavec.api.records.reader.impl.shard.ShardRecordReader;
+import org.datavec.api.records.writer.RecordWriter;
+import org.datavec.api.split.InputSplit;
+import org.datavec.api.split.partition.PartitionMetaData;
+import org.datavec.api.split.partition.Partitioner;
+import org.datavec.api.writable.Writable;
+import org.datavec.api.writable.WritableFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Write records to record shards, to be read with {@link ShardRecordReader}
+ * (see there for the format).
+ *
+ * A new shard is started when the partitioner needs a new partition
+ * (for example with {@link org.datavec.api.split.partition.NumberOfRecordsPartitioner#RECORDS_PER_FILE_CONFIG}),
+ * the index of every shard being written when it is finished or when the writer is closed.
+ * Shards are limited to 2GB.
+ */
+public class ShardRecordWriter implements RecordWriter {
+
+    protected Partitioner partitioner;
+    protected Configuration conf;
+
+    private OutputStream stream;
+    private DataOutputStream out;
+    private long position;
+    private long[] offsets = new long[1024];
+    private int numRecords;
+
+    private final ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+    private final DataOutputStream recordOut = new DataOutputStream(recordBytes);
+
+    public ShardRecordWriter() {}
+
+    @Override
+    public boolean supportsBatch() {
+        return true;
+    }
+
+    @Override
+    public void initialize(InputSplit inputSplit, Partitioner partitioner) throws Exception {
+        partitioner.init(inputSplit);
+        this.partitioner = partitioner;
+        startShard(partitioner.currentOutputStream());
+    }
+
+    @Override
+    public void initialize(Configuration configuration, InputSplit split, Partitioner partitioner) throws Exception {
+        setConf(configuration);
+        partitioner.init(configuration, split);
+        this.partitioner = partitioner;
+        startShard(partitioner.currentOutputStream());
+    }
+
+    @Override
+    public PartitionMetaData write(List<Writable> record) throws IOException {
+        checkShard();
+        writeRecord(record);
+        return PartitionMetaData.builder().numRecordsUpdated(1).build();
+    }
+
+    @Override
+    public PartitionMetaData writeBatch(List<List<Writable>> batch) throws IOException {
+        checkShard();
+        for (List<Writable> record : batch)
+            writeRecord(record);
+        return PartitionMetaData.builder().numRecordsUpdated(batch.size()).build();
+    }
+
+    @Override
+    public void close() {
+        if (out != null) {
+            try {
+                finishShard();
+                out.close();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            out = null;
+        }
+    }
+
+    @Override
+    public void setConf(Configuration conf) {
+        this.conf = conf;
+    }
+
+    @Override
+    public Configuration getConf() {
+        return conf;
+    }
+
+    private void checkShard() throws IOException {
+        if (partitioner.needsNewPartition()) {
+            finishShard();
+            out.close();
+            startShard(partitioner.openNewStream());
+        } else if (partitioner.currentOutputStream() != stream) {
+            //the caller already moved to the next partition, the previous shard is left without index
+            startShard(partitioner.currentOutputStream());
+        }
+    }
+
+    private void startShard(OutputStream stream) throws IOException {
+        this.stream = stream;
+        out = new DataOutputStream(stream);
+        out.writeInt(ShardRecordReader.MAGIC);
+        out.writeInt(ShardRecordReader.VERSION);
+        position = ShardRecordReader.HEADER_LENGTH;
+        numRecords = 0;
+    }
+
+    private void writeRecord(List<Writable> record) throws IOException {
+        recordBytes.reset();
+        recordOut.writeInt(record.size());
+        WritableFactory factory = WritableFactory.getInstance();
+        for (Writable w : record)
+            factory.writeWithType(w, recordOut);
+        recordOut.flush();
+
+        int length = recordBytes.size();
+        long end = position + 4 + length + 8L * (numRecords + 1) + ShardRecordReader.FOOTER_LENGTH;
+        if (end > Integer.MAX_VALUE)
+            throw new IllegalStateException("Shard larger than 2GB: use a partitioner with less records per file");
+
+        if (numRecords == offsets.length)
+            offsets = Arrays.copyOf(offsets, 2 * numRecords);
+        offsets[numRecords++] = position;
+        out.writeInt(length);
+        recordBytes.writeTo(out);
+        position += 4 + length;
+    }
+
+    private void finishShard() throws IOException {
+        long indexOffset = position;
+        for (int i = 0; i < numRecords; i++)
+            out.writeLong(offsets[i]);
+        out.writeLong(indexOffset);
+        out.writeInt(numRecords);
+        out.writeInt(ShardRecordReader.FOOTER_MAGIC);
+        out.flush();
+    }
+}
@@ -0,0 +1,182 @@
+/*-
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.transform.analysis;
+
+import org.datavec.api.records.reader.RecordReader;
+import org.datavec.api.transform.analysis.columns.ColumnAnalysis;
+import org.datavec.api.transform.analysis.columns.NumericalColumnAnalysis;
+import org.datavec.api.writable.Writable;
+import org.nd4j.linalg.dataset.api.preprocessor.NormalizerMinMaxScaler;
+import org.nd4j.linalg.dataset.api.preprocessor.NormalizerStandardize;
+import org.nd4j.linalg.dataset.api.preprocessor.stats.DistributionStats;
+import org.nd4j.linalg.dataset.api.preprocessor.stats.MinMaxStats;
+import org.nd4j.linalg.dataset.api.preprocessor.stats.NormalizerStats;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Creates ND4J normalizers (for the features of DataSets built from records) without building DataSets:
+ * either from the column statistics of a {@link DataAnalysis}, or in a single pass over a {@link RecordReader},
+ * accumulating the statistics column by column on batches of records.
+ *
+ * The columns given to these methods must be the columns of the feature array, in order.
+ */
+public class NormalizerFitter {
+
+    private NormalizerFitter() {
+    }
+
+    /**
+     * Create a standardizing normalizer from the means and standard deviations of a data analysis
+     *
+     * @param analysis the analysis of the data
+     * @param columns  the (numerical) feature columns
+     */
+    public static NormalizerStandardize standardize(DataAnalysis analysis, String... columns) {
+        double[] mean = new double[columns.length];
+        double[] std = new double[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            NumericalColumnAnalysis ca = numerical(analysis, columns[i]);
+            long n = ca.getCountTotal();
+            mean[i] = ca.getMean();
+            //The normalizers use the population variance, the analysis the sample variance
+            std[i] = n > 1 ? Math.sqrt(ca.getSampleVariance() * (n - 1) / n) : 0.0;
+        }
+        return new NormalizerStandardize(Nd4j.create(mean), Nd4j.create(std));
+    }
+
+    /**
+     * Create a min max normalizer (to the range [0, 1]) from the minimums and maximums of a data analysis
+     *
+     * @param analysis the analysis of the data
+     * @param columns  the (numerical) feature columns
+     */
+    public static NormalizerMinMaxScaler minMax(DataAnalysis analysis, String... columns) {
+        return minMax(analysis, 0.0, 1.0, columns);
+    }
+
+    /**
+     * Create a min max normalizer from the minimums and maximums of a data analysis
+     *
+     * @param analysis the analysis of the data
+     * @param minRange the minimum of the normalized values
+     * @param maxRange the maximum of the normalized values
+     * @param columns  the (numerical) feature columns
+     */
+    public static NormalizerMinMaxScaler minMax(DataAnalysis analysis, double minRange, double maxRange,
+                    String... columns) {
+        double[] min = new double[columns.length];
+        double[] max = new double[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            NumericalColumnAnalysis ca = numerical(analysis, columns[i]);
+            min[i] = ca.getMinDouble();
+            max[i] = ca.getMaxDouble();
+        }
+        NormalizerMinMaxScaler normalizer = new NormalizerMinMaxScaler(minRange, maxRange);
+        normalizer.setFeatureStats(Nd4j.create(min), Nd4j.create(max));
+        return normalizer;
+    }
+
+    /**
+     * Fit a standardizing normalizer on the records of a reader. The reader is reset afterwards, if supported.
+     *
+     * @param reader    the reader to fit on
+     * @param batchSize number of records converted to an array at once
+     * @param columns   the feature column indices; all the columns if empty
+     */
+    public static NormalizerStandardize standardize(RecordReader reader, int batchSize, int... columns) {
+        DistributionStats stats = fit(reader, batchSize, columns, new DistributionStats.Builder());
+        return new NormalizerStandardize(stats.getMean(), stats.getStd());
+    }
+
+    /**
+     * Fit a min max normalizer on the records of a reader. The reader is reset afterwards, if supported.
+     *
+     * @param reader    the reader to fit on
+     * @param batchSize number of records converted to an array at once
+     * @param minRange  the minimum of the normalized values
+     * @param maxRange  the maximum of the normalized values
+     * @param columns   the feature column indices; all the columns if empty
+     */
+    public static NormalizerMinMaxScaler minMax(RecordReader reader, int batchSize, double minRange, double maxRange,
+                    int... columns) {
+        MinMaxStats stats = fit(reader, batchSize, columns, new MinMaxStats.Builder());
+        NormalizerMinMaxScaler normalizer = new NormalizerMinMaxScaler(minRange, maxRange);
+        normalizer.setFeatureStats(stats.getLower(), stats.getUpper());
+        return normalizer;
+    }
+
+    /**
+     * Add the given columns of all the records of a reader to a statistics builder
+     *
+     * @param reader    the reader to fit on
+     * @param batchSize number of records converted to an array at once
+     * @param columns   the feature column indices; all the columns if empty
+     * @param builder   the builder to add the records to
+     * @return the statistics
+     */
+    public static <S extends NormalizerStats> S fit(RecordReader reader, int batchSize, int[] columns,
+                    NormalizerStats.Builder<S> builder) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be > 0, got " + batchSize);
+        }
+
+        double[] buffer = null;
+        int rows = 0;
+        while (reader.hasNext()) {
+            List<Writable> record = reader.next();
+            if (columns == null || columns.length == 0) {
+                columns = new int[record.size()];
+                for (int i = 0; i < columns.length; i++) {
+                    columns[i] = i;
+                }
+            }
+            if (buffer == null) {
+                buffer = new double[batchSize * columns.length];
+            }
+
+            int offset = rows * columns.length;
+            for (int i = 0; i < columns.length; i++) {
+                buffer[offset + i] = record.get(columns[i]).toDouble();
+            }
+            if (++rows == batchSize) {
+                builder.add(Nd4j.create(buffer, new int[] {rows, columns.length}), null);
+                rows = 0;
+            }
+        }
+        if (rows > 0) {
+            builder.add(Nd4j.create(Arrays.copyOf(buffer, rows * columns.length), new int[] {rows, columns.length}),
+                            null);
+        }
+        if (reader.resetSupported()) {
+            reader.reset();
+        }
+
+        return builder.build();
+    }
+
+    private static NumericalColumnAnalysis numerical(DataAnalysis analysis, String column) {
+        ColumnAnalysis ca = analysis.getColumnAnalysis(column);
+        if (!(ca instanceof NumericalColumnAnalysis)) {
+            throw new IllegalArgumentException("Column \"" + column + "\" is not a numerical column: "
+                            + (ca == null ? "no analysis" : ca.getColumnType()));
+        }
+        return (NumericalColumnAnalysis) ca;
+    }
+}
@@ -31,7 +31,7 @@ public class AggregableCheckingOp<T> implements IAggregableReduceOp<Writable, T>
                                                 + accumulator.getMetaData().getColumnType() + " expected "
                                                 + metaData.getName() + " of type " + metaData.getColumnType());
             else
-                operation.combine(accumulator);
+                operation.combine(accumulator.getOperation());
         } else
             throw new UnsupportedOperationException("Tried to combine() incompatible " + accu.getClass().getName()
                             + " operator where " + this.getClass().getName() + " expected");
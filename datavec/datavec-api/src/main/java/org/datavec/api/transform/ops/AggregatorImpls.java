@@ -27,7 +27,10 @@ public class AggregatorImpls {
         @Override
         public <W extends IAggregableReduceOp<T, Writable>> void combine(W accu) {
             // left-favoring for first
-            if (!(accu instanceof IAggregableReduceOp))
+            if (accu instanceof AggregableFirst) {
+                if (elem == null)
+                    elem = ((AggregableFirst<T>) accu).elem;
+            } else
                 throw new UnsupportedOperationException("Tried to combine() incompatible " + accu.getClass().getName()
                                 + " operator where " + this.getClass().getName() + " expected");
         }
@@ -45,15 +48,19 @@ public class AggregatorImpls {
 
         @Override
         public void accept(T element) {
-            if (element != null)
+            if (element != null) {
                 elem = element;
+                override = null;
+            }
         }
 
         @Override
         public <W extends IAggregableReduceOp<T, Writable>> void combine(W accu) {
-            if (accu instanceof AggregableLast)
-                override = accu.get(); // right-favoring for last
-            else
+            if (accu instanceof AggregableLast) {
+                AggregableLast<T> other = (AggregableLast<T>) accu;
+                if (other.elem != null || other.override != null)
+                    override = accu.get(); // right-favoring for last
+            } else
                 throw new UnsupportedOperationException("Tried to combine() incompatible " + accu.getClass().getName()
                                 + " operator where " + this.getClass().getName() + " expected");
         }
@@ -312,6 +319,8 @@ public class AggregatorImpls {
         public <U extends IAggregableReduceOp<T, Writable>> void combine(U acc) {
             if (acc instanceof AggregableMean) {
                 Long cnt = ((AggregableMean<T>) acc).getCount();
+                if (cnt == 0)
+                    return;
                 Long newCount = count + cnt;
                 mean = (mean * count + (acc.get().toDouble() * cnt)) / newCount;
                 count = newCount;
@@ -360,16 +369,18 @@ public class AggregatorImpls {
         public <U extends IAggregableReduceOp<T, Writable>> void combine(U acc) {
             if (this.getClass().isAssignableFrom(acc.getClass())) {
                 AggregableStdDev<T> accu = (AggregableStdDev<T>) acc;
+                if (accu.getCount() == 0)
+                    return;
 
+                // Chan et al. pairwise update of the Welford states
                 Long totalCount = count + accu.getCount();
-                Double totalMean = (accu.getMean() * accu.getCount() + mean * count) / totalCount;
-                // the variance of the union is the sum of variances
-                Double variance = variation / (count - 1);
-                Double otherVariance = accu.getVariation() / (accu.getCount() - 1);
-                Double totalVariation = (variance + otherVariance) * (totalCount - 1);
+                Double delta = accu.getMean() - mean;
+                Double totalMean = mean + delta * accu.getCount() / totalCount;
+                Double totalVariation = variation + accu.getVariation()
+                                + delta * delta * count * accu.getCount() / totalCount;
                 count = totalCount;
                 mean = totalMean;
-                variation = variation;
+                variation = totalVariation;
             } else
                 throw new UnsupportedOperationException("Tried to combine() incompatible " + acc.getClass().getName()
                                 + " operator where " + this.getClass().getName() + " expected");
@@ -431,16 +442,18 @@ public class AggregatorImpls {
         public <U extends IAggregableReduceOp<T, Writable>> void combine(U acc) {
             if (this.getClass().isAssignableFrom(acc.getClass())) {
                 AggregableVariance<T> accu = (AggregableVariance<T>) acc;
+                if (accu.getCount() == 0)
+                    return;
 
+                // Chan et al. pairwise update of the Welford states
                 Long totalCount = count + accu.getCount();
-                Double totalMean = (accu.getMean() * accu.getCount() + mean * count) / totalCount;
-                // the variance of the union is the sum of variances
-                Double variance = variation / (count - 1);
-                Double otherVariance = accu.getVariation() / (accu.getCount() - 1);
-                Double totalVariation = (variance + otherVariance) * (totalCount - 1);
+                Double delta = accu.getMean() - mean;
+                Double totalMean = mean + delta * accu.getCount() / totalCount;
+                Double totalVariation = variation + accu.getVariation()
+                                + delta * delta * count * accu.getCount() / totalCount;
                 count = totalCount;
                 mean = totalMean;
-                variation = variation;
+                variation = totalVariation;
             } else
                 throw new UnsupportedOperationException("Tried to combine() incompatible " + acc.getClass().getName()
                                 + " operator where " + this.getClass().getName() + " expected");
@@ -0,0 +1,165 @@
+/*
+ *  * Copyright 2017 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.transform.reduce.impl;
+
+import com.tdunning.math.stats.TDigest;
+import lombok.Data;
+import org.datavec.api.transform.metadata.ColumnMetaData;
+import org.datavec.api.transform.metadata.DoubleMetaData;
+import org.datavec.api.transform.ops.IAggregableReduceOp;
+import org.datavec.api.transform.reduce.AggregableColumnReduction;
+import org.datavec.api.transform.schema.Schema;
+import org.datavec.api.writable.DoubleWritable;
+import org.datavec.api.writable.NullWritable;
+import org.datavec.api.writable.Writable;
+import org.nd4j.base.Preconditions;
+import org.nd4j.shade.jackson.annotation.JsonProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Approximate percentiles of a numerical column, estimated with a {@link TDigest}: the memory used per key is
+ * bounded by the compression of the digest, whatever the number of values, and the digests of partial reductions
+ * can be merged.<br>
+ * One output column is added per requested quantile, named for example "p50(myColumn)" for the 0.5 quantile.
+ * Empty reductions return {@link NullWritable}s.
+ */
+@Data
+public class PercentileReduction implements AggregableColumnReduction {
+
+    public static final double DEFAULT_COMPRESSION = 100;
+
+    private double[] quantiles;
+    private double compression;
+
+    /**
+     * @param quantiles Quantiles to estimate, between 0 and 1
+     */
+    public PercentileReduction(double... quantiles) {
+        this(quantiles, DEFAULT_COMPRESSION);
+    }
+
+    public PercentileReduction(@JsonProperty("quantiles") double[] quantiles,
+                    @JsonProperty("compression") double compression) {
+        Preconditions.checkArgument(quantiles != null && quantiles.length > 0, "At least one quantile is required");
+        for (double q : quantiles)
+            Preconditions.checkArgument(q >= 0.0 && q <= 1.0, "Quantiles must be between 0 and 1, got %s", q);
+        this.quantiles = quantiles;
+        this.compression = compression;
+    }
+
+    @Override
+    public IAggregableReduceOp<Writable, List<Writable>> reduceOp() {
+        return new TDigestReduceOp(quantiles, compression);
+    }
+
+    @Override
+    public List<String> getColumnsOutputName(String columnInputName) {
+        List<String> ret = new ArrayList<>(quantiles.length);
+        for (double q : quantiles) {
+            String p = String.valueOf(q * 100);
+            if (p.endsWith(".0"))
+                p = p.substring(0, p.length() - 2);
+            ret.add("p" + p + "(" + columnInputName + ")");
+        }
+        return ret;
+    }
+
+    @Override
+    public List<ColumnMetaData> getColumnOutputMetaData(List<String> newColumnName, ColumnMetaData columnInputMeta) {
+        List<ColumnMetaData> ret = new ArrayList<>(newColumnName.size());
+        for (String name : newColumnName)
+            ret.add(new DoubleMetaData(name));
+        return ret;
+    }
+
+    @Override
+    public Schema transform(Schema inputSchema) {
+        //No change
+        return inputSchema;
+    }
+
+    @Override
+    public void setInputSchema(Schema inputSchema) {
+        //No op
+    }
+
+    @Override
+    public Schema getInputSchema() {
+        return null;
+    }
+
+    @Override
+    public String outputColumnName() {
+        return null;
+    }
+
+    @Override
+    public String[] outputColumnNames() {
+        return new String[0];
+    }
+
+    @Override
+    public String[] columnNames() {
+        return new String[0];
+    }
+
+    @Override
+    public String columnName() {
+        return null;
+    }
+
+    public static class TDigestReduceOp implements IAggregableReduceOp<Writable, List<Writable>> {
+
+        private final double[] quantiles;
+        private final TDigest digest;
+
+        public TDigestReduceOp(double[] quantiles, double compression) {
+            this.quantiles = quantiles;
+            this.digest = TDigest.createDigest(compression);
+        }
+
+        @Override
+        public <W extends IAggregableReduceOp<Writable, List<Writable>>> void combine(W accu) {
+            if (accu instanceof TDigestReduceOp) {
+                digest.add(((TDigestReduceOp) accu).digest);
+            } else {
+                throw new IllegalStateException("Cannot combine type of class: " + accu.getClass());
+            }
+        }
+
+        @Override
+        public void accept(Writable writable) {
+            if (writable instanceof NullWritable)
+                return;
+            digest.add(writable.toDouble());
+        }
+
+        @Override
+        public List<Writable> get() {
+            List<Writable> ret = new ArrayList<>(quantiles.length);
+            for (double q : quantiles) {
+                if (digest.size() == 0)
+                    ret.add(NullWritable.INSTANCE);
+                else
+                    ret.add(new DoubleWritable(digest.quantile(q)));
+            }
+            return ret;
+        }
+    }
+}
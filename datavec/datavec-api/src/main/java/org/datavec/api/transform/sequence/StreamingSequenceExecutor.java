@@ -0,0 +1,353 @@
+/*-
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.transform.sequence;
+
+import org.datavec.api.transform.DataAction;
+import org.datavec.api.transform.Transform;
+import org.datavec.api.transform.TransformProcess;
+import org.datavec.api.transform.ops.IAggregableReduceOp;
+import org.datavec.api.transform.sequence.expansion.BaseSequenceExpansionTransform;
+import org.datavec.api.transform.sequence.trim.SequenceTrimTransform;
+import org.datavec.api.transform.sequence.window.ReduceSequenceByWindowTransform;
+import org.datavec.api.transform.sequence.window.TimeWindowFunction;
+import org.datavec.api.transform.transform.sequence.SequenceDifferenceTransform;
+import org.datavec.api.transform.transform.sequence.SequenceMovingWindowReduceTransform;
+import org.datavec.api.transform.transform.sequence.SequenceOffsetTransform;
+import org.datavec.api.writable.LongWritable;
+import org.datavec.api.writable.Writable;
+
+import java.util.*;
+
+/**
+ * Executes the transforms of a sequence {@link TransformProcess} incrementally, one time step at a time,
+ * instead of materializing the whole sequence for every transform as {@link TransformProcess#executeSequence(List)}
+ * does. The memory used is bounded by the context of the transforms, not by the length of the sequence:
+ * <ul>
+ *     <li>Transforms operating on single time steps (most of the transforms) are applied step by step</li>
+ *     <li>{@link SequenceDifferenceTransform}, {@link SequenceMovingWindowReduceTransform} and
+ *     {@link SequenceOffsetTransform} keep the last (or next) few time steps they need in a ring buffer</li>
+ *     <li>{@link ReduceSequenceByWindowTransform} with a {@link TimeWindowFunction} reduces each window
+ *     as its time steps arrive, keeping only the aggregation state of the current window</li>
+ * </ul>
+ * The output is the same as the output of {@link TransformProcess#executeSequence(List)}.
+ * Operations that need the whole sequence (filters, trimming, sequence expansion, whole sequence reductions,
+ * overlapping windows, splits and conversions) are not supported: an {@link UnsupportedOperationException}
+ * is thrown when the executor is created.<br>
+ * The executor itself is stateless and thread safe: the state of every sequence is held by its {@link Sequence},
+ * so independent sequences can be executed in parallel.
+ *
+ * Example usage:
+ * <pre>
+ * {@code
+ * StreamingSequenceExecutor executor = new StreamingSequenceExecutor(transformProcess);
+ * Iterator<List<Writable>> out = executor.execute(timeStepIterator);
+ * }
+ * </pre>
+ */
+public class StreamingSequenceExecutor {
+
+    private final TransformProcess transformProcess;
+
+    public StreamingSequenceExecutor(TransformProcess transformProcess) {
+        for (DataAction d : transformProcess.getActionList()) {
+            if (d.getTransform() == null)
+                throw new UnsupportedOperationException("Cannot execute " + d + " incrementally: only transforms "
+                                + "are supported by the streaming sequence executor");
+            Transform t = d.getTransform();
+            if (t instanceof SequenceTrimTransform || t instanceof BaseSequenceExpansionTransform
+                            || t instanceof ReduceSequenceTransform)
+                throw new UnsupportedOperationException("Cannot execute " + t + " incrementally: the transform "
+                                + "requires the whole sequence");
+            if (t instanceof ReduceSequenceByWindowTransform
+                            && !(((ReduceSequenceByWindowTransform) t).getWindowFunction() instanceof TimeWindowFunction))
+                throw new UnsupportedOperationException("Cannot execute " + t + " incrementally: only "
+                                + "TimeWindowFunction windows are supported");
+        }
+        this.transformProcess = transformProcess;
+    }
+
+    /**
+     * Start the execution of a new sequence
+     */
+    public Sequence newSequence() {
+        return new Sequence(transformProcess.getActionList());
+    }
+
+    /**
+     * Execute the transform process on a whole sequence
+     *
+     * @param sequence Input sequence
+     * @return The transformed sequence
+     */
+    public List<List<Writable>> executeSequence(List<List<Writable>> sequence) {
+        Sequence s = newSequence();
+        List<List<Writable>> out = new ArrayList<>();
+        for (List<Writable> step : sequence)
+            out.addAll(s.push(step));
+        out.addAll(s.finish());
+        return out;
+    }
+
+    /**
+     * Execute the transform process lazily on the time steps of a single sequence: time steps are
+     * pulled from the input iterator only as output time steps are requested.
+     *
+     * @param steps The time steps of the input sequence
+     * @return An iterator over the time steps of the transformed sequence
+     */
+    public Iterator<List<Writable>> execute(final Iterator<List<Writable>> steps) {
+        final Sequence s = newSequence();
+        return new Iterator<List<Writable>>() {
+            private final LinkedList<List<Writable>> buffer = new LinkedList<>();
+            private boolean finished;
+
+            @Override
+            public boolean hasNext() {
+                while (buffer.isEmpty() && !finished) {
+                    if (steps.hasNext()) {
+                        buffer.addAll(s.push(steps.next()));
+                    } else {
+                        buffer.addAll(s.finish());
+                        finished = true;
+                    }
+                }
+                return !buffer.isEmpty();
+            }
+
+            @Override
+            public List<Writable> next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                return buffer.removeFirst();
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    /**
+     * The execution state of a single sequence. Time steps are pushed one at a time, in order, then
+     * {@link #finish()} flushes the time steps still held by the transforms. Not thread safe.
+     */
+    public static class Sequence {
+        private final Stage first;
+        private final List<List<Writable>> output = new ArrayList<>();
+        private boolean finished;
+
+        private Sequence(List<DataAction> actions) {
+            Stage next = new Stage() {
+                @Override
+                void push(List<Writable> step) {
+                    output.add(step);
+                }
+            };
+            for (int i = actions.size() - 1; i >= 0; i--) {
+                Stage stage = stageFor(actions.get(i).getTransform());
+                stage.next = next;
+                next = stage;
+            }
+            first = next;
+        }
+
+        /**
+         * Push the next time step of the sequence
+         *
+         * @param step Next input time step
+         * @return The output time steps that could be computed so far (possibly none)
+         */
+        public List<List<Writable>> push(List<Writable> step) {
+            if (finished)
+                throw new IllegalStateException("Sequence has already been finished");
+            output.clear();
+            first.push(step);
+            return new ArrayList<>(output);
+        }
+
+        /**
+         * Signal the end of the sequence
+         *
+         * @return The remaining output time steps
+         */
+        public List<List<Writable>> finish() {
+            if (finished)
+                throw new IllegalStateException("Sequence has already been finished");
+            finished = true;
+            output.clear();
+            first.finish();
+            return new ArrayList<>(output);
+        }
+    }
+
+    private static Stage stageFor(Transform t) {
+        if (t instanceof SequenceDifferenceTransform)
+            return new ContextStage(t, ((SequenceDifferenceTransform) t).getLookback(), 0);
+        if (t instanceof SequenceMovingWindowReduceTransform)
+            return new ContextStage(t, Math.max(((SequenceMovingWindowReduceTransform) t).getLookback() - 1, 0), 0);
+        if (t instanceof SequenceOffsetTransform) {
+            int offset = ((SequenceOffsetTransform) t).getOffsetAmount();
+            return new ContextStage(t, Math.max(offset, 0), Math.max(-offset, 0));
+        }
+        if (t instanceof ReduceSequenceByWindowTransform)
+            return new TimeWindowReduceStage((ReduceSequenceByWindowTransform) t);
+        return new MapStage(t);
+    }
+
+    private abstract static class Stage {
+        protected Stage next;
+
+        abstract void push(List<Writable> step);
+
+        void finish() {
+            if (next != null)
+                next.finish();
+        }
+    }
+
+    private static class MapStage extends Stage {
+        private final Transform transform;
+
+        private MapStage(Transform transform) {
+            this.transform = transform;
+        }
+
+        @Override
+        void push(List<Writable> step) {
+            next.push(transform.map(step));
+        }
+    }
+
+    /**
+     * Applies a sequence transform whose output at step t only depends on the steps [t-lookback, t+lookahead]:
+     * the transform is applied to that window only, and the output aligned with step t is kept.
+     * Only one of lookback and lookahead is non zero.
+     */
+    private static class ContextStage extends Stage {
+        private final Transform transform;
+        private final int lookback;
+        private final int lookahead;
+        private final LinkedList<List<Writable>> window = new LinkedList<>();
+
+        private ContextStage(Transform transform, int lookback, int lookahead) {
+            this.transform = transform;
+            this.lookback = lookback;
+            this.lookahead = lookahead;
+        }
+
+        @Override
+        void push(List<Writable> step) {
+            window.addLast(step);
+            if (lookahead == 0) {
+                //Window is [t-lookback, t], the output for t is the last output
+                if (window.size() > lookback + 1)
+                    window.removeFirst();
+                emitLast(transform.mapSequence(window));
+            } else if (window.size() == lookahead + 1) {
+                //Window is [t, t+lookahead], the output for t is the first output
+                emitFirst(transform.mapSequence(window));
+                window.removeFirst();
+            }
+        }
+
+        @Override
+        void finish() {
+            //Last steps: the window gets truncated at the end of the sequence
+            while (lookahead > 0 && !window.isEmpty()) {
+                emitFirst(transform.mapSequence(window));
+                window.removeFirst();
+            }
+            window.clear();
+            super.finish();
+        }
+
+        private void emitLast(List<List<Writable>> out) {
+            if (!out.isEmpty())
+                next.push(out.get(out.size() - 1));
+        }
+
+        private void emitFirst(List<List<Writable>> out) {
+            if (!out.isEmpty())
+                next.push(out.get(0));
+        }
+    }
+
+    /**
+     * Reduces the non overlapping windows of a {@link TimeWindowFunction} as the time steps arrive,
+     * emitting the empty windows between two time steps the same way {@link TimeWindowFunction#applyToSequence(List)}
+     * does.
+     */
+    private static class TimeWindowReduceStage extends Stage {
+        private final ReduceSequenceByWindowTransform transform;
+        private final TimeWindowFunction windowFunction;
+        private final int timeColumnIdx;
+        private long currentWindowStartTime = Long.MIN_VALUE;
+        private IAggregableReduceOp<List<Writable>, List<Writable>> current;
+        private int currentSize;
+
+        private TimeWindowReduceStage(ReduceSequenceByWindowTransform transform) {
+            this.transform = transform;
+            this.windowFunction = (TimeWindowFunction) transform.getWindowFunction();
+            this.timeColumnIdx = windowFunction.getInputSchema().getIndexOfColumn(windowFunction.getTimeColumn());
+        }
+
+        @Override
+        void push(List<Writable> step) {
+            long windowStartTimeOfThisTimeStep = windowFunction.getWindowStartTimeForTime(step.get(timeColumnIdx).toLong());
+            if (current == null) {
+                currentWindowStartTime = windowStartTimeOfThisTimeStep;
+                newWindow();
+            }
+            while (currentWindowStartTime < windowStartTimeOfThisTimeStep) {
+                emitWindow();
+                newWindow();
+                currentWindowStartTime += windowFunction.getWindowSizeMilliseconds();
+            }
+
+            if (windowFunction.isAddWindowStartTimeColumn() || windowFunction.isAddWindowEndTimeColumn()) {
+                List<Writable> step2 = new ArrayList<>(step.size() + 2);
+                step2.addAll(step);
+                if (windowFunction.isAddWindowStartTimeColumn())
+                    step2.add(new LongWritable(currentWindowStartTime));
+                if (windowFunction.isAddWindowEndTimeColumn())
+                    step2.add(new LongWritable(currentWindowStartTime + windowFunction.getWindowSizeMilliseconds()));
+                step = step2;
+            }
+            current.accept(step);
+            currentSize++;
+        }
+
+        @Override
+        void finish() {
+            if (current != null)
+                emitWindow();
+            current = null;
+            super.finish();
+        }
+
+        private void newWindow() {
+            current = transform.getReducer().aggregableReducer();
+            currentSize = 0;
+        }
+
+        private void emitWindow() {
+            if (!(windowFunction.isExcludeEmptyWindows() && currentSize == 0))
+                next.push(current.get());
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*-
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.records.reader.impl;
+
+import org.apache.commons.io.FileUtils;
+import org.datavec.api.records.Record;
+import org.datavec.api.records.reader.impl.csv.CSVRecordReader;
+import org.datavec.api.records.reader.impl.csv.CSVSchemaRecordReader;
+import org.datavec.api.split.FileSplit;
+import org.datavec.api.transform.metadata.BooleanMetaData;
+import org.datavec.api.transform.schema.Schema;
+import org.datavec.api.writable.*;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.nd4j.linalg.api.ndarray.INDArray;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class CSVSchemaRecordReaderTest {
+
+    @Rule
+    public TemporaryFolder testDir = new TemporaryFolder();
+
+    private static Schema schema() {
+        return new Schema.Builder().addColumnInteger("int").addColumnDouble("double").addColumnString("string")
+                        .addColumnCategorical("cat", "a", "b").addColumnLong("long").addColumn(new BooleanMetaData("bool")).build();
+    }
+
+    @Test
+    public void testParseTypes() throws Exception {
+        File f = testDir.newFile();
+        FileUtils.writeStringToFile(f, "int,double,string,cat,long,bool\n"
+                        + "1,2.5,hello,a,12345678901,true\r\n"
+                        + "\n"
+                        + "-3,1e-3,\"quoted, \"\"value\"\"\",b,-1,FALSE\n"
+                        + "x,NaN,,a,7,maybe", "UTF-8");
+
+        CSVSchemaRecordReader rr = new CSVSchemaRecordReader(schema(), 1, ',');
+        rr.initialize(new FileSplit(f));
+
+        assertTrue(rr.hasNext());
+        assertEquals(Arrays.<Writable>asList(new IntWritable(1), new DoubleWritable(2.5), new Text("hello"),
+                        new Text("a"), new LongWritable(12345678901L), new BooleanWritable(true)), rr.next());
+        assertEquals(Arrays.<Writable>asList(new IntWritable(-3), new DoubleWritable(1e-3),
+                        new Text("quoted, \"value\""), new Text("b"), new LongWritable(-1), new BooleanWritable(false)),
+                        rr.next());
+        //invalid values are returned as Text
+        List<Writable> last = rr.next();
+        assertEquals(new Text("x"), last.get(0));
+        assertTrue(Double.isNaN(last.get(1).toDouble()));
+        assertEquals(new Text(""), last.get(2));
+        assertEquals(new Text("maybe"), last.get(5));
+        assertFalse(rr.hasNext());
+
+        rr.reset();
+        assertEquals(new IntWritable(1), rr.next().get(0));
+    }
+
+    @Test
+    public void testSameValuesAsCSVRecordReader() throws Exception {
+        Random r = new Random(12345);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            double d = r.nextGaussian() * Math.pow(10, r.nextInt(30) - 15);
+            sb.append(r.nextInt()).append(',').append(d).append(',').append("s").append(i).append(',')
+                            .append(i % 2 == 0 ? "a" : "b").append(',').append(r.nextLong()).append(',')
+                            .append(r.nextBoolean()).append('\n');
+        }
+        File f = testDir.newFile();
+        FileUtils.writeStringToFile(f, sb.toString(), "UTF-8");
+
+        CSVRecordReader expected = new CSVRecordReader();
+        expected.initialize(new FileSplit(f));
+        CSVSchemaRecordReader rr = new CSVSchemaRecordReader(schema(), 0, ',', '"', 64);
+        rr.initialize(new FileSplit(f));
+
+        int count = 0;
+        while (expected.hasNext()) {
+            List<Writable> exp = expected.next();
+            List<Writable> act = rr.next();
+            assertEquals(exp.get(0).toInt(), act.get(0).toInt());
+            //exact conversion
+            assertEquals(Double.parseDouble(exp.get(1).toString()), act.get(1).toDouble(), 0.0);
+            assertEquals(exp.get(2), act.get(2));
+            assertEquals(exp.get(4).toLong(), act.get(4).toLong());
+            count++;
+        }
+        assertFalse(rr.hasNext());
+        assertEquals(2000, count);
+    }
+
+    @Test
+    public void testByteRanges() throws Exception {
+        StringBuilder sb = new StringBuilder("header\n");
+        for (int i = 0; i < 1000; i++)
+            sb.append(i).append(',').append(i * 0.5).append(i % 10 == 0 ? "\n\n" : "\n");
+        File f = testDir.newFile();
+        FileUtils.writeStringToFile(f, sb.toString(), "UTF-8");
+
+        Schema schema = new Schema.Builder().addColumnInteger("i").addColumnDouble("d").build();
+        for (int numRanges : new int[] {1, 3, 7, 64}) {
+            long[] ranges = CSVSchemaRecordReader.byteRanges(f, numRanges);
+            List<Integer> values = new ArrayList<>();
+            for (int r = 0; r < numRanges; r++) {
+                CSVSchemaRecordReader rr = new CSVSchemaRecordReader(schema, 1, ',');
+                rr.initialize(f, ranges[r], ranges[r + 1]);
+                while (rr.hasNext())
+                    values.add(rr.next().get(0).toInt());
+                rr.close();
+            }
+            assertEquals(1000, values.size());
+            for (int i = 0; i < 1000; i++)
+                assertEquals(i, (int) values.get(i));
+        }
+    }
+
+    @Test
+    public void testNextArrayAndMetaData() throws Exception {
+        File f = testDir.newFile();
+        FileUtils.writeStringToFile(f, "1,0.5\n2,1.5\n3,2.5\n", "UTF-8");
+        Schema schema = new Schema.Builder().addColumnInteger("i").addColumnDouble("d").build();
+
+        CSVSchemaRecordReader rr = new CSVSchemaRecordReader(schema);
+        rr.initialize(new FileSplit(f));
+        INDArray arr = rr.nextArray(2);
+        assertArrayEquals(new long[] {2, 2}, arr.shape());
+        assertEquals(2.0, arr.getDouble(1, 0), 0.0);
+        assertEquals(1.5, arr.getDouble(1, 1), 0.0);
+        arr = rr.nextArray(2);
+        assertArrayEquals(new long[] {1, 2}, arr.shape());
+        assertFalse(rr.hasNext());
+
+        rr.reset();
+        List<Record> records = new ArrayList<>();
+        while (rr.hasNext())
+            records.add(rr.nextRecord());
+        assertEquals(3, records.size());
+        Record loaded = rr.loadFromMetaData(records.get(2).getMetaData());
+        assertEquals(records.get(2).getRecord(), loaded.getRecord());
+        assertEquals(Arrays.<Writable>asList(new IntWritable(3), new DoubleWritable(2.5)), loaded.getRecord());
+    }
+}
@@ -0,0 +1,149 @@
+/*-
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.records.reader.impl;
+
+import org.datavec.api.records.Record;
+import org.datavec.api.records.reader.impl.shard.ShardRecordReader;
+import org.datavec.api.records.writer.impl.shard.ShardRecordWriter;
+import org.datavec.api.split.CollectionInputSplit;
+import org.datavec.api.split.FileSplit;
+import org.datavec.api.split.partition.NumberOfRecordsPartitioner;
+import org.datavec.api.writable.*;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.net.URI;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class ShardRecordReaderTest {
+
+    @Rule
+    public TemporaryFolder testDir = new TemporaryFolder();
+
+    private List<URI> writeShards(int... shardSizes) throws Exception {
+        List<URI> shards = new ArrayList<>();
+        int count = 0;
+        for (int size : shardSizes) {
+            File f = testDir.newFile();
+            ShardRecordWriter writer = new ShardRecordWriter();
+            writer.initialize(new FileSplit(f), new NumberOfRecordsPartitioner());
+            List<List<Writable>> batch = new ArrayList<>();
+            for (int i = 0; i < size; i++, count++)
+                batch.add(record(count));
+            writer.writeBatch(batch);
+            writer.close();
+            shards.add(f.toURI());
+        }
+        return shards;
+    }
+
+    private static List<Writable> record(int i) {
+        return Arrays.<Writable>asList(new IntWritable(i), new DoubleWritable(i / 2.0), new Text("record " + i),
+                        new LongWritable(-i), NullWritable.INSTANCE);
+    }
+
+    @Test
+    public void testWriteRead() throws Exception {
+        ShardRecordReader reader = new ShardRecordReader();
+        reader.initialize(new CollectionInputSplit(writeShards(100, 100, 50)));
+        assertEquals(250, reader.numRecords());
+
+        for (int epoch = 0; epoch < 2; epoch++) {
+            int count = 0;
+            while (reader.hasNext()) {
+                assertEquals(record(count), reader.next());
+                count++;
+            }
+            assertEquals(250, count);
+            reader.reset();
+        }
+    }
+
+    @Test
+    public void testLoadFromMetaData() throws Exception {
+        ShardRecordReader reader = new ShardRecordReader(12345);
+        reader.initialize(new CollectionInputSplit(writeShards(30, 40)));
+
+        List<Record> records = new ArrayList<>();
+        while (reader.hasNext())
+            records.add(reader.nextRecord());
+        assertEquals(70, records.size());
+
+        Collections.reverse(records);
+        for (Record r : records) {
+            Record loaded = reader.loadFromMetaData(r.getMetaData());
+            assertEquals(r.getRecord(), loaded.getRecord());
+        }
+    }
+
+    @Test
+    public void testShuffle() throws Exception {
+        List<URI> shards = writeShards(100, 100, 50);
+
+        ShardRecordReader reader = new ShardRecordReader(12345, 8);
+        reader.initialize(new CollectionInputSplit(shards));
+        List<Integer> first = order(reader);
+        reader.reset();
+        List<Integer> second = order(reader);
+
+        List<Integer> sorted = new ArrayList<>(first);
+        Collections.sort(sorted);
+        for (int i = 0; i < 250; i++)
+            assertEquals(i, (int) sorted.get(i));
+        assertNotEquals(sorted, first);
+        assertNotEquals(first, second);
+
+        //same seed, same orders
+        ShardRecordReader reader2 = new ShardRecordReader(12345, 8);
+        reader2.initialize(new CollectionInputSplit(shards));
+        assertEquals(first, order(reader2));
+
+        //records of a shard are returned together, blocks of 8 records together
+        int shard = first.get(0) / 100;
+        for (int i = 0; i < 8; i++)
+            assertEquals(shard, first.get(i) / 100);
+    }
+
+    @Test
+    public void testShardWithoutIndex() throws Exception {
+        List<URI> shards = writeShards(20);
+        File f = new File(shards.get(0));
+        try (RandomAccessFile raf = new RandomAccessFile(f, "rw")) {
+            //drop the index: 20 offsets and the footer
+            raf.setLength(raf.length() - 8 * 20 - ShardRecordReader.FOOTER_LENGTH);
+        }
+
+        ShardRecordReader reader = new ShardRecordReader();
+        reader.initialize(new CollectionInputSplit(shards));
+        int count = 0;
+        while (reader.hasNext())
+            assertEquals(record(count++), reader.next());
+        assertEquals(20, count);
+    }
+
+    private static List<Integer> order(ShardRecordReader reader) {
+        List<Integer> order = new ArrayList<>();
+        while (reader.hasNext())
+            order.add(reader.next().get(0).toInt());
+        return order;
+    }
+}
@@ -1,8 +1,10 @@
 package org.datavec.api.records.reader.impl.transform;
 
+import org.datavec.api.records.SequenceRecord;
 import org.datavec.api.records.reader.impl.csv.CSVRecordReader;
 import org.datavec.api.records.reader.impl.inmemory.InMemorySequenceRecordReader;
 import org.datavec.api.split.FileSplit;
+import org.datavec.api.transform.MathOp;
 import org.datavec.api.transform.TransformProcess;
 import org.datavec.api.transform.schema.Schema;
 import org.datavec.api.transform.schema.SequenceSchema;
@@ -18,6 +20,7 @@ import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -74,4 +77,39 @@ public class TransformProcessRecordReaderTests {
         assertEquals(2, next.get(0).size());
 
     }
+
+    @Test
+    public void parallelTransformTestSequence() throws Exception {
+        List<List<List<Writable>>> sequences = new ArrayList<>();
+        for (int i = 0; i < 37; i++) {
+            List<List<Writable>> sequence = new ArrayList<>();
+            for (int j = 0; j <= i; j++)
+                sequence.add(Arrays.asList((Writable) new LongWritable(1451606400000L + j), new IntWritable(i),
+                                new IntWritable(j)));
+            sequences.add(sequence);
+        }
+
+        Schema schema = new SequenceSchema.Builder().addColumnTime("timecolumn", DateTimeZone.UTC)
+                        .addColumnInteger("intcolumn").addColumnInteger("intcolumn2").build();
+        TransformProcess transformProcess = new TransformProcess.Builder(schema).removeColumns("timecolumn")
+                        .integerMathOp("intcolumn2", MathOp.Multiply, 2).build();
+
+        TransformProcessSequenceRecordReader rr = new TransformProcessSequenceRecordReader(
+                        new InMemorySequenceRecordReader(sequences), transformProcess, 4);
+        for (int epoch = 0; epoch < 2; epoch++) {
+            for (int i = 0; i < sequences.size(); i++) {
+                assertTrue(rr.hasNext());
+                List<List<Writable>> expected = transformProcess.executeSequence(sequences.get(i));
+                if (i % 2 == 0) {
+                    assertEquals(expected, rr.sequenceRecord());
+                } else {
+                    SequenceRecord record = rr.nextSequence();
+                    assertEquals(expected, record.getSequenceRecord());
+                }
+            }
+            assertFalse(rr.hasNext());
+            rr.reset();
+        }
+        rr.close();
+    }
 }
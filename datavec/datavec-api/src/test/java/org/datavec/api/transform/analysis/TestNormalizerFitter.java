@@ -0,0 +1,85 @@
+/*-
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.transform.analysis;
+
+import org.datavec.api.records.reader.impl.collection.CollectionRecordReader;
+import org.datavec.api.transform.analysis.columns.ColumnAnalysis;
+import org.datavec.api.transform.analysis.columns.DoubleAnalysis;
+import org.datavec.api.transform.analysis.columns.IntegerAnalysis;
+import org.datavec.api.transform.schema.Schema;
+import org.datavec.api.writable.DoubleWritable;
+import org.datavec.api.writable.IntWritable;
+import org.datavec.api.writable.Text;
+import org.datavec.api.writable.Writable;
+import org.junit.Test;
+import org.nd4j.linalg.dataset.api.preprocessor.NormalizerMinMaxScaler;
+import org.nd4j.linalg.dataset.api.preprocessor.NormalizerStandardize;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class TestNormalizerFitter {
+
+    @Test
+    public void testFromAnalysis() {
+        Schema schema = new Schema.Builder().addColumnString("str").addColumnInteger("int").addColumnDouble("dbl")
+                        .build();
+        List<ColumnAnalysis> list = new ArrayList<>();
+        list.add(null);
+        list.add(new IntegerAnalysis.Builder().countTotal(5).min(-2).max(8).mean(3.0).sampleVariance(10.0)
+                        .sampleStdev(Math.sqrt(10.0)).build());
+        list.add(new DoubleAnalysis.Builder().countTotal(5).min(0.5).max(1.5).mean(1.0).sampleVariance(0.25)
+                        .sampleStdev(0.5).build());
+        DataAnalysis analysis = new DataAnalysis(schema, list);
+
+        NormalizerStandardize standardize = NormalizerFitter.standardize(analysis, "dbl", "int");
+        assertEquals(Nd4j.create(new double[] {1.0, 3.0}), standardize.getMean());
+        assertEquals(Nd4j.create(new double[] {Math.sqrt(0.2), Math.sqrt(8.0)}), standardize.getStd());
+
+        NormalizerMinMaxScaler minMax = NormalizerFitter.minMax(analysis, "int", "dbl");
+        assertEquals(Nd4j.create(new double[] {-2, 0.5}), minMax.getMin());
+        assertEquals(Nd4j.create(new double[] {8, 1.5}), minMax.getMax());
+    }
+
+    @Test
+    public void testFromRecordReader() {
+        List<List<Writable>> records = new ArrayList<>();
+        double[][] values = new double[23][2];
+        for (int i = 0; i < values.length; i++) {
+            values[i][0] = i;
+            values[i][1] = (i * 7) % 5 - 0.5;
+            records.add(Arrays.<Writable>asList(new DoubleWritable(values[i][0]), new Text("x"),
+                            new IntWritable(i % 2), new DoubleWritable(values[i][1])));
+        }
+
+        NormalizerStandardize expected = new NormalizerStandardize();
+        expected.fit(new org.nd4j.linalg.dataset.DataSet(Nd4j.create(values), Nd4j.zeros(values.length, 1)));
+
+        CollectionRecordReader reader = new CollectionRecordReader(records);
+        NormalizerStandardize standardize = NormalizerFitter.standardize(reader, 5, 0, 3);
+        assertEquals(expected.getMean(), standardize.getMean());
+        assertEquals(expected.getStd(), standardize.getStd());
+
+        NormalizerMinMaxScaler minMax = NormalizerFitter.minMax(reader, 4, 0.0, 1.0, 0, 3);
+        assertEquals(Nd4j.create(new double[] {0, -0.5}), minMax.getMin());
+        assertEquals(Nd4j.create(new double[] {22, 3.5}), minMax.getMax());
+    }
+}
@@ -192,7 +192,8 @@ public class AggregatorImplsTest {
             reverse.accept(intList.get(intList.size() - i - 1));
         }
         sd.combine(reverse);
-        assertTrue("" + sd.get().toDouble(), Math.abs(sd.get().toDouble() - 1.8787) < 0.0001);
+        //Combined: 1..9 twice, sum of squared deviations is 2 * 60
+        assertTrue("" + sd.get().toDouble(), Math.abs(sd.get().toDouble() - Math.sqrt(120D / 17)) < 0.0001);
     }
 
     @Test
@@ -209,7 +210,8 @@ public class AggregatorImplsTest {
             reverse.accept(intList.get(intList.size() - i - 1));
         }
         sd.combine(reverse);
-        assertTrue("" + sd.get().toDouble(), Math.abs(sd.get().toDouble() - 3.5294) < 0.0001);
+        //Combined: 1..9 twice, sum of squared deviations is 2 * 60
+        assertTrue("" + sd.get().toDouble(), Math.abs(sd.get().toDouble() - 120D / 17) < 0.0001);
     }
 
     @Test
@@ -227,7 +229,8 @@ public class AggregatorImplsTest {
             reverse.accept(intList.get(intList.size() - i - 1));
         }
         sd.combine(reverse);
-        assertTrue("" + sd.get().toDouble(), Math.abs(sd.get().toDouble() - 1.8257) < 0.0001);
+        //Combined: 1..9 twice, sum of squared deviations is 2 * 60
+        assertTrue("" + sd.get().toDouble(), Math.abs(sd.get().toDouble() - Math.sqrt(120D / 18)) < 0.0001);
     }
 
 
@@ -246,7 +249,8 @@ public class AggregatorImplsTest {
             reverse.accept(intList.get(intList.size() - i - 1));
         }
         sd.combine(reverse);
-        assertTrue("" + sd.get().toDouble(), Math.abs(sd.get().toDouble() - 30D / 9) < 0.0001);
+        //Combined: 1..9 twice, sum of squared deviations is 2 * 60
+        assertTrue("" + sd.get().toDouble(), Math.abs(sd.get().toDouble() - 120D / 18) < 0.0001);
     }
 
     @Test
@@ -18,6 +18,9 @@ package org.datavec.api.transform.reduce;
 
 import org.datavec.api.transform.ops.IAggregableReduceOp;
 import org.datavec.api.transform.reduce.impl.GeographicMidpointReduction;
+import org.datavec.api.transform.reduce.impl.PercentileReduction;
+import org.datavec.api.writable.DoubleWritable;
+import org.datavec.api.writable.NullWritable;
 import org.datavec.api.writable.Text;
 import org.datavec.api.writable.Writable;
 import org.junit.Test;
@@ -89,4 +92,24 @@ public class TestReductions {
         assertEquals(expLong, lng, 1e-6);
     }
 
+    @Test
+    public void testPercentileReduction() {
+        PercentileReduction reduction = new PercentileReduction(0.5, 0.9);
+        assertEquals(Arrays.asList("p50(col)", "p90(col)"), reduction.getColumnsOutputName("col"));
+
+        IAggregableReduceOp<Writable, List<Writable>> reduceOp = reduction.reduceOp();
+        assertEquals(Arrays.<Writable>asList(NullWritable.INSTANCE, NullWritable.INSTANCE), reduceOp.get());
+
+        //Two partial reductions, combined: 0..9999
+        IAggregableReduceOp<Writable, List<Writable>> reduceOp2 = reduction.reduceOp();
+        for (int i = 0; i < 10000; i++) {
+            (i % 2 == 0 ? reduceOp : reduceOp2).accept(new DoubleWritable(i));
+        }
+        reduceOp.combine(reduceOp2);
+
+        List<Writable> out = reduceOp.get();
+        assertEquals(2, out.size());
+        assertEquals(5000, out.get(0).toDouble(), 50);
+        assertEquals(9000, out.get(1).toDouble(), 50);
+    }
 }
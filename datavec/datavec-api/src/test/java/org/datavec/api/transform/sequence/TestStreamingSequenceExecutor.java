@@ -0,0 +1,138 @@
+/*-
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.transform.sequence;
+
+import org.datavec.api.transform.MathOp;
+import org.datavec.api.transform.ReduceOp;
+import org.datavec.api.transform.TransformProcess;
+import org.datavec.api.transform.reduce.Reducer;
+import org.datavec.api.transform.schema.Schema;
+import org.datavec.api.transform.schema.SequenceSchema;
+import org.datavec.api.transform.sequence.window.TimeWindowFunction;
+import org.datavec.api.transform.transform.sequence.SequenceDifferenceTransform;
+import org.datavec.api.transform.transform.sequence.SequenceOffsetTransform;
+import org.datavec.api.writable.DoubleWritable;
+import org.datavec.api.writable.IntWritable;
+import org.datavec.api.writable.LongWritable;
+import org.datavec.api.writable.Writable;
+import org.joda.time.DateTimeZone;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class TestStreamingSequenceExecutor {
+
+    private static final Schema SCHEMA = new SequenceSchema.Builder().addColumnTime("timecolumn", DateTimeZone.UTC)
+                    .addColumnDouble("a").addColumnInteger("b").build();
+
+    private static List<List<Writable>> sequence(int length) {
+        Random r = new Random(12345);
+        List<List<Writable>> sequence = new ArrayList<>();
+        long time = 1451606400000L;
+        for (int i = 0; i < length; i++) {
+            //Irregular steps, with some gaps longer than the window size
+            time += r.nextInt(10) == 0 ? 2500 : r.nextInt(400);
+            sequence.add(Arrays.<Writable>asList(new LongWritable(time), new DoubleWritable(r.nextDouble()),
+                            new IntWritable(r.nextInt(100))));
+        }
+        return sequence;
+    }
+
+    @Test
+    public void testSameAsExecuteSequence() {
+        TransformProcess tp1 = new TransformProcess.Builder(SCHEMA)
+                        .integerMathOp("b", MathOp.Add, 1)
+                        .sequenceMovingWindowReduce("a", 3, ReduceOp.Mean)
+                        .transform(new SequenceDifferenceTransform("b", "bdiff", 2))
+                        .offsetSequence(Collections.singletonList("a"), 2, SequenceOffsetTransform.OperationType.NewColumn)
+                        .reduceSequenceByWindow(new Reducer.Builder(ReduceOp.Sum).takeFirstColumns("timecolumn").build(),
+                                        new TimeWindowFunction("timecolumn", 1, TimeUnit.SECONDS))
+                        .build();
+
+        TransformProcess tp2 = new TransformProcess.Builder(SCHEMA)
+                        .transform(new SequenceOffsetTransform(Collections.singletonList("a"), -2,
+                                        SequenceOffsetTransform.OperationType.InPlace,
+                                        SequenceOffsetTransform.EdgeHandling.SpecifiedValue, new DoubleWritable(-1)))
+                        .reduceSequenceByWindow(new Reducer.Builder(ReduceOp.Max)
+                                                        .takeFirstColumns("timecolumn", "windowStartTime").build(),
+                                        new TimeWindowFunction.Builder().timeColumn("timecolumn")
+                                                        .windowSize(1, TimeUnit.SECONDS).addWindowStartTimeColumn(true)
+                                                        .excludeEmptyWindows(true).build())
+                        .build();
+
+        TransformProcess tp3 = new TransformProcess.Builder(SCHEMA)
+                        .offsetSequence(Collections.singletonList("b"), -3, SequenceOffsetTransform.OperationType.InPlace)
+                        .build();
+
+        for (TransformProcess tp : Arrays.asList(tp1, tp2, tp3)) {
+            StreamingSequenceExecutor executor = new StreamingSequenceExecutor(tp);
+            for (int length : new int[] {0, 1, 2, 5, 200}) {
+                List<List<Writable>> sequence = sequence(length);
+                List<List<Writable>> expected = length == 0 ? new ArrayList<List<Writable>>()
+                                : tp.executeSequence(sequence);
+                assertEquals(expected, executor.executeSequence(sequence));
+
+                List<List<Writable>> lazy = new ArrayList<>();
+                Iterator<List<Writable>> iter = executor.execute(sequence.iterator());
+                while (iter.hasNext())
+                    lazy.add(iter.next());
+                assertEquals(expected, lazy);
+            }
+        }
+    }
+
+    @Test
+    public void testIncremental() {
+        TransformProcess tp = new TransformProcess.Builder(SCHEMA)
+                        .transform(new SequenceDifferenceTransform("b"))
+                        .reduceSequenceByWindow(new Reducer.Builder(ReduceOp.Sum).takeFirstColumns("timecolumn").build(),
+                                        new TimeWindowFunction("timecolumn", 1, TimeUnit.SECONDS))
+                        .build();
+        StreamingSequenceExecutor.Sequence s = new StreamingSequenceExecutor(tp).newSequence();
+
+        long t0 = 1451606400000L;
+        assertEquals(0, s.push(Arrays.<Writable>asList(new LongWritable(t0), new DoubleWritable(1), new IntWritable(1))).size());
+        assertEquals(0, s.push(Arrays.<Writable>asList(new LongWritable(t0 + 10), new DoubleWritable(2), new IntWritable(4))).size());
+
+        //Next window: the first window is complete, plus one empty window
+        List<List<Writable>> out = s.push(Arrays.<Writable>asList(new LongWritable(t0 + 2000), new DoubleWritable(3),
+                        new IntWritable(5)));
+        assertEquals(2, out.size());
+        assertEquals(Arrays.<Writable>asList(new LongWritable(t0), new DoubleWritable(3), new IntWritable(3)), out.get(0));
+
+        out = s.finish();
+        assertEquals(1, out.size());
+        assertEquals(Arrays.<Writable>asList(new LongWritable(t0 + 2000), new DoubleWritable(3), new IntWritable(1)),
+                        out.get(0));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testWholeSequenceUnsupported() {
+        TransformProcess tp = new TransformProcess.Builder(SCHEMA).trimSequence(2, true).build();
+        new StreamingSequenceExecutor(tp);
+    }
+
+    @Test
+    public void testEmpty() {
+        TransformProcess tp = new TransformProcess.Builder(SCHEMA).removeColumns("a").build();
+        assertFalse(new StreamingSequenceExecutor(tp).execute(Collections.<List<Writable>>emptyIterator()).hasNext());
+    }
+}
@@ -27,8 +27,12 @@ import org.datavec.api.util.ndarray.RecordConverter;
 import org.datavec.api.writable.*;
 import org.datavec.arrow.recordreader.ArrowWritableRecordBatch;
 import org.datavec.arrow.recordreader.ArrowWritableRecordTimeSeriesBatch;
+import org.bytedeco.javacpp.DoublePointer;
+import org.bytedeco.javacpp.FloatPointer;
 import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.dataset.MultiDataSet;
 import org.nd4j.linalg.exception.ND4JIllegalArgumentException;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.primitives.Pair;
@@ -90,10 +94,29 @@ public class ArrowConverter {
      * @return an {@link INDArray} representative of the input data
      */
     public static INDArray toArray(ArrowWritableRecordBatch arrowWritableRecordBatch) {
+        int[] columns = new int[arrowWritableRecordBatch.getSchema().numColumns()];
+        for(int i = 0; i < columns.length; i++) {
+            columns[i] = i;
+        }
+
+        return toArray(arrowWritableRecordBatch,columns);
+    }
+
+    /**
+     * Create an ndarray from a subset of the columns of a batch.
+     * Every column is read with one bulk copy from the arrow buffer in to
+     * the matrix, which is created in f order so that the columns are contiguous.
+     * No {@link Writable} is created. Null entries are read as 0.
+     *
+     * @param arrowWritableRecordBatch the incoming batch
+     * @param columns the indices of the columns to convert, all numerical
+     * @return an {@link INDArray} of shape [batch size, columns.length]
+     */
+    public static INDArray toArray(ArrowWritableRecordBatch arrowWritableRecordBatch,int[] columns) {
         List<FieldVector> columnVectors = arrowWritableRecordBatch.getList();
         Schema schema = arrowWritableRecordBatch.getSchema();
-        for(int i = 0; i < schema.numColumns(); i++) {
-            switch(schema.getType(i)) {
+        for(int column : columns) {
+            switch(schema.getType(column)) {
                 case Integer:
                     break;
                 case Float:
@@ -103,27 +126,234 @@ public class ArrowConverter {
                 case Long:
                     break;
                 default:
-                    throw new ND4JIllegalArgumentException("Illegal data type found for column " + schema.getName(i));
+                    throw new ND4JIllegalArgumentException("Illegal data type found for column " + schema.getName(column));
             }
         }
 
-        int rows  = arrowWritableRecordBatch.getList().get(0).getValueCount();
-        int cols = schema.numColumns();
-        INDArray arr  = Nd4j.create(rows,cols);
-        for(int i = 0; i < cols; i++) {
-            INDArray put = ArrowConverter.convertArrowVector(columnVectors.get(i),schema.getType(i));
-            switch(arr.data().dataType()) {
-                case FLOAT:
-                    arr.putColumn(i,Nd4j.create(put.data().asFloat()).reshape(rows,1));
-                    break;
-                case DOUBLE:
-                    arr.putColumn(i,Nd4j.create(put.data().asDouble()).reshape(rows,1));
-                    break;
+        int rows = arrowWritableRecordBatch.size();
+        int offset = arrowWritableRecordBatch.getOffset();
+        int[] shape = {rows,columns.length};
+        if(Nd4j.dataType() == DataBuffer.Type.DOUBLE) {
+            double[] data = new double[rows * columns.length];
+            for(int i = 0; i < columns.length; i++) {
+                readColumn(columnVectors.get(columns[i]),offset,rows,data,i * rows);
             }
+            return Nd4j.create(data,shape,'f');
+        }
+        else {
+            float[] data = new float[rows * columns.length];
+            for(int i = 0; i < columns.length; i++) {
+                readColumn(columnVectors.get(columns[i]),offset,rows,data,i * rows);
+            }
+            return Nd4j.create(data,shape,'f');
+        }
+    }
 
+    /**
+     * Wrap the values of a float or double vector as a column vector
+     * without copying: the returned {@link INDArray} points directly to the
+     * off heap memory of the arrow vector, which must thus outlive it (and not be
+     * reloaded with another batch while the array is in use).
+     * Note that arrow buffers are little endian, same as the platforms nd4j runs on.
+     *
+     * An {@link IntVector} can't be wrapped as a floating point array: its values are copied
+     * and converted to the default data type instead.
+     *
+     * @param fieldVector the vector to wrap, a {@link Float4Vector} or a {@link Float8Vector} ({@link IntVector} is copied)
+     * @param offset the first row to wrap
+     * @param length the number of rows to wrap
+     * @return an {@link INDArray} of shape [length,1] sharing the memory of the vector
+     */
+    public static INDArray wrapColumn(FieldVector fieldVector,int offset,int length) {
+        DataBuffer buffer;
+        if(fieldVector instanceof Float8Vector) {
+            ByteBuffer direct = fieldVector.getDataBuffer().nioBuffer(offset * 8,length * 8);
+            buffer = Nd4j.createBuffer(new DoublePointer(direct.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer()),length);
+        }
+        else if(fieldVector instanceof Float4Vector) {
+            ByteBuffer direct = fieldVector.getDataBuffer().nioBuffer(offset * 4,length * 4);
+            buffer = Nd4j.createBuffer(new FloatPointer(direct.order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer()),length);
+        }
+        else if(fieldVector instanceof IntVector) {
+            double[] values = new double[length];
+            readColumn(fieldVector,offset,length,values,0);
+            return Nd4j.create(values,new int[] {length,1},'c');
+        }
+        else {
+            throw new IllegalArgumentException("Unable to wrap vector of type " + fieldVector.getClass().getName());
         }
 
-        return arr;
+        return Nd4j.create(buffer,new int[] {length,1});
+    }
+
+    /**
+     * Wrap all the values of a float or double vector as a column vector
+     * without copying, see {@link #wrapColumn(FieldVector, int, int)}
+     * @param fieldVector the vector to wrap
+     * @return an {@link INDArray} of shape [valueCount,1] sharing the memory of the vector
+     */
+    public static INDArray wrapColumn(FieldVector fieldVector) {
+        return wrapColumn(fieldVector,0,fieldVector.getValueCount());
+    }
+
+    /**
+     * Convert a column of class indices to one hot labels
+     * @param arrowWritableRecordBatch the incoming batch
+     * @param column the column of the class indices (integer column)
+     * @param numClasses the number of classes
+     * @return an {@link INDArray} of shape [batch size, numClasses]
+     */
+    public static INDArray toOneHot(ArrowWritableRecordBatch arrowWritableRecordBatch,int column,int numClasses) {
+        int rows = arrowWritableRecordBatch.size();
+        double[] classes = new double[rows];
+        readColumn(arrowWritableRecordBatch.getList().get(column),arrowWritableRecordBatch.getOffset(),rows,classes,0);
+        double[] data = new double[rows * numClasses];
+        for(int i = 0; i < rows; i++) {
+            int classIdx = (int) classes[i];
+            if(classIdx < 0 || classIdx >= numClasses) {
+                throw new IllegalStateException("Invalid class index " + classIdx + " at row " + i + ": must be between 0 and "
+                        + (numClasses - 1) + " inclusive");
+            }
+            data[i * numClasses + classIdx] = 1.0;
+        }
+
+        return Nd4j.create(data,new int[] {rows,numClasses},'c');
+    }
+
+    /**
+     * Assemble a {@link DataSet} directly from the columns of a batch
+     * (no {@link Writable} is created).
+     * The features are all the columns except [labelIndexFrom, labelIndexTo].
+     *
+     * @param arrowWritableRecordBatch the incoming batch
+     * @param labelIndexFrom the first label column
+     * @param labelIndexTo the last label column (inclusive)
+     * @param numPossibleLabels number of classes for classification: the label column
+     *                          (labelIndexFrom == labelIndexTo) is converted to one hot.
+     *                          Use -1 for regression, in which case the label columns are used as is
+     * @return the data set
+     */
+    public static DataSet toDataSet(ArrowWritableRecordBatch arrowWritableRecordBatch,int labelIndexFrom,int labelIndexTo,int numPossibleLabels) {
+        int numColumns = arrowWritableRecordBatch.getSchema().numColumns();
+        int[] featureColumns = new int[numColumns - (labelIndexTo - labelIndexFrom + 1)];
+        int[] labelColumns = new int[labelIndexTo - labelIndexFrom + 1];
+        int f = 0;
+        for(int i = 0; i < numColumns; i++) {
+            if(i < labelIndexFrom || i > labelIndexTo) {
+                featureColumns[f++] = i;
+            }
+            else {
+                labelColumns[i - labelIndexFrom] = i;
+            }
+        }
+
+        INDArray features = toArray(arrowWritableRecordBatch,featureColumns);
+        INDArray labels;
+        if(numPossibleLabels > 0) {
+            if(labelIndexFrom != labelIndexTo) {
+                throw new IllegalArgumentException("One hot labels require a single label column, got columns "
+                        + labelIndexFrom + " to " + labelIndexTo);
+            }
+            labels = toOneHot(arrowWritableRecordBatch,labelIndexFrom,numPossibleLabels);
+        }
+        else {
+            labels = toArray(arrowWritableRecordBatch,labelColumns);
+        }
+
+        return new DataSet(features,labels);
+    }
+
+    /**
+     * Assemble a {@link DataSet} for classification where the label is a single column
+     * @see #toDataSet(ArrowWritableRecordBatch, int, int, int)
+     */
+    public static DataSet toDataSet(ArrowWritableRecordBatch arrowWritableRecordBatch,int labelIndex,int numPossibleLabels) {
+        return toDataSet(arrowWritableRecordBatch,labelIndex,labelIndex,numPossibleLabels);
+    }
+
+    /**
+     * Assemble a {@link MultiDataSet} directly from the columns of a batch,
+     * each input and output being the matrix of the given columns
+     * @param arrowWritableRecordBatch the incoming batch
+     * @param inputColumns the columns of every input
+     * @param outputColumns the columns of every output
+     * @return the multi data set
+     */
+    public static MultiDataSet toMultiDataSet(ArrowWritableRecordBatch arrowWritableRecordBatch,int[][] inputColumns,int[][] outputColumns) {
+        INDArray[] features = new INDArray[inputColumns.length];
+        for(int i = 0; i < features.length; i++) {
+            features[i] = toArray(arrowWritableRecordBatch,inputColumns[i]);
+        }
+
+        INDArray[] labels = new INDArray[outputColumns.length];
+        for(int i = 0; i < labels.length; i++) {
+            labels[i] = toArray(arrowWritableRecordBatch,outputColumns[i]);
+        }
+
+        return new MultiDataSet(features,labels);
+    }
+
+    private static void readColumn(FieldVector fieldVector,int offset,int length,double[] to,int toOffset) {
+        if(fieldVector instanceof Float8Vector) {
+            ByteBuffer direct = fieldVector.getDataBuffer().nioBuffer(offset * 8,length * 8);
+            direct.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(to,toOffset,length);
+        }
+        else {
+            for(int i = 0; i < length; i++) {
+                to[toOffset + i] = getNumericValue(offset + i,fieldVector);
+            }
+        }
+
+        zeroNulls(fieldVector,offset,length,to,toOffset);
+    }
+
+    private static void readColumn(FieldVector fieldVector,int offset,int length,float[] to,int toOffset) {
+        if(fieldVector instanceof Float4Vector) {
+            ByteBuffer direct = fieldVector.getDataBuffer().nioBuffer(offset * 4,length * 4);
+            direct.order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(to,toOffset,length);
+        }
+        else {
+            for(int i = 0; i < length; i++) {
+                to[toOffset + i] = (float) getNumericValue(offset + i,fieldVector);
+            }
+        }
+
+        zeroNulls(fieldVector,offset,length,to,toOffset);
+    }
+
+    private static void zeroNulls(FieldVector fieldVector,int offset,int length,double[] to,int toOffset) {
+        if(fieldVector.getNullCount() > 0) {
+            for(int i = 0; i < length; i++) {
+                if(fieldVector.isNull(offset + i)) {
+                    to[toOffset + i] = 0;
+                }
+            }
+        }
+    }
+
+    private static void zeroNulls(FieldVector fieldVector,int offset,int length,float[] to,int toOffset) {
+        if(fieldVector.getNullCount() > 0) {
+            for(int i = 0; i < length; i++) {
+                if(fieldVector.isNull(offset + i)) {
+                    to[toOffset + i] = 0;
+                }
+            }
+        }
+    }
+
+    private static double getNumericValue(int row,FieldVector fieldVector) {
+        if(fieldVector instanceof Float8Vector) {
+            return ((Float8Vector) fieldVector).get(row);
+        }
+        else if(fieldVector instanceof Float4Vector) {
+            return ((Float4Vector) fieldVector).get(row);
+        }
+        else if(fieldVector instanceof IntVector || fieldVector instanceof UInt4Vector) {
+            return getIntFromFieldVector(row,fieldVector);
+        }
+        else {
+            return getLongFromFieldVector(row,fieldVector);
+        }
     }
 
     /**
@@ -678,23 +908,34 @@ public class ArrowConverter {
         List<FieldVector> ret = new ArrayList<>(schema.numColumns());
 
         for(int i = 0; i < schema.numColumns(); i++) {
-            switch (schema.getType(i)) {
-                case Integer: ret.add(intVectorOf(bufferAllocator,schema.getName(i),numRows)); break;
-                case Long: ret.add(longVectorOf(bufferAllocator,schema.getName(i),numRows)); break;
-                case Double: ret.add(doubleVectorOf(bufferAllocator,schema.getName(i),numRows)); break;
-                case Float: ret.add(floatVectorOf(bufferAllocator,schema.getName(i),numRows)); break;
-                case Boolean: ret.add(booleanVectorOf(bufferAllocator,schema.getName(i),numRows)); break;
-                case String: ret.add(stringVectorOf(bufferAllocator,schema.getName(i),numRows)); break;
-                case Categorical: ret.add(stringVectorOf(bufferAllocator,schema.getName(i),numRows)); break;
-                case Time: ret.add(timeVectorOf(bufferAllocator,schema.getName(i),numRows)); break;
-                default: throw new IllegalArgumentException("Illegal type found " + schema.getType(i));
-
-            }
+            ret.add(vectorOf(bufferAllocator,schema.getName(i),schema.getType(i),numRows));
         }
 
         return ret;
     }
 
+    /**
+     * Create an empty vector for a column
+     * @param bufferAllocator the buffer allocator to use
+     * @param name the name of the column
+     * @param columnType the type of the column
+     * @param numRows the number of rows of the vector
+     * @return the created vector
+     */
+    public static FieldVector vectorOf(BufferAllocator bufferAllocator,String name,ColumnType columnType,int numRows) {
+        switch (columnType) {
+            case Integer: return intVectorOf(bufferAllocator,name,numRows);
+            case Long: return longVectorOf(bufferAllocator,name,numRows);
+            case Double: return doubleVectorOf(bufferAllocator,name,numRows);
+            case Float: return floatVectorOf(bufferAllocator,name,numRows);
+            case Boolean: return booleanVectorOf(bufferAllocator,name,numRows);
+            case String: return stringVectorOf(bufferAllocator,name,numRows);
+            case Categorical: return stringVectorOf(bufferAllocator,name,numRows);
+            case Time: return timeVectorOf(bufferAllocator,name,numRows);
+            default: throw new IllegalArgumentException("Illegal type found " + columnType);
+        }
+    }
+
     /**
      * Set the value of the specified column vector
      * at the specified row based on the given value.
@@ -0,0 +1,264 @@
+package org.datavec.arrow;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.ipc.ArrowFileReader;
+import org.apache.arrow.vector.ipc.SeekableReadChannel;
+import org.datavec.api.split.InputSplit;
+import org.datavec.api.transform.TransformProcess;
+import org.datavec.api.transform.schema.Schema;
+import org.datavec.arrow.recordreader.ArrowWritableRecordBatch;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.dataset.api.DataSetPreProcessor;
+import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A {@link DataSetIterator} reading arrow files, without going through {@link org.datavec.api.writable.Writable}s:
+ * every arrow record batch of a file is optionally transformed with an {@link ArrowTransformExecutor}
+ * and its columns are copied in bulk in to the feature and label arrays
+ * (see {@link ArrowConverter#toDataSet(ArrowWritableRecordBatch, int, int, int)}).
+ *
+ * A minibatch never spans two arrow record batches: the last minibatch of a record batch
+ * may thus be smaller than the batch size.
+ *
+ * Files are read through a {@link SeekableByteChannel}, one record batch at a time, so only the current
+ * record batch is held in memory. Locations that aren't local files are copied to a temporary file first.
+ */
+public class ArrowDataSetIterator implements DataSetIterator {
+
+    private final InputSplit split;
+    private final int batchSize;
+    private final int labelIndexFrom;
+    private final int labelIndexTo;
+    private final int numPossibleLabels;
+    private final ArrowTransformExecutor executor;
+
+    private Iterator<String> pathsIter;
+    private final LinkedList<DataSet> pending = new LinkedList<>();
+
+    //state of the file being read
+    private String currentPath;
+    private BufferAllocator allocator;
+    private ArrowFileReader reader;
+    private Schema currentSchema;
+
+    private int inputColumns = -1;
+    @Getter
+    @Setter
+    private DataSetPreProcessor preProcessor;
+
+    /**
+     * @param split the arrow files to read
+     * @param batchSize the size of the minibatches
+     * @param labelIndex the column of the class index
+     * @param numPossibleLabels the number of classes
+     */
+    public ArrowDataSetIterator(InputSplit split, int batchSize, int labelIndex, int numPossibleLabels) {
+        this(split, null, batchSize, labelIndex, labelIndex, numPossibleLabels);
+    }
+
+    /**
+     * @param split the arrow files to read
+     * @param transformProcess transform process applied to every record batch, may be null
+     * @param batchSize the size of the minibatches
+     * @param labelIndexFrom the first label column (after transformation)
+     * @param labelIndexTo the last label column (inclusive)
+     * @param numPossibleLabels the number of classes, -1 for regression
+     */
+    public ArrowDataSetIterator(InputSplit split, TransformProcess transformProcess, int batchSize, int labelIndexFrom,
+                    int labelIndexTo, int numPossibleLabels) {
+        if (batchSize <= 0)
+            throw new IllegalArgumentException("Batch size must be > 0, got " + batchSize);
+        this.split = split;
+        this.batchSize = batchSize;
+        this.labelIndexFrom = labelIndexFrom;
+        this.labelIndexTo = labelIndexTo;
+        this.numPossibleLabels = numPossibleLabels;
+        this.executor = transformProcess == null ? null : new ArrowTransformExecutor(transformProcess);
+        this.pathsIter = split.locationsPathIterator();
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (pending.isEmpty()) {
+            if (reader == null) {
+                if (!pathsIter.hasNext())
+                    return false;
+                open(pathsIter.next());
+            }
+            loadNextBatch();
+        }
+        return true;
+    }
+
+    @Override
+    public DataSet next() {
+        if (!hasNext())
+            throw new NoSuchElementException("No next element");
+        DataSet ds = pending.removeFirst();
+        if (preProcessor != null)
+            preProcessor.preProcess(ds);
+        return ds;
+    }
+
+    @Override
+    public DataSet next(int num) {
+        throw new UnsupportedOperationException("The batch size is set in the constructor");
+    }
+
+    private void open(String path) {
+        currentPath = path;
+        try {
+            allocator = new RootAllocator(Long.MAX_VALUE);
+            reader = new ArrowFileReader(new SeekableReadChannel(openChannel(path)), allocator);
+            currentSchema = ArrowConverter.toDatavecSchema(reader.getVectorSchemaRoot().getSchema());
+        } catch (Exception e) {
+            closeReader();
+            throw new IllegalStateException("Unable to read arrow file " + path, e);
+        }
+    }
+
+    private SeekableByteChannel openChannel(String path) throws Exception {
+        URI uri = URI.create(path);
+        if ("file".equals(uri.getScheme()))
+            return FileChannel.open(Paths.get(uri), StandardOpenOption.READ);
+
+        //Arrow files have their footer at the end, so other sources have to be copied to a seekable file first
+        Path tmp = Files.createTempFile("arrow", ".arrow");
+        try (InputStream inputStream = split.openInputStreamFor(path)) {
+            Files.copy(inputStream, tmp, StandardCopyOption.REPLACE_EXISTING);
+        } catch (Exception e) {
+            Files.delete(tmp);
+            throw e;
+        }
+        return Files.newByteChannel(tmp, StandardOpenOption.READ, StandardOpenOption.DELETE_ON_CLOSE);
+    }
+
+    /**
+     * Load the next record batch of the current file, closing the file once all of its batches were read
+     */
+    private void loadNextBatch() {
+        try {
+            if (!reader.loadNextBatch()) {
+                closeReader();
+                return;
+            }
+
+            ArrowWritableRecordBatch input =
+                            new ArrowWritableRecordBatch(reader.getVectorSchemaRoot().getFieldVectors(), currentSchema);
+            ArrowWritableRecordBatch batch = executor == null ? input : executor.execute(input);
+            try {
+                for (int start = 0; start < batch.size(); start += batchSize) {
+                    ArrowWritableRecordBatch slice = new ArrowWritableRecordBatch(batch.getList(), batch.getSchema(),
+                                    batch.getOffset() + start, Math.min(batchSize, batch.size() - start));
+                    DataSet ds = ArrowConverter.toDataSet(slice, labelIndexFrom, labelIndexTo, numPossibleLabels);
+                    inputColumns = (int) ds.getFeatures().size(1);
+                    pending.add(ds);
+                }
+            } finally {
+                //Release the vectors created by the transforms, the others belong to the reader
+                if (batch != input)
+                    ArrowTransformExecutor.release(batch, input);
+            }
+        } catch (RuntimeException e) {
+            closeReader();
+            throw e;
+        } catch (Exception e) {
+            String path = currentPath;
+            closeReader();
+            throw new IllegalStateException("Unable to read arrow file " + path, e);
+        }
+    }
+
+    private void closeReader() {
+        try {
+            if (reader != null)
+                reader.close();
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to close arrow file " + currentPath, e);
+        } finally {
+            reader = null;
+            currentSchema = null;
+            currentPath = null;
+            if (allocator != null) {
+                allocator.close();
+                allocator = null;
+            }
+        }
+    }
+
+    @Override
+    public int totalExamples() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int inputColumns() {
+        return inputColumns;
+    }
+
+    @Override
+    public int totalOutcomes() {
+        return numPossibleLabels > 0 ? numPossibleLabels : labelIndexTo - labelIndexFrom + 1;
+    }
+
+    @Override
+    public boolean resetSupported() {
+        return true;
+    }
+
+    @Override
+    public boolean asyncSupported() {
+        return true;
+    }
+
+    @Override
+    public void reset() {
+        pending.clear();
+        closeReader();
+        split.reset();
+        pathsIter = split.locationsPathIterator();
+    }
+
+    @Override
+    public int batch() {
+        return batchSize;
+    }
+
+    @Override
+    public int cursor() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int numExamples() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<String> getLabels() {
+        return null;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+}
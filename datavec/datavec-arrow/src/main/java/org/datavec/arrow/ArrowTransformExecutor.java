@@ -0,0 +1,321 @@
+package org.datavec.arrow;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.*;
+import org.apache.arrow.vector.util.TransferPair;
+import org.datavec.api.transform.ColumnType;
+import org.datavec.api.transform.DataAction;
+import org.datavec.api.transform.Transform;
+import org.datavec.api.transform.TransformProcess;
+import org.datavec.api.transform.filter.Filter;
+import org.datavec.api.transform.schema.Schema;
+import org.datavec.api.transform.transform.BaseColumnTransform;
+import org.datavec.api.transform.transform.column.RemoveAllColumnsExceptForTransform;
+import org.datavec.api.transform.transform.column.RemoveColumnsTransform;
+import org.datavec.api.transform.transform.column.RenameColumnsTransform;
+import org.datavec.api.transform.transform.column.ReorderColumnsTransform;
+import org.datavec.api.writable.*;
+import org.datavec.arrow.recordreader.ArrowWritableRecordBatch;
+
+import java.util.*;
+
+/**
+ * Executes a {@link TransformProcess} on arrow record batches,
+ * column by column rather than record by record.
+ *
+ * Removing, reordering and renaming columns only rearranges the vectors (no copy).
+ * Single column transforms ({@link BaseColumnTransform}) are applied
+ * to the values of their column only, in to a new vector, reusing one input writable
+ * for the numerical columns. Filters are evaluated per row and the remaining rows
+ * are copied with a {@link TransferPair}. Any other transform falls back to
+ * a record by record execution on the batch.
+ *
+ * Only transforms and filters are supported: reductions, sequence conversions
+ * and rank calculation should use the LocalTransformExecutor.
+ *
+ * The vectors of the input batch are never modified, the vectors created by this
+ * executor are allocated with its {@link BufferAllocator}. Intermediate vectors are
+ * closed as soon as they are replaced, the vectors of the output batch that aren't
+ * shared with the input batch belong to the caller: see {@link #release(ArrowWritableRecordBatch, ArrowWritableRecordBatch)}.
+ *
+ * An executor created without an allocator owns its {@link RootAllocator}, and closes it
+ * in {@link #close()}: all the output batches have to be released before that.
+ */
+public class ArrowTransformExecutor implements AutoCloseable {
+
+    private final TransformProcess transformProcess;
+    private final BufferAllocator bufferAllocator;
+    private final boolean ownsAllocator;
+
+    public ArrowTransformExecutor(TransformProcess transformProcess) {
+        this(transformProcess,new RootAllocator(Long.MAX_VALUE),true);
+    }
+
+    public ArrowTransformExecutor(TransformProcess transformProcess,BufferAllocator bufferAllocator) {
+        this(transformProcess,bufferAllocator,false);
+    }
+
+    private ArrowTransformExecutor(TransformProcess transformProcess,BufferAllocator bufferAllocator,boolean ownsAllocator) {
+        for(DataAction action : transformProcess.getActionList()) {
+            if(action.getTransform() == null && action.getFilter() == null) {
+                throw new IllegalArgumentException("Unable to execute " + action + " on arrow record batches: only transforms "
+                        + "and filters are supported");
+            }
+        }
+
+        this.transformProcess = transformProcess;
+        this.bufferAllocator = bufferAllocator;
+        this.ownsAllocator = ownsAllocator;
+    }
+
+    /**
+     * Execute the transform process on a batch
+     * @param batch the input batch, must use the initial schema of the transform process
+     * @return the transformed batch, with the final schema of the transform process
+     */
+    public ArrowWritableRecordBatch execute(ArrowWritableRecordBatch batch) {
+        Schema schema = transformProcess.getInitialSchema();
+        int rows = batch.size();
+        List<FieldVector> vectors = new ArrayList<>(batch.getList());
+        //vectors created by this executor, closed as soon as they aren't used anymore
+        Set<FieldVector> created = Collections.newSetFromMap(new IdentityHashMap<FieldVector,Boolean>());
+        int[] offsets = new int[vectors.size()];
+        for(int i = 0; i < offsets.length; i++) {
+            offsets[i] = batch.getOffset();
+        }
+
+        for(DataAction action : transformProcess.getActionList()) {
+            if(action.getTransform() != null) {
+                Transform transform = action.getTransform();
+                Schema outputSchema = transform.transform(schema);
+                if(transform instanceof RenameColumnsTransform) {
+                    //Same vectors, the schema holds the names
+                }
+                else if(transform instanceof RemoveColumnsTransform
+                        || transform instanceof RemoveAllColumnsExceptForTransform
+                        || transform instanceof ReorderColumnsTransform) {
+                    List<FieldVector> newVectors = new ArrayList<>(outputSchema.numColumns());
+                    int[] newOffsets = new int[outputSchema.numColumns()];
+                    for(int i = 0; i < newOffsets.length; i++) {
+                        int column = schema.getIndexOfColumn(outputSchema.getName(i));
+                        newVectors.add(vectors.get(column));
+                        newOffsets[i] = offsets[column];
+                    }
+                    releaseUnused(vectors,newVectors,created);
+                    vectors = newVectors;
+                    offsets = newOffsets;
+                }
+                else if(transform instanceof BaseColumnTransform) {
+                    int column = schema.getIndexOfColumn(((BaseColumnTransform) transform).columnName());
+                    replace(vectors,column,mapColumn((BaseColumnTransform) transform,vectors.get(column),offsets[column],rows,
+                            schema.getType(column),outputSchema.getName(column),outputSchema.getType(column)),created);
+                    offsets[column] = 0;
+                }
+                else {
+                    List<List<Writable>> records = new ArrayList<>(rows);
+                    for(int row = 0; row < rows; row++) {
+                        records.add(transform.map(getRow(vectors,offsets,row,schema)));
+                    }
+                    List<FieldVector> newVectors = ArrowConverter.toArrowColumns(bufferAllocator,outputSchema,records);
+                    releaseUnused(vectors,newVectors,created);
+                    created.addAll(newVectors);
+                    vectors = newVectors;
+                    offsets = new int[vectors.size()];
+                }
+                schema = outputSchema;
+            }
+            else {
+                Filter filter = action.getFilter();
+                boolean[] keep = new boolean[rows];
+                int numKept = 0;
+                for(int row = 0; row < rows; row++) {
+                    keep[row] = !filter.removeExample(getRow(vectors,offsets,row,schema));
+                    if(keep[row]) {
+                        numKept++;
+                    }
+                }
+
+                if(numKept < rows) {
+                    for(int i = 0; i < vectors.size(); i++) {
+                        replace(vectors,i,copyRows(vectors.get(i),offsets[i],keep,numKept),created);
+                        offsets[i] = 0;
+                    }
+                    rows = numKept;
+                }
+            }
+        }
+
+        //All the columns must share the same offset in the output batch
+        int offset = offsets.length > 0 ? offsets[0] : 0;
+        for(int i = 1; i < offsets.length; i++) {
+            if(offsets[i] != offset) {
+                offset = 0;
+                for(int j = 0; j < offsets.length; j++) {
+                    if(offsets[j] != 0) {
+                        replace(vectors,j,copyRange(vectors.get(j),offsets[j],rows),created);
+                        offsets[j] = 0;
+                    }
+                }
+                break;
+            }
+        }
+
+        return new ArrowWritableRecordBatch(vectors,schema,offset,rows);
+    }
+
+    /**
+     * Release the vectors of an output batch: closes the vectors created by this executor,
+     * the vectors shared with the input batch are left untouched
+     * @param output the batch returned by {@link #execute(ArrowWritableRecordBatch)}
+     * @param input the batch it was computed from
+     */
+    public static void release(ArrowWritableRecordBatch output,ArrowWritableRecordBatch input) {
+        Set<FieldVector> shared = Collections.newSetFromMap(new IdentityHashMap<FieldVector,Boolean>());
+        shared.addAll(input.getList());
+        for(FieldVector fieldVector : output.getList()) {
+            if(!shared.contains(fieldVector)) {
+                fieldVector.close();
+            }
+        }
+    }
+
+    /**
+     * Closes the allocator, if it was created by this executor
+     */
+    @Override
+    public void close() {
+        if(ownsAllocator) {
+            bufferAllocator.close();
+        }
+    }
+
+    private static void replace(List<FieldVector> vectors,int column,FieldVector vector,Set<FieldVector> created) {
+        FieldVector replaced = vectors.set(column,vector);
+        created.add(vector);
+        if(created.remove(replaced)) {
+            replaced.close();
+        }
+    }
+
+    private static void releaseUnused(List<FieldVector> vectors,List<FieldVector> newVectors,Set<FieldVector> created) {
+        Set<FieldVector> used = Collections.newSetFromMap(new IdentityHashMap<FieldVector,Boolean>());
+        used.addAll(newVectors);
+        for(FieldVector fieldVector : vectors) {
+            if(!used.contains(fieldVector) && created.remove(fieldVector)) {
+                fieldVector.close();
+            }
+        }
+    }
+
+    private FieldVector mapColumn(BaseColumnTransform transform,FieldVector from,int offset,int rows,ColumnType inputType,
+                                  String outputName,ColumnType outputType) {
+        FieldVector to = ArrowConverter.vectorOf(bufferAllocator,outputName,outputType,rows);
+        Writable reuse = reusableWritable(inputType);
+        for(int row = 0; row < rows; row++) {
+            Writable input = getEntry(from,offset + row,inputType,reuse);
+            Writable output = transform.map(input);
+            if(!(output instanceof NullWritable)) {
+                setValue(to,outputType,output,row);
+            }
+        }
+
+        to.setValueCount(rows);
+        return to;
+    }
+
+    private FieldVector copyRows(FieldVector from,int offset,boolean[] keep,int numKept) {
+        FieldVector to = from.getField().createVector(bufferAllocator);
+        to.allocateNew();
+        TransferPair transferPair = from.makeTransferPair(to);
+        int row = 0;
+        for(int i = 0; i < keep.length; i++) {
+            if(keep[i]) {
+                transferPair.copyValueSafe(offset + i,row++);
+            }
+        }
+
+        to.setValueCount(numKept);
+        return to;
+    }
+
+    private FieldVector copyRange(FieldVector from,int offset,int rows) {
+        FieldVector to = from.getField().createVector(bufferAllocator);
+        to.allocateNew();
+        TransferPair transferPair = from.makeTransferPair(to);
+        for(int i = 0; i < rows; i++) {
+            transferPair.copyValueSafe(offset + i,i);
+        }
+
+        to.setValueCount(rows);
+        return to;
+    }
+
+    private static List<Writable> getRow(List<FieldVector> vectors,int[] offsets,int row,Schema schema) {
+        List<Writable> ret = new ArrayList<>(vectors.size());
+        for(int column = 0; column < vectors.size(); column++) {
+            ret.add(getEntry(vectors.get(column),offsets[column] + row,schema.getType(column),null));
+        }
+
+        return ret;
+    }
+
+    private static Writable reusableWritable(ColumnType columnType) {
+        switch(columnType) {
+            case Integer:
+                return new IntWritable();
+            case Long:
+                return new LongWritable();
+            case Float:
+                return new FloatWritable();
+            case Double:
+                return new DoubleWritable();
+            default:
+                return null;
+        }
+    }
+
+    private static Writable getEntry(FieldVector fieldVector,int row,ColumnType columnType,Writable reuse) {
+        if(fieldVector.isNull(row)) {
+            return NullWritable.INSTANCE;
+        }
+
+        if(reuse instanceof DoubleWritable && fieldVector instanceof Float8Vector) {
+            ((DoubleWritable) reuse).set(((Float8Vector) fieldVector).get(row));
+            return reuse;
+        }
+        else if(reuse instanceof FloatWritable && fieldVector instanceof Float4Vector) {
+            ((FloatWritable) reuse).set(((Float4Vector) fieldVector).get(row));
+            return reuse;
+        }
+        else if(reuse instanceof IntWritable && fieldVector instanceof IntVector) {
+            ((IntWritable) reuse).set(((IntVector) fieldVector).get(row));
+            return reuse;
+        }
+        else if(reuse instanceof LongWritable && fieldVector instanceof BigIntVector) {
+            ((LongWritable) reuse).set(((BigIntVector) fieldVector).get(row));
+            return reuse;
+        }
+
+        return ArrowConverter.fromEntry(row,fieldVector,columnType);
+    }
+
+    private static void setValue(FieldVector fieldVector,ColumnType columnType,Writable value,int row) {
+        if(fieldVector instanceof Float8Vector) {
+            ((Float8Vector) fieldVector).setSafe(row,value.toDouble());
+        }
+        else if(fieldVector instanceof Float4Vector) {
+            ((Float4Vector) fieldVector).setSafe(row,value.toFloat());
+        }
+        else if(fieldVector instanceof IntVector) {
+            ((IntVector) fieldVector).setSafe(row,value.toInt());
+        }
+        else if(fieldVector instanceof BigIntVector) {
+            ((BigIntVector) fieldVector).setSafe(row,value.toLong());
+        }
+        else {
+            ArrowConverter.setValue(columnType,fieldVector,value,row);
+        }
+    }
+
+}
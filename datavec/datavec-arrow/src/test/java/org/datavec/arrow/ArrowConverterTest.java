@@ -4,6 +4,7 @@ import lombok.val;
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.memory.RootAllocator;
 import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float8Vector;
 import org.apache.arrow.vector.TimeStampMilliVector;
 import org.apache.arrow.vector.VectorSchemaRoot;
 import org.apache.arrow.vector.VectorUnloader;
@@ -19,6 +20,7 @@ import org.datavec.api.split.FileSplit;
 import org.datavec.api.transform.ColumnType;
 import org.datavec.api.transform.schema.Schema;
 import org.datavec.api.writable.DoubleWritable;
+import org.datavec.api.writable.FloatWritable;
 import org.datavec.api.writable.IntWritable;
 import org.datavec.api.writable.LongWritable;
 import org.datavec.api.writable.Writable;
@@ -28,6 +30,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.DataSet;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.primitives.Pair;
 
@@ -415,7 +418,31 @@ public class ArrowConverterTest {
         return Pair.of(schemaBuilder.build(),records);
     }
 
+    @Test
+    public void testToDataSet() {
+        Schema schema = new Schema.Builder().addColumnDouble("d").addColumnFloat("f")
+                .addColumnInteger("label").build();
+        List<List<Writable>> input = new ArrayList<>();
+        for(int i = 0; i < 5; i++) {
+            input.add(Arrays.<Writable>asList(new DoubleWritable(i),new FloatWritable(2 * i),new IntWritable(i % 3)));
+        }
 
+        List<FieldVector> fieldVectors = ArrowConverter.toArrowColumns(bufferAllocator,schema,input);
+        ArrowWritableRecordBatch batch = new ArrowWritableRecordBatch(fieldVectors,schema,1,3);
+        DataSet dataSet = ArrowConverter.toDataSet(batch,2,3);
+        INDArray expFeatures = Nd4j.create(new double[][] {{1,2},{2,4},{3,6}});
+        INDArray expLabels = Nd4j.create(new double[][] {{0,1,0},{0,0,1},{1,0,0}});
+        assertEquals(expFeatures,dataSet.getFeatures());
+        assertEquals(expLabels,dataSet.getLabels());
+    }
 
-
+    @Test
+    public void testWrapColumn() {
+        Float8Vector vector = ArrowConverter.vectorFor(bufferAllocator,"d",new double[] {1,2,3,4});
+        INDArray wrapped = ArrowConverter.wrapColumn(vector,1,2);
+        assertEquals(Nd4j.create(new double[] {2,3}).reshape(2,1),wrapped);
+        //no copy: changes to the vector are visible in the array
+        vector.set(2,10);
+        assertEquals(10,wrapped.getDouble(1),0.0);
+    }
 }
@@ -0,0 +1,106 @@
+package org.datavec.arrow;
+
+import org.datavec.api.split.FileSplit;
+import org.datavec.api.transform.MathOp;
+import org.datavec.api.transform.TransformProcess;
+import org.datavec.api.transform.schema.Schema;
+import org.datavec.api.writable.DoubleWritable;
+import org.datavec.api.writable.IntWritable;
+import org.datavec.api.writable.Writable;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ArrowDataSetIteratorTest {
+
+    @Rule
+    public TemporaryFolder testDir = new TemporaryFolder();
+
+    private Schema schema = new Schema.Builder().addColumnDouble("a").addColumnDouble("b")
+            .addColumnInteger("label").build();
+
+    private File writeFiles() throws Exception {
+        File dir = testDir.newFolder();
+        for(int file = 0; file < 2; file++) {
+            List<List<Writable>> records = new ArrayList<>();
+            for(int i = 0; i < 5; i++) {
+                int idx = file * 5 + i;
+                records.add(Arrays.<Writable>asList(new DoubleWritable(idx),new DoubleWritable(-idx),new IntWritable(idx % 3)));
+            }
+
+            try(FileOutputStream outputStream = new FileOutputStream(new File(dir,"file" + file + ".arrow"))) {
+                ArrowConverter.writeRecordBatchTo(records,schema,outputStream);
+            }
+        }
+
+        return dir;
+    }
+
+    @Test
+    public void testIterate() throws Exception {
+        File dir = writeFiles();
+        ArrowDataSetIterator iterator = new ArrowDataSetIterator(new FileSplit(dir,new String[] {"arrow"}),2,2,3);
+
+        for(int epoch = 0; epoch < 2; epoch++) {
+            List<Double> firstColumn = new ArrayList<>();
+            int count = 0;
+            while(iterator.hasNext()) {
+                DataSet ds = iterator.next();
+                //minibatches don't span record batches: 2, 2, 1 per file
+                assertEquals(count % 3 == 2 ? 1 : 2,ds.numExamples());
+                for(int row = 0; row < ds.numExamples(); row++) {
+                    double a = ds.getFeatures().getDouble(row,0);
+                    assertEquals(-a,ds.getFeatures().getDouble(row,1),0.0);
+                    assertEquals(Nd4j.create(1,3).putScalar((int) a % 3,1.0),ds.getLabels().getRow(row));
+                    firstColumn.add(a);
+                }
+                count++;
+            }
+
+            assertEquals(6,count);
+            assertEquals(10,firstColumn.size());
+            assertEquals(2,iterator.inputColumns());
+            iterator.reset();
+        }
+    }
+
+    @Test
+    public void testIterateWithTransform() throws Exception {
+        File dir = writeFiles();
+        TransformProcess transformProcess = new TransformProcess.Builder(schema)
+                .doubleMathOp("a",MathOp.Multiply,10)
+                .removeColumns("b")
+                .build();
+
+        ArrowDataSetIterator iterator = new ArrowDataSetIterator(new FileSplit(dir,new String[] {"arrow"}),
+                transformProcess,5,1,1,3);
+        int rows = 0;
+        while(iterator.hasNext()) {
+            DataSet ds = iterator.next();
+            assertEquals(5,ds.numExamples());
+            assertEquals(1,ds.getFeatures().columns());
+            for(int row = 0; row < ds.numExamples(); row++) {
+                double a = ds.getFeatures().getDouble(row,0);
+                assertTrue(a % 10 == 0);
+                assertEquals(1.0,ds.getLabels().getDouble(row,(int) (a / 10) % 3),0.0);
+            }
+            rows += ds.numExamples();
+        }
+
+        assertEquals(10,rows);
+        assertFalse(iterator.hasNext());
+    }
+
+}
@@ -0,0 +1,100 @@
+package org.datavec.arrow;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.datavec.api.transform.MathOp;
+import org.datavec.api.transform.TransformProcess;
+import org.datavec.api.transform.condition.ConditionOp;
+import org.datavec.api.transform.condition.column.IntegerColumnCondition;
+import org.datavec.api.transform.filter.ConditionFilter;
+import org.datavec.api.transform.schema.Schema;
+import org.datavec.api.writable.DoubleWritable;
+import org.datavec.api.writable.IntWritable;
+import org.datavec.api.writable.Text;
+import org.datavec.api.writable.Writable;
+import org.datavec.arrow.recordreader.ArrowWritableRecordBatch;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class ArrowTransformExecutorTest {
+
+    private static BufferAllocator bufferAllocator = new RootAllocator(Long.MAX_VALUE);
+
+    @Test
+    public void testExecute() {
+        Schema schema = new Schema.Builder().addColumnString("name").addColumnDouble("d")
+                .addColumnInteger("i").build();
+        List<List<Writable>> input = new ArrayList<>();
+        for(int i = 0; i < 6; i++) {
+            input.add(Arrays.<Writable>asList(new Text("n" + i),new DoubleWritable(i),new IntWritable(i)));
+        }
+
+        TransformProcess transformProcess = new TransformProcess.Builder(schema)
+                .removeColumns("name")
+                .doubleMathOp("d",MathOp.Multiply,2)
+                .filter(new ConditionFilter(new IntegerColumnCondition("i",ConditionOp.LessThan,2)))
+                .reorderColumns("i","d")
+                .build();
+
+        List<FieldVector> fieldVectors = ArrowConverter.toArrowColumns(bufferAllocator,schema,input);
+        ArrowWritableRecordBatch batch = new ArrowWritableRecordBatch(fieldVectors,schema,1,5);
+        ArrowWritableRecordBatch out = new ArrowTransformExecutor(transformProcess,bufferAllocator).execute(batch);
+
+        assertEquals(transformProcess.getFinalSchema(),out.getSchema());
+        List<List<Writable>> expected = new ArrayList<>();
+        for(int i = 2; i < 6; i++) {
+            expected.add(Arrays.<Writable>asList(new IntWritable(i),new DoubleWritable(2 * i)));
+        }
+        assertEquals(expected,out.toArrayList());
+    }
+
+    @Test
+    public void testNoLeaks() throws Exception {
+        Schema schema = new Schema.Builder().addColumnDouble("d").addColumnInteger("i").build();
+        List<List<Writable>> input = new ArrayList<>();
+        for(int i = 0; i < 100; i++) {
+            input.add(Arrays.<Writable>asList(new DoubleWritable(i),new IntWritable(i)));
+        }
+
+        //intermediate vectors: mapped column is copied by the filter, then copied again to align the offsets
+        TransformProcess transformProcess = new TransformProcess.Builder(schema)
+                .doubleMathOp("d",MathOp.Add,1)
+                .doubleMathOp("d",MathOp.Multiply,2)
+                .filter(new ConditionFilter(new IntegerColumnCondition("i",ConditionOp.LessThan,10)))
+                .build();
+
+        List<FieldVector> fieldVectors = ArrowConverter.toArrowColumns(bufferAllocator,schema,input);
+        ArrowWritableRecordBatch batch = new ArrowWritableRecordBatch(fieldVectors,schema);
+
+        BufferAllocator executorAllocator = bufferAllocator.newChildAllocator("executor",0,Long.MAX_VALUE);
+        ArrowTransformExecutor executor = new ArrowTransformExecutor(transformProcess,executorAllocator);
+        for(int e = 0; e < 3; e++) {
+            ArrowWritableRecordBatch out = executor.execute(batch);
+            assertEquals(90,out.size());
+            assertEquals(2 * (10 + 1),out.get(0).get(0).toDouble(),0.0);
+
+            ArrowTransformExecutor.release(out,batch);
+            assertEquals(0,executorAllocator.getAllocatedMemory());
+        }
+
+        //input vectors are still usable
+        assertEquals(input,batch.toArrayList());
+        executorAllocator.close();
+
+        //executor without allocator owns it: closing it fails if anything was leaked
+        try(ArrowTransformExecutor ownExecutor = new ArrowTransformExecutor(transformProcess)) {
+            ArrowTransformExecutor.release(ownExecutor.execute(batch),batch);
+        }
+
+        for(FieldVector fieldVector : fieldVectors) {
+            fieldVector.close();
+        }
+    }
+
+}
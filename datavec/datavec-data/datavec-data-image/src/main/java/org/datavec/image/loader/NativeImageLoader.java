@@ -34,6 +34,7 @@ import org.nd4j.linalg.util.ArrayUtil;
 
 import java.io.*;
 import java.nio.ByteOrder;
+import java.util.Random;
 
 import static org.bytedeco.javacpp.lept.*;
 import static org.bytedeco.javacpp.opencv_core.*;
@@ -139,6 +140,19 @@ public class NativeImageLoader extends BaseImageLoader {
         this.multiPageMode = other.multiPageMode;
     }
 
+    /**
+     * Returns a new loader with the same configuration and its own decoding buffers,
+     * so that images can be loaded concurrently with one loader per thread.
+     *
+     * @param imageTransform the transform of the new loader
+     * @return the new loader
+     */
+    public NativeImageLoader newInstance(ImageTransform imageTransform) {
+        NativeImageLoader loader = new NativeImageLoader(this);
+        loader.imageTransform = imageTransform;
+        return loader;
+    }
+
     @Override
     public String[] getAllowedFormats() {
         return ALLOWED_FORMATS;
@@ -474,6 +488,18 @@ public class NativeImageLoader extends BaseImageLoader {
     }
 
     public void asMatrixView(InputStream is, INDArray view) throws IOException {
+        asMatrixView(is, view, null);
+    }
+
+    /**
+     * Decode the image and write it into the given view.
+     *
+     * @param is     the encoded image
+     * @param view   the array to write the image to
+     * @param random passed to the image transform (or null to let it use its own)
+     * @throws IOException
+     */
+    public void asMatrixView(InputStream is, INDArray view, Random random) throws IOException {
         Mat mat = streamToMat(is);
         Mat image = imdecode(mat, CV_LOAD_IMAGE_ANYDEPTH | CV_LOAD_IMAGE_ANYCOLOR);
         if (image == null || image.empty()) {
@@ -486,13 +512,17 @@ public class NativeImageLoader extends BaseImageLoader {
         }
         if (image == null)
             throw new RuntimeException();
-        asMatrixView(image, view);
+        transformImage(image, view, random);
         image.deallocate();
     }
 
     public void asMatrixView(File f, INDArray view) throws IOException {
+        asMatrixView(f, view, null);
+    }
+
+    public void asMatrixView(File f, INDArray view, Random random) throws IOException {
         try (BufferedInputStream bis = new BufferedInputStream(new FileInputStream(f))) {
-            asMatrixView(bis, view);
+            asMatrixView(bis, view, random);
         }
     }
 
@@ -511,9 +541,13 @@ public class NativeImageLoader extends BaseImageLoader {
     }
 
     protected INDArray transformImage(Mat image, INDArray ret) throws IOException {
+        return transformImage(image, ret, null);
+    }
+
+    protected INDArray transformImage(Mat image, INDArray ret, Random random) throws IOException {
         if (imageTransform != null && converter != null) {
             ImageWritable writable = new ImageWritable(converter.convert(image));
-            writable = imageTransform.transform(writable);
+            writable = random == null ? imageTransform.transform(writable) : imageTransform.transform(writable, random);
             image = converter.convert(writable.getFrame());
         }
         Mat image2 = null, image3 = null, image4 = null;
@@ -30,6 +30,7 @@ import org.datavec.api.records.reader.BaseRecordReader;
 import org.datavec.api.split.FileSplit;
 import org.datavec.api.split.InputSplit;
 import org.datavec.api.split.InputStreamInputSplit;
+import org.datavec.api.transform.serde.JsonMappers;
 import org.datavec.api.util.files.FileFromPathIterator;
 import org.datavec.api.util.files.URIUtil;
 import org.datavec.api.util.ndarray.RecordConverter;
@@ -40,6 +41,8 @@ import org.datavec.api.writable.batch.NDArrayRecordBatch;
 import org.datavec.image.loader.BaseImageLoader;
 import org.datavec.image.loader.ImageLoader;
 import org.datavec.image.loader.NativeImageLoader;
+import org.datavec.image.data.ImageWritable;
+import org.datavec.image.transform.BaseImageTransform;
 import org.datavec.image.transform.ImageTransform;
 import org.nd4j.linalg.api.concurrency.AffinityManager;
 import org.nd4j.linalg.api.ndarray.INDArray;
@@ -48,10 +51,17 @@ import org.nd4j.linalg.factory.Nd4j;
 import java.io.*;
 import java.net.URI;
 import java.util.*;
+import java.util.concurrent.*;
 
 /**
  * Base class for the image record reader
  *
+ * In batch mode ({@link #next(int)}), images can be decoded, transformed and written into the
+ * minibatch in parallel on numLoaderThreads threads, each thread with its own loader (and thus
+ * its own decoding buffers) and its own copy of the image transform. When a transformSeed is set,
+ * the transform of every example is given a Random seeded from the seed and the position of
+ * the example since the last reset, so augmentation is reproducible whatever the number of threads.
+ *
  * @author Adam Gibson
  */
 @Slf4j
@@ -77,6 +87,17 @@ public abstract class BaseImageRecordReader extends BaseRecordReader {
     protected int patternPosition = 0;
     @Getter @Setter
     protected boolean logLabelCountOnInit = true;
+    /** Number of threads decoding the images of a batch, 1 to decode them on the caller thread */
+    @Getter
+    protected int numLoaderThreads = 1;
+    /** Seed of the per example Random given to the image transform in batch mode, null to let it use its own */
+    @Getter @Setter
+    protected Long transformSeed;
+    protected long exampleCount;
+    private ExecutorService loaderExecutor;
+    private ThreadLocal<NativeImageLoader> workerLoaders;
+    private BaseImageLoader workerLoadersSource;
+    private ImageTransform workerLoadersTransform;
 
     public final static String HEIGHT = NAME_SPACE + ".height";
     public final static String WIDTH = NAME_SPACE + ".width";
@@ -110,6 +131,17 @@ public abstract class BaseImageRecordReader extends BaseRecordReader {
         this.appendLabel = (labelGenerator != null || labelMultiGenerator != null);
     }
 
+    /**
+     * @param numLoaderThreads number of threads decoding and transforming the images of a batch
+     *                         in {@link #next(int)}, 1 to decode them on the caller thread
+     */
+    public void setNumLoaderThreads(int numLoaderThreads) {
+        Preconditions.checkArgument(numLoaderThreads > 0, "Number of loader threads must be > 0: got " + numLoaderThreads);
+        if (numLoaderThreads != this.numLoaderThreads)
+            shutdownLoaderThreads();
+        this.numLoaderThreads = numLoaderThreads;
+    }
+
     protected boolean containsFormat(String format) {
         for (String format2 : imageLoader.getAllowedFormats())
             if (format.endsWith("." + format2))
@@ -329,15 +361,20 @@ public abstract class BaseImageRecordReader extends BaseRecordReader {
 
         INDArray features = Nd4j.createUninitialized(new int[] {cnt, channels, height, width}, 'c');
         Nd4j.getAffinityManager().tagLocation(features, AffinityManager.Location.HOST);
-        for (int i = 0; i < cnt; i++) {
-            try {
-                ((NativeImageLoader) imageLoader).asMatrixView(currBatch.get(i),
-                        features.tensorAlongDimension(i, 1, 2, 3));
-            } catch (Exception e) {
-                System.out.println("Image file failed during load: " + currBatch.get(i).getAbsolutePath());
-                throw new RuntimeException(e);
+        if (numLoaderThreads > 1 && cnt > 1) {
+            loadParallel(currBatch, features);
+        } else {
+            for (int i = 0; i < cnt; i++) {
+                try {
+                    ((NativeImageLoader) imageLoader).asMatrixView(currBatch.get(i),
+                            features.tensorAlongDimension(i, 1, 2, 3), exampleRandom(exampleCount + i));
+                } catch (Exception e) {
+                    log.error("Image file failed during load: {}", currBatch.get(i).getAbsolutePath(), e);
+                    throw new RuntimeException(e);
+                }
             }
         }
+        exampleCount += cnt;
         Nd4j.getAffinityManager().ensureLocation(features, AffinityManager.Location.DEVICE);
 
 
@@ -385,9 +422,151 @@ public abstract class BaseImageRecordReader extends BaseRecordReader {
         return new NDArrayRecordBatch(ret);
     }
 
+    /**
+     * Decode the images of a batch on the loader threads, each image being written to its own slice of the features
+     */
+    protected void loadParallel(List<File> files, INDArray features) {
+        if (loaderExecutor == null) {
+            loaderExecutor = Executors.newFixedThreadPool(numLoaderThreads, new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread t = Executors.defaultThreadFactory().newThread(r);
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+        }
+        //the loaders keep a copy of the transform: they are created again when the loader or the transform change
+        if (workerLoaders == null || workerLoadersSource != imageLoader || workerLoadersTransform != imageTransform) {
+            final NativeImageLoader loader = (NativeImageLoader) imageLoader;
+            final ImageTransform transform = imageTransform;
+            workerLoadersSource = imageLoader;
+            workerLoadersTransform = imageTransform;
+            workerLoaders = new ThreadLocal<NativeImageLoader>() {
+                @Override
+                protected NativeImageLoader initialValue() {
+                    return loader.newInstance(copyTransform(transform));
+                }
+            };
+        }
+
+        final ThreadLocal<NativeImageLoader> loaders = workerLoaders;
+        List<Callable<Void>> tasks = new ArrayList<>(files.size());
+        for (int i = 0; i < files.size(); i++) {
+            final File file = files.get(i);
+            //views are created on this thread
+            final INDArray view = features.tensorAlongDimension(i, 1, 2, 3);
+            final Random random = exampleRandom(exampleCount + i);
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    loaders.get().asMatrixView(file, view, random);
+                    return null;
+                }
+            });
+        }
+
+        try {
+            List<Future<Void>> futures = loaderExecutor.invokeAll(tasks);
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    futures.get(i).get();
+                } catch (ExecutionException e) {
+                    log.error("Image file failed during load: {}", files.get(i).getAbsolutePath(), e.getCause());
+                    throw new RuntimeException(e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Returns the Random given to the image transform for the example at the given position
+     * since the last reset, or null when no transformSeed is set
+     */
+    protected Random exampleRandom(long example) {
+        if (transformSeed == null || imageTransform == null)
+            return null;
+        //mix the position so that consecutive examples get unrelated seeds
+        long seed = transformSeed + example * 0x9E3779B97F4A7C15L;
+        seed = (seed ^ (seed >>> 33)) * 0xFF51AFD7ED558CCDL;
+        return new Random(seed ^ (seed >>> 33));
+    }
+
+    /**
+     * Transforms keep state (converters, last parameters) and cannot be shared by the loader threads:
+     * each thread works on a copy made through JSON, or on the shared instance one thread at a time
+     * if the transform cannot be copied.
+     */
+    private static ImageTransform copyTransform(ImageTransform transform) {
+        if (transform == null)
+            return null;
+        try {
+            String json = JsonMappers.getMapper().writeValueAsString(transform);
+            ImageTransform copy = JsonMappers.getMapper().readValue(json, ImageTransform.class);
+            if (transform instanceof BaseImageTransform && copy instanceof BaseImageTransform) {
+                //the Random is not serialized, and null means deterministic for most transforms
+                Random random = ((BaseImageTransform) transform).getRandom();
+                if (random != null)
+                    ((BaseImageTransform) copy).setRandom(new Random(random.nextLong()));
+            }
+            return copy;
+        } catch (Exception e) {
+            log.warn("Could not copy image transform {}, transforms will not run in parallel: {}",
+                    transform.getClass().getSimpleName(), e.getMessage());
+            return new SynchronizedImageTransform(transform);
+        }
+    }
+
+    private void shutdownLoaderThreads() {
+        if (loaderExecutor != null) {
+            loaderExecutor.shutdownNow();
+            loaderExecutor = null;
+        }
+        workerLoaders = null;
+        workerLoadersSource = null;
+        workerLoadersTransform = null;
+    }
+
+    private static class SynchronizedImageTransform implements ImageTransform {
+        private final ImageTransform transform;
+
+        private SynchronizedImageTransform(ImageTransform transform) {
+            this.transform = transform;
+        }
+
+        @Override
+        public ImageWritable transform(ImageWritable image) {
+            synchronized (transform) {
+                return transform.transform(image);
+            }
+        }
+
+        @Override
+        public ImageWritable transform(ImageWritable image, Random random) {
+            synchronized (transform) {
+                return transform.transform(image, random);
+            }
+        }
+
+        @Override
+        public float[] query(float... coordinates) {
+            synchronized (transform) {
+                return transform.query(coordinates);
+            }
+        }
+
+        @Override
+        public ImageWritable getCurrentImage() {
+            return transform.getCurrentImage();
+        }
+    }
+
     @Override
     public void close() throws IOException {
-        //No op
+        shutdownLoaderThreads();
     }
 
     @Override
@@ -456,6 +635,7 @@ public abstract class BaseImageRecordReader extends BaseRecordReader {
         if (inputSplit == null)
             throw new UnsupportedOperationException("Cannot reset without first initializing");
         inputSplit.reset();
+        exampleCount = 0;
         if (iter != null) {
             iter = new FileFromPathIterator(inputSplit.locationsPathIterator());
         } else if (record != null) {
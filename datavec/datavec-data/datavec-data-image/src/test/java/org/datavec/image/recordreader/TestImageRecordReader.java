@@ -32,6 +32,8 @@ import org.datavec.api.writable.DoubleWritable;
 import org.datavec.api.writable.NDArrayWritable;
 import org.datavec.api.writable.Writable;
 import org.datavec.api.writable.batch.NDArrayRecordBatch;
+import org.datavec.image.transform.CropImageTransform;
+import org.datavec.image.transform.FlipImageTransform;
 import org.junit.Ignore;
 import org.junit.Rule;
 import org.junit.Test;
@@ -243,6 +245,58 @@ public class TestImageRecordReader {
         assertEquals(l2.get(), act2);
     }
 
+    @Test
+    public void testParallelBatchLoading() throws Exception {
+        File rootDir = testDir.newFolder();
+        new ClassPathResource("datavec-data-image/testimages/").copyDirectory(rootDir);
+
+        INDArray expFeatures = null;
+        for (int numThreads : new int[] {1, 4}) {
+            ImageRecordReader rr = new ImageRecordReader(28, 28, 3, new ParentPathLabelGenerator(),
+                    new CropImageTransform(new Random(12345), 10));
+            rr.setNumLoaderThreads(numThreads);
+            rr.setTransformSeed(42L);
+            rr.initialize(new FileSplit(rootDir));
+
+            NDArrayRecordBatch b = (NDArrayRecordBatch) rr.next(6);
+            INDArray features = b.getArrays().get(0);
+            assertArrayEquals(new long[] {6, 3, 28, 28}, features.shape());
+            if (expFeatures == null) {
+                expFeatures = features;
+            } else {
+                //same crops whatever the number of threads
+                assertEquals(expFeatures, features);
+            }
+
+            //and the same again after a reset
+            rr.reset();
+            assertEquals(expFeatures, ((NDArrayRecordBatch) rr.next(6)).getArrays().get(0));
+            rr.close();
+        }
+    }
+
+    @Test
+    public void testParallelBatchLoadingTransformChanged() throws Exception {
+        File rootDir = testDir.newFolder();
+        new ClassPathResource("datavec-data-image/testimages/").copyDirectory(rootDir);
+
+        ImageRecordReader single = new ImageRecordReader(28, 28, 3, new ParentPathLabelGenerator());
+        single.initialize(new FileSplit(rootDir), new FlipImageTransform(1));
+        INDArray expFeatures = ((NDArrayRecordBatch) single.next(6)).getArrays().get(0);
+
+        ImageRecordReader rr = new ImageRecordReader(28, 28, 3, new ParentPathLabelGenerator());
+        rr.setNumLoaderThreads(4);
+        rr.initialize(new FileSplit(rootDir));
+        INDArray noTransform = ((NDArrayRecordBatch) rr.next(6)).getArrays().get(0);
+        assertNotEquals(expFeatures, noTransform);
+
+        //the loader threads must use the new transform
+        rr.imageTransform = new FlipImageTransform(1);
+        rr.reset();
+        assertEquals(expFeatures, ((NDArrayRecordBatch) rr.next(6)).getArrays().get(0));
+        rr.close();
+    }
+
     @Test
     public void testListenerInvocationBatch() throws IOException {
         ParentPathLabelGenerator labelMaker = new ParentPathLabelGenerator();
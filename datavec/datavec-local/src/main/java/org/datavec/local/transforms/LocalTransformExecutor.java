@@ -3,7 +3,6 @@ package org.datavec.local.transforms;
 import com.codepoetics.protonpack.Indexed;
 import com.codepoetics.protonpack.StreamUtils;
 import lombok.extern.slf4j.Slf4j;
-import lombok.val;
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.memory.RootAllocator;
 import org.apache.arrow.vector.FieldVector;
@@ -12,7 +11,6 @@ import org.datavec.api.transform.Transform;
 import org.datavec.api.transform.TransformProcess;
 import org.datavec.api.transform.filter.Filter;
 import org.datavec.api.transform.join.Join;
-import org.datavec.api.transform.ops.IAggregableReduceOp;
 import org.datavec.api.transform.rank.CalculateSortedRank;
 import org.datavec.api.transform.reduce.IAssociativeReducer;
 import org.datavec.api.transform.schema.Schema;
@@ -22,11 +20,10 @@ import org.datavec.api.transform.sequence.SequenceSplit;
 import org.datavec.api.writable.*;
 import org.datavec.arrow.ArrowConverter;
 import org.datavec.local.transforms.functions.EmptyRecordFunction;
-import org.datavec.local.transforms.join.ExecuteJoinFromCoGroupFlatMapFunction;
-import org.datavec.local.transforms.join.ExtractKeysFunction;
+import org.datavec.local.transforms.join.LocalJoinExecutor;
 import org.datavec.local.transforms.misc.ColumnAsKeyPairFunction;
 import org.datavec.local.transforms.rank.UnzipForCalculateSortedRankFunction;
-import org.datavec.local.transforms.reduce.MapToPairForReducerFunction;
+import org.datavec.local.transforms.reduce.LocalGroupByReducer;
 import org.datavec.local.transforms.sequence.*;
 import org.datavec.local.transforms.transform.LocalTransformFunction;
 import org.datavec.local.transforms.transform.SequenceSplitFunction;
@@ -36,8 +33,6 @@ import org.nd4j.linalg.function.FunctionalUtils;
 import org.nd4j.linalg.primitives.Pair;
 
 import java.util.*;
-import java.util.function.BiPredicate;
-import java.util.stream.Collectors;
 
 import static java.util.stream.Collectors.toList;
 
@@ -408,47 +403,7 @@ public class LocalTransformExecutor {
                 if (currentWritables == null)
                     throw new IllegalStateException("Error during execution of reduction: current writables are null. "
                             + "Trying to execute a reduce operation on a sequence?");
-                MapToPairForReducerFunction mapToPairForReducerFunction = new MapToPairForReducerFunction(reducer);
-                List<Pair<String, List<Writable>>> pair =
-                        currentWritables.stream().map(input -> mapToPairForReducerFunction.apply(input))
-                                .collect(toList());
-
-
-                //initial op
-                Map<String, IAggregableReduceOp<List<Writable>, List<Writable>>> resultPerKey = new HashMap<>();
-
-                val groupedByKey = FunctionalUtils.groupByKey(pair);
-                val aggregated = StreamUtils.aggregate(groupedByKey.entrySet()
-                        .stream(), new BiPredicate<Map.Entry<String, List<List<Writable>>>, Map.Entry<String, List<List<Writable>>>>() {
-                    @Override
-                    public boolean test(Map.Entry<String, List<List<Writable>>> stringListEntry, Map.Entry<String, List<List<Writable>>> stringListEntry2) {
-                        return stringListEntry.getKey().equals(stringListEntry2.getKey());
-                    }
-                }).collect(Collectors.toList());
-
-
-                aggregated.stream().forEach((List<Map.Entry<String, List<List<Writable>>>> input) -> {
-                    for(Map.Entry<String, List<List<Writable>>> entry : input) {
-                        if(!resultPerKey.containsKey(entry.getKey())) {
-                            IAggregableReduceOp<List<Writable>, List<Writable>> reducer2 = reducer.aggregableReducer();
-                            resultPerKey.put(entry.getKey(),reducer2);
-                            for(List<Writable> value : entry.getValue()) {
-                                reducer2.accept(value);
-                            }
-
-                        }
-
-                    }
-                });
-
-
-
-
-                currentWritables = resultPerKey.entrySet().stream()
-                        .map(input -> input.getValue().get()).collect(Collectors.toList());
-
-
-
+                currentWritables = new LocalGroupByReducer(reducer).reduce(currentWritables);
             } else if (d.getCalculateSortedRank() != null) {
                 CalculateSortedRank csr = d.getCalculateSortedRank();
 
@@ -537,7 +492,8 @@ public class LocalTransformExecutor {
 
 
     /**
-     * Execute a join on the specified data
+     * Execute a join on the specified data, as a hash join (see {@link LocalJoinExecutor}).
+     * For tables that do not fit in memory, use {@link LocalJoinExecutor#join(Iterator, Iterator, java.util.function.Consumer)}
      *
      * @param join  Join to execute
      * @param left  Left data for join
@@ -547,35 +503,14 @@ public class LocalTransformExecutor {
     public static List<List<Writable>> executeJoin(Join join, List<List<Writable>> left,
                                                    List<List<Writable>> right) {
 
-        String[] leftColumnNames = join.getJoinColumnsLeft();
-        int[] leftColumnIndexes = new int[leftColumnNames.length];
-        for (int i = 0; i < leftColumnNames.length; i++) {
-            leftColumnIndexes[i] = join.getLeftSchema().getIndexOfColumn(leftColumnNames[i]);
-        }
-        ExtractKeysFunction extractKeysFunction1 = new ExtractKeysFunction(leftColumnIndexes);
-
-        List<Pair<List<Writable>, List<Writable>>> leftJV = left.stream()
-                .filter(input -> input.size() != leftColumnNames.length).map(input ->
-                extractKeysFunction1.apply(input)).collect(toList());
-
-        String[] rightColumnNames = join.getJoinColumnsRight();
-        int[] rightColumnIndexes = new int[rightColumnNames.length];
-        for (int i = 0; i < rightColumnNames.length; i++) {
-            rightColumnIndexes[i] = join.getRightSchema().getIndexOfColumn(rightColumnNames[i]);
-        }
-
-        ExtractKeysFunction extractKeysFunction = new ExtractKeysFunction(rightColumnIndexes);
-        List<Pair<List<Writable>, List<Writable>>> rightJV =
-                right.stream().filter(input -> input.size() != rightColumnNames.length)
-                        .map(input -> extractKeysFunction.apply(input))
-                        .collect(toList());
+        int numLeftKeys = join.getJoinColumnsLeft().length;
+        int numRightKeys = join.getJoinColumnsRight().length;
+        List<List<Writable>> leftFiltered = left.stream()
+                .filter(input -> input.size() != numLeftKeys).collect(toList());
+        List<List<Writable>> rightFiltered = right.stream()
+                .filter(input -> input.size() != numRightKeys).collect(toList());
 
-        Map<List<Writable>, Pair<List<List<Writable>>, List<List<Writable>>>> cogroupedJV = FunctionalUtils.cogroup(leftJV, rightJV);
-        ExecuteJoinFromCoGroupFlatMapFunction executeJoinFromCoGroupFlatMapFunction = new ExecuteJoinFromCoGroupFlatMapFunction(join);
-        List<List<Writable>> ret =  cogroupedJV.entrySet().stream()
-                .flatMap(input ->
-                        executeJoinFromCoGroupFlatMapFunction.call(Pair.of(input.getKey(),input.getValue())).stream())
-                .collect(toList());
+        List<List<Writable>> ret = new LocalJoinExecutor(join).hashJoin(leftFiltered, rightFiltered);
 
         Schema retSchema = join.getOutputSchema();
         return ArrowConverter.toArrowWritables(ArrowConverter.toArrowColumns(bufferAllocator,retSchema,ret),retSchema);
@@ -0,0 +1,478 @@
+package org.datavec.local.transforms.join;
+
+import lombok.extern.slf4j.Slf4j;
+import org.datavec.api.transform.join.Join;
+import org.datavec.api.transform.schema.Schema;
+import org.datavec.api.writable.Writable;
+import org.datavec.api.writable.WritableFactory;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Join engine for local (single machine) execution of a {@link Join}, supporting all the join types.<br>
+ * Two strategies are used:
+ * <ul>
+ *     <li>Hash join: the smaller side is indexed by the 64 bit hash of its key columns, in primitive arrays
+ *     (no boxed key objects are created), and the other side probes the index in parallel.
+ *     Rows with colliding hashes are told apart by comparing their key columns.</li>
+ *     <li>Sort-merge join: when the build side does not fit in {@code maxRowsInMemory} rows, both sides are
+ *     sorted by key hash in runs of at most {@code maxRowsInMemory} rows, which are spilled to disk and
+ *     then merged, so only the rows sharing a key hash are held in memory at once.</li>
+ * </ul>
+ * Output rows are produced in no particular order.
+ */
+@Slf4j
+public class LocalJoinExecutor {
+
+    public static final int DEFAULT_MAX_ROWS_IN_MEMORY = 1000000;
+
+    private final Join join;
+    private final int[] leftKeys;
+    private final int[] rightKeys;
+    private final int numThreads;
+    private final int maxRowsInMemory;
+    private final File spillDirectory;
+
+    public LocalJoinExecutor(Join join) {
+        this(join, Runtime.getRuntime().availableProcessors(), DEFAULT_MAX_ROWS_IN_MEMORY, null);
+    }
+
+    /**
+     * @param join            Join to execute
+     * @param numThreads      Number of threads probing the hash index
+     * @param maxRowsInMemory Maximum number of rows of a side held in memory before spilling sorted runs to disk
+     * @param spillDirectory  Directory of the spilled runs, null for the default temporary directory
+     */
+    public LocalJoinExecutor(Join join, int numThreads, int maxRowsInMemory, File spillDirectory) {
+        if (numThreads < 1)
+            throw new IllegalArgumentException("Number of threads must be >= 1, got " + numThreads);
+        if (maxRowsInMemory < 1)
+            throw new IllegalArgumentException("Maximum number of rows in memory must be >= 1, got " + maxRowsInMemory);
+        this.join = join;
+        this.leftKeys = columnIndexes(join.getLeftSchema(), join.getJoinColumnsLeft());
+        this.rightKeys = columnIndexes(join.getRightSchema(), join.getJoinColumnsRight());
+        this.numThreads = numThreads;
+        this.maxRowsInMemory = maxRowsInMemory;
+        this.spillDirectory = spillDirectory;
+    }
+
+    private static int[] columnIndexes(Schema schema, String[] columnNames) {
+        int[] ret = new int[columnNames.length];
+        for (int i = 0; i < columnNames.length; i++) {
+            ret[i] = schema.getIndexOfColumn(columnNames[i]);
+        }
+        return ret;
+    }
+
+    /**
+     * Hash join of two in memory tables, the smaller one being used as the build side
+     *
+     * @return the joined rows
+     */
+    public List<List<Writable>> hashJoin(List<List<Writable>> left, List<List<Writable>> right) {
+        boolean buildLeft = left.size() < right.size();
+        HashIndex index = buildLeft ? new HashIndex(left, leftKeys) : new HashIndex(right, rightKeys);
+        List<List<Writable>> ret = new ArrayList<>();
+        probe(index, buildLeft, buildLeft ? right : left, ret::add);
+        emitUnmatched(index, buildLeft, ret::add);
+        return ret;
+    }
+
+    /**
+     * Join two tables read from iterators. The right side is read first: if it has no more than
+     * {@code maxRowsInMemory} rows, it is used as the build side of a hash join and the left side is streamed
+     * through it. Otherwise both sides go through an external sort-merge join.
+     *
+     * @param left   Rows of the left table
+     * @param right  Rows of the right table
+     * @param output Receives the joined rows, from the calling thread
+     */
+    public void join(Iterator<List<Writable>> left, Iterator<List<Writable>> right, Consumer<List<Writable>> output) {
+        List<List<Writable>> build = new ArrayList<>();
+        while (right.hasNext() && build.size() <= maxRowsInMemory) {
+            build.add(right.next());
+        }
+
+        if (build.size() <= maxRowsInMemory) {
+            HashIndex index = new HashIndex(build, rightKeys);
+            List<List<Writable>> chunk = new ArrayList<>();
+            while (left.hasNext()) {
+                chunk.add(left.next());
+                if (chunk.size() == maxRowsInMemory) {
+                    probe(index, false, chunk, output);
+                    chunk = new ArrayList<>();
+                }
+            }
+            probe(index, false, chunk, output);
+            emitUnmatched(index, false, output);
+            return;
+        }
+
+        log.info("Right side of join has more than {} rows: using external sort-merge join", maxRowsInMemory);
+        Iterator<List<Writable>> rightAll = new ConcatIterator(build.iterator(), right);
+        sortMergeJoin(left, rightAll, output);
+    }
+
+    /**
+     * External sort-merge join: both sides are sorted by key hash in runs of at most {@code maxRowsInMemory} rows
+     * spilled to disk, then merged.
+     */
+    public void sortMergeJoin(Iterator<List<Writable>> left, Iterator<List<Writable>> right,
+                    Consumer<List<Writable>> output) {
+        List<File> leftRuns = new ArrayList<>();
+        List<File> rightRuns = new ArrayList<>();
+        try {
+            spillSortedRuns(left, leftKeys, leftRuns);
+            spillSortedRuns(right, rightKeys, rightRuns);
+            try (MergedRuns l = new MergedRuns(leftRuns); MergedRuns r = new MergedRuns(rightRuns)) {
+                mergeJoin(l, r, output);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error spilling join runs to disk", e);
+        } finally {
+            for (File f : leftRuns)
+                f.delete();
+            for (File f : rightRuns)
+                f.delete();
+        }
+    }
+
+    private void mergeJoin(MergedRuns left, MergedRuns right, Consumer<List<Writable>> output) throws IOException {
+        Join.JoinType type = join.getJoinType();
+        boolean leftOuter = type == Join.JoinType.LeftOuter || type == Join.JoinType.FullOuter;
+        boolean rightOuter = type == Join.JoinType.RightOuter || type == Join.JoinType.FullOuter;
+        List<List<Writable>> leftGroup = new ArrayList<>();
+        List<List<Writable>> rightGroup = new ArrayList<>();
+        while (left.hasNext() || right.hasNext()) {
+            long hash;
+            if (!right.hasNext() || (left.hasNext() && left.peekHash() < right.peekHash()))
+                hash = left.peekHash();
+            else
+                hash = right.peekHash();
+
+            left.nextGroup(hash, leftGroup);
+            right.nextGroup(hash, rightGroup);
+            boolean[] rightMatched = new boolean[rightGroup.size()];
+            for (List<Writable> l : leftGroup) {
+                boolean matched = false;
+                for (int i = 0; i < rightGroup.size(); i++) {
+                    List<Writable> r = rightGroup.get(i);
+                    if (keysEqual(l, leftKeys, r, rightKeys)) {
+                        output.accept(join.joinExamples(l, r));
+                        rightMatched[i] = true;
+                        matched = true;
+                    }
+                }
+                if (!matched && leftOuter)
+                    output.accept(join.joinExamples(l, null));
+            }
+            if (rightOuter) {
+                for (int i = 0; i < rightGroup.size(); i++) {
+                    if (!rightMatched[i])
+                        output.accept(join.joinExamples(null, rightGroup.get(i)));
+                }
+            }
+        }
+    }
+
+    private void spillSortedRuns(Iterator<List<Writable>> rows, int[] keys, List<File> runs) throws IOException {
+        List<List<Writable>> buffer = new ArrayList<>();
+        while (rows.hasNext()) {
+            buffer.add(rows.next());
+            if (buffer.size() == maxRowsInMemory) {
+                runs.add(spillRun(buffer, keys));
+                buffer.clear();
+            }
+        }
+        if (!buffer.isEmpty())
+            runs.add(spillRun(buffer, keys));
+    }
+
+    private File spillRun(List<List<Writable>> rows, int[] keys) throws IOException {
+        final long[] hashes = new long[rows.size()];
+        Integer[] order = new Integer[rows.size()];
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = hash(rows.get(i), keys);
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(hashes[a], hashes[b]));
+
+        File f = File.createTempFile("datavec_join_", ".run", spillDirectory);
+        f.deleteOnExit();
+        WritableFactory factory = WritableFactory.getInstance();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(f)))) {
+            for (Integer i : order) {
+                List<Writable> row = rows.get(i);
+                out.writeLong(hashes[i]);
+                out.writeInt(row.size());
+                for (Writable w : row)
+                    factory.writeWithType(w, out);
+            }
+        }
+        return f;
+    }
+
+    private void probe(final HashIndex index, final boolean buildLeft, final List<List<Writable>> probeRows,
+                    Consumer<List<Writable>> output) {
+        int numChunks = Math.min(numThreads, Math.max(1, probeRows.size() / 1024));
+        if (numChunks <= 1) {
+            probeRange(index, buildLeft, probeRows, 0, probeRows.size(), output);
+            return;
+        }
+
+        int chunkSize = (probeRows.size() + numChunks - 1) / numChunks;
+        ExecutorService executor = Executors.newFixedThreadPool(numChunks);
+        try {
+            List<Future<List<List<Writable>>>> futures = new ArrayList<>(numChunks);
+            for (int c = 0; c < numChunks; c++) {
+                final int from = c * chunkSize;
+                final int to = Math.min(probeRows.size(), from + chunkSize);
+                futures.add(executor.submit(() -> {
+                    List<List<Writable>> out = new ArrayList<>();
+                    probeRange(index, buildLeft, probeRows, from, to, out::add);
+                    return out;
+                }));
+            }
+            for (Future<List<List<Writable>>> f : futures) {
+                for (List<Writable> row : f.get())
+                    output.accept(row);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void probeRange(HashIndex index, boolean buildLeft, List<List<Writable>> probeRows, int from, int to,
+                    Consumer<List<Writable>> output) {
+        Join.JoinType type = join.getJoinType();
+        boolean probeOuter = type == Join.JoinType.FullOuter
+                        || (buildLeft ? type == Join.JoinType.RightOuter : type == Join.JoinType.LeftOuter);
+        int[] probeKeys = buildLeft ? rightKeys : leftKeys;
+        for (int p = from; p < to; p++) {
+            List<Writable> row = probeRows.get(p);
+            long h = hash(row, probeKeys);
+            boolean matched = false;
+            for (int i = index.first(h); i >= 0; i = index.next[i]) {
+                List<Writable> buildRow = index.rows.get(i);
+                if (index.hashes[i] != h || !keysEqual(buildRow, index.keys, row, probeKeys))
+                    continue;
+                index.markMatched(i);
+                matched = true;
+                output.accept(buildLeft ? join.joinExamples(buildRow, row) : join.joinExamples(row, buildRow));
+            }
+            if (!matched && probeOuter)
+                output.accept(buildLeft ? join.joinExamples(null, row) : join.joinExamples(row, null));
+        }
+    }
+
+    private void emitUnmatched(HashIndex index, boolean buildLeft, Consumer<List<Writable>> output) {
+        Join.JoinType type = join.getJoinType();
+        boolean buildOuter = type == Join.JoinType.FullOuter
+                        || (buildLeft ? type == Join.JoinType.LeftOuter : type == Join.JoinType.RightOuter);
+        if (!buildOuter)
+            return;
+        for (int i = 0; i < index.rows.size(); i++) {
+            if (!index.isMatched(i)) {
+                List<Writable> row = index.rows.get(i);
+                output.accept(buildLeft ? join.joinExamples(row, null) : join.joinExamples(null, row));
+            }
+        }
+    }
+
+    /**
+     * 64 bit hash of the key columns of a row
+     */
+    static long hash(List<Writable> row, int[] keys) {
+        long h = 1125899906842597L;
+        for (int k : keys) {
+            Writable w = row.get(k);
+            h = 31 * h + (w == null ? 0 : w.hashCode());
+        }
+        //Murmur3 finalizer: spread the bits, the low bits select the bucket
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    static boolean keysEqual(List<Writable> a, int[] aKeys, List<Writable> b, int[] bKeys) {
+        for (int i = 0; i < aKeys.length; i++) {
+            if (!Objects.equals(a.get(aKeys[i]), b.get(bKeys[i])))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Chained hash index of the build side: bucket heads and chains are int arrays of row indexes,
+     * the key hash of each row is kept in a long array so that most mismatches never touch the Writables
+     */
+    private static class HashIndex {
+        private final List<List<Writable>> rows;
+        private final int[] keys;
+        private final long[] hashes;
+        private final int[] buckets;
+        private final int[] next;
+        private final int mask;
+        private final BitSetMatches matched;
+
+        private HashIndex(List<List<Writable>> rows, int[] keys) {
+            this.rows = rows;
+            this.keys = keys;
+            int n = rows.size();
+            int capacity = Integer.highestOneBit(Math.max(2, n) * 2 - 1);
+            this.mask = capacity - 1;
+            this.hashes = new long[n];
+            this.buckets = new int[capacity];
+            this.next = new int[n];
+            Arrays.fill(buckets, -1);
+            //Insert in reverse so that the chains follow the input order
+            for (int i = n - 1; i >= 0; i--) {
+                long h = hash(rows.get(i), keys);
+                hashes[i] = h;
+                int b = (int) h & mask;
+                next[i] = buckets[b];
+                buckets[b] = i;
+            }
+            this.matched = new BitSetMatches(n);
+        }
+
+        private int first(long hash) {
+            return buckets[(int) hash & mask];
+        }
+
+        private void markMatched(int i) {
+            matched.set(i);
+        }
+
+        private boolean isMatched(int i) {
+            return matched.get(i);
+        }
+    }
+
+    /**
+     * Bit set safe for concurrent updates from the probing threads
+     */
+    private static class BitSetMatches {
+        private final AtomicLongArray words;
+
+        private BitSetMatches(int n) {
+            words = new AtomicLongArray((n + 63) >>> 6);
+        }
+
+        private void set(int i) {
+            int w = i >>> 6;
+            long bit = 1L << i;
+            long current;
+            while (((current = words.get(w)) & bit) == 0 && !words.compareAndSet(w, current, current | bit)) {
+                //retry
+            }
+        }
+
+        private boolean get(int i) {
+            return (words.get(i >>> 6) & (1L << i)) != 0;
+        }
+    }
+
+    /**
+     * K-way merge of the sorted runs of one side
+     */
+    private static class MergedRuns implements Closeable {
+        private final PriorityQueue<RunReader> queue =
+                        new PriorityQueue<>((a, b) -> Long.compare(a.hash, b.hash));
+        private final List<RunReader> readers = new ArrayList<>();
+
+        private MergedRuns(List<File> runs) throws IOException {
+            for (File f : runs) {
+                RunReader r = new RunReader(f);
+                readers.add(r);
+                if (r.advance())
+                    queue.add(r);
+            }
+        }
+
+        private boolean hasNext() {
+            return !queue.isEmpty();
+        }
+
+        private long peekHash() {
+            return queue.peek().hash;
+        }
+
+        /**
+         * Replace the content of group by all the rows with the given hash
+         */
+        private void nextGroup(long hash, List<List<Writable>> group) throws IOException {
+            group.clear();
+            while (!queue.isEmpty() && queue.peek().hash == hash) {
+                RunReader r = queue.poll();
+                group.add(r.row);
+                if (r.advance())
+                    queue.add(r);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (RunReader r : readers)
+                r.in.close();
+        }
+    }
+
+    private static class RunReader {
+        private final DataInputStream in;
+        private long hash;
+        private List<Writable> row;
+
+        private RunReader(File f) throws IOException {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(f)));
+        }
+
+        private boolean advance() throws IOException {
+            try {
+                hash = in.readLong();
+            } catch (EOFException e) {
+                row = null;
+                return false;
+            }
+            int n = in.readInt();
+            row = new ArrayList<>(n);
+            for (int i = 0; i < n; i++)
+                row.add(WritableFactory.getInstance().readWithType(in));
+            return true;
+        }
+    }
+
+    private static class ConcatIterator implements Iterator<List<Writable>> {
+        private final Iterator<List<Writable>> first;
+        private final Iterator<List<Writable>> second;
+
+        private ConcatIterator(Iterator<List<Writable>> first, Iterator<List<Writable>> second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return first.hasNext() || second.hasNext();
+        }
+
+        @Override
+        public List<Writable> next() {
+            return first.hasNext() ? first.next() : second.next();
+        }
+    }
+}
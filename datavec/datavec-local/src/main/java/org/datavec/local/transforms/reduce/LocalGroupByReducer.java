@@ -0,0 +1,455 @@
+package org.datavec.local.transforms.reduce;
+
+import lombok.extern.slf4j.Slf4j;
+import org.datavec.api.transform.ops.IAggregableReduceOp;
+import org.datavec.api.transform.reduce.IAssociativeReducer;
+import org.datavec.api.writable.Writable;
+import org.datavec.api.writable.WritableFactory;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * Streaming group-by for an {@link IAssociativeReducer}: instead of collecting all the records of a key before
+ * reducing them, every record is folded in to the partial aggregate ({@link IAggregableReduceOp}) of its key as
+ * soon as it is read. Sums, counts, min/max, mean and standard deviation (Welford), count unique (HyperLogLog)
+ * and percentiles ({@link org.datavec.api.transform.reduce.impl.PercentileReduction}, TDigest) all keep a
+ * constant size state per key.
+ * <ul>
+ *     <li>The partial aggregates are indexed by the 64 bit hash of the key columns in primitive arrays,
+ *     the key columns being compared only on hash collisions.</li>
+ *     <li>In memory inputs are split between threads, each thread aggregating its own part; the partial
+ *     aggregates of the threads are then merged with {@link IAggregableReduceOp#combine(IAggregableReduceOp)}.</li>
+ *     <li>Once {@code maxKeysInMemory} keys are held, records of new keys are spilled to disk, hash partitioned;
+ *     each partition is then aggregated in turn (recursively, if it still has too many keys).</li>
+ * </ul>
+ * Keys are output in no particular order. Order dependent reductions (take first/last, append/prepend) follow
+ * the order of the input as long as nothing is spilled to disk.
+ */
+@Slf4j
+public class LocalGroupByReducer {
+
+    public static final int DEFAULT_MAX_KEYS_IN_MEMORY = 1000000;
+
+    private static final int PARTITION_BITS = 4;
+    private static final int NUM_PARTITIONS = 1 << PARTITION_BITS;
+    //Partitions use the high bits of the hash, the low bits are used by the hash table
+    private static final int MAX_LEVEL = 64 / PARTITION_BITS - 4;
+    private static final int MIN_ROWS_PER_THREAD = 4096;
+
+    private final IAssociativeReducer reducer;
+    private final int[] keyColumns;
+    private final int numThreads;
+    private final int maxKeysInMemory;
+    private final File spillDirectory;
+
+    public LocalGroupByReducer(IAssociativeReducer reducer) {
+        this(reducer, Runtime.getRuntime().availableProcessors(), DEFAULT_MAX_KEYS_IN_MEMORY, null);
+    }
+
+    /**
+     * @param reducer         Reducer to execute, with its input schema set
+     * @param numThreads      Number of threads aggregating in memory inputs
+     * @param maxKeysInMemory Maximum number of keys with a partial aggregate held in memory
+     * @param spillDirectory  Directory of the spilled records, null for the default temporary directory
+     */
+    public LocalGroupByReducer(IAssociativeReducer reducer, int numThreads, int maxKeysInMemory, File spillDirectory) {
+        if (numThreads < 1)
+            throw new IllegalArgumentException("Number of threads must be >= 1, got " + numThreads);
+        if (maxKeysInMemory < 1)
+            throw new IllegalArgumentException("Maximum number of keys in memory must be >= 1, got " + maxKeysInMemory);
+        this.reducer = reducer;
+        List<String> keys = reducer.getKeyColumns();
+        if (keys == null) {
+            //Global reduction: a single (empty) key
+            this.keyColumns = new int[0];
+        } else {
+            this.keyColumns = new int[keys.size()];
+            for (int i = 0; i < keyColumns.length; i++)
+                keyColumns[i] = reducer.getInputSchema().getIndexOfColumn(keys.get(i));
+        }
+        this.numThreads = numThreads;
+        this.maxKeysInMemory = maxKeysInMemory;
+        this.spillDirectory = spillDirectory;
+    }
+
+    /**
+     * Reduce in memory records, in parallel
+     *
+     * @return one reduced record per key
+     */
+    public List<List<Writable>> reduce(final List<List<Writable>> input) {
+        final List<List<Writable>> ret = new ArrayList<>();
+        int numChunks = Math.max(1, Math.min(numThreads, input.size() / MIN_ROWS_PER_THREAD));
+        final int chunkSize = (input.size() + numChunks - 1) / Math.max(numChunks, 1);
+        final int keysPerChunk = Math.max(1, maxKeysInMemory / numChunks);
+
+        List<Aggregates> tables = new ArrayList<>(numChunks);
+        List<Spill> spills = new ArrayList<>(numChunks);
+        try {
+            if (numChunks == 1) {
+                Aggregates table = new Aggregates();
+                Spill spill = new Spill();
+                aggregate(input.iterator(), table, maxKeysInMemory, spill, 0);
+                tables.add(table);
+                spills.add(spill);
+            } else {
+                ExecutorService executor = Executors.newFixedThreadPool(numChunks);
+                try {
+                    List<Future<Object[]>> futures = new ArrayList<>(numChunks);
+                    for (int c = 0; c < numChunks; c++) {
+                        final int from = c * chunkSize;
+                        final int to = Math.min(input.size(), from + chunkSize);
+                        futures.add(executor.submit(() -> {
+                            Aggregates table = new Aggregates();
+                            Spill spill = new Spill();
+                            aggregate(input.subList(from, to).iterator(), table, keysPerChunk, spill, 0);
+                            return new Object[] {table, spill};
+                        }));
+                    }
+                    for (Future<Object[]> f : futures) {
+                        Object[] result = f.get();
+                        tables.add((Aggregates) result[0]);
+                        spills.add((Spill) result[1]);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(e);
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof RuntimeException)
+                        throw (RuntimeException) e.getCause();
+                    throw new RuntimeException(e.getCause());
+                } finally {
+                    executor.shutdownNow();
+                }
+            }
+
+            //Merge the partial aggregates of the threads, in input order
+            Aggregates merged = tables.get(0);
+            for (int i = 1; i < tables.size(); i++)
+                merged.combineAll(tables.get(i));
+            drain(merged, new Spill().merge(spills), 0, ret::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error spilling group-by records to disk", e);
+        } finally {
+            for (Spill s : spills)
+                s.delete();
+        }
+        return ret;
+    }
+
+    /**
+     * Reduce records read from an iterator, on the calling thread
+     *
+     * @param input  Records to reduce
+     * @param output Receives one reduced record per key
+     */
+    public void reduce(Iterator<List<Writable>> input, Consumer<List<Writable>> output) {
+        Spill spill = new Spill();
+        try {
+            Aggregates table = new Aggregates();
+            aggregate(input, table, maxKeysInMemory, spill, 0);
+            drain(table, spill, 0, output);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error spilling group-by records to disk", e);
+        } finally {
+            spill.delete();
+        }
+    }
+
+    private void aggregate(Iterator<List<Writable>> rows, Aggregates table, int maxKeys, Spill spill, int level)
+                    throws IOException {
+        while (rows.hasNext()) {
+            List<Writable> row = rows.next();
+            long h = hash(row, keyColumns);
+            int idx = table.find(h, row, keyColumns);
+            if (idx < 0) {
+                if (table.size() >= maxKeys && level <= MAX_LEVEL) {
+                    spill.write(partition(h, level), h, row);
+                    continue;
+                }
+                idx = table.add(h, key(row), reducer.aggregableReducer());
+            }
+            table.ops.get(idx).accept(row);
+        }
+    }
+
+    /**
+     * Output the aggregates of the keys without spilled records, then aggregate each spilled partition
+     * together with the in memory aggregates of its keys
+     */
+    private void drain(Aggregates table, Spill spill, int level, Consumer<List<Writable>> output) throws IOException {
+        spill.close();
+        if (spill.isEmpty()) {
+            for (IAggregableReduceOp<List<Writable>, List<Writable>> op : table.ops)
+                output.accept(op.get());
+            return;
+        }
+
+        log.debug("Group-by exceeded {} keys in memory: aggregating spilled partitions (level {})", maxKeysInMemory,
+                        level);
+        Aggregates[] partitions = new Aggregates[NUM_PARTITIONS];
+        for (int i = 0; i < table.size(); i++) {
+            int p = partition(table.hashes[i], level);
+            if (spill.files[p].isEmpty()) {
+                output.accept(table.ops.get(i).get());
+            } else {
+                if (partitions[p] == null)
+                    partitions[p] = new Aggregates();
+                partitions[p].add(table.hashes[i], table.keys.get(i), table.ops.get(i));
+            }
+        }
+        table.clear();
+
+        for (int p = 0; p < NUM_PARTITIONS; p++) {
+            if (spill.files[p].isEmpty())
+                continue;
+            Aggregates partitionTable = partitions[p] == null ? new Aggregates() : partitions[p];
+            partitions[p] = null;
+            Spill next = new Spill();
+            try {
+                for (File f : spill.files[p]) {
+                    try (SpillReader reader = new SpillReader(f)) {
+                        aggregate(reader, partitionTable, maxKeysInMemory, next, level + 1);
+                    }
+                }
+                drain(partitionTable, next, level + 1, output);
+            } finally {
+                next.delete();
+            }
+        }
+    }
+
+    private List<Writable> key(List<Writable> row) {
+        List<Writable> key = new ArrayList<>(keyColumns.length);
+        for (int k : keyColumns)
+            key.add(row.get(k));
+        return key;
+    }
+
+    private static int partition(long hash, int level) {
+        return (int) (hash >>> (64 - PARTITION_BITS * (level + 1))) & (NUM_PARTITIONS - 1);
+    }
+
+    private static long hash(List<Writable> row, int[] keys) {
+        long h = 1125899906842597L;
+        for (int k : keys) {
+            Writable w = row.get(k);
+            h = 31 * h + (w == null ? 0 : w.hashCode());
+        }
+        //Murmur3 finalizer
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Partial aggregates, in a chained hash table: bucket heads and chains are int arrays of entry indexes,
+     * and the key hash of each entry is kept in a long array
+     */
+    private static class Aggregates {
+        private long[] hashes = new long[16];
+        private int[] next = new int[16];
+        private int[] buckets = newBuckets(32);
+        private final List<List<Writable>> keys = new ArrayList<>();
+        private final List<IAggregableReduceOp<List<Writable>, List<Writable>>> ops = new ArrayList<>();
+
+        private static int[] newBuckets(int n) {
+            int[] ret = new int[n];
+            Arrays.fill(ret, -1);
+            return ret;
+        }
+
+        private int size() {
+            return ops.size();
+        }
+
+        private int find(long h, List<Writable> row, int[] keyColumns) {
+            for (int i = buckets[(int) h & (buckets.length - 1)]; i >= 0; i = next[i]) {
+                if (hashes[i] == h && keyEquals(keys.get(i), row, keyColumns))
+                    return i;
+            }
+            return -1;
+        }
+
+        private int find(long h, List<Writable> key) {
+            for (int i = buckets[(int) h & (buckets.length - 1)]; i >= 0; i = next[i]) {
+                if (hashes[i] == h && keys.get(i).equals(key))
+                    return i;
+            }
+            return -1;
+        }
+
+        private int add(long h, List<Writable> key, IAggregableReduceOp<List<Writable>, List<Writable>> op) {
+            int idx = ops.size();
+            if (idx == hashes.length) {
+                hashes = Arrays.copyOf(hashes, idx * 2);
+                next = Arrays.copyOf(next, idx * 2);
+            }
+            if (idx * 2 >= buckets.length)
+                rehash(buckets.length * 2);
+            hashes[idx] = h;
+            int b = (int) h & (buckets.length - 1);
+            next[idx] = buckets[b];
+            buckets[b] = idx;
+            keys.add(key);
+            ops.add(op);
+            return idx;
+        }
+
+        private void rehash(int numBuckets) {
+            buckets = newBuckets(numBuckets);
+            for (int i = 0; i < ops.size(); i++) {
+                int b = (int) hashes[i] & (numBuckets - 1);
+                next[i] = buckets[b];
+                buckets[b] = i;
+            }
+        }
+
+        private void combineAll(Aggregates other) {
+            for (int i = 0; i < other.size(); i++) {
+                int idx = find(other.hashes[i], other.keys.get(i));
+                if (idx < 0)
+                    add(other.hashes[i], other.keys.get(i), other.ops.get(i));
+                else
+                    ops.get(idx).combine(other.ops.get(i));
+            }
+            other.clear();
+        }
+
+        private void clear() {
+            keys.clear();
+            ops.clear();
+            hashes = new long[16];
+            next = new int[16];
+            buckets = newBuckets(32);
+        }
+
+        private static boolean keyEquals(List<Writable> key, List<Writable> row, int[] keyColumns) {
+            for (int i = 0; i < keyColumns.length; i++) {
+                if (!Objects.equals(key.get(i), row.get(keyColumns[i])))
+                    return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Records spilled to disk, one file per partition and writer
+     */
+    private class Spill implements Closeable {
+        @SuppressWarnings("unchecked")
+        private final List<File>[] files = new List[NUM_PARTITIONS];
+        private final DataOutputStream[] streams = new DataOutputStream[NUM_PARTITIONS];
+
+        private Spill() {
+            for (int i = 0; i < NUM_PARTITIONS; i++)
+                files[i] = new ArrayList<>();
+        }
+
+        private void write(int partition, long hash, List<Writable> row) throws IOException {
+            if (streams[partition] == null) {
+                File f = File.createTempFile("datavec_groupby_", ".bin", spillDirectory);
+                f.deleteOnExit();
+                files[partition].add(f);
+                streams[partition] = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(f)));
+            }
+            DataOutputStream out = streams[partition];
+            out.writeLong(hash);
+            out.writeInt(row.size());
+            for (Writable w : row)
+                WritableFactory.getInstance().writeWithType(w, out);
+        }
+
+        private boolean isEmpty() {
+            for (List<File> l : files) {
+                if (!l.isEmpty())
+                    return false;
+            }
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (int i = 0; i < NUM_PARTITIONS; i++) {
+                if (streams[i] != null) {
+                    streams[i].close();
+                    streams[i] = null;
+                }
+            }
+        }
+
+        private void delete() {
+            try {
+                close();
+            } catch (IOException e) {
+                log.warn("Error closing spill file", e);
+            }
+            for (List<File> l : files) {
+                for (File f : l)
+                    f.delete();
+                l.clear();
+            }
+        }
+
+        private Spill merge(List<Spill> spills) throws IOException {
+            for (Spill s : spills) {
+                s.close();
+                for (int i = 0; i < NUM_PARTITIONS; i++)
+                    files[i].addAll(s.files[i]);
+            }
+            return this;
+        }
+    }
+
+    private static class SpillReader implements Iterator<List<Writable>>, Closeable {
+        private final DataInputStream in;
+        private List<Writable> next;
+
+        private SpillReader(File f) throws IOException {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(f)));
+            advance();
+        }
+
+        private void advance() throws IOException {
+            try {
+                in.readLong();
+            } catch (EOFException e) {
+                next = null;
+                return;
+            }
+            int n = in.readInt();
+            next = new ArrayList<>(n);
+            for (int i = 0; i < n; i++)
+                next.add(WritableFactory.getInstance().readWithType(in));
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public List<Writable> next() {
+            if (next == null)
+                throw new NoSuchElementException();
+            List<Writable> ret = next;
+            try {
+                advance();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return ret;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package org.datavec.local.transforms.transform.join;
+
+import org.datavec.api.transform.join.Join;
+import org.datavec.api.transform.schema.Schema;
+import org.datavec.api.writable.*;
+import org.datavec.local.transforms.join.LocalJoinExecutor;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestLocalJoinExecutor {
+
+    @Rule
+    public TemporaryFolder testDir = new TemporaryFolder();
+
+    private static final Schema LEFT = new Schema.Builder().addColumnLong("id").addColumnString("name").build();
+    private static final Schema RIGHT = new Schema.Builder().addColumnLong("rid").addColumnLong("id")
+                    .addColumnDouble("amount").build();
+
+    private static List<List<Writable>> left(int n, Random r) {
+        List<List<Writable>> ret = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            long id = r.nextInt(n);
+            ret.add(Arrays.<Writable>asList(new LongWritable(id), new Text("name" + id)));
+        }
+        return ret;
+    }
+
+    private static List<List<Writable>> right(int n, Random r) {
+        List<List<Writable>> ret = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            ret.add(Arrays.<Writable>asList(new LongWritable(i), new LongWritable(r.nextInt(n)),
+                            new DoubleWritable(r.nextDouble())));
+        }
+        return ret;
+    }
+
+    /**
+     * Reference nested loop join
+     */
+    private static List<String> nestedLoopJoin(Join join, List<List<Writable>> left, List<List<Writable>> right) {
+        Join.JoinType type = join.getJoinType();
+        List<String> ret = new ArrayList<>();
+        boolean[] rightMatched = new boolean[right.size()];
+        for (List<Writable> l : left) {
+            boolean matched = false;
+            for (int i = 0; i < right.size(); i++) {
+                if (l.get(0).equals(right.get(i).get(1))) {
+                    ret.add(join.joinExamples(l, right.get(i)).toString());
+                    matched = true;
+                    rightMatched[i] = true;
+                }
+            }
+            if (!matched && (type == Join.JoinType.LeftOuter || type == Join.JoinType.FullOuter))
+                ret.add(join.joinExamples(l, null).toString());
+        }
+        for (int i = 0; i < right.size(); i++) {
+            if (!rightMatched[i] && (type == Join.JoinType.RightOuter || type == Join.JoinType.FullOuter))
+                ret.add(join.joinExamples(null, right.get(i)).toString());
+        }
+        Collections.sort(ret);
+        return ret;
+    }
+
+    private static List<String> sorted(List<List<Writable>> rows) {
+        List<String> ret = new ArrayList<>();
+        for (List<Writable> row : rows)
+            ret.add(row.toString());
+        Collections.sort(ret);
+        return ret;
+    }
+
+    @Test
+    public void testJoinTypes() throws Exception {
+        File spill = testDir.newFolder();
+        for (Join.JoinType type : Join.JoinType.values()) {
+            Join join = new Join.Builder(type).setJoinColumns("id").setSchemas(LEFT, RIGHT).build();
+            for (int[] sizes : new int[][] {{0, 10}, {10, 0}, {50, 200}, {5000, 3000}}) {
+                Random r = new Random(12345);
+                List<List<Writable>> left = left(sizes[0], r);
+                List<List<Writable>> right = right(sizes[1], r);
+                List<String> expected = nestedLoopJoin(join, left, right);
+
+                LocalJoinExecutor executor = new LocalJoinExecutor(join, 4, 100, spill);
+                assertEquals(type + " " + sizes[0], expected, sorted(executor.hashJoin(left, right)));
+
+                List<List<Writable>> merged = new ArrayList<>();
+                executor.sortMergeJoin(left.iterator(), right.iterator(), merged::add);
+                assertEquals(type + " " + sizes[0], expected, sorted(merged));
+
+                //Small right side: hash join, large right side: sort-merge join
+                for (int maxRows : new int[] {100, 100000}) {
+                    List<List<Writable>> joined = new ArrayList<>();
+                    new LocalJoinExecutor(join, 2, maxRows, spill).join(left.iterator(), right.iterator(), joined::add);
+                    assertEquals(type + " " + sizes[0], expected, sorted(joined));
+                }
+            }
+        }
+
+        //Spilled runs are deleted
+        assertTrue(spill.list().length == 0);
+    }
+
+    @Test
+    public void testMultiColumnKeys() {
+        Schema left = new Schema.Builder().addColumnInteger("a").addColumnString("b").addColumnDouble("x").build();
+        Schema right = new Schema.Builder().addColumnString("b").addColumnInteger("a").addColumnDouble("y").build();
+        Join join = new Join.Builder(Join.JoinType.Inner).setJoinColumns("a", "b").setSchemas(left, right).build();
+
+        List<List<Writable>> l = new ArrayList<>();
+        l.add(Arrays.<Writable>asList(new IntWritable(1), new Text("x"), new DoubleWritable(1.0)));
+        l.add(Arrays.<Writable>asList(new IntWritable(1), new Text("y"), new DoubleWritable(2.0)));
+        List<List<Writable>> r = new ArrayList<>();
+        r.add(Arrays.<Writable>asList(new Text("y"), new IntWritable(1), new DoubleWritable(3.0)));
+        r.add(Arrays.<Writable>asList(new Text("x"), new IntWritable(2), new DoubleWritable(4.0)));
+
+        List<List<Writable>> joined = new LocalJoinExecutor(join).hashJoin(l, r);
+        assertEquals(1, joined.size());
+        assertEquals(Arrays.<Writable>asList(new IntWritable(1), new Text("y"), new DoubleWritable(2.0),
+                        new DoubleWritable(3.0)), joined.get(0));
+    }
+}
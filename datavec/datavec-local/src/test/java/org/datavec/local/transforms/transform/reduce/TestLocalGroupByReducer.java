@@ -0,0 +1,126 @@
+package org.datavec.local.transforms.transform.reduce;
+
+import org.datavec.api.transform.ReduceOp;
+import org.datavec.api.transform.ops.IAggregableReduceOp;
+import org.datavec.api.transform.reduce.IAssociativeReducer;
+import org.datavec.api.transform.reduce.Reducer;
+import org.datavec.api.transform.schema.Schema;
+import org.datavec.api.writable.*;
+import org.datavec.local.transforms.reduce.LocalGroupByReducer;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+
+public class TestLocalGroupByReducer {
+
+    @Rule
+    public TemporaryFolder testDir = new TemporaryFolder();
+
+    private static final Schema SCHEMA = new Schema.Builder().addColumnString("key").addColumnInteger("key2")
+                    .addColumnDouble("value").addColumnInteger("count").build();
+
+    private static List<List<Writable>> data(int n, int numKeys) {
+        Random r = new Random(12345);
+        List<List<Writable>> ret = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            int k = r.nextInt(numKeys);
+            ret.add(Arrays.<Writable>asList(new Text("k" + k), new IntWritable(k % 3), new DoubleWritable(r.nextGaussian()),
+                            new IntWritable(r.nextInt(10))));
+        }
+        return ret;
+    }
+
+    /**
+     * Reference: all the records of a key in a single partial aggregate, in input order
+     */
+    private static Map<String, List<Writable>> expected(IAssociativeReducer reducer, List<List<Writable>> data) {
+        Map<String, IAggregableReduceOp<List<Writable>, List<Writable>>> ops = new HashMap<>();
+        for (List<Writable> row : data) {
+            String key = row.get(0) + "_" + row.get(1);
+            if (!ops.containsKey(key))
+                ops.put(key, reducer.aggregableReducer());
+            ops.get(key).accept(row);
+        }
+        Map<String, List<Writable>> ret = new HashMap<>();
+        for (Map.Entry<String, IAggregableReduceOp<List<Writable>, List<Writable>>> e : ops.entrySet())
+            ret.put(e.getKey(), e.getValue().get());
+        return ret;
+    }
+
+    private static void assertSame(Map<String, List<Writable>> expected, List<List<Writable>> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (List<Writable> row : actual) {
+            List<Writable> exp = expected.get(row.get(0) + "_" + row.get(1));
+            assertEquals(exp.size(), row.size());
+            assertEquals(exp.subList(0, 2), row.subList(0, 2));
+            for (int i = 2; i < row.size(); i++)
+                assertEquals(exp.get(i).toDouble(), row.get(i).toDouble(), 1e-9);
+        }
+    }
+
+    @Test
+    public void testReduce() throws Exception {
+        File spill = testDir.newFolder();
+        IAssociativeReducer reducer = new Reducer.Builder(ReduceOp.Sum).keyColumns("key", "key2")
+                        .meanColumns("value").stdevColumns("value").maxColumn("count").countColumns("count").build();
+        reducer.setInputSchema(SCHEMA);
+
+        List<List<Writable>> data = data(20000, 1000);
+        Map<String, List<Writable>> expected = expected(reducer, data);
+
+        //In memory, single and multiple threads
+        assertSame(expected, new LocalGroupByReducer(reducer, 1, 100000, spill).reduce(data));
+        assertSame(expected, new LocalGroupByReducer(reducer, 4, 100000, spill).reduce(data));
+
+        //Spilling: more keys than the memory budget, also at the second level
+        assertSame(expected, new LocalGroupByReducer(reducer, 1, 100, spill).reduce(data));
+        assertSame(expected, new LocalGroupByReducer(reducer, 4, 100, spill).reduce(data));
+        assertSame(expected, new LocalGroupByReducer(reducer, 4, 20, spill).reduce(data));
+
+        List<List<Writable>> out = new ArrayList<>();
+        new LocalGroupByReducer(reducer, 1, 50, spill).reduce(data.iterator(), out::add);
+        assertSame(expected, out);
+
+        //Spilled records are deleted
+        assertEquals(0, spill.list().length);
+    }
+
+    @Test
+    public void testReduceIgnoreInvalid() throws Exception {
+        IAssociativeReducer reducer = new Reducer.Builder(ReduceOp.Sum).keyColumns("key", "key2")
+                        .meanColumns("value").maxColumn("count").setIgnoreInvalid("value", "count").build();
+        reducer.setInputSchema(SCHEMA);
+
+        //Enough rows to be aggregated in multiple chunks, whose partial states are then combined
+        List<List<Writable>> data = data(20000, 50);
+        for (int i = 0; i < data.size(); i += 7) {
+            List<Writable> row = new ArrayList<>(data.get(i));
+            row.set(2, new Text("invalid"));
+            data.set(i, row);
+        }
+        Map<String, List<Writable>> expected = expected(reducer, data);
+
+        assertSame(expected, new LocalGroupByReducer(reducer, 4, 100000, null).reduce(data));
+        assertSame(expected, new LocalGroupByReducer(reducer, 4, 20, testDir.newFolder()).reduce(data));
+    }
+
+    @Test
+    public void testGlobalReduction() {
+        IAssociativeReducer reducer = new Reducer.Builder(ReduceOp.Sum).takeFirstColumns("key", "key2").build();
+        reducer.setInputSchema(SCHEMA);
+        List<List<Writable>> data = data(10000, 10);
+        double sum = 0;
+        for (List<Writable> row : data)
+            sum += row.get(2).toDouble();
+
+        List<List<Writable>> out = new LocalGroupByReducer(reducer, 4, 10, null).reduce(data);
+        assertEquals(1, out.size());
+        assertEquals(data.get(0).get(0), out.get(0).get(0));
+        assertEquals(sum, out.get(0).get(2).toDouble(), 1e-6);
+    }
+}
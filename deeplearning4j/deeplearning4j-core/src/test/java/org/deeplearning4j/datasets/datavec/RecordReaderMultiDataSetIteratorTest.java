@@ -9,14 +9,19 @@ import org.datavec.api.io.labels.ParentPathLabelGenerator;
 import org.datavec.api.records.metadata.RecordMetaData;
 import org.datavec.api.records.reader.RecordReader;
 import org.datavec.api.records.reader.SequenceRecordReader;
+import org.datavec.api.records.reader.impl.collection.CollectionRecordReader;
 import org.datavec.api.records.reader.impl.collection.CollectionSequenceRecordReader;
 import org.datavec.api.records.reader.impl.csv.CSVRecordReader;
+import org.datavec.api.records.reader.impl.csv.CSVSchemaRecordReader;
 import org.datavec.api.records.reader.impl.csv.CSVSequenceRecordReader;
 import org.datavec.api.split.CollectionInputSplit;
 import org.datavec.api.split.FileSplit;
 import org.datavec.api.split.NumberedFileInputSplit;
+import org.datavec.api.transform.schema.Schema;
+import org.datavec.api.util.ndarray.RecordConverter;
 import org.datavec.api.writable.DoubleWritable;
 import org.datavec.api.writable.IntWritable;
+import org.datavec.api.writable.NDArrayWritable;
 import org.datavec.api.writable.Writable;
 import org.datavec.image.recordreader.ImageRecordReader;
 import org.deeplearning4j.BaseDL4JTest;
@@ -780,4 +785,89 @@ public class RecordReaderMultiDataSetIteratorTest extends BaseDL4JTest {
 
 
     }
+
+    @Test
+    public void testPrimitiveBatchesCSV() throws Exception {
+        File csvFile = temporaryFolder.newFile();
+
+        StringBuilder sb = new StringBuilder();
+        for(int i=0; i<10; i++ ){
+            sb.append(i).append(",").append(i + 0.5).append(",").append(-i).append(",").append(i % 3).append("\n");
+        }
+        FileUtils.writeStringToFile(csvFile, sb.toString());
+
+        Schema schema = new Schema.Builder().addColumnInteger("a").addColumnDouble("b").addColumnInteger("c")
+                .addColumnInteger("label").build();
+        RecordReader schemaReader = new CSVSchemaRecordReader(schema);
+        schemaReader.initialize(new FileSplit(csvFile));
+
+        //Expected values converted from the writables one by one, independently of the iterator
+        RecordReader csvReader = new CSVRecordReader();
+        csvReader.initialize(new FileSplit(csvFile));
+        List<List<Writable>> features = new ArrayList<>();
+        INDArray expLabels = Nd4j.create(10, 3);
+        int i = 0;
+        while (csvReader.hasNext()) {
+            List<Writable> record = csvReader.next();
+            features.add(record.subList(0, 3));
+            expLabels.putScalar(i++, record.get(3).toInt(), 1.0);
+        }
+        INDArray expFeatures = RecordConverter.toMatrix(features);
+
+        MultiDataSet act = new RecordReaderMultiDataSetIterator.Builder(10).addReader("rr", schemaReader)
+                .addInput("rr", 0, 2).addOutputOneHot("rr", 3, 3).build().next();
+
+        assertEquals(expFeatures, act.getFeatures(0));
+        assertEquals(expLabels, act.getLabels(0));
+        assertEquals(1.0, act.getLabels(0).getDouble(5, 2), 0.0);
+    }
+
+    @Test
+    public void testNDArrayWritableLengthChange() {
+        //The layout detected for the first minibatch doesn't apply to the second one
+        List<List<Writable>> records = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            INDArray arr = Nd4j.linspace(1, i < 2 ? 2 : 3, i < 2 ? 2 : 3).addi(10 * i);
+            records.add(Arrays.<Writable>asList(new NDArrayWritable(arr), new IntWritable(i % 2)));
+        }
+
+        RecordReaderMultiDataSetIterator rrmdsi = new RecordReaderMultiDataSetIterator.Builder(2)
+                .addReader("rr", new CollectionRecordReader(records))
+                .addInput("rr", 0, 0)
+                .addOutputOneHot("rr", 1, 2)
+                .build();
+
+        INDArray f0 = rrmdsi.next().getFeatures(0);
+        INDArray f1 = rrmdsi.next().getFeatures(0);
+        assertArrayEquals(new long[] {2, 2}, f0.shape());
+        assertArrayEquals(new long[] {2, 3}, f1.shape());
+        assertEquals(Nd4j.create(new double[] {11, 12}), f0.getRow(1));
+        assertEquals(Nd4j.create(new double[] {31, 32, 33}), f1.getRow(1));
+    }
+
+    @Test
+    public void testMixedWritablesConversion() {
+        List<List<Writable>> records = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            records.add(Arrays.<Writable>asList(new DoubleWritable(i),
+                    new NDArrayWritable(Nd4j.create(new double[] {10 * i, 10 * i + 1})), new IntWritable(i % 2)));
+        }
+
+        RecordReaderMultiDataSetIterator rrmdsi = new RecordReaderMultiDataSetIterator.Builder(5)
+                .addReader("rr", new CollectionRecordReader(records))
+                .addInput("rr", 0, 1)
+                .addOutputOneHot("rr", 2, 2)
+                .build();
+
+        MultiDataSet mds = rrmdsi.next();
+        INDArray f = mds.getFeatures(0);
+        INDArray l = mds.getLabels(0);
+        assertArrayEquals(new long[] {5, 3}, f.shape());
+        assertArrayEquals(new long[] {5, 2}, l.shape());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(Nd4j.create(new double[] {i, 10 * i, 10 * i + 1}), f.getRow(i));
+            assertEquals(1.0, l.getDouble(i, i % 2), 0.0);
+            assertEquals(0.0, l.getDouble(i, 1 - i % 2), 0.0);
+        }
+    }
 }
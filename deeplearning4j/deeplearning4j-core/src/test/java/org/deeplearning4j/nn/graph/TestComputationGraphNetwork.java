@@ -8,6 +8,7 @@ import org.deeplearning4j.BaseDL4JTest;
 import org.deeplearning4j.TestUtils;
 import org.deeplearning4j.datasets.datavec.RecordReaderMultiDataSetIterator;
 import org.deeplearning4j.datasets.iterator.ExistingDataSetIterator;
+import org.deeplearning4j.datasets.iterator.SparseDataSetIterator;
 import org.deeplearning4j.datasets.iterator.impl.IrisDataSetIterator;
 import org.deeplearning4j.datasets.iterator.impl.MnistDataSetIterator;
 import org.deeplearning4j.datasets.iterator.impl.SingletonMultiDataSetIterator;
@@ -53,6 +54,7 @@ import org.nd4j.linalg.learning.config.Adam;
 import org.nd4j.linalg.learning.config.Sgd;
 import org.nd4j.linalg.lossfunctions.LossFunctions;
 import org.nd4j.linalg.primitives.Pair;
+import org.nd4j.linalg.primitives.Triple;
 import org.deeplearning4j.nn.workspace.LayerWorkspaceMgr;
 
 import java.io.ByteArrayInputStream;
@@ -1648,4 +1650,56 @@ public class TestComputationGraphNetwork extends BaseDL4JTest {
         net.fit(new SingletonMultiDataSetIterator(mds));
         assertEquals(exp, listener.getModelClasses());
     }
+
+    @Test
+    public void testSparseInputMultipleConsumers() {
+        //Sparse input feeding 2 layers: input epsilons (null for sparse input) must not be accumulated
+        int nIn = 500;
+        int nOut = 3;
+        int batchSize = 8;
+        Random r = new Random(12345);
+
+        List<Triple<int[], double[], double[]>> examples = new ArrayList<>();
+        for (int i = 0; i < 3 * batchSize; i++) {
+            int[] indices = new int[] {r.nextInt(nIn / 2), nIn / 2 + r.nextInt(nIn / 2)};
+            double[] labels = new double[nOut];
+            labels[i % nOut] = 1.0;
+            examples.add(new Triple<>(indices, new double[] {r.nextDouble(), -r.nextDouble()}, labels));
+        }
+
+        ComputationGraph sparseNet = getSparseInputGraph(nIn, nOut);
+        ComputationGraph denseNet = getSparseInputGraph(nIn, nOut);
+        assertEquals(denseNet.params(), sparseNet.params());
+
+        SparseDataSetIterator iter = new SparseDataSetIterator(examples, batchSize, nIn);
+        while (iter.hasNext()) {
+            DataSet ds = iter.next();
+            INDArray sparse = ds.getFeatures();
+            INDArray dense = sparse.toDense();
+            INDArray[] labels = new INDArray[] {ds.getLabels(), ds.getLabels()};
+
+            assertArrayEquals(denseNet.output(dense), sparseNet.output(sparse));
+
+            sparseNet.fit(new org.nd4j.linalg.dataset.MultiDataSet(new INDArray[] {sparse}, labels));
+            denseNet.fit(new org.nd4j.linalg.dataset.MultiDataSet(new INDArray[] {dense}, labels));
+            assertEquals(denseNet.params(), sparseNet.params());
+        }
+    }
+
+    private static ComputationGraph getSparseInputGraph(int nIn, int nOut) {
+        ComputationGraphConfiguration conf = new NeuralNetConfiguration.Builder().seed(12345)
+                .updater(new Sgd(0.1)).graphBuilder()
+                .addInputs("in")
+                .addLayer("dense", new DenseLayer.Builder().nIn(nIn).nOut(5).activation(Activation.TANH).build(), "in")
+                .addLayer("out0", new OutputLayer.Builder(LossFunctions.LossFunction.MCXENT).nIn(5).nOut(nOut)
+                        .activation(Activation.SOFTMAX).build(), "dense")
+                .addLayer("out1", new OutputLayer.Builder(LossFunctions.LossFunction.MCXENT).nIn(nIn).nOut(nOut)
+                        .activation(Activation.SOFTMAX).build(), "in")
+                .setOutputs("out0", "out1")
+                .build();
+
+        ComputationGraph net = new ComputationGraph(conf);
+        net.init();
+        return net;
+    }
 }
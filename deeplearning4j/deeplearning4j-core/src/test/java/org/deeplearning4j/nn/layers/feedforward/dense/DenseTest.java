@@ -1,6 +1,7 @@
 package org.deeplearning4j.nn.layers.feedforward.dense;
 
 import org.deeplearning4j.BaseDL4JTest;
+import org.deeplearning4j.datasets.iterator.SparseDataSetIterator;
 import org.deeplearning4j.datasets.iterator.impl.IrisDataSetIterator;
 import org.deeplearning4j.eval.Evaluation;
 import org.deeplearning4j.nn.api.Layer;
@@ -18,8 +19,16 @@ import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.learning.config.Sgd;
 import org.nd4j.linalg.lossfunctions.LossFunctions;
+import org.nd4j.linalg.primitives.Triple;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Created by nyghtowl on 8/31/15.
@@ -99,9 +108,97 @@ public class DenseTest extends BaseDL4JTest {
 
     }
 
+    @Test
+    public void testSparseInput() {
+        int nIn = 1000;
+        int nOut = 3;
+        int batchSize = 8;
+        Random r = new Random(12345);
+
+        List<Triple<int[], double[], double[]>> examples = new ArrayList<>();
+        for (int i = 0; i < 4 * batchSize; i++) {
+            int[] indices = new int[] {r.nextInt(nIn / 2), nIn / 2 + r.nextInt(nIn / 2)};
+            double[] values = i % 2 == 0 ? null : new double[] {r.nextDouble(), -r.nextDouble()};
+            double[] labels = new double[nOut];
+            labels[i % nOut] = 1.0;
+            examples.add(new Triple<>(indices, values, labels));
+        }
+
+        for (boolean hiddenLayer : new boolean[] {true, false}) {
+            MultiLayerNetwork sparseNet = getSparseTestNet(hiddenLayer, nIn, nOut);
+            MultiLayerNetwork denseNet = getSparseTestNet(hiddenLayer, nIn, nOut);
+            assertEquals(sparseNet.params(), denseNet.params());
+
+            SparseDataSetIterator iter = new SparseDataSetIterator(examples, batchSize, nIn);
+            while (iter.hasNext()) {
+                DataSet sparse = iter.next();
+                assertTrue(sparse.getFeatures().isSparse());
+                DataSet dense = new DataSet(sparse.getFeatures().toDense(), sparse.getLabels());
+
+                assertEquals(denseNet.output(dense.getFeatures()), sparseNet.output(sparse.getFeatures()));
+
+                sparseNet.fit(sparse);
+                denseNet.fit(dense);
+                assertEquals(denseNet.params(), sparseNet.params());
+            }
+        }
+    }
+
+    @Test
+    public void testSparseInputNoNonZeros() {
+        int nIn = 100;
+        int nOut = 3;
+        int batchSize = 4;
+
+        //First minibatch has non-zero features, second one has none
+        List<Triple<int[], double[], double[]>> examples = new ArrayList<>();
+        for (int i = 0; i < 2 * batchSize; i++) {
+            int[] indices = i < batchSize ? new int[] {i, nIn - 1 - i} : new int[0];
+            double[] labels = new double[nOut];
+            labels[i % nOut] = 1.0;
+            examples.add(new Triple<>(indices, (double[]) null, labels));
+        }
+
+        SparseDataSetIterator iter = new SparseDataSetIterator(examples, batchSize, nIn);
+        assertTrue(iter.hasNext());
+        iter.next();
+        assertTrue(iter.hasNext());
+        DataSet empty = iter.next();
+        assertFalse(iter.hasNext());
+
+        assertTrue(empty.getFeatures().isSparse());
+        assertArrayEquals(new long[] {batchSize, nIn}, empty.getFeatures().shape());
+        assertEquals(Nd4j.zeros(batchSize, nIn), empty.getFeatures().toDense());
+        for (int i = 0; i < batchSize; i++) {
+            assertEquals(1.0, empty.getLabels().getDouble(i, (batchSize + i) % nOut), 0.0);
+        }
+
+        MultiLayerNetwork sparseNet = getSparseTestNet(true, nIn, nOut);
+        MultiLayerNetwork denseNet = getSparseTestNet(true, nIn, nOut);
+        assertEquals(denseNet.output(Nd4j.zeros(batchSize, nIn)), sparseNet.output(empty.getFeatures()));
+
+        sparseNet.fit(empty);
+        denseNet.fit(new DataSet(Nd4j.zeros(batchSize, nIn), empty.getLabels()));
+        assertEquals(denseNet.params(), sparseNet.params());
+    }
+
 
     //////////////////////////////////////////////////////////////////////////////////
 
+    private static MultiLayerNetwork getSparseTestNet(boolean hiddenLayer, int nIn, int nOut) {
+        NeuralNetConfiguration.ListBuilder builder = new NeuralNetConfiguration.Builder().seed(12345)
+                        .updater(new Sgd(0.1)).list();
+        if (hiddenLayer) {
+            builder.layer(new DenseLayer.Builder().nIn(nIn).nOut(5).activation(Activation.TANH).build());
+        }
+        builder.layer(new OutputLayer.Builder(LossFunctions.LossFunction.MCXENT).nIn(hiddenLayer ? 5 : nIn)
+                        .nOut(nOut).activation(Activation.SOFTMAX).build());
+
+        MultiLayerNetwork net = new MultiLayerNetwork(builder.build());
+        net.init();
+        return net;
+    }
+
     private static MultiLayerNetwork getDenseMLNConfig(boolean backprop, boolean pretrain) {
         int numInputs = 4;
         int outputNum = 3;
@@ -18,6 +18,7 @@ import org.nd4j.linalg.activations.Activation;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.indexing.INDArrayIndex;
+import org.nd4j.linalg.learning.config.Adam;
 import org.nd4j.linalg.learning.config.Sgd;
 import org.nd4j.linalg.lossfunctions.LossFunctions;
 
@@ -501,4 +502,57 @@ public class EmbeddingLayerTest extends BaseDL4JTest {
         }
     }
 
+    @Test
+    public void testEmbeddingLayerSparseGradients() {
+        int nClassesIn = 10;
+        int batchSize = 4;
+
+        for (boolean lazyAdam : new boolean[]{false, true}) {
+            MultiLayerNetwork[] nets = new MultiLayerNetwork[2];
+            for (int i = 0; i < 2; i++) {
+                boolean sparse = i == 1;
+                MultiLayerConfiguration conf = new NeuralNetConfiguration.Builder().activation(Activation.TANH)
+                        .updater(lazyAdam ? new Adam(0.1) : new Sgd(0.1)).seed(12345).list()
+                        .layer(0, new EmbeddingLayer.Builder().hasBias(true).sparseGradients(sparse)
+                                .nIn(nClassesIn).nOut(5).build())
+                        .layer(1, new OutputLayer.Builder().nIn(5).nOut(4).activation(Activation.SOFTMAX).build())
+                        .pretrain(false).backprop(true).build();
+                nets[i] = new MultiLayerNetwork(conf);
+                nets[i].init();
+            }
+            assertEquals(nets[0].params(), nets[1].params());
+
+            INDArray labels = Nd4j.zeros(batchSize, 4);
+            for (int i = 0; i < batchSize; i++) {
+                labels.putScalar(i, i % 4, 1.0);
+            }
+            //First minibatch: rows 0 to 3, second minibatch: rows 4 to 7
+            INDArray in1 = Nd4j.create(new double[]{0, 1, 2, 3}).reshape(batchSize, 1);
+            INDArray in2 = Nd4j.create(new double[]{4, 5, 6, 4}).reshape(batchSize, 1);
+
+            nets[0].fit(in1, labels);
+            nets[1].fit(in1, labels);
+            assertEquals(nets[0].params(), nets[1].params());
+            assertArrayEquals(new int[]{0, 1, 2, 3}, ((org.deeplearning4j.nn.layers.feedforward.embedding.EmbeddingLayer)
+                    nets[1].getLayer(0)).getSparseGradientRows(DefaultParamInitializer.WEIGHT_KEY));
+
+            INDArray weightsBefore = nets[1].getLayer(0).getParam(DefaultParamInitializer.WEIGHT_KEY).dup();
+            nets[0].fit(in2, labels);
+            nets[1].fit(in2, labels);
+            INDArray weightsDense = nets[0].getLayer(0).getParam(DefaultParamInitializer.WEIGHT_KEY);
+            INDArray weightsSparse = nets[1].getLayer(0).getParam(DefaultParamInitializer.WEIGHT_KEY);
+            for (int row = 0; row < nClassesIn; row++) {
+                if (row >= 4 && row <= 6 || !lazyAdam) {
+                    //Rows in the minibatch, or SGD: same update
+                    assertEquals(weightsDense.getRow(row), weightsSparse.getRow(row));
+                } else {
+                    //Lazy Adam: rows absent from the minibatch are not updated
+                    assertEquals(weightsBefore.getRow(row), weightsSparse.getRow(row));
+                }
+            }
+            //Dense parameters of the block (bias and output layer) are updated as usual
+            assertEquals(nets[0].getLayer(1).params(), nets[1].getLayer(1).params());
+        }
+    }
+
 }
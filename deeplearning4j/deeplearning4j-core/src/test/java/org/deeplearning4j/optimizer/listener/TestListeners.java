@@ -10,6 +10,7 @@ import org.deeplearning4j.nn.conf.ComputationGraphConfiguration;
 import org.deeplearning4j.nn.conf.MultiLayerConfiguration;
 import org.deeplearning4j.nn.conf.NeuralNetConfiguration;
 import org.deeplearning4j.nn.conf.layers.AutoEncoder;
+import org.deeplearning4j.nn.conf.layers.DenseLayer;
 import org.deeplearning4j.nn.conf.layers.OutputLayer;
 import org.deeplearning4j.nn.conf.layers.variational.VariationalAutoencoder;
 import org.deeplearning4j.nn.graph.ComputationGraph;
@@ -17,6 +18,7 @@ import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
 import org.deeplearning4j.optimize.api.BaseTrainingListener;
 import org.deeplearning4j.optimize.api.TrainingListener;
 import org.deeplearning4j.optimize.listeners.ComposableIterationListener;
+import org.deeplearning4j.optimize.listeners.LayerPerformanceListener;
 import org.deeplearning4j.optimize.listeners.PerformanceListener;
 import org.deeplearning4j.optimize.listeners.ScoreIterationListener;
 import org.deeplearning4j.optimize.listeners.TimeIterationListener;
@@ -35,7 +37,9 @@ import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -148,6 +152,7 @@ public class TestListeners extends BaseDL4JTest {
         listeners.add(new TimeIterationListener(10000));
         listeners.add(new ComposableIterationListener(new ScoreIterationListener(), new PerformanceListener(1)));
         listeners.add(new CheckpointListener.Builder(tempDir.newFolder()).keepAll().saveEveryNIterations(3).build());   //Doesn't usually need to be serialized, but no reason it can't be...
+        listeners.add(new LayerPerformanceListener(1));
 
 
         DataSetIterator iter = new IrisDataSetIterator(10, 150);
@@ -182,4 +187,81 @@ public class TestListeners extends BaseDL4JTest {
         net.fit(iter);
     }
 
+    @Test
+    public void testLayerPerformanceListener() {
+        DataSetIterator iter = new IrisDataSetIterator(50, 150);
+
+        MultiLayerConfiguration conf = new NeuralNetConfiguration.Builder()
+                .list()
+                .layer(new DenseLayer.Builder().nIn(4).nOut(10).activation(Activation.TANH).build())
+                .layer(new OutputLayer.Builder().nIn(10).nOut(3)
+                        .activation(Activation.SOFTMAX)
+                        .lossFunction(LossFunctions.LossFunction.MCXENT).build())
+                .build();
+
+        MultiLayerNetwork net = new MultiLayerNetwork(conf);
+        net.init();
+        LayerPerformanceListener listener = new LayerPerformanceListener(1, 2);
+        net.setListeners(listener);
+
+        net.fit(iter);
+
+        Map<String, LayerPerformanceListener.LayerStats> stats = listener.getStats();
+        assertArrayEquals(new String[] {"layer0", "layer1"}, stats.keySet().toArray(new String[0]));
+        for (LayerPerformanceListener.LayerStats s : stats.values()) {
+            assertTrue(s.getForwardCount() >= 3);
+            assertEquals(3, s.getBackwardCount());
+            assertTrue(s.getMeanForwardMs() > 0);
+            assertTrue(s.getMaxBackwardMs() >= s.getMeanBackwardMs());
+        }
+
+        //Inference is included too
+        long forwardCount = stats.get("layer0").getForwardCount();
+        net.output(iter.next().getFeatures());
+        assertEquals(forwardCount + 1, listener.getStats().get("layer0").getForwardCount());
+
+        //Same for ComputationGraph
+        ComputationGraphConfiguration cgConf = new NeuralNetConfiguration.Builder()
+                .graphBuilder()
+                .addInputs("in")
+                .addLayer("dense", new DenseLayer.Builder().nIn(4).nOut(10).build(), "in")
+                .addLayer("out", new OutputLayer.Builder().nIn(10).nOut(3)
+                        .activation(Activation.SOFTMAX)
+                        .lossFunction(LossFunctions.LossFunction.MCXENT).build(), "dense")
+                .setOutputs("out")
+                .build();
+        ComputationGraph cg = new ComputationGraph(cgConf);
+        cg.init();
+        listener.reset();
+        cg.setListeners(listener);
+        iter.reset();
+        cg.fit(iter);
+
+        stats = listener.getStats();
+        assertArrayEquals(new String[] {"dense", "out"}, stats.keySet().toArray(new String[0]));
+        assertEquals(3, stats.get("out").getBackwardCount());
+    }
+
+    @Test
+    public void testLayerPerformanceListenerUnmatchedPasses() {
+        LayerPerformanceListener listener = new LayerPerformanceListener(1);
+
+        //Backward pass of layer 1 that never started (or whose start was missed): not recorded
+        listener.onLayerForwardStart(null, 0, "layer0", true);
+        listener.onLayerBackwardEnd(null, 1, "layer1");
+        listener.onLayerForwardEnd(null, 0, "layer0", true);
+
+        //Forward pass of layer 1 interrupted (for example, by an exception) then executed again
+        listener.onLayerForwardStart(null, 1, "layer1", true);
+        listener.onLayerForwardStart(null, 1, "layer1", true);
+        listener.onLayerForwardEnd(null, 1, "layer1", true);
+        listener.onLayerForwardEnd(null, 1, "layer1", true);
+
+        Map<String, LayerPerformanceListener.LayerStats> stats = listener.getStats();
+        assertEquals(1, stats.get("layer0").getForwardCount());
+        assertEquals(0, stats.get("layer0").getBackwardCount());
+        assertEquals(1, stats.get("layer1").getForwardCount());
+        assertEquals(0, stats.get("layer1").getBackwardCount());
+    }
+
 }
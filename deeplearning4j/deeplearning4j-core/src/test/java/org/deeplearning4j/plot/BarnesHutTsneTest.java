@@ -32,7 +32,9 @@ import org.nd4j.linalg.io.ClassPathResource;
 import java.io.File;
 import java.util.List;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 // import org.nd4j.jita.conf.CudaEnvironment;
 
@@ -113,4 +115,34 @@ public class BarnesHutTsneTest extends BaseDL4JTest {
         assertEquals(perplexity, b.getPerplexity(), DELTA);
         assertEquals(minGain, b.minGain, DELTA);
     }
+
+    @Test
+    public void testSymmetrized() {
+        //P = [[0, 0.4, 0.6], [1.0, 0, 0], [0.2, 0.8, 0]], 2 neighbours per row
+        INDArray rowP = Nd4j.create(new double[] {0, 2, 4, 6});
+        INDArray colP = Nd4j.create(new double[] {2, 1, 0, 2, 1, 0});
+        INDArray valP = Nd4j.create(new double[] {0.6, 0.4, 1.0, 0.0, 0.8, 0.2});
+
+        BarnesHutTsne b = new BarnesHutTsne.Builder().numThreads(2).build();
+        INDArray sym = b.symmetrized(rowP, colP, valP);
+
+        //(P + P^T) / 2, rows sorted by column
+        assertArrayEquals(new double[] {0.7, 0.4, 0.7, 0.4, 0.4, 0.4}, sym.data().asDouble(), 1e-9);
+    }
+
+    @Test
+    public void testProgressMetrics() throws Exception {
+        DataTypeUtil.setDTypeForContext(DataBuffer.Type.DOUBLE);
+        Nd4j.getRandom().setSeed(123);
+        BarnesHutTsne b = new BarnesHutTsne.Builder().stopLyingIteration(5).setMaxIter(10).theta(0.5)
+                        .perplexity(5).learningRate(500).useAdaGrad(false).numThreads(4).scoreFrequency(5).build();
+        assertEquals(4, b.getNumThreads());
+
+        INDArray data = Nd4j.rand(60, 10);
+        b.fit(data);
+
+        assertTrue(b.getLastScore() >= 0);
+        assertTrue(b.getLastGradientNorm() > 0);
+        assertArrayEquals(new long[] {60, 2}, b.getData().shape());
+    }
 }
@@ -0,0 +1,185 @@
+/*-
+ *
+ *  * Copyright 2016 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ */
+
+package org.deeplearning4j.datasets.datavec;
+
+import org.datavec.api.writable.NDArrayWritable;
+import org.datavec.api.writable.Writable;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts minibatches of records to 2d INDArrays for {@link RecordReaderMultiDataSetIterator}.<br>
+ * The layout of the records of a reader (the number of values of every column, NDArrayWritable row vectors
+ * being flattened) is detected from the first record and reused for the next minibatches, as long as their first
+ * record has the same layout: it is detected again otherwise. The values are then
+ * written in c order into a primitive buffer that is wrapped into an INDArray at the end, instead of one
+ * putScalar/put call per value, and one-hot labels are built in a single pass over the class indexes.
+ */
+public class RecordBatchConverter implements Serializable {
+
+    //Reader name -> number of values of every column
+    private final Map<String, int[]> layouts = new HashMap<>();
+
+    /**
+     * Convert the columns [from, toInclusive] of the first numExamples records to a [numExamples, length] array
+     *
+     * @param readerName  name of the reader the records come from, used to cache the layout
+     * @param records     the records
+     * @param numExamples number of records to convert
+     * @param from        first column
+     * @param toInclusive last column (inclusive)
+     */
+    public INDArray toMatrix(String readerName, List<List<Writable>> records, int numExamples, int from,
+                    int toInclusive) {
+        int[] layout = layout(readerName, records.get(0));
+        int length = 0;
+        for (int j = from; j <= toInclusive; j++)
+            length += layout[j];
+
+        double[] data = new double[numExamples * length];
+        int pos = 0;
+        for (int i = 0; i < numExamples; i++) {
+            List<Writable> record = records.get(i);
+            if (record.size() != layout.length) {
+                throw new IllegalStateException("Cannot convert record " + i + " of reader \"" + readerName + "\": "
+                                + "expected " + layout.length + " columns, got " + record.size());
+            }
+            for (int j = from; j <= toInclusive; j++) {
+                Writable w = record.get(j);
+                if (w instanceof NDArrayWritable) {
+                    INDArray arr = ((NDArrayWritable) w).get();
+                    if (arr.length() != layout[j]) {
+                        throw new IllegalStateException("Cannot convert record " + i + " of reader \"" + readerName
+                                        + "\": expected an NDArrayWritable of length " + layout[j] + " in column "
+                                        + j + ", got shape " + Arrays.toString(arr.shape()));
+                    }
+                    double[] values = toDoubleArray(arr);
+                    System.arraycopy(values, 0, data, pos, values.length);
+                    pos += values.length;
+                } else {
+                    data[pos++] = w.toDouble();
+                }
+            }
+        }
+        return Nd4j.create(data, new int[] {numExamples, length}, 'c');
+    }
+
+    /**
+     * Convert a column of class indexes to a [numExamples, numClasses] one-hot array
+     *
+     * @param records     the records
+     * @param numExamples number of records to convert
+     * @param column      the column of the class indexes
+     * @param numClasses  the number of classes
+     */
+    public static INDArray toOneHot(List<List<Writable>> records, int numExamples, int column, int numClasses) {
+        double[] data = new double[numExamples * numClasses];
+        for (int i = 0; i < numExamples; i++) {
+            int classIdx = records.get(i).get(column).toInt();
+            checkClassIndex(classIdx, numClasses);
+            data[i * numClasses + classIdx] = 1.0;
+        }
+        return Nd4j.create(data, new int[] {numExamples, numClasses}, 'c');
+    }
+
+    /**
+     * Convert a column vector of class indexes to a [numExamples, numClasses] one-hot array
+     *
+     * @param classIndexes the class indexes, shape [numExamples, 1]
+     * @param numClasses   the number of classes
+     */
+    public static INDArray toOneHot(INDArray classIndexes, int numClasses) {
+        double[] indexes = toDoubleArray(classIndexes);
+        double[] data = new double[indexes.length * numClasses];
+        for (int i = 0; i < indexes.length; i++) {
+            int classIdx = (int) indexes[i];
+            checkClassIndex(classIdx, numClasses);
+            data[i * numClasses + classIdx] = 1.0;
+        }
+        return Nd4j.create(data, new int[] {indexes.length, numClasses}, 'c');
+    }
+
+    /**
+     * Extract the columns [from, toInclusive] of the first numExamples rows of a 2d array
+     */
+    public static INDArray subset(INDArray matrix, int numExamples, int from, int toInclusive) {
+        if (from == 0 && toInclusive == matrix.size(1) - 1 && numExamples == matrix.size(0))
+            return matrix;
+        return matrix.get(NDArrayIndex.interval(0, numExamples), NDArrayIndex.interval(from, toInclusive + 1))
+                        .dup('c');
+    }
+
+    private int[] layout(String readerName, List<Writable> first) {
+        int[] layout = layouts.get(readerName);
+        if (layout != null && matches(layout, first))
+            return layout;
+
+        layout = new int[first.size()];
+        for (int j = 0; j < layout.length; j++) {
+            Writable w = first.get(j);
+            if (w instanceof NDArrayWritable) {
+                INDArray a = ((NDArrayWritable) w).get();
+                if (!a.isRowVectorOrScalar()) {
+                    throw new UnsupportedOperationException("Multiple writables present but NDArrayWritable is "
+                                    + "not a row vector. Can only concat row vectors with other writables. Shape: "
+                                    + Arrays.toString(a.shape()));
+                }
+                layout[j] = (int) a.length();
+            } else {
+                //Assume all others are single value
+                layout[j] = 1;
+            }
+        }
+        layouts.put(readerName, layout);
+        return layout;
+    }
+
+    private static boolean matches(int[] layout, List<Writable> record) {
+        if (layout.length != record.size())
+            return false;
+        for (int j = 0; j < layout.length; j++) {
+            Writable w = record.get(j);
+            long length = (w instanceof NDArrayWritable ? ((NDArrayWritable) w).get().length() : 1);
+            if (length != layout[j])
+                return false;
+        }
+        return true;
+    }
+
+    private static void checkClassIndex(int classIdx, int numClasses) {
+        if (classIdx < 0 || classIdx >= numClasses) {
+            throw new IllegalStateException("Cannot convert writables to one-hot: class index " + classIdx
+                            + " is not in range 0 to numClass-1 (numClass = " + numClasses + "). (Note that classes"
+                            + " are zero-indexed, thus only values 0 to nClasses-1 are valid)");
+        }
+    }
+
+    private static double[] toDoubleArray(INDArray arr) {
+        if (arr.isView() || arr.ordering() != 'c' || arr.elementWiseStride() != 1)
+            arr = arr.dup('c');
+        return arr.data().getDoublesAt(arr.offset(), (int) arr.length());
+    }
+}
@@ -18,6 +18,7 @@
 
 package org.deeplearning4j.datasets.datavec;
 
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
@@ -27,10 +28,9 @@ import org.datavec.api.records.Record;
 import org.datavec.api.records.SequenceRecord;
 import org.datavec.api.records.metadata.RecordMetaData;
 import org.datavec.api.records.metadata.RecordMetaDataComposableMap;
+import org.datavec.api.records.reader.ArrayRecordReader;
 import org.datavec.api.records.reader.RecordReader;
 import org.datavec.api.records.reader.SequenceRecordReader;
-import org.datavec.api.util.ndarray.RecordConverter;
-import org.datavec.api.writable.IntWritable;
 import org.datavec.api.writable.NDArrayWritable;
 import org.datavec.api.writable.Writable;
 import org.datavec.api.writable.batch.NDArrayRecordBatch;
@@ -90,6 +90,9 @@ public class RecordReaderMultiDataSetIterator implements MultiDataSetIterator, S
 
     private boolean resetSupported = true;
 
+    @Getter(AccessLevel.NONE)
+    private RecordBatchConverter converter = new RecordBatchConverter();
+
     private RecordReaderMultiDataSetIterator(Builder builder) {
         this.batchSize = builder.batchSize;
         this.alignmentMode = builder.alignmentMode;
@@ -133,6 +136,7 @@ public class RecordReaderMultiDataSetIterator implements MultiDataSetIterator, S
         //First: load the next values from the RR / SeqRRs
         Map<String, List<List<Writable>>> nextRRVals = new HashMap<>();
         Map<String, List<INDArray>> nextRRValsBatched = null;
+        Map<String, INDArray> nextRRValsArrays = null;
         Map<String, List<List<List<Writable>>>> nextSeqRRVals = new HashMap<>();
         List<RecordMetaDataComposableMap> nextMetas =
                         (collectMetaData ? new ArrayList<RecordMetaDataComposableMap>() : null);
@@ -140,32 +144,27 @@ public class RecordReaderMultiDataSetIterator implements MultiDataSetIterator, S
 
         for (Map.Entry<String, RecordReader> entry : recordReaders.entrySet()) {
             RecordReader rr = entry.getValue();
-            if (!collectMetaData && rr.batchesSupported()) {
+            if (!collectMetaData && rr instanceof ArrayRecordReader && ((ArrayRecordReader) rr).arrayBatchesSupported()) {
+                //Primitive batch case: values are parsed directly into an INDArray, no writables at all
+                if (nextRRValsArrays == null) {
+                    nextRRValsArrays = new HashMap<>();
+                }
+                nextRRValsArrays.put(entry.getKey(), ((ArrayRecordReader) rr).nextArray(num));
+            } else if (!collectMetaData && rr.batchesSupported()) {
                 //Batch case, for efficiency: ImageRecordReader etc
                 List<List<Writable>> batchWritables = rr.next(num);
 
-                List<INDArray> batch;
                 if(batchWritables instanceof NDArrayRecordBatch){
                     //ImageRecordReader etc case
-                    batch = ((NDArrayRecordBatch)batchWritables).getArrays();
-                } else {
-                    batchWritables = filterRequiredColumns(entry.getKey(), batchWritables);
-                    batch = new ArrayList<>();
-                    List<Writable> temp = new ArrayList<>();
-                    int sz = batchWritables.get(0).size();
-                    for( int i=0; i<sz; i++ ){
-                        temp.clear();
-                        for( int j=0; j<batchWritables.size(); j++ ){
-                            temp.add(batchWritables.get(j).get(i));
-                        }
-                        batch.add(RecordConverter.toMinibatchArray(temp));
+                    if (nextRRValsBatched == null) {
+                        nextRRValsBatched = new HashMap<>();
                     }
+                    nextRRValsBatched.put(entry.getKey(), ((NDArrayRecordBatch)batchWritables).getArrays());
+                } else {
+                    //Converted like the standard case: only the required columns are read, so String etc
+                    // columns that are not used are never converted
+                    nextRRVals.put(entry.getKey(), batchWritables);
                 }
-
-                if (nextRRValsBatched == null) {
-                    nextRRValsBatched = new HashMap<>();
-                }
-                nextRRValsBatched.put(entry.getKey(), batch);
             } else {
                 //Standard case
                 List<List<Writable>> writables = new ArrayList<>(num);
@@ -211,72 +210,20 @@ public class RecordReaderMultiDataSetIterator implements MultiDataSetIterator, S
             nextSeqRRVals.put(entry.getKey(), writables);
         }
 
-        return nextMultiDataSet(nextRRVals, nextRRValsBatched, nextSeqRRVals, nextMetas);
-    }
-
-    //Filter out the required columns before conversion. This is to avoid trying to convert String etc columns
-    private List<List<Writable>> filterRequiredColumns(String readerName, List<List<Writable>> list){
-
-        //Options: (a) entire reader
-        //(b) one or more subsets
-
-        boolean entireReader = false;
-        List<SubsetDetails> subsetList = null;
-        int max = -1;
-        int min = Integer.MAX_VALUE;
-        for(List<SubsetDetails> sdList : Arrays.asList(inputs, outputs)) {
-            for (SubsetDetails sd : sdList) {
-                if (readerName.equals(sd.readerName)) {
-                    if (sd.entireReader) {
-                        entireReader = true;
-                        break;
-                    } else {
-                        if (subsetList == null) {
-                            subsetList = new ArrayList<>();
-                        }
-                        subsetList.add(sd);
-                        max = Math.max(max, sd.subsetEndInclusive);
-                        min = Math.min(min, sd.subsetStart);
-                    }
-                }
-            }
-        }
-
-        if(entireReader){
-            //No filtering required
-            return list;
-        } else if(subsetList == null){
-            throw new IllegalStateException("Found no usages of reader: " + readerName);
-        } else {
-            //we need some - but not all - columns
-            boolean[] req = new boolean[max+1];
-            for(SubsetDetails sd : subsetList){
-                for( int i=sd.subsetStart; i<= sd.subsetEndInclusive; i++ ){
-                    req[i] = true;
-                }
-            }
-
-            List<List<Writable>> out = new ArrayList<>();
-            IntWritable zero = new IntWritable(0);
-            for(List<Writable> l : list){
-                List<Writable> lNew = new ArrayList<>(l.size());
-                for(int i=0; i<l.size(); i++ ){
-                    if(i >= req.length || !req[i]){
-                        lNew.add(zero);
-                    } else {
-                        lNew.add(l.get(i));
-                    }
-                }
-                out.add(lNew);
-            }
-            return out;
-        }
+        return nextMultiDataSet(nextRRVals, nextRRValsBatched, nextRRValsArrays, nextSeqRRVals, nextMetas);
     }
 
     public MultiDataSet nextMultiDataSet(Map<String, List<List<Writable>>> nextRRVals,
                     Map<String, List<INDArray>> nextRRValsBatched,
                     Map<String, List<List<List<Writable>>>> nextSeqRRVals,
                     List<RecordMetaDataComposableMap> nextMetas) {
+        return nextMultiDataSet(nextRRVals, nextRRValsBatched, null, nextSeqRRVals, nextMetas);
+    }
+
+    private MultiDataSet nextMultiDataSet(Map<String, List<List<Writable>>> nextRRVals,
+                    Map<String, List<INDArray>> nextRRValsBatched, Map<String, INDArray> nextRRValsArrays,
+                    Map<String, List<List<List<Writable>>>> nextSeqRRVals,
+                    List<RecordMetaDataComposableMap> nextMetas) {
         int minExamples = Integer.MAX_VALUE;
         for (List<List<Writable>> exampleData : nextRRVals.values()) {
             minExamples = Math.min(minExamples, exampleData.size());
@@ -292,6 +239,12 @@ public class RecordReaderMultiDataSetIterator implements MultiDataSetIterator, S
                 }
             }
         }
+        if (nextRRValsArrays != null) {
+            for (INDArray arr : nextRRValsArrays.values()) {
+                // FIXME: int cast
+                minExamples = (int) Math.min(minExamples, arr.size(0));
+            }
+        }
         for (List<List<List<Writable>>> exampleData : nextSeqRRVals.values()) {
             minExamples = Math.min(minExamples, exampleData.size());
         }
@@ -326,14 +279,14 @@ public class RecordReaderMultiDataSetIterator implements MultiDataSetIterator, S
         }
         long rngSeed = (timeSeriesRandomOffset ? timeSeriesRandomOffsetRng.nextLong() : -1);
         Pair<INDArray[], INDArray[]> features = convertFeaturesOrLabels(new INDArray[inputs.size()],
-                        new INDArray[inputs.size()], inputs, minExamples, nextRRVals, nextRRValsBatched, nextSeqRRVals,
-                        longestTS, longestSequence, rngSeed);
+                        new INDArray[inputs.size()], inputs, minExamples, nextRRVals, nextRRValsBatched,
+                        nextRRValsArrays, nextSeqRRVals, longestTS, longestSequence, rngSeed);
 
 
         //Third: create the outputs/labels
         Pair<INDArray[], INDArray[]> labels = convertFeaturesOrLabels(new INDArray[outputs.size()],
                         new INDArray[outputs.size()], outputs, minExamples, nextRRVals, nextRRValsBatched,
-                        nextSeqRRVals, longestTS, longestSequence, rngSeed);
+                        nextRRValsArrays, nextSeqRRVals, longestTS, longestSequence, rngSeed);
 
 
 
@@ -349,14 +302,17 @@ public class RecordReaderMultiDataSetIterator implements MultiDataSetIterator, S
 
     private Pair<INDArray[], INDArray[]> convertFeaturesOrLabels(INDArray[] featuresOrLabels, INDArray[] masks,
                     List<SubsetDetails> subsetDetails, int minExamples, Map<String, List<List<Writable>>> nextRRVals,
-                    Map<String, List<INDArray>> nextRRValsBatched,
+                    Map<String, List<INDArray>> nextRRValsBatched, Map<String, INDArray> nextRRValsArrays,
                     Map<String, List<List<List<Writable>>>> nextSeqRRVals, int longestTS, int[] longestSequence,
                     long rngSeed) {
         boolean hasMasks = false;
         int i = 0;
 
         for (SubsetDetails d : subsetDetails) {
-            if (nextRRValsBatched != null && nextRRValsBatched.containsKey(d.readerName)) {
+            if (nextRRValsArrays != null && nextRRValsArrays.containsKey(d.readerName)) {
+                //Reader providing primitive batches
+                featuresOrLabels[i] = convertArray(nextRRValsArrays.get(d.readerName), minExamples, d);
+            } else if (nextRRValsBatched != null && nextRRValsBatched.containsKey(d.readerName)) {
                 //Standard reader, but batch ops
                 featuresOrLabels[i] = convertWritablesBatched(nextRRValsBatched.get(d.readerName), d);
             } else if (nextRRVals.containsKey(d.readerName)) {
@@ -425,29 +381,16 @@ public class RecordReaderMultiDataSetIterator implements MultiDataSetIterator, S
         return out;
     }
 
-    private int countLength(List<Writable> list) {
-        return countLength(list, 0, list.size() - 1);
-    }
-
-    private int countLength(List<Writable> list, int from, int to) {
-        int length = 0;
-        for (int i = from; i <= to; i++) {
-            Writable w = list.get(i);
-            if (w instanceof NDArrayWritable) {
-                INDArray a = ((NDArrayWritable) w).get();
-                if (!a.isRowVectorOrScalar()) {
-                    throw new UnsupportedOperationException("Multiple writables present but NDArrayWritable is "
-                                    + "not a row vector. Can only concat row vectors with other writables. Shape: "
-                                    + Arrays.toString(a.shape()));
-                }
-                length += a.length();
-            } else {
-                //Assume all others are single value
-                length++;
-            }
+    private INDArray convertArray(INDArray arr, int minExamples, SubsetDetails details) {
+        if (details.entireReader) {
+            return RecordBatchConverter.subset(arr, minExamples, 0, (int) arr.size(1) - 1);
         }
-
-        return length;
+        INDArray subset = RecordBatchConverter.subset(arr, minExamples, details.subsetStart,
+                        details.subsetEndInclusive);
+        if (details.oneHot) {
+            return RecordBatchConverter.toOneHot(subset, details.oneHotNumClasses);
+        }
+        return subset;
     }
 
     private INDArray convertWritables(List<List<Writable>> list, int minValues, SubsetDetails details) {
@@ -463,81 +406,28 @@ public class RecordReaderMultiDataSetIterator implements MultiDataSetIterator, S
     }
 
     private INDArray convertWritablesHelper(List<List<Writable>> list, int minValues, SubsetDetails details) {
-        INDArray arr;
-        if (details.entireReader) {
-            if (list.get(0).size() == 1 && list.get(0).get(0) instanceof NDArrayWritable) {
-                //Special case: single NDArrayWritable...
-                INDArray temp = ((NDArrayWritable) list.get(0).get(0)).get();
-                val shape = ArrayUtils.clone(temp.shape());
-                shape[0] = minValues;
-                arr = Nd4j.create(shape);
-            } else {
-                arr = Nd4j.create(minValues, countLength(list.get(0)));
-            }
-        } else if (details.oneHot) {
-            arr = Nd4j.zeros(minValues, details.oneHotNumClasses);
-        } else {
-            if (details.subsetStart == details.subsetEndInclusive
-                            && list.get(0).get(details.subsetStart) instanceof NDArrayWritable) {
-                //Special case: single NDArrayWritable (example: ImageRecordReader)
-                INDArray temp = ((NDArrayWritable) list.get(0).get(details.subsetStart)).get();
-                val shape = ArrayUtils.clone(temp.shape());
-                shape[0] = minValues;
-                arr = Nd4j.create(shape);
-            } else {
-                //Need to check for multiple NDArrayWritables, or mixed NDArrayWritable + DoubleWritable etc
-                int length = countLength(list.get(0), details.subsetStart, details.subsetEndInclusive);
-                arr = Nd4j.create(minValues, length);
-            }
+        if (details.oneHot) {
+            //Convert a single column to a one-hot representation
+            return RecordBatchConverter.toOneHot(list, minValues, details.subsetStart, details.oneHotNumClasses);
         }
 
-        for (int i = 0; i < minValues; i++) {
-            List<Writable> c = list.get(i);
-            if (details.entireReader) {
-                //Convert entire reader contents, without modification
-                INDArray converted = RecordConverter.toArray(c);
-                putExample(arr, converted, i);
-            } else if (details.oneHot) {
-                //Convert a single column to a one-hot representation
-                Writable w = c.get(details.subsetStart);
-                //Index of class
-                int classIdx = w.toInt();
-                if (classIdx >= details.oneHotNumClasses) {
-                    throw new IllegalStateException("Cannot convert sequence writables to one-hot: class index " + classIdx
-                                    + " >= numClass (" + details.oneHotNumClasses + "). (Note that classes are zero-" +
-                            "indexed, thus only values 0 to nClasses-1 are valid)");
-                }
-                arr.putScalar(i, w.toInt(), 1.0);
-            } else {
-                //Convert a subset of the columns
-
-                //Special case: subsetStart == subsetEndInclusive && NDArrayWritable. Example: ImageRecordReader
-                if (details.subsetStart == details.subsetEndInclusive
-                                && (c.get(details.subsetStart) instanceof NDArrayWritable)) {
-                    putExample(arr, ((NDArrayWritable) c.get(details.subsetStart)).get(), i);
-                } else {
-
-                    Iterator<Writable> iter = c.iterator();
-                    for (int j = 0; j < details.subsetStart; j++)
-                        iter.next();
-                    int k = 0;
-                    for (int j = details.subsetStart; j <= details.subsetEndInclusive; j++) {
-                        Writable w = iter.next();
-
-                        if (w instanceof NDArrayWritable) {
-                            INDArray toPut = ((NDArrayWritable) w).get();
-                            arr.put(new INDArrayIndex[] {NDArrayIndex.point(i),
-                                            NDArrayIndex.interval(k, k + toPut.length())}, toPut);
-                            k += toPut.length();
-                        } else {
-                            arr.putScalar(i, k, w.toDouble());
-                            k++;
-                        }
-                    }
-                }
-            }
+        //Special case: single NDArrayWritable (example: ImageRecordReader)
+        int column = details.entireReader ? 0 : details.subsetStart;
+        boolean singleArray = details.entireReader ? list.get(0).size() == 1
+                        : details.subsetStart == details.subsetEndInclusive;
+        if (!singleArray || !(list.get(0).get(column) instanceof NDArrayWritable)) {
+            //Scalar writables and NDArrayWritable row vectors: bulk conversion
+            int to = details.entireReader ? list.get(0).size() - 1 : details.subsetEndInclusive;
+            return converter.toMatrix(details.readerName, list, minValues, column, to);
         }
 
+        INDArray temp = ((NDArrayWritable) list.get(0).get(column)).get();
+        val shape = ArrayUtils.clone(temp.shape());
+        shape[0] = minValues;
+        INDArray arr = Nd4j.create(shape);
+        for (int i = 0; i < minValues; i++) {
+            putExample(arr, ((NDArrayWritable) list.get(i).get(column)).get(), i);
+        }
         return arr;
     }
 
@@ -0,0 +1,203 @@
+package org.deeplearning4j.datasets.iterator;
+
+import lombok.Getter;
+import lombok.NonNull;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.dataset.api.DataSetPreProcessor;
+import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.primitives.Triple;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * DataSetIterator for high-dimensional sparse features (hashed text features, one-hot encoded categories, etc):
+ * features of each minibatch are returned as a sparse CSR matrix of shape [batchSize, numFeatures], without ever
+ * creating the dense features. Labels are dense.<br>
+ * Each example is a triple of (indices of the non-zero features, their values, labels). Values may be null for
+ * binary features: all non-zero features have value 1.0 then.<br>
+ * <br>
+ * Sparse features can be used as the input of a network whose first layer is a DenseLayer or an OutputLayer
+ * (without input dropout). Note that preprocessors (normalizers, etc.) generally don't support sparse features.
+ * Last minibatch may be smaller than batchSize.
+ */
+public class SparseDataSetIterator implements DataSetIterator {
+    @Getter
+    private DataSetPreProcessor preProcessor;
+
+    private transient Iterable<Triple<int[], double[], double[]>> iterable;
+    private transient Iterator<Triple<int[], double[], double[]>> iterator;
+
+    private final int batchSize;
+    private final int numFeatures;
+    private int numLabels = -1;
+    private List<String> labels;
+
+    /**
+     * @param iterable    Examples, as triples of (feature indices, feature values or null, labels)
+     * @param batchSize   Minibatch size
+     * @param numFeatures Total number of features, i.e. number of columns of the features
+     */
+    public SparseDataSetIterator(@NonNull Iterable<Triple<int[], double[], double[]>> iterable, int batchSize,
+                    int numFeatures) {
+        if (batchSize < 1)
+            throw new IllegalArgumentException("batchSize can't be < 1");
+        if (numFeatures < 1)
+            throw new IllegalArgumentException("numFeatures can't be < 1");
+
+        this.iterable = iterable;
+        this.iterator = iterable.iterator();
+        this.batchSize = batchSize;
+        this.numFeatures = numFeatures;
+    }
+
+    public SparseDataSetIterator(@NonNull Iterable<Triple<int[], double[], double[]>> iterable, int batchSize,
+                    int numFeatures, @NonNull List<String> labels) {
+        this(iterable, batchSize, numFeatures);
+        this.labels = labels;
+    }
+
+    @Override
+    public DataSet next(int num) {
+        if (!hasNext())
+            throw new NoSuchElementException();
+
+        int[] pointerB = new int[num];
+        int[] pointerE = new int[num];
+        int[] columns = new int[16 * num];
+        double[] values = new double[columns.length];
+        double[][] labelRows = new double[num][];
+        int nnz = 0;
+        int count = 0;
+
+        while (count < num && iterator.hasNext()) {
+            Triple<int[], double[], double[]> example = iterator.next();
+            int[] indices = example.getFirst();
+            double[] exampleValues = example.getSecond();
+            if (exampleValues != null && exampleValues.length != indices.length)
+                throw new IllegalStateException("Example has " + indices.length + " feature indices but "
+                                + exampleValues.length + " feature values");
+
+            if (nnz + indices.length > columns.length) {
+                int newLength = Math.max(nnz + indices.length, 2 * columns.length);
+                columns = Arrays.copyOf(columns, newLength);
+                values = Arrays.copyOf(values, newLength);
+            }
+
+            pointerB[count] = nnz;
+            for (int i = 0; i < indices.length; i++) {
+                if (indices[i] < 0 || indices[i] >= numFeatures)
+                    throw new IllegalStateException("Invalid feature index " + indices[i] + ": must be between 0 and "
+                                    + (numFeatures - 1) + " inclusive");
+                columns[nnz] = indices[i];
+                values[nnz] = exampleValues == null ? 1.0 : exampleValues[i];
+                nnz++;
+            }
+            pointerE[count] = nnz;
+
+            labelRows[count] = example.getThird();
+            if (numLabels < 0)
+                numLabels = labelRows[count].length;
+            count++;
+        }
+
+        if (count < num) {
+            pointerB = Arrays.copyOf(pointerB, count);
+            pointerE = Arrays.copyOf(pointerE, count);
+            labelRows = Arrays.copyOf(labelRows, count);
+        }
+
+        if (nnz == 0) {
+            //CSR arrays can't be empty: store an explicit zero when no example of the minibatch has a non-zero feature
+            columns[0] = 0;
+            values[0] = 0.0;
+            nnz = 1;
+            Arrays.fill(pointerB, 1, count, 1);
+            Arrays.fill(pointerE, 1);
+        }
+
+        INDArray features = Nd4j.createSparseCSR(Arrays.copyOf(values, nnz), Arrays.copyOf(columns, nnz), pointerB,
+                        pointerE, new int[] {count, numFeatures});
+        DataSet ds = new DataSet(features, Nd4j.create(labelRows));
+        if (preProcessor != null)
+            preProcessor.preProcess(ds);
+        return ds;
+    }
+
+    @Override
+    public DataSet next() {
+        return next(batchSize);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return iterator.hasNext();
+    }
+
+    @Override
+    public int totalExamples() {
+        return 0;
+    }
+
+    @Override
+    public int inputColumns() {
+        return numFeatures;
+    }
+
+    @Override
+    public int totalOutcomes() {
+        if (labels != null)
+            return labels.size();
+
+        return numLabels;
+    }
+
+    @Override
+    public boolean resetSupported() {
+        return true;
+    }
+
+    @Override
+    public boolean asyncSupported() {
+        return true;
+    }
+
+    @Override
+    public void reset() {
+        iterator = iterable.iterator();
+    }
+
+    @Override
+    public int batch() {
+        return batchSize;
+    }
+
+    @Override
+    public int cursor() {
+        return 0;
+    }
+
+    @Override
+    public int numExamples() {
+        return totalExamples();
+    }
+
+    @Override
+    public void setPreProcessor(DataSetPreProcessor preProcessor) {
+        this.preProcessor = preProcessor;
+    }
+
+    @Override
+    public List<String> getLabels() {
+        return labels;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -5,14 +5,17 @@ import lombok.Setter;
 import org.nd4j.linalg.dataset.DataSet;
 import org.nd4j.linalg.dataset.api.DataSetPreProcessor;
 import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
+import org.nd4j.serde.binary.DataSetBinarySerde;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.List;
 import java.util.Random;
 
 /**
  * Iterate over a directory (and optionally subdirectories) containing a number of {@link DataSet} objects that have
- * previously been saved to files with {@link DataSet#save(File)}.<br>
+ * previously been saved to files with {@link DataSet#save(File)} or {@link DataSetBinarySerde#write(DataSet, File)}.
+ * Files in the binary format are detected automatically, and read via memory mapping.<br>
  * This iterator supports the following (optional) features, depending on the constructor used:<br>
  * - Recursive listing of all files (i.e., include files in subdirectories)<br>
  * - Filtering based on a set of file extensions (if null, no filtering - assume all files are saved DataSet objects)<br>
@@ -129,6 +132,13 @@ public class FileDataSetIterator extends BaseFileIterator<DataSet, DataSetPrePro
 
     @Override
     protected DataSet load(File f) {
+        if (DataSetBinarySerde.isBinaryFormat(f)) {
+            try {
+                return DataSetBinarySerde.readDataSet(f);
+            } catch (IOException e) {
+                throw new RuntimeException("Error loading DataSet from file: " + f, e);
+            }
+        }
         DataSet ds = new DataSet();
         ds.load(f);
         return ds;
@@ -3,6 +3,7 @@ package org.deeplearning4j.datasets.iterator.file;
 import org.nd4j.linalg.dataset.api.MultiDataSet;
 import org.nd4j.linalg.dataset.api.MultiDataSetPreProcessor;
 import org.nd4j.linalg.dataset.api.iterator.MultiDataSetIterator;
+import org.nd4j.serde.binary.DataSetBinarySerde;
 
 import java.io.File;
 import java.io.IOException;
@@ -11,7 +12,9 @@ import java.util.Random;
 
 /**
  * Iterate over a directory (and optionally subdirectories) containing a number of {@link MultiDataSet} objects that have
- * previously been saved to files with {@link MultiDataSet#save(File)}.<br>
+ * previously been saved to files with {@link MultiDataSet#save(File)} or
+ * {@link DataSetBinarySerde#write(org.nd4j.linalg.dataset.MultiDataSet, File)}. Files in the binary format are detected
+ * automatically, and read via memory mapping.<br>
  * This iterator supports the following (optional) features, depending on the constructor used:<br>
  * - Recursive listing of all files (i.e., include files in subdirectories)<br>
  * - Filtering based on a set of file extensions (if null, no filtering - assume all files are saved MultiDataSet objects)<br>
@@ -127,6 +130,8 @@ public class FileMultiDataSetIterator extends BaseFileIterator<MultiDataSet, Mul
     protected MultiDataSet load(File f) {
         MultiDataSet mds = new org.nd4j.linalg.dataset.MultiDataSet();
         try {
+            if (DataSetBinarySerde.isBinaryFormat(f))
+                return DataSetBinarySerde.readMultiDataSet(f);
             mds.load(f);
         } catch (IOException e) {
             throw new RuntimeException("Error loading MultiDataSet from file: " + f, e);
@@ -20,11 +20,10 @@
 package org.deeplearning4j.plot;
 
 
-import com.google.common.util.concurrent.AtomicDouble;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.math3.util.FastMath;
 import org.deeplearning4j.clustering.sptree.DataPoint;
-import org.deeplearning4j.clustering.sptree.SpTree;
+import org.deeplearning4j.clustering.sptree.ParallelSpTree;
 import org.deeplearning4j.clustering.vptree.VPTree;
 import org.deeplearning4j.nn.api.Model;
 import org.deeplearning4j.nn.conf.NeuralNetConfiguration;
@@ -52,9 +51,13 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.nd4j.linalg.factory.Nd4j.*;
 import static org.nd4j.linalg.ops.transforms.Transforms.pow;
@@ -66,6 +69,12 @@ import static org.nd4j.linalg.ops.transforms.Transforms.sign;
  * Work based on:
  * http://lvdmaaten.github.io/tsne/
  * For hight dimensions, it's recommended to reduce the dimension up to 50 using another method (PCA or other)
+ *
+ * The input similarities and the gradient are computed on primitive arrays, in parallel on numThreads threads:
+ * nearest neighbours search (VPTree), per point perplexity binary search, symmetrization of the sparse
+ * similarities (CSR format) and edge/non edge forces ({@link ParallelSpTree}, rebuilt at every iteration).
+ * Iteration time, gradient norm and (every scoreFrequency iterations) the KL divergence are logged and
+ * available from the getters.
  * @author Adam Gibson
  */
 @Slf4j
@@ -96,18 +105,28 @@ public class BarnesHutTsne implements Model {
     protected INDArray Y;
     private int N;
     private double theta;
-    private INDArray rows;
-    private INDArray cols;
-    private INDArray vals;
+    //sparse input similarities, CSR format
+    private int[] rowP;
+    private int[] colP;
+    private double[] valP;
     private String simiarlityFunction = "cosinesimilarity";
     private boolean invert = true;
     private INDArray x;
     private int numDimensions = 0;
     public final static String Y_GRAD = "yIncs";
-    private SpTree tree;
     private INDArray gains;
     private INDArray yIncs;
     private int vpTreeWorkers;
+    private int numThreads = Runtime.getRuntime().availableProcessors();
+    private int scoreFrequency = 50;
+    private transient ExecutorService executor;
+    //progress metrics of the last iteration
+    private long lastIterationTime;
+    private double lastGradientNorm = Double.NaN;
+    private double lastScore = Double.NaN;
+    //minimum number of points handled by a task
+    private static final int MIN_POINTS_PER_TASK = 256;
+    private static final double FLT_MIN = 1.17549435e-38;
     protected transient TrainingListener TrainingListener;
     protected WorkspaceMode workspaceMode;
     protected final static WorkspaceConfiguration workspaceConfigurationExternal = WorkspaceConfiguration.builder()
@@ -185,6 +204,51 @@ public class BarnesHutTsne implements Model {
         this.numDimensions = numDimensions;
     }
 
+    public int getNumThreads() {
+        return numThreads;
+    }
+
+    /**
+     * @param numThreads the number of threads used to compute the similarities and the gradient
+     */
+    public void setNumThreads(int numThreads) {
+        if (numThreads <= 0)
+            throw new IllegalArgumentException("Number of threads must be > 0, got " + numThreads);
+        this.numThreads = numThreads;
+    }
+
+    public int getScoreFrequency() {
+        return scoreFrequency;
+    }
+
+    /**
+     * @param scoreFrequency compute and log the KL divergence every scoreFrequency iterations, 0 to never compute it
+     */
+    public void setScoreFrequency(int scoreFrequency) {
+        this.scoreFrequency = scoreFrequency;
+    }
+
+    /**
+     * @return the time spent in the last iteration, in milliseconds
+     */
+    public long getLastIterationTime() {
+        return lastIterationTime;
+    }
+
+    /**
+     * @return the L2 norm of the last gradient
+     */
+    public double getLastGradientNorm() {
+        return lastGradientNorm;
+    }
+
+    /**
+     * @return the last KL divergence computed during fit, see {@link #setScoreFrequency(int)}
+     */
+    public double getLastScore() {
+        return lastScore;
+    }
+
     /**
      * Convert data to probability
      * co-occurrences (aka calculating the kernel)
@@ -198,94 +262,117 @@ public class BarnesHutTsne implements Model {
         final int k = (int) (3 * u);
         if (u > k)
             throw new IllegalStateException("Illegal k value " + k + "greater than " + u);
+        if (k >= N)
+            throw new IllegalStateException("Perplexity " + u + " too large for " + N + " points: " + k
+                            + " neighbours are required");
 
-
-        rows = zeros(1, N + 1);
-        cols = zeros(1, N * k);
-        vals = zeros(1, N * k);
-
+        rowP = new int[N + 1];
+        colP = new int[N * k];
+        valP = new double[N * k];
         for (int n = 0; n < N; n++)
-            rows.putScalar(n + 1, rows.getDouble(n) + k);
-
-
-        final INDArray beta = ones(N, 1);
+            rowP[n + 1] = rowP[n] + k;
 
         final double logU = FastMath.log(u);
-        VPTree tree = new VPTree(d, simiarlityFunction, vpTreeWorkers,invert);
-
-        MemoryWorkspace workspace =
-                workspaceMode == WorkspaceMode.NONE ? new DummyWorkspace()
-                        : Nd4j.getWorkspaceManager().getWorkspaceForCurrentThread(
-                        workspaceConfigurationExternal,
-                        workspaceExternal);
-        try (MemoryWorkspace ws = workspace.notifyScopeEntered()) {
-            log.info("Calculating probabilities of data similarities...");
-            for (int i = 0; i < N; i++) {
-                if (i % 500 == 0)
-                    log.info("Handled " + i + " records");
-
-                double betaMin = -Double.MAX_VALUE;
-                double betaMax = Double.MAX_VALUE;
+        final boolean squared = "euclidean".equals(simiarlityFunction);
+        //VPTree.search is thread safe: its distance scalars are kept per thread
+        final VPTree tree = new VPTree(d, simiarlityFunction, vpTreeWorkers, invert);
+
+        log.info("Calculating probabilities of data similarities...");
+        final AtomicInteger handled = new AtomicInteger();
+        parallelSum(N, new RangeTask() {
+            @Override
+            public double run(int from, int to) {
                 List<DataPoint> results = new ArrayList<>();
-                tree.search(d.slice(i), k + 1, results, new ArrayList<Double>());
-                double betas = beta.getDouble(i);
-
-                INDArray cArr = VPTree.buildFromData(results);
-                Pair<INDArray, Double> pair = computeGaussianKernel(cArr, beta.getDouble(i), k);
-                INDArray currP = pair.getFirst();
-                double hDiff = pair.getSecond() - logU;
-                int tries = 0;
-                boolean found = false;
-                //binary search
-                while (!found && tries < 200) {
-                    if (hDiff < tolerance && -hDiff < tolerance)
-                        found = true;
-                    else {
-                        if (hDiff > 0) {
-                            betaMin = betas;
-
-                            if (betaMax == Double.MAX_VALUE || betaMax == -Double.MAX_VALUE)
-                                betas *= 2;
-                            else
-                                betas = (betas + betaMax) / 2.0;
-                        } else {
-                            betaMax = betas;
-                            if (betaMin == -Double.MAX_VALUE || betaMin == Double.MAX_VALUE)
-                                betas /= 2.0;
-                            else
-                                betas = (betas + betaMin) / 2.0;
-                        }
-
-                        pair = computeGaussianKernel(cArr, betas, k);
-                        hDiff = pair.getSecond() - logU;
-                        tries++;
+                List<Double> distances = new ArrayList<>();
+                double[] rowDistances = new double[k];
+                for (int i = from; i < to; i++) {
+                    tree.search(d.getRow(i), k + 1, results, distances);
+
+                    //k nearest neighbours, the point itself excluded
+                    int found = 0;
+                    for (int j = 0; j < results.size() && found < k; j++) {
+                        int index = results.get(j).getIndex();
+                        if (index == i)
+                            continue;
+                        double dist = distances.get(j);
+                        colP[rowP[i] + found] = index;
+                        rowDistances[found] = squared ? dist * dist : dist;
+                        found++;
+                    }
+                    computeConditionalProbabilities(rowDistances, found, logU, tolerance, valP, rowP[i]);
+                    for (int j = found; j < k; j++) {
+                        colP[rowP[i] + j] = i;
+                        valP[rowP[i] + j] = 0;
                     }
 
+                    int count = handled.incrementAndGet();
+                    if (count % 10000 == 0)
+                        log.info("Handled {} records", count);
                 }
-
-
-                currP.divi(currP.sum(Integer.MAX_VALUE));
-                INDArray indices = Nd4j.create(1, k + 1);
-                for (int j = 0; j < indices.length(); j++) {
-                    if (j >= results.size())
-                        break;
-                    indices.putScalar(j, results.get(j).getIndex());
-                }
-
-                for (int l = 0; l < k; l++) {
-                    cols.putScalar(rows.getInt(i) + l, indices.getDouble(l + 1));
-                    vals.putScalar(rows.getInt(i) + l, currP.getDouble(l));
-                }
-
-
+                return 0;
             }
+        });
 
+        return Nd4j.create(valP, new int[] {1, valP.length});
+    }
 
-
-
+    /**
+     * Binary search of the precision of the gaussian kernel of one point such that the
+     * perplexity of the conditional distribution over its neighbours is the target perplexity
+     *
+     * @param distances the distances to the neighbours
+     * @param k the number of neighbours
+     * @param logU the log of the target perplexity
+     * @param tolerance the tolerance on the entropy
+     * @param p the conditional probabilities are written in p[offset, offset + k)
+     * @param offset the offset in p
+     */
+    protected static void computeConditionalProbabilities(double[] distances, int k, double logU, double tolerance,
+                    double[] p, int offset) {
+        if (k == 0)
+            return;
+        //the kernel is invariant to a shift of the distances, start from the smallest one for numerical stability
+        double minDistance = Double.MAX_VALUE;
+        for (int m = 0; m < k; m++)
+            minDistance = Math.min(minDistance, distances[m]);
+
+        double beta = 1.0;
+        double betaMin = -Double.MAX_VALUE;
+        double betaMax = Double.MAX_VALUE;
+        double sum = 0;
+        for (int tries = 0; tries < 200; tries++) {
+            sum = 0;
+            double h = 0;
+            for (int m = 0; m < k; m++) {
+                double dist = distances[m] - minDistance;
+                double v = FastMath.exp(-beta * dist);
+                p[offset + m] = v;
+                sum += v;
+                h += beta * dist * v;
+            }
+            h = h / sum + FastMath.log(sum);
+
+            double hDiff = h - logU;
+            if (hDiff < tolerance && -hDiff < tolerance)
+                break;
+
+            if (hDiff > 0) {
+                betaMin = beta;
+                if (betaMax == Double.MAX_VALUE)
+                    beta *= 2;
+                else
+                    beta = (beta + betaMax) / 2.0;
+            } else {
+                betaMax = beta;
+                if (betaMin == -Double.MAX_VALUE)
+                    beta /= 2.0;
+                else
+                    beta = (beta + betaMin) / 2.0;
+            }
         }
-        return vals;
 
+        for (int m = 0; m < k; m++)
+            p[offset + m] /= sum;
     }
 
     @Override
@@ -361,94 +448,128 @@ public class BarnesHutTsne implements Model {
      * @return
      */
     public INDArray symmetrized(INDArray rowP, INDArray colP, INDArray valP) {
-        INDArray rowCounts = Nd4j.create(N);
-
-        MemoryWorkspace workspace =
-                workspaceMode == WorkspaceMode.NONE ? new DummyWorkspace()
-                        : Nd4j.getWorkspaceManager().getWorkspaceForCurrentThread(
-                        workspaceConfigurationExternal,
-                        workspaceExternal);
-
-        try (MemoryWorkspace ws = workspace.notifyScopeEntered()) {
-            for (int n = 0; n < N; n++) {
-                int begin = rowP.getInt(n);
-                int end = rowP.getInt(n + 1);
-                for (int i = begin; i < end; i++) {
-                    boolean present = false;
-                    for (int m = rowP.getInt(colP.getInt(i)); m < rowP.getInt(colP.getInt(i) + 1); m++)
-                        if (colP.getInt(m) == n) {
-                            present = true;
-                        }
-
-
-                    if (present)
-                        rowCounts.putScalar(n, rowCounts.getDouble(n) + 1);
+        int[] rows = new int[(int) rowP.length()];
+        int[] cols = new int[(int) colP.length()];
+        double[] vals = new double[(int) valP.length()];
+        for (int i = 0; i < rows.length; i++)
+            rows[i] = rowP.getInt(i);
+        for (int i = 0; i < cols.length; i++) {
+            cols[i] = colP.getInt(i);
+            vals[i] = valP.getDouble(i);
+        }
+        N = rows.length - 1;
+        symmetrize(rows, cols, vals);
+        return Nd4j.create(this.valP, new int[] {1, this.valP.length});
+    }
 
-                    else {
-                        rowCounts.putScalar(n, rowCounts.getDouble(n) + 1);
-                        rowCounts.putScalar(colP.getInt(i), rowCounts.getDouble(colP.getInt(i)) + 1);
-                    }
-                }
+    /**
+     * Symmetrize the sparse similarities: P = (P + P^T) / 2, the result replacing
+     * the current similarities (rowP, colP and valP)
+     * @param rowP the row pointers, CSR format
+     * @param colP the column indices
+     * @param valP the values
+     */
+    protected void symmetrize(final int[] rowP, final int[] colP, final double[] valP) {
+        final int n = rowP.length - 1;
+
+        //transpose: entries of each row are sorted by column, as rows are handled in order
+        final int[] tRowP = new int[n + 1];
+        for (int i = 0; i < rowP[n]; i++)
+            tRowP[colP[i] + 1]++;
+        for (int i = 0; i < n; i++)
+            tRowP[i + 1] += tRowP[i];
+        final int[] tColP = new int[rowP[n]];
+        final double[] tValP = new double[rowP[n]];
+        int[] fill = Arrays.copyOf(tRowP, n);
+        for (int r = 0; r < n; r++) {
+            for (int i = rowP[r]; i < rowP[r + 1]; i++) {
+                int pos = fill[colP[i]]++;
+                tColP[pos] = r;
+                tValP[pos] = valP[i];
             }
+        }
 
-
-            int numElements = rowCounts.sum(Integer.MAX_VALUE).getInt(0);
-            INDArray offset = Nd4j.create(N);
-            INDArray symRowP = Nd4j.create(N + 1);
-            INDArray symColP = Nd4j.create(numElements);
-            INDArray symValP = Nd4j.create(numElements);
-
-            for (int n = 0; n < N; n++)
-                symRowP.putScalar(n + 1, symRowP.getDouble(n) + rowCounts.getDouble(n));
-
-
-            for (int n = 0; n < N; n++) {
-                for (int i = rowP.getInt(n); i < rowP.getInt(n + 1); i++) {
-                    boolean present = false;
-                    for (int m = rowP.getInt(colP.getInt(i)); m < rowP.getInt(colP.getInt(i)) + 1; m++) {
-                        if (colP.getInt(m) == n) {
-                            present = true;
-                            if (n < colP.getInt(i)) {
-                                // make sure we do not add elements twice
-                                symColP.putScalar(symRowP.getInt(n) + offset.getInt(n), colP.getInt(i));
-                                symColP.putScalar(symRowP.getInt(colP.getInt(i)) + offset.getInt(colP.getInt(i)), n);
-                                symValP.putScalar(symRowP.getInt(n) + offset.getInt(n),
-                                        valP.getDouble(i) + valP.getDouble(m));
-                                symValP.putScalar(symRowP.getInt(colP.getInt(i)) + offset.getInt(colP.getInt(i)),
-                                        valP.getDouble(i) + valP.getDouble(m));
-                            }
-                        }
-                    }
-
-                    // If (colP[i], n) is not present, there is no addition involved
-                    if (!present) {
-                        int colPI = colP.getInt(i);
-                        if (n < colPI) {
-                            symColP.putScalar(symRowP.getInt(n) + offset.getInt(n), colPI);
-                            symColP.putScalar(symRowP.getInt(colP.getInt(i)) + offset.getInt(colPI), n);
-                            symValP.putScalar(symRowP.getInt(n) + offset.getInt(n), valP.getDouble(i));
-                            symValP.putScalar(symRowP.getInt(colPI) + offset.getInt(colPI), valP.getDouble(i));
-                        }
-
-                    }
-
-                    // Update offsets
-                    if (!present || (present && n < colP.getInt(i))) {
-                        offset.putScalar(n, offset.getInt(n) + 1);
-                        int colPI = colP.getInt(i);
-                        if (colPI != n)
-                            offset.putScalar(colPI, offset.getDouble(colPI) + 1);
-                    }
+        //sort the entries of each row by column
+        final int[] sColP = new int[rowP[n]];
+        final double[] sValP = new double[rowP[n]];
+        final int[] counts = new int[n];
+        parallelSum(n, new RangeTask() {
+            @Override
+            public double run(int from, int to) {
+                for (int r = from; r < to; r++) {
+                    sortRow(colP, valP, rowP[r], rowP[r + 1], sColP, sValP);
+                    counts[r] = mergeRows(sColP, sValP, rowP[r], rowP[r + 1], tColP, tValP, tRowP[r],
+                                    tRowP[r + 1], null, null, 0);
                 }
+                return 0;
+            }
+        });
+
+        final int[] symRowP = new int[n + 1];
+        for (int r = 0; r < n; r++)
+            symRowP[r + 1] = symRowP[r] + counts[r];
+        final int[] symColP = new int[symRowP[n]];
+        final double[] symValP = new double[symRowP[n]];
+        parallelSum(n, new RangeTask() {
+            @Override
+            public double run(int from, int to) {
+                for (int r = from; r < to; r++)
+                    mergeRows(sColP, sValP, rowP[r], rowP[r + 1], tColP, tValP, tRowP[r], tRowP[r + 1],
+                                    symColP, symValP, symRowP[r]);
+                return 0;
             }
+        });
 
-            // Divide the result by two
-            symValP.divi(2.0);
-            return symValP;
+        this.rowP = symRowP;
+        this.colP = symColP;
+        this.valP = symValP;
+    }
 
+    private static void sortRow(int[] colP, double[] valP, int begin, int end, int[] sColP, double[] sValP) {
+        //insertion sort, rows hold a few neighbours only
+        for (int i = begin; i < end; i++) {
+            int c = colP[i];
+            double v = valP[i];
+            int j = i - 1;
+            while (j >= begin && sColP[j] > c) {
+                sColP[j + 1] = sColP[j];
+                sValP[j + 1] = sValP[j];
+                j--;
+            }
+            sColP[j + 1] = c;
+            sValP[j + 1] = v;
         }
+    }
 
-
+    /**
+     * Merge two rows sorted by column, summing the values of the same column and halving them
+     * @return the number of entries of the merged row
+     */
+    private static int mergeRows(int[] aCol, double[] aVal, int aBegin, int aEnd, int[] bCol, double[] bVal,
+                    int bBegin, int bEnd, int[] outCol, double[] outVal, int outOffset) {
+        int i = aBegin;
+        int j = bBegin;
+        int count = 0;
+        while (i < aEnd || j < bEnd) {
+            int col;
+            double val;
+            if (j >= bEnd || (i < aEnd && aCol[i] < bCol[j])) {
+                col = aCol[i];
+                val = aVal[i++];
+            } else if (i >= aEnd || bCol[j] < aCol[i]) {
+                col = bCol[j];
+                val = bVal[j++];
+            } else {
+                col = aCol[i];
+                val = aVal[i++] + bVal[j++];
+            }
+            if (outCol != null) {
+                outCol[outOffset + count] = col;
+                outVal[outOffset + count] = val / 2.0;
+            }
+            count++;
+        }
+        return count;
     }
 
     /**
@@ -525,21 +646,43 @@ public class BarnesHutTsne implements Model {
                             workspaceExternal);
 
 
+            executor = Executors.newFixedThreadPool(numThreads, new ThreadFactory() {
+                private final AtomicLong counter = new AtomicLong();
+
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread t = Executors.defaultThreadFactory().newThread(r);
+                    t.setDaemon(true);
+                    t.setName("BarnesHutTsne-" + counter.getAndIncrement());
+                    return t;
+                }
+            });
+
             try (MemoryWorkspace ws = workspace.notifyScopeEntered()) {
 
                 computeGaussianPerplexity(x, perplexity);
-                vals = symmetrized(rows, cols, vals).divi(vals.sum(Integer.MAX_VALUE));
+                symmetrize(rowP, colP, valP);
+                double sum = 0;
+                for (double v : valP)
+                    sum += v;
                 //lie about gradient
-                vals.muli(12);
+                scaleSimilarities(12.0 / sum);
 
                 for (int i = 0; i < maxIter; i++) {
-                    step(vals, i);
+                    long start = System.currentTimeMillis();
+                    step(i);
 
                     if (i == switchMomentumIteration)
                         momentum = finalMomentum;
                     if (i == stopLyingIteration)
-                        vals.divi(12);
+                        scaleSimilarities(1.0 / 12);
 
+                    lastIterationTime = System.currentTimeMillis() - start;
+                    if (scoreFrequency > 0 && (i % scoreFrequency == 0 || i == maxIter - 1)) {
+                        lastScore = score();
+                        log.info("Iteration {}: error = {}, gradient norm = {}, time = {} ms", i, lastScore,
+                                        lastGradientNorm, lastIterationTime);
+                    }
 
                     if (TrainingListener != null) {
                         TrainingListener.iterationDone(this, i, 0);
@@ -547,10 +690,18 @@ public class BarnesHutTsne implements Model {
 
 
                 }
+            } finally {
+                executor.shutdownNow();
+                executor = null;
             }
         }
     }
 
+    private void scaleSimilarities(double factor) {
+        for (int i = 0; i < valP.length; i++)
+            valP[i] *= factor;
+    }
+
     @Override
     public void update(Gradient gradient) {
 
@@ -563,6 +714,14 @@ public class BarnesHutTsne implements Model {
      * @param i the iteration (primarily for debugging purposes)
      */
     public void step(INDArray p, int i) {
+        step(i);
+    }
+
+    /**
+     * An individual iteration, using the current similarities
+     * @param i the iteration (primarily for debugging purposes)
+     */
+    public void step(int i) {
         update(gradient().getGradientFor(Y_GRAD), Y_GRAD);
     }
 
@@ -669,46 +828,42 @@ public class BarnesHutTsne implements Model {
 
     @Override
     public double score() {
-
-        MemoryWorkspace workspace =
-                workspaceMode == WorkspaceMode.NONE ? new DummyWorkspace()
-                        : Nd4j.getWorkspaceManager().getWorkspaceForCurrentThread(
-                        workspaceConfigurationExternal,
-                        workspaceExternal);
-
-
-        try (MemoryWorkspace ws = workspace.notifyScopeEntered()) {
-
-
-            // Get estimate of normalization term
-            INDArray buff = Nd4j.create(numDimensions);
-            AtomicDouble sum_Q = new AtomicDouble(0.0);
-            for (int n = 0; n < N; n++)
-                tree.computeNonEdgeForces(n, theta, buff, sum_Q);
-
-            // Loop over all edges to compute t-SNE error
-            double C = .0;
-            INDArray linear = Y;
-            for (int n = 0; n < N; n++) {
-                int begin = rows.getInt(n);
-                int end = rows.getInt(n + 1);
-                int ind1 = n;
-                for (int i = begin; i < end; i++) {
-                    int ind2 = cols.getInt(i);
-                    buff.assign(linear.slice(ind1));
-                    buff.subi(linear.slice(ind2));
-
-                    double Q = pow(buff, 2).sum(Integer.MAX_VALUE).getDouble(0);
-                    Q = (1.0 / (1.0 + Q)) / sum_Q.doubleValue();
-                    C += vals.getDouble(i) * FastMath.log(vals.getDouble(i) + Nd4j.EPS_THRESHOLD)
-                            / (Q + Nd4j.EPS_THRESHOLD);
+        final int D = numDimensions;
+        final double[] y = Y.dup('c').data().asDouble();
+        final ParallelSpTree tree = new ParallelSpTree(y, N, D);
+
+        // Get estimate of normalization term
+        final double sumQ = parallelSum(N, new RangeTask() {
+            @Override
+            public double run(int from, int to) {
+                double[] buff = new double[D];
+                double sum = 0;
+                for (int n = from; n < to; n++)
+                    sum += tree.computeNonEdgeForces(n, theta, buff, 0);
+                return sum;
+            }
+        });
+
+        // Loop over all edges to compute t-SNE error
+        return parallelSum(N, new RangeTask() {
+            @Override
+            public double run(int from, int to) {
+                double c = 0;
+                for (int n = from; n < to; n++) {
+                    for (int i = rowP[n]; i < rowP[n + 1]; i++) {
+                        int m = colP[i];
+                        double q = 0;
+                        for (int d = 0; d < D; d++) {
+                            double diff = y[n * D + d] - y[m * D + d];
+                            q += diff * diff;
+                        }
+                        q = (1.0 / (1.0 + q)) / sumQ;
+                        c += valP[i] * FastMath.log((valP[i] + FLT_MIN) / (q + FLT_MIN));
+                    }
                 }
+                return c;
             }
-
-            return C;
-
-        }
-
+        });
     }
 
     @Override
@@ -796,19 +951,32 @@ public class BarnesHutTsne implements Model {
             if (gains == null)
                 gains = ones(Y.shape());
 
-            AtomicDouble sumQ = new AtomicDouble(0);
             /* Calculate gradient based on barnes hut approximation with positive and negative forces */
-            INDArray posF = Nd4j.create(Y.shape());
-            INDArray negF = Nd4j.create(Y.shape());
-            if (tree == null)
-                tree = new SpTree(Y);
-            tree.computeEdgeForces(rows, cols, vals, N, posF);
-
-            for (int n = 0; n < N; n++)
-                tree.computeNonEdgeForces(n, theta, negF.slice(n), sumQ);
+            final int D = numDimensions;
+            final double[] y = Y.dup('c').data().asDouble();
+            final double[] posF = new double[N * D];
+            final double[] negF = new double[N * D];
+            final ParallelSpTree tree = new ParallelSpTree(y, N, D);
+
+            final double sumQ = parallelSum(N, new RangeTask() {
+                @Override
+                public double run(int from, int to) {
+                    ParallelSpTree.computeEdgeForces(y, D, rowP, colP, valP, from, to, posF);
+                    double sum = 0;
+                    for (int n = from; n < to; n++)
+                        sum += tree.computeNonEdgeForces(n, theta, negF, n * D);
+                    return sum;
+                }
+            });
 
+            double norm = 0;
+            for (int i = 0; i < posF.length; i++) {
+                posF[i] -= negF[i] / sumQ;
+                norm += posF[i] * posF[i];
+            }
+            lastGradientNorm = Math.sqrt(norm);
 
-            INDArray dC = posF.subi(negF.divi(sumQ));
+            INDArray dC = Nd4j.create(posF, new int[] {N, D});
 
             Gradient ret = new DefaultGradient();
             ret.gradientForVariable().put(Y_GRAD, dC);
@@ -816,6 +984,50 @@ public class BarnesHutTsne implements Model {
         }
     }
 
+    /**
+     * A task over a range of points, returning a partial sum
+     */
+    private interface RangeTask {
+        double run(int from, int to);
+    }
+
+    /**
+     * Run a task over the points [0, n), split in chunks executed in parallel when fitting
+     * @return the sum of the partial sums, summed in the order of the chunks so that
+     * the result does not depend on the scheduling of the threads
+     */
+    private double parallelSum(int n, final RangeTask task) {
+        ExecutorService executor = this.executor;
+        int numTasks = Math.min(4 * numThreads, (n + MIN_POINTS_PER_TASK - 1) / MIN_POINTS_PER_TASK);
+        if (executor == null || numTasks <= 1)
+            return task.run(0, n);
+
+        List<Future<Double>> futures = new ArrayList<>(numTasks);
+        int chunk = (n + numTasks - 1) / numTasks;
+        for (int from = 0; from < n; from += chunk) {
+            final int start = from;
+            final int end = Math.min(n, from + chunk);
+            futures.add(executor.submit(new Callable<Double>() {
+                @Override
+                public Double call() {
+                    return task.run(start, end);
+                }
+            }));
+        }
+
+        double sum = 0;
+        try {
+            for (Future<Double> f : futures)
+                sum += f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+        return sum;
+    }
+
     @Override
     public Pair<Gradient, Double> gradientAndScore() {
         return new Pair<>(gradient(), score());
@@ -866,6 +1078,24 @@ public class BarnesHutTsne implements Model {
         private int numDim = 2;
         private String similarityFunction = "cosinesimilarity";
         private int vpTreeWorkers = 1;
+        private int numThreads = Runtime.getRuntime().availableProcessors();
+        private int scoreFrequency = 50;
+
+        /**
+         * @param numThreads the number of threads used to compute the similarities and the gradient
+         */
+        public Builder numThreads(int numThreads) {
+            this.numThreads = numThreads;
+            return this;
+        }
+
+        /**
+         * @param scoreFrequency compute and log the KL divergence every scoreFrequency iterations, 0 to never compute it
+         */
+        public Builder scoreFrequency(int scoreFrequency) {
+            this.scoreFrequency = scoreFrequency;
+            return this;
+        }
 
         public Builder vpTreeWorkers(int vpTreeWorkers) {
             this.vpTreeWorkers = vpTreeWorkers;
@@ -960,9 +1190,12 @@ public class BarnesHutTsne implements Model {
         }
 
         public BarnesHutTsne build() {
-            return new BarnesHutTsne(numDim, similarityFunction, theta, invert, maxIter, realMin, initialMomentum,
-                    finalMomentum, momentum, switchMomentumIteration, normalize, stopLyingIteration, tolerance,
-                    learningRate, useAdaGrad, perplexity, null, minGain,vpTreeWorkers);
+            BarnesHutTsne tsne = new BarnesHutTsne(numDim, similarityFunction, theta, invert, maxIter, realMin,
+                    initialMomentum, finalMomentum, momentum, switchMomentumIteration, normalize, stopLyingIteration,
+                    tolerance, learningRate, useAdaGrad, perplexity, null, minGain, vpTreeWorkers);
+            tsne.setNumThreads(numThreads);
+            tsne.setScoreFrequency(scoreFrequency);
+            return tsne;
         }
 
     }
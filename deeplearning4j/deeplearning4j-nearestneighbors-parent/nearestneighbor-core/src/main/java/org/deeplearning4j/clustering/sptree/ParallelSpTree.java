@@ -0,0 +1,321 @@
+/*-
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ */
+
+package org.deeplearning4j.clustering.sptree;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Space partitioning tree for Barnes-Hut approximations, stored in flat primitive arrays.
+ *
+ * Unlike {@link SpTree}, which keeps an INDArray (and a scratch buffer) per node, the nodes of this tree are
+ * stored in a few double/int arrays and the tree is not modified once built: forces can be computed
+ * for different points from many threads at the same time.
+ *
+ * Every node covers the cell [corner - width, corner + width] and holds at most one point;
+ * duplicate points are only counted in the size (and center of mass) of the nodes of that point.
+ */
+public class ParallelSpTree implements Serializable {
+
+    private static final int MAX_DEPTH = 64;
+
+    private final double[] data;
+    private final int numDims;
+    private final int numChildren;
+
+    private int numNodes;
+    private double[] corner;
+    private double[] width;
+    private double[] maxWidth;
+    private double[] centerOfMass;
+    private int[] cumSize;
+    private int[] pointIndex;
+    private int[] firstChild;
+
+    /**
+     * @param data      the points, row major: point i is data[i * numDims, (i + 1) * numDims)
+     * @param numPoints the number of points
+     * @param numDims   the number of dimensions of each point
+     */
+    public ParallelSpTree(double[] data, int numPoints, int numDims) {
+        if (data.length < numPoints * numDims)
+            throw new IllegalArgumentException("Expected at least " + numPoints * numDims + " values, got "
+                            + data.length);
+        this.data = data;
+        this.numDims = numDims;
+        this.numChildren = 1 << numDims;
+
+        allocate(Math.max(16, 2 * numPoints));
+        numNodes = 1;
+
+        //root cell: centered on the mean, wide enough to contain every point
+        double[] mean = new double[numDims];
+        double[] min = new double[numDims];
+        double[] max = new double[numDims];
+        Arrays.fill(min, Double.MAX_VALUE);
+        Arrays.fill(max, -Double.MAX_VALUE);
+        for (int i = 0; i < numPoints; i++) {
+            for (int d = 0; d < numDims; d++) {
+                double v = data[i * numDims + d];
+                mean[d] += v;
+                min[d] = Math.min(min[d], v);
+                max[d] = Math.max(max[d], v);
+            }
+        }
+        double rootMaxWidth = 0;
+        for (int d = 0; d < numDims; d++) {
+            mean[d] /= Math.max(numPoints, 1);
+            corner[d] = mean[d];
+            width[d] = Math.max(max[d] - mean[d], mean[d] - min[d]) + 1e-5;
+            rootMaxWidth = Math.max(rootMaxWidth, width[d]);
+        }
+        maxWidth[0] = rootMaxWidth;
+
+        for (int i = 0; i < numPoints; i++)
+            insert(i);
+    }
+
+    /**
+     * @return the number of points in the tree, duplicates included
+     */
+    public int getCumSize() {
+        return cumSize[0];
+    }
+
+    /**
+     * @return the center of mass of all the points
+     */
+    public double[] getCenterOfMass() {
+        return Arrays.copyOf(centerOfMass, numDims);
+    }
+
+    public int getNumNodes() {
+        return numNodes;
+    }
+
+    public int getNumChildren() {
+        return numChildren;
+    }
+
+    /**
+     * Compute the non edge (repulsive) forces of a point using the Barnes-Hut approximation
+     * @param point the index of the point
+     * @param theta the Barnes-Hut trade-off, 0 for the exact forces
+     * @param negativeForce the forces are added to negativeForce[offset, offset + numDims)
+     * @param offset the offset in negativeForce
+     * @return the contribution of this point to the normalization term (sum of Q)
+     */
+    public double computeNonEdgeForces(int point, double theta, double[] negativeForce, int offset) {
+        return computeNonEdgeForces(0, point, theta, negativeForce, offset, new double[numDims]);
+    }
+
+    private double computeNonEdgeForces(int node, int point, double theta, double[] negativeForce, int offset,
+                    double[] buf) {
+        boolean leaf = firstChild[node] < 0;
+        // Make sure that we spend no time on empty nodes or self-interactions
+        if (cumSize[node] == 0 || (leaf && pointIndex[node] == point))
+            return 0;
+
+        // Compute distance between point and center-of-mass
+        int p = point * numDims;
+        int c = node * numDims;
+        double dist = 0;
+        for (int d = 0; d < numDims; d++) {
+            buf[d] = data[p + d] - centerOfMass[c + d];
+            dist += buf[d] * buf[d];
+        }
+
+        // Check whether we can use this node as a "summary"
+        if (leaf || maxWidth[node] / Math.sqrt(dist) < theta) {
+            double q = 1.0 / (1.0 + dist);
+            double mult = cumSize[node] * q;
+            double sumQ = mult;
+            mult *= q;
+            for (int d = 0; d < numDims; d++)
+                negativeForce[offset + d] += mult * buf[d];
+            return sumQ;
+        }
+
+        // Recursively apply Barnes-Hut to children
+        double sumQ = 0;
+        int first = firstChild[node];
+        for (int i = 0; i < numChildren; i++)
+            sumQ += computeNonEdgeForces(first + i, point, theta, negativeForce, offset, buf);
+        return sumQ;
+    }
+
+    /**
+     * Compute the edge (attractive) forces of the points [from, to)
+     * @param data the points, row major
+     * @param numDims the number of dimensions of each point
+     * @param rowP the row pointers of the sparse similarities, in CSR format
+     * @param colP the column indices of the sparse similarities
+     * @param valP the sparse similarities
+     * @param from the first point
+     * @param to the last point, exclusive
+     * @param positiveForce the forces of point i are added to positiveForce[i * numDims, (i + 1) * numDims)
+     */
+    public static void computeEdgeForces(double[] data, int numDims, int[] rowP, int[] colP, double[] valP,
+                    int from, int to, double[] positiveForce) {
+        for (int n = from; n < to; n++) {
+            int p = n * numDims;
+            for (int i = rowP[n]; i < rowP[n + 1]; i++) {
+                int q = colP[i] * numDims;
+                double dist = 1.0;
+                for (int d = 0; d < numDims; d++) {
+                    double diff = data[p + d] - data[q + d];
+                    dist += diff * diff;
+                }
+                double mult = valP[i] / dist;
+                for (int d = 0; d < numDims; d++)
+                    positiveForce[p + d] += mult * (data[p + d] - data[q + d]);
+            }
+        }
+    }
+
+    /**
+     * Verifies the structure of the tree: every point is in the cell of its node
+     * @return true if the structure of the tree is correct
+     */
+    public boolean isCorrect() {
+        for (int node = 0; node < numNodes; node++) {
+            int p = pointIndex[node];
+            if (p >= 0) {
+                for (int d = 0; d < numDims; d++) {
+                    double v = data[p * numDims + d];
+                    double c = corner[node * numDims + d];
+                    double w = width[node * numDims + d];
+                    if (v < c - w || v > c + w)
+                        return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the depth of the tree
+     */
+    public int depth() {
+        return depth(0);
+    }
+
+    private int depth(int node) {
+        if (firstChild[node] < 0)
+            return 1;
+        int max = 0;
+        for (int i = 0; i < numChildren; i++)
+            max = Math.max(max, depth(firstChild[node] + i));
+        return 1 + max;
+    }
+
+    private void insert(int index) {
+        int node = 0;
+        int p = index * numDims;
+        for (int depth = 0;; depth++) {
+            addToCenterOfMass(node, p);
+
+            if (firstChild[node] < 0) {
+                int existing = pointIndex[node];
+                if (existing < 0 && cumSize[node] == 1) {
+                    pointIndex[node] = index;
+                    return;
+                }
+                //duplicates (or points too close to be separated) are only counted in the center of mass
+                if (existing < 0 || samePoint(existing, index) || depth >= MAX_DEPTH)
+                    return;
+
+                subdivide(node);
+                //the leaf also counted the duplicates of its point: they all move to the child
+                int child = childFor(node, existing * numDims);
+                cumSize[child] = cumSize[node] - 1;
+                System.arraycopy(data, existing * numDims, centerOfMass, child * numDims, numDims);
+                pointIndex[child] = existing;
+                pointIndex[node] = -1;
+            }
+
+            node = childFor(node, p);
+        }
+    }
+
+    private void addToCenterOfMass(int node, int p) {
+        int n = ++cumSize[node];
+        double mult1 = (double) (n - 1) / n;
+        double mult2 = 1.0 / n;
+        int c = node * numDims;
+        for (int d = 0; d < numDims; d++)
+            centerOfMass[c + d] = centerOfMass[c + d] * mult1 + data[p + d] * mult2;
+    }
+
+    private boolean samePoint(int i, int j) {
+        for (int d = 0; d < numDims; d++) {
+            if (data[i * numDims + d] != data[j * numDims + d])
+                return false;
+        }
+        return true;
+    }
+
+    private int childFor(int node, int p) {
+        int child = 0;
+        int c = node * numDims;
+        for (int d = 0; d < numDims; d++) {
+            if (data[p + d] < corner[c + d])
+                child |= 1 << d;
+        }
+        return firstChild[node] + child;
+    }
+
+    private void subdivide(int node) {
+        if (numNodes + numChildren > cumSize.length)
+            allocate(Math.max(2 * cumSize.length, numNodes + numChildren));
+
+        int first = numNodes;
+        numNodes += numChildren;
+        firstChild[node] = first;
+        int c = node * numDims;
+        for (int i = 0; i < numChildren; i++) {
+            int child = (first + i) * numDims;
+            double childMaxWidth = 0;
+            for (int d = 0; d < numDims; d++) {
+                double w = 0.5 * width[c + d];
+                width[child + d] = w;
+                corner[child + d] = ((i >> d) & 1) == 1 ? corner[c + d] - w : corner[c + d] + w;
+                childMaxWidth = Math.max(childMaxWidth, w);
+            }
+            maxWidth[first + i] = childMaxWidth;
+        }
+    }
+
+    private void allocate(int capacity) {
+        int old = cumSize == null ? 0 : cumSize.length;
+        corner = grow(corner, capacity * numDims);
+        width = grow(width, capacity * numDims);
+        centerOfMass = grow(centerOfMass, capacity * numDims);
+        maxWidth = grow(maxWidth, capacity);
+        cumSize = cumSize == null ? new int[capacity] : Arrays.copyOf(cumSize, capacity);
+        pointIndex = pointIndex == null ? new int[capacity] : Arrays.copyOf(pointIndex, capacity);
+        firstChild = firstChild == null ? new int[capacity] : Arrays.copyOf(firstChild, capacity);
+        Arrays.fill(pointIndex, old, capacity, -1);
+        Arrays.fill(firstChild, old, capacity, -1);
+    }
+
+    private static double[] grow(double[] array, int length) {
+        return array == null ? new double[length] : Arrays.copyOf(array, length);
+    }
+}
@@ -64,7 +64,7 @@ public class VPTree implements Serializable {
     private int workers = 1;
     private AtomicInteger size = new AtomicInteger(0);
 
-    private transient ThreadLocal<INDArray> scalars = new ThreadLocal<>();
+    private transient volatile ThreadLocal<INDArray> scalars = new ThreadLocal<>();
 
     private WorkspaceConfiguration workspaceConfiguration;
 
@@ -254,41 +254,42 @@ public class VPTree implements Serializable {
      * @return the distance between the two points
      */
     public float distance(INDArray arr1, INDArray arr2) {
-        if (scalars == null)
-            scalars = new ThreadLocal<>();
-
-        if (scalars.get() == null)
-            scalars.set(Nd4j.scalar(0.0));
+        ThreadLocal<INDArray> threadScalars = scalars();
+        INDArray scalar = threadScalars.get();
+        if (scalar == null) {
+            scalar = Nd4j.scalar(0.0);
+            threadScalars.set(scalar);
+        }
 
         switch (similarityFunction) {
             case "jaccard":
                 float ret7 = Nd4j.getExecutioner()
-                        .execAndReturn(new JaccardDistance(arr1, arr2, scalars.get(), arr1.length()))
+                        .execAndReturn(new JaccardDistance(arr1, arr2, scalar, arr1.length()))
                         .getFinalResult().floatValue();
                 return invert ? -ret7 : ret7;
             case "hamming":
                 float ret8 = Nd4j.getExecutioner()
-                        .execAndReturn(new HammingDistance(arr1, arr2, scalars.get(), arr1.length()))
+                        .execAndReturn(new HammingDistance(arr1, arr2, scalar, arr1.length()))
                         .getFinalResult().floatValue();
                 return invert ? -ret8 : ret8;
             case "euclidean":
                 float ret = Nd4j.getExecutioner()
-                        .execAndReturn(new EuclideanDistance(arr1, arr2, scalars.get(), arr1.length()))
+                        .execAndReturn(new EuclideanDistance(arr1, arr2, scalar, arr1.length()))
                         .getFinalResult().floatValue();
                 return invert ? -ret : ret;
             case "cosinesimilarity":
                 float ret2 = Nd4j.getExecutioner()
-                        .execAndReturn(new CosineSimilarity(arr1, arr2, scalars.get(), arr1.length()))
+                        .execAndReturn(new CosineSimilarity(arr1, arr2, scalar, arr1.length()))
                         .getFinalResult().floatValue();
                 return invert ? -ret2 : ret2;
             case "cosinedistance":
                 float ret6 = Nd4j.getExecutioner()
-                        .execAndReturn(new CosineDistance(arr1, arr2, scalars.get(), arr1.length()))
+                        .execAndReturn(new CosineDistance(arr1, arr2, scalar, arr1.length()))
                         .getFinalResult().floatValue();
                 return invert ? -ret6 : ret6;
             case "manhattan":
                 float ret3 = Nd4j.getExecutioner()
-                        .execAndReturn(new ManhattanDistance(arr1, arr2, scalars.get(), arr1.length()))
+                        .execAndReturn(new ManhattanDistance(arr1, arr2, scalar, arr1.length()))
                         .getFinalResult().floatValue();
                 return invert ? -ret3 : ret3;
             case "dot":
@@ -296,13 +297,29 @@ public class VPTree implements Serializable {
                 return invert ? -dotRet : dotRet;
             default:
                 float ret4 = Nd4j.getExecutioner()
-                        .execAndReturn(new EuclideanDistance(arr1, arr2, scalars.get(), arr1.length()))
+                        .execAndReturn(new EuclideanDistance(arr1, arr2, scalar, arr1.length()))
                         .getFinalResult().floatValue();
                 return invert ? -ret4 : ret4;
 
         }
     }
 
+    /**
+     * Scalars used for the distances, one per thread: search() can be called from multiple threads at the same time
+     */
+    private ThreadLocal<INDArray> scalars() {
+        //transient: created again after deserialization, possibly by several searching threads
+        ThreadLocal<INDArray> ret = scalars;
+        if (ret == null) {
+            synchronized (this) {
+                if (scalars == null)
+                    scalars = new ThreadLocal<>();
+                ret = scalars;
+            }
+        }
+        return ret;
+    }
+
     protected class NodeBuilder implements Callable<Node> {
         protected List<INDArray> list;
         protected List<Integer> indices;
@@ -0,0 +1,185 @@
+/*-
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ */
+
+package org.deeplearning4j.clustering.sptree;
+
+import com.google.common.util.concurrent.AtomicDouble;
+import org.junit.Test;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.buffer.util.DataTypeUtil;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelSpTreeTest {
+
+    @Test
+    public void testStructure() {
+        double[] data = {1, 2, 3, 4, 5, 6};
+        ParallelSpTree tree = new ParallelSpTree(data, 2, 3);
+        assertArrayEquals(new double[] {2.5, 3.5, 4.5}, tree.getCenterOfMass(), 1e-12);
+        assertEquals(2, tree.getCumSize());
+        assertEquals(8, tree.getNumChildren());
+        assertTrue(tree.isCorrect());
+    }
+
+    @Test
+    public void testDuplicates() {
+        double[] data = {1, 1, 1, 1, 1, 1, 2, 2};
+        ParallelSpTree tree = new ParallelSpTree(data, 4, 2);
+        assertEquals(4, tree.getCumSize());
+        assertArrayEquals(new double[] {1.25, 1.25}, tree.getCenterOfMass(), 1e-12);
+        assertTrue(tree.isCorrect());
+    }
+
+    @Test
+    public void testExactForces() {
+        int n = 200;
+        int dims = 2;
+        Random r = new Random(12345);
+        double[] data = new double[n * dims];
+        for (int i = 0; i < data.length; i++)
+            data[i] = r.nextGaussian();
+
+        ParallelSpTree tree = new ParallelSpTree(data, n, dims);
+        assertTrue(tree.isCorrect());
+
+        //theta = 0: no approximation
+        double[] negF = new double[n * dims];
+        double sumQ = 0;
+        for (int i = 0; i < n; i++)
+            sumQ += tree.computeNonEdgeForces(i, 0.0, negF, i * dims);
+
+        double[] expNegF = new double[n * dims];
+        double expSumQ = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (i == j)
+                    continue;
+                double dx = data[i * dims] - data[j * dims];
+                double dy = data[i * dims + 1] - data[j * dims + 1];
+                double q = 1.0 / (1.0 + dx * dx + dy * dy);
+                expSumQ += q;
+                expNegF[i * dims] += q * q * dx;
+                expNegF[i * dims + 1] += q * q * dy;
+            }
+        }
+        assertEquals(expSumQ, sumQ, 1e-8);
+        assertArrayEquals(expNegF, negF, 1e-8);
+
+        //Barnes-Hut approximation stays close to the exact forces
+        double[] approxNegF = new double[n * dims];
+        double approxSumQ = 0;
+        for (int i = 0; i < n; i++)
+            approxSumQ += tree.computeNonEdgeForces(i, 0.5, approxNegF, i * dims);
+        assertEquals(expSumQ, approxSumQ, 0.02 * expSumQ);
+    }
+
+    @Test
+    public void testDuplicatesInSplitLeaf() {
+        //the first point is inserted 3 times before the leaf holding it is split by the other points
+        int n = 50;
+        int dims = 2;
+        Random r = new Random(12345);
+        double[] data = new double[n * dims];
+        for (int i = 0; i < data.length; i++)
+            data[i] = r.nextGaussian();
+        System.arraycopy(data, 0, data, dims, dims);
+        System.arraycopy(data, 0, data, 2 * dims, dims);
+
+        ParallelSpTree tree = new ParallelSpTree(data, n, dims);
+        assertTrue(tree.isCorrect());
+
+        //theta = 0: exact forces, the duplicates of a point add nothing to its forces
+        double[] negF = new double[n * dims];
+        double sumQ = 0;
+        for (int i = 0; i < n; i++)
+            sumQ += tree.computeNonEdgeForces(i, 0.0, negF, i * dims);
+
+        double[] expNegF = new double[n * dims];
+        double expSumQ = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (i == j)
+                    continue;
+                double dx = data[i * dims] - data[j * dims];
+                double dy = data[i * dims + 1] - data[j * dims + 1];
+                double q = 1.0 / (1.0 + dx * dx + dy * dy);
+                expSumQ += q;
+                expNegF[i * dims] += q * q * dx;
+                expNegF[i * dims + 1] += q * q * dy;
+            }
+        }
+        assertEquals(expSumQ, sumQ, 1e-8);
+        assertArrayEquals(expNegF, negF, 1e-8);
+    }
+
+    @Test
+    public void testDuplicatesMatchSpTree() {
+        DataTypeUtil.setDTypeForContext(DataBuffer.Type.DOUBLE);
+        int n = 20;
+        int dims = 2;
+        Random r = new Random(12345);
+        double[] data = new double[n * dims];
+        for (int i = 0; i < data.length; i++)
+            data[i] = r.nextGaussian();
+        //duplicates of the first points, inserted after them
+        System.arraycopy(data, 0, data, (n - 4) * dims, 4 * dims);
+
+        ParallelSpTree tree = new ParallelSpTree(data, n, dims);
+        SpTree spTree = new SpTree(Nd4j.create(data, new int[] {n, dims}, 'c'));
+        try (MemoryWorkspace ws = spTree.workspace().notifyScopeEntered()) {
+            assertEquals(spTree.getCumSize(), tree.getCumSize());
+            assertArrayEquals(spTree.getCenterOfMass().data().asDouble(), tree.getCenterOfMass(), 1e-8);
+
+            //with a large theta the root summarizes all the points in both trees
+            double theta = 1e6;
+            double[] negF = new double[n * dims];
+            double sumQ = 0;
+            for (int i = 0; i < n; i++)
+                sumQ += tree.computeNonEdgeForces(i, theta, negF, i * dims);
+
+            INDArray expNegF = Nd4j.create(n, dims);
+            AtomicDouble expSumQ = new AtomicDouble(0);
+            for (int i = 0; i < n; i++)
+                spTree.computeNonEdgeForces(i, theta, expNegF.slice(i), expSumQ);
+
+            assertEquals(expSumQ.get(), sumQ, 1e-8);
+            assertArrayEquals(expNegF.data().asDouble(), negF, 1e-8);
+        }
+    }
+
+    @Test
+    public void testEdgeForces() {
+        double[] data = {0, 0, 1, 0, 0, 2};
+        int[] rowP = {0, 2, 3, 4};
+        int[] colP = {1, 2, 0, 0};
+        double[] valP = {0.5, 0.25, 0.5, 0.25};
+        double[] posF = new double[6];
+        ParallelSpTree.computeEdgeForces(data, 2, rowP, colP, valP, 0, 3, posF);
+
+        //point 0: 0.5 * (0 - 1) / (1 + 1) and 0.25 * (0 - 2) / (1 + 4)
+        assertArrayEquals(new double[] {-0.25, -0.1, 0.25, 0, 0, 0.1}, posF, 1e-12);
+    }
+}
@@ -83,10 +83,9 @@ public class AbstractCoOccurrences<T extends SequenceElement> implements Seriali
      * @return
      */
     protected long getMemoryFootprint() {
-        // TODO: implement this method. It should return approx. memory used by appropriate CountMap
         try {
             lock.readLock().lock();
-            return ((long) coOccurrenceCounts.size()) * 24L * 5L;
+            return coOccurrenceCounts.getMemoryFootprint();
         } finally {
             lock.readLock().unlock();
         }
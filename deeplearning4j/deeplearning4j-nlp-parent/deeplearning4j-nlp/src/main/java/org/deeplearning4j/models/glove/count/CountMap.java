@@ -2,72 +2,102 @@ package org.deeplearning4j.models.glove.count;
 
 import com.google.common.util.concurrent.AtomicDouble;
 import org.deeplearning4j.models.sequencevectors.sequence.SequenceElement;
+import org.nd4j.linalg.collection.ConcurrentLongDoubleHashMap;
 import org.nd4j.linalg.primitives.Pair;
 
 import java.util.Iterator;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
- * Drop-in replacement for CounterMap
+ * Drop-in replacement for CounterMap, for co-occurrence counts of vocabulary elements.
  *
- * WORK IN PROGRESS, PLEASE DO NOT USE
+ * Pairs are keyed by vocabulary indexes of both elements, packed into a single long, and counts are kept in a
+ * striped primitive hash map: there are no per-pair objects, only 16 bytes per hash slot.
+ * Pairs with an element without vocabulary index (i.e. index < 0) are kept in a regular map of pairs instead.
  *
  * @author raver119@gmail.com
  */
 public class CountMap<T extends SequenceElement> {
-    private volatile Map<Pair<T, T>, AtomicDouble> backingMap = new ConcurrentHashMap<>();
+    // rough size of a map entry with its Pair and AtomicDouble
+    private static final long UNINDEXED_PAIR_BYTES = 24L * 5L;
+
+    private final ConcurrentLongDoubleHashMap backingMap = new ConcurrentLongDoubleHashMap();
+
+    // elements seen so far, by index, used to rebuild pairs on iteration
+    private volatile AtomicReferenceArray<T> elements = new AtomicReferenceArray<>(1024);
+
+    // pairs with at least one unindexed element
+    private final Map<Pair<T, T>, AtomicDouble> unindexedMap = new ConcurrentHashMap<>();
 
     public CountMap() {
         // placeholder
     }
 
     public void incrementCount(T element1, T element2, double weight) {
-        Pair<T, T> tempEntry = new Pair<>(element1, element2);
-        if (backingMap.containsKey(tempEntry)) {
-            backingMap.get(tempEntry).addAndGet(weight);
-        } else {
-            backingMap.put(tempEntry, new AtomicDouble(weight));
+        if (!isIndexed(element1, element2)) {
+            Pair<T, T> pair = new Pair<>(element1, element2);
+            AtomicDouble count = unindexedMap.get(pair);
+            if (count == null) {
+                AtomicDouble newCount = new AtomicDouble();
+                count = unindexedMap.putIfAbsent(pair, newCount);
+                if (count == null)
+                    count = newCount;
+            }
+            count.addAndGet(weight);
+            return;
         }
+
+        backingMap.addTo(key(element1, element2), weight);
+        register(element1);
+        register(element2);
     }
 
     public void removePair(T element1, T element2) {
-        Pair<T, T> tempEntry = new Pair<>(element1, element2);
-        backingMap.remove(tempEntry);
+        if (!isIndexed(element1, element2)) {
+            unindexedMap.remove(new Pair<>(element1, element2));
+            return;
+        }
+
+        backingMap.remove(key(element1, element2));
     }
 
     public void removePair(Pair<T, T> pair) {
-        backingMap.remove(pair);
+        removePair(pair.getFirst(), pair.getSecond());
     }
 
     public double getCount(T element1, T element2) {
-        Pair<T, T> tempEntry = new Pair<>(element1, element2);
-        if (backingMap.containsKey(tempEntry)) {
-            return backingMap.get(tempEntry).get();
-        } else
-            return 0;
+        if (!isIndexed(element1, element2)) {
+            AtomicDouble count = unindexedMap.get(new Pair<>(element1, element2));
+            return count == null ? 0 : count.get();
+        }
+
+        return backingMap.get(key(element1, element2));
     }
 
     public double getCount(Pair<T, T> pair) {
-        if (backingMap.containsKey(pair)) {
-            return backingMap.get(pair).get();
-        } else
-            return 0;
+        return getCount(pair.getFirst(), pair.getSecond());
     }
 
     public Iterator<Pair<T, T>> getPairIterator() {
+        final long[] keys = backingMap.keys();
+        final Iterator<Pair<T, T>> unindexed = unindexedMap.keySet().iterator();
         return new Iterator<Pair<T, T>>() {
-            private Iterator<Pair<T, T>> iterator = backingMap.keySet().iterator();
+            private int position = 0;
 
             @Override
             public boolean hasNext() {
-                return iterator.hasNext();
+                return position < keys.length || unindexed.hasNext();
             }
 
             @Override
             public Pair<T, T> next() {
-                //MapEntry<T> entry = iterator.next();
-                return iterator.next(); //new Pair<>(entry.getElement1(), entry.getElement2());
+                if (position >= keys.length)
+                    return unindexed.next();
+
+                long key = keys[position++];
+                return new Pair<>(elements.get((int) (key >>> 32)), elements.get((int) key));
             }
 
             @Override
@@ -78,6 +108,57 @@ public class CountMap<T extends SequenceElement> {
     }
 
     public int size() {
-        return backingMap.size();
+        return backingMap.size() + unindexedMap.size();
+    }
+
+    /**
+     * This method returns approximate number of bytes used by this CountMap
+     */
+    public long getMemoryFootprint() {
+        return backingMap.memoryFootprint() + 4L * elements.length() + UNINDEXED_PAIR_BYTES * unindexedMap.size();
+    }
+
+    protected static boolean isIndexed(SequenceElement element1, SequenceElement element2) {
+        return element1.getIndex() >= 0 && element2.getIndex() >= 0;
+    }
+
+    protected static long key(SequenceElement element1, SequenceElement element2) {
+        return ((long) element1.getIndex() << 32) | (element2.getIndex() & 0xFFFFFFFFL);
+    }
+
+    private void register(T element) {
+        int idx = element.getIndex();
+        while (true) {
+            AtomicReferenceArray<T> current = elements;
+            if (idx >= current.length()) {
+                grow(idx);
+                continue;
+            }
+
+            if (current.get(idx) == null)
+                current.compareAndSet(idx, null, element);
+
+            // array could be replaced concurrently, in this case we check again against the new one
+            if (current == elements)
+                return;
+        }
+    }
+
+    private synchronized void grow(int idx) {
+        AtomicReferenceArray<T> current = elements;
+        if (idx < current.length())
+            return;
+
+        AtomicReferenceArray<T> bigger = new AtomicReferenceArray<>(Math.max(idx + 1, current.length() * 2));
+        for (int i = 0; i < current.length(); i++)
+            bigger.set(i, current.get(i));
+        elements = bigger;
+
+        // elements registered in the old array while it was copied
+        for (int i = 0; i < current.length(); i++) {
+            T element = current.get(i);
+            if (element != null && bigger.get(i) == null)
+                bigger.compareAndSet(i, null, element);
+        }
     }
 }
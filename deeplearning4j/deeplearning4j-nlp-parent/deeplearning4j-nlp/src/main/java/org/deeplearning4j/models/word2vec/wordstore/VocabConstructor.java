@@ -11,6 +11,7 @@ import org.deeplearning4j.models.word2vec.Huffman;
 import org.deeplearning4j.models.word2vec.wordstore.inmemory.AbstractCache;
 import org.deeplearning4j.text.invertedindex.InvertedIndex;
 import org.deeplearning4j.util.ThreadUtils;
+import org.nd4j.linalg.collection.StringIntHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.threadly.concurrent.PriorityScheduler;
@@ -44,6 +45,9 @@ public class VocabConstructor<T extends SequenceElement> {
 
     protected static final Logger log = LoggerFactory.getLogger(VocabConstructor.class);
 
+    // per-thread set of tokens seen in current sequence, reused across sequences to avoid per-token allocations
+    private static final ThreadLocal<StringIntHashMap> sequenceTokens = new ThreadLocal<>();
+
     private VocabConstructor() {
 
     }
@@ -530,6 +534,18 @@ public class VocabConstructor<T extends SequenceElement> {
             this.loopCounter = loopCounter;
         }
 
+        private StringIntHashMap sequenceTokens(int sequenceLength) {
+            StringIntHashMap map = sequenceTokens.get();
+            // clear() is proportional to capacity, so map grown by some huge sequence isn't kept around
+            if (map == null || map.memoryFootprint() > 12L * 64 * Math.max(1024, sequenceLength)) {
+                map = new StringIntHashMap(Math.max(16, sequenceLength));
+                sequenceTokens.set(map);
+            } else {
+                map.clear();
+            }
+            return map;
+        }
+
         public void awaitDone() throws InterruptedException {
             synchronized (this) {
                 while (! done) {
@@ -541,7 +557,7 @@ public class VocabConstructor<T extends SequenceElement> {
 	@Override
         public void run() {
             try {
-                Map<String, AtomicLong> seqMap = new HashMap<>();
+                StringIntHashMap seqMap = sequenceTokens(document.size());
                 //  log.info("Sequence length: ["+ document.getElements().size()+"]");
 
                 if (fetchLabels && document.getSequenceLabels() != null) {
@@ -572,13 +588,13 @@ public class VocabConstructor<T extends SequenceElement> {
                         loopCounter.incrementAndGet();
 
                         // if there's no such element in tempHolder, it's safe to set seqCount to 1
-                        seqMap.put(token, new AtomicLong(0));
+                        seqMap.put(token, 1);
                     } else {
                         targetVocab.incrementWordCount(token);
 
                         // if element exists in tempHolder, we should update it seqCount, but only once per sequence
                         if (!seqMap.containsKey(token)) {
-                            seqMap.put(token, new AtomicLong(1));
+                            seqMap.put(token, 1);
                             T element = targetVocab.wordFor(token);
                             element.incrementSequencesCount();
                         }
@@ -0,0 +1,62 @@
+package org.deeplearning4j.models.glove.count;
+
+import org.deeplearning4j.models.word2vec.VocabWord;
+import org.junit.Test;
+import org.nd4j.linalg.primitives.Pair;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class CountMapTest {
+
+    @Test
+    public void testIndexedAndUnindexedElements() {
+        VocabWord word1 = new VocabWord(1.0, "human");
+        VocabWord word2 = new VocabWord(1.0, "animal");
+        VocabWord unindexed = new VocabWord(1.0, "unknown");
+        word1.setIndex(0);
+        word2.setIndex(5000);
+
+        CountMap<VocabWord> map = new CountMap<>();
+        map.incrementCount(word1, word2, 1.0);
+        map.incrementCount(word1, word2, 2.0);
+        map.incrementCount(word2, word1, 0.5);
+        map.incrementCount(word1, unindexed, 1.5);
+        map.incrementCount(word1, unindexed, 1.0);
+        map.incrementCount(unindexed, unindexed, 4.0);
+
+        assertEquals(4, map.size());
+        assertEquals(3.0, map.getCount(word1, word2), 0.0);
+        assertEquals(0.5, map.getCount(new Pair<>(word2, word1)), 0.0);
+        assertEquals(2.5, map.getCount(word1, unindexed), 0.0);
+        assertEquals(4.0, map.getCount(unindexed, unindexed), 0.0);
+        assertEquals(0.0, map.getCount(unindexed, word1), 0.0);
+
+        Set<Pair<VocabWord, VocabWord>> pairs = new HashSet<>();
+        Iterator<Pair<VocabWord, VocabWord>> iterator = map.getPairIterator();
+        while (iterator.hasNext())
+            pairs.add(iterator.next());
+
+        Set<Pair<VocabWord, VocabWord>> exp = new HashSet<>();
+        exp.add(new Pair<>(word1, word2));
+        exp.add(new Pair<>(word2, word1));
+        exp.add(new Pair<>(word1, unindexed));
+        exp.add(new Pair<>(unindexed, unindexed));
+        assertEquals(exp, pairs);
+
+        map.removePair(word1, word2);
+        map.removePair(new Pair<>(word1, unindexed));
+        assertEquals(2, map.size());
+        assertEquals(0.0, map.getCount(word1, word2), 0.0);
+        assertEquals(0.0, map.getCount(word1, unindexed), 0.0);
+
+        iterator = map.getPairIterator();
+        iterator.next();
+        iterator.next();
+        assertFalse(iterator.hasNext());
+    }
+}
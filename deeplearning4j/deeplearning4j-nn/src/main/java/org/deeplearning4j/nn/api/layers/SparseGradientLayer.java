@@ -0,0 +1,35 @@
+/*-
+ *  * Copyright 2016 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.deeplearning4j.nn.api.layers;
+
+/**
+ * A layer whose gradient for some parameters is only non-zero on a few rows, such as the weights of an embedding
+ * layer: only the rows of the indices in the minibatch have a gradient.<br>
+ * The updater uses the rows to only update these rows (and their updater state), instead of the full parameter
+ * array. This is a "lazy" update: rows absent from the minibatch are not updated at all, even by updaters
+ * with momentum such as Adam.<br>
+ * Implementations must guarantee that the gradient of all the other rows is zero.
+ */
+public interface SparseGradientLayer {
+
+    /**
+     * @param paramName the name of the parameter
+     * @return the sorted indices of the rows of the given parameter (of shape [rows, columns]) with a non-zero
+     * gradient in the last backprop, or null if the gradient of this parameter is dense
+     */
+    int[] getSparseGradientRows(String paramName);
+}
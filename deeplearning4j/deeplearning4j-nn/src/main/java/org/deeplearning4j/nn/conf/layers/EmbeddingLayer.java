@@ -32,10 +32,12 @@ import java.util.Map;
 @EqualsAndHashCode(callSuper = true)
 public class EmbeddingLayer extends FeedForwardLayer {
     private boolean hasBias = true; //Default for pre-0.9.2 implementations
+    private boolean sparseGradients = false;
 
     private EmbeddingLayer(Builder builder) {
         super(builder);
         this.hasBias = builder.hasBias;
+        this.sparseGradients = builder.sparseGradients;
         initializeConstraints(builder);
     }
 
@@ -85,6 +87,7 @@ public class EmbeddingLayer extends FeedForwardLayer {
     public static class Builder extends FeedForwardLayer.Builder<Builder> {
 
         private boolean hasBias = false;
+        private boolean sparseGradients = false;
 
         /**
          * If true: include bias parameters in the layer. False (default): no bias.
@@ -96,6 +99,19 @@ public class EmbeddingLayer extends FeedForwardLayer {
             return this;
         }
 
+        /**
+         * If true: only the rows of the weight gradients for the indices in the minibatch are computed and updated,
+         * instead of the full [nIn, nOut] weights. The updater state of the other rows is not updated either
+         * ("lazy" Adam, AdaGrad, etc). Useful for large vocabularies. Not used with l1/l2 regularization on the
+         * weights. Default: false.
+         *
+         * @param sparseGradients If true: use sparse weight gradients
+         */
+        public Builder sparseGradients(boolean sparseGradients){
+            this.sparseGradients = sparseGradients;
+            return this;
+        }
+
         @Override
         @SuppressWarnings("unchecked")
         public EmbeddingLayer build() {
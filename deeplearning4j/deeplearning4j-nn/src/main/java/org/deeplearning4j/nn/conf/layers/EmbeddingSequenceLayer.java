@@ -33,10 +33,12 @@ public class EmbeddingSequenceLayer extends FeedForwardLayer {
     private int inputLength = 1; // By default only use one index to embed
     private boolean hasBias = false;
     private boolean inferInputLength = false; // use input length as provided by input data
+    private boolean sparseGradients = false;
 
     private EmbeddingSequenceLayer(Builder builder) {
         super(builder);
         this.hasBias = builder.hasBias;
+        this.sparseGradients = builder.sparseGradients;
         this.inputLength = builder.inputLength;
         this.inferInputLength = builder.inferInputLength;
         initializeConstraints(builder);
@@ -96,6 +98,7 @@ public class EmbeddingSequenceLayer extends FeedForwardLayer {
         private boolean hasBias = false;
         private int inputLength = 1;
         private boolean inferInputLength = false;
+        private boolean sparseGradients = false;
 
         /**
          * If true: include bias parameters in the layer. False (default): no bias.
@@ -130,6 +133,19 @@ public class EmbeddingSequenceLayer extends FeedForwardLayer {
             return this;
         }
 
+        /**
+         * If true: the weight gradients are sparse, only the rows of the indices of the minibatch are zeroed and
+         * updated each iteration. The update is lazy: updaters with momentum (Adam, etc) only update the rows
+         * present in the minibatch. Ignored when l1/l2 regularization is used on the weights. Default: false.
+         *
+         * @param sparseGradients whether to use sparse weight gradients
+         * @return Builder
+         */
+        public Builder sparseGradients(boolean sparseGradients) {
+            this.sparseGradients = sparseGradients;
+            return this;
+        }
+
         @Override
         @SuppressWarnings("unchecked")
         public EmbeddingSequenceLayer build() {
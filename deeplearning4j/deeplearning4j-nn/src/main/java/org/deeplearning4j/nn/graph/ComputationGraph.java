@@ -49,6 +49,7 @@ import org.deeplearning4j.nn.workspace.ArrayType;
 import org.deeplearning4j.nn.workspace.LayerWorkspaceMgr;
 import org.deeplearning4j.optimize.Solver;
 import org.deeplearning4j.optimize.api.ConvexOptimizer;
+import org.deeplearning4j.optimize.api.LayerListener;
 import org.deeplearning4j.optimize.api.TrainingListener;
 import org.deeplearning4j.optimize.solvers.accumulation.GradientsAccumulator;
 import org.deeplearning4j.util.ModelSerializer;
@@ -1695,6 +1696,30 @@ public class ComputationGraph implements Serializable, Model, NeuralNetwork {
     }
 
 
+    /**
+     * Notify all {@link LayerListener} instances about start/end of a single vertex forward or backward pass
+     */
+    protected void fireVertexEvent(GraphVertex vertex, boolean forward, boolean training, boolean start) {
+        if (trainingListeners.isEmpty())
+            return;
+        for (TrainingListener tl : trainingListeners) {
+            if (!(tl instanceof LayerListener))
+                continue;
+            LayerListener l = (LayerListener) tl;
+            if (forward) {
+                if (start)
+                    l.onLayerForwardStart(this, vertex.getVertexIndex(), vertex.getVertexName(), training);
+                else
+                    l.onLayerForwardEnd(this, vertex.getVertexIndex(), vertex.getVertexName(), training);
+            } else {
+                if (start)
+                    l.onLayerBackwardStart(this, vertex.getVertexIndex(), vertex.getVertexName());
+                else
+                    l.onLayerBackwardEnd(this, vertex.getVertexIndex(), vertex.getVertexName());
+            }
+        }
+    }
+
     protected void validateArrayWorkspaces(LayerWorkspaceMgr mgr, INDArray array, ArrayType arrayType, String vertexName, boolean isInputVertex, String op){
         try{
             mgr.validateArrayLocation(arrayType, array, false, isInputVertex);
@@ -1799,6 +1824,7 @@ public class ComputationGraph implements Serializable, Model, NeuralNetwork {
                     out = inputs[vIdx];
                 } else {
 
+                    fireVertexEvent(current, true, train, true);
                     if(fwdPassType == FwdPassType.STANDARD) {
                         //Standard feed-forward case
                         out = current.doForward(train, workspaceMgr);
@@ -1838,6 +1864,7 @@ public class ComputationGraph implements Serializable, Model, NeuralNetwork {
                     } else {
                         throw new IllegalArgumentException("Unsupported forward pass type for this method: " + fwdPassType);
                     }
+                    fireVertexEvent(current, true, train, false);
                     validateArrayWorkspaces(workspaceMgr, out, ArrayType.ACTIVATIONS, vName, false, "Feed forward (inference)");
                 }
                 activations.put(current.getVertexName(), out);
@@ -1943,6 +1970,7 @@ public class ComputationGraph implements Serializable, Model, NeuralNetwork {
                     out = inputs[vIdx];
                 } else {
 
+                    fireVertexEvent(current, true, train, true);
                     if(fwdPassType == FwdPassType.STANDARD){
                         out = current.doForward(train, workspaceMgr);
                     } else if(fwdPassType == FwdPassType.RNN_ACTIVATE_WITH_STORED_STATE) {
@@ -1965,6 +1993,7 @@ public class ComputationGraph implements Serializable, Model, NeuralNetwork {
                     } else {
                         throw new IllegalStateException("FwdPassType not supported for this method: " + fwdPassType);
                     }
+                    fireVertexEvent(current, true, train, false);
 
                     validateArrayWorkspaces(workspaceMgr, out, ArrayType.ACTIVATIONS, vName, false, "Feed forward (inference)");
                 }
@@ -2152,6 +2181,7 @@ public class ComputationGraph implements Serializable, Model, NeuralNetwork {
                         out = features[vIdx];
                     } else {
 
+                        fireVertexEvent(current, true, train, true);
                         if(fwdPassType == FwdPassType.STANDARD){
                             //Standard feed-forward case
                             out = current.doForward(train, workspaceMgr);
@@ -2174,6 +2204,7 @@ public class ComputationGraph implements Serializable, Model, NeuralNetwork {
                         } else {
                             throw new IllegalArgumentException("Unsupported forward pass type for this method: " + fwdPassType);
                         }
+                        fireVertexEvent(current, true, train, false);
                         validateArrayWorkspaces(workspaceMgr, out, ArrayType.ACTIVATIONS, vName, false, "Feed forward (inference)");
                     }
 
@@ -2425,7 +2456,9 @@ public class ComputationGraph implements Serializable, Model, NeuralNetwork {
                 Pair<Gradient, INDArray[]> pair;
                 INDArray[] epsilons;
                 try(MemoryWorkspace wsWorkingMem = workspaceMgr.notifyScopeEntered(ArrayType.BP_WORKING_MEM)){
+                    fireVertexEvent(current, false, true, true);
                     pair = current.doBackward(truncatedBPTT, workspaceMgr);
+                    fireVertexEvent(current, false, true, false);
                     epsilons = pair.getSecond();
 
                     //Validate workspace location for the activation gradients:
@@ -2446,6 +2479,11 @@ public class ComputationGraph implements Serializable, Model, NeuralNetwork {
                     int j = 0;
                     for (VertexIndices v : inputVertices) {
                         GraphVertex gv = vertices[v.getVertexIndex()];
+                        if (gv.isInputVertex()) {
+                            //Epsilons of the network inputs are never used - and may be null (sparse input, embedding)
+                            j++;
+                            continue;
+                        }
                         if (setVertexEpsilon[gv.getVertexIndex()]) {
                             //This vertex: must output to multiple vertices... we want to add the epsilons here
                             INDArray currentEps = gv.getEpsilon();
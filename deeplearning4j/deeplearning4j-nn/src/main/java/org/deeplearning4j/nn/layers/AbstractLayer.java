@@ -285,6 +285,9 @@ public abstract class AbstractLayer<LayerConfT extends org.deeplearning4j.nn.con
 
     protected void applyDropOutIfNecessary(boolean training, LayerWorkspaceMgr workspaceMgr){
         if(training && !dropoutApplied && layerConf().getIDropout() != null ){
+            if (input.isSparse()) {
+                throw new UnsupportedOperationException("Dropout is not supported for sparse input arrays - " + layerId());
+            }
             input = layerConf().getIDropout().applyDropout(workspaceMgr.dup(ArrayType.INPUT, input, input.ordering()),
                     getIterationCount(), getEpochCount(), true);
             dropoutApplied = true;
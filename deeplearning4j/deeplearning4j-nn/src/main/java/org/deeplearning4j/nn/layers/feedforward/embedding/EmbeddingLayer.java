@@ -23,6 +23,7 @@ import lombok.val;
 import org.nd4j.linalg.api.ops.custom.ScatterUpdate;
 import org.nd4j.linalg.primitives.Pair;
 import org.deeplearning4j.exception.DL4JInvalidInputException;
+import org.deeplearning4j.nn.api.layers.SparseGradientLayer;
 import org.deeplearning4j.nn.conf.NeuralNetConfiguration;
 import org.deeplearning4j.nn.gradient.DefaultGradient;
 import org.deeplearning4j.nn.gradient.Gradient;
@@ -44,9 +45,12 @@ import org.deeplearning4j.nn.workspace.ArrayType;
  * @author Alex Black
  */
 @Slf4j
-public class EmbeddingLayer extends BaseLayer<org.deeplearning4j.nn.conf.layers.EmbeddingLayer> {
+public class EmbeddingLayer extends BaseLayer<org.deeplearning4j.nn.conf.layers.EmbeddingLayer>
+                implements SparseGradientLayer {
     private static final int[] DIM_1 = new int[]{1};
 
+    private final SparseRowGradients sparseRowGradients = new SparseRowGradients();
+
     public EmbeddingLayer(NeuralNetConfiguration conf) {
         super(conf);
     }
@@ -63,13 +67,15 @@ public class EmbeddingLayer extends BaseLayer<org.deeplearning4j.nn.conf.layers.
         }
 
         INDArray weightGradients = gradientViews.get(DefaultParamInitializer.WEIGHT_KEY);
-        weightGradients.assign(0);
+        boolean sparse = isSparseGradients();
+        sparseRowGradients.clear(weightGradients, sparse, workspaceMgr);
 
         // FIXME: int cast
         int[] indexes = new int[(int) input.length()];
         for (int i = 0; i < indexes.length; i++) {
             indexes[i] = input.getInt(i, 0);
         }
+        sparseRowGradients.setIndexes(indexes, sparse);
 
         ScatterUpdate op = new ScatterUpdate(weightGradients, delta, indexes, DIM_1, ScatterUpdate.UpdateOp.ADD);
         Nd4j.getExecutioner().exec(op);
@@ -135,6 +141,20 @@ public class EmbeddingLayer extends BaseLayer<org.deeplearning4j.nn.conf.layers.
         return ret;
     }
 
+    @Override
+    public int[] getSparseGradientRows(String paramName) {
+        return DefaultParamInitializer.WEIGHT_KEY.equals(paramName) ? sparseRowGradients.getRows() : null;
+    }
+
+    /**
+     * Sparse gradients are only used if enabled in the configuration and without l1/l2 regularization of the
+     * weights, which makes the weight gradients dense
+     */
+    private boolean isSparseGradients() {
+        return layerConf().isSparseGradients() && conf.getL1ByParam(DefaultParamInitializer.WEIGHT_KEY) == 0
+                        && conf.getL2ByParam(DefaultParamInitializer.WEIGHT_KEY) == 0;
+    }
+
     @Override
     public boolean hasBias() {
         return layerConf().hasBias();
@@ -21,6 +21,7 @@ package org.deeplearning4j.nn.layers.feedforward.embedding;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.deeplearning4j.exception.DL4JInvalidInputException;
+import org.deeplearning4j.nn.api.layers.SparseGradientLayer;
 import org.deeplearning4j.nn.conf.NeuralNetConfiguration;
 import org.deeplearning4j.nn.gradient.DefaultGradient;
 import org.deeplearning4j.nn.gradient.Gradient;
@@ -47,9 +48,12 @@ import static org.nd4j.linalg.api.shape.Shape.hasDefaultStridesForShape;
  * @author Max Pumperla
  */
 @Slf4j
-public class EmbeddingSequenceLayer extends BaseLayer<org.deeplearning4j.nn.conf.layers.EmbeddingSequenceLayer> {
+public class EmbeddingSequenceLayer extends BaseLayer<org.deeplearning4j.nn.conf.layers.EmbeddingSequenceLayer>
+                implements SparseGradientLayer {
     private static final int[] WEIGHT_DIM = new int[]{1};
 
+    private final SparseRowGradients sparseRowGradients = new SparseRowGradients();
+
     public EmbeddingSequenceLayer(NeuralNetConfiguration conf) {
         super(conf);
     }
@@ -72,11 +76,13 @@ public class EmbeddingSequenceLayer extends BaseLayer<org.deeplearning4j.nn.conf
         }
 
         INDArray weightGradients = gradientViews.get(DefaultParamInitializer.WEIGHT_KEY);
-        weightGradients.assign(0);
+        boolean sparse = isSparseGradients();
+        sparseRowGradients.clear(weightGradients, sparse, workspaceMgr);
 
         if (!hasDefaultStridesForShape(input))
             input = workspaceMgr.dup(ArrayType.ACTIVATIONS, input, 'f');
         int[] indexes = input.data().asInt();
+        sparseRowGradients.setIndexes(indexes, sparse);
 
         ScatterUpdate op = new ScatterUpdate(weightGradients, delta, indexes, WEIGHT_DIM, ScatterUpdate.UpdateOp.ADD);
         Nd4j.getExecutioner().exec(op);
@@ -160,6 +166,17 @@ public class EmbeddingSequenceLayer extends BaseLayer<org.deeplearning4j.nn.conf
         return ret;
     }
 
+    @Override
+    public int[] getSparseGradientRows(String paramName) {
+        return DefaultParamInitializer.WEIGHT_KEY.equals(paramName) ? sparseRowGradients.getRows() : null;
+    }
+
+    private boolean isSparseGradients() {
+        //l1/l2 regularization makes the weight gradients dense
+        return layerConf().isSparseGradients() && conf.getL1ByParam(DefaultParamInitializer.WEIGHT_KEY) == 0
+                        && conf.getL2ByParam(DefaultParamInitializer.WEIGHT_KEY) == 0;
+    }
+
     @Override
     public boolean hasBias() {
         return layerConf().hasBias();
@@ -0,0 +1,77 @@
+/*-
+ *
+ *  * Copyright 2016 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ */
+
+package org.deeplearning4j.nn.layers.feedforward.embedding;
+
+import org.deeplearning4j.nn.workspace.ArrayType;
+import org.deeplearning4j.nn.workspace.LayerWorkspaceMgr;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.custom.ScatterUpdate;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.Arrays;
+
+/**
+ * Keeps track of the rows of an embedding weight gradient with a non-zero value, for sparse gradients
+ * (see {@link org.deeplearning4j.nn.api.layers.SparseGradientLayer}).
+ */
+class SparseRowGradients {
+    private static final int[] DIM_1 = new int[]{1};
+
+    private int[] rows;
+
+    /**
+     * Zero the weight gradients before adding the deltas of a minibatch. With sparse gradients, only the rows of the
+     * previous minibatch are zeroed: all the other rows are still zero, as the updater only updated these rows.
+     */
+    void clear(INDArray weightGradients, boolean sparse, LayerWorkspaceMgr workspaceMgr) {
+        if (!sparse || rows == null) {
+            weightGradients.assign(0);
+        } else if (rows.length > 0) {
+            INDArray zeros = workspaceMgr.create(ArrayType.BP_WORKING_MEM, rows.length, weightGradients.size(1));
+            Nd4j.getExecutioner().exec(new ScatterUpdate(weightGradients, zeros, rows, DIM_1,
+                            ScatterUpdate.UpdateOp.ASSIGN));
+        }
+    }
+
+    /**
+     * Record the rows of the indexes of the current minibatch
+     */
+    void setIndexes(int[] indexes, boolean sparse) {
+        if (!sparse) {
+            rows = null;
+            return;
+        }
+        int[] sorted = indexes.clone();
+        Arrays.sort(sorted);
+        int n = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (n == 0 || sorted[i] != sorted[n - 1]) {
+                sorted[n++] = sorted[i];
+            }
+        }
+        rows = Arrays.copyOf(sorted, n);
+    }
+
+    /**
+     * @return the sorted rows with a non-zero gradient, null for dense gradients
+     */
+    int[] getRows() {
+        return rows;
+    }
+}
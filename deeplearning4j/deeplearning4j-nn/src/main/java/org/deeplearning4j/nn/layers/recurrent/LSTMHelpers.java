@@ -195,6 +195,29 @@ public class LSTMHelpers {
             }
         }
 
+        //Input contributions to the gates don't depend on the previous time step, so for time series they're computed
+        // upfront for all time steps, as a single [mb*T,nIn] x [nIn,4H] gemm. Rows of the input are ordered by
+        // example then time step (f order), and the result is then copied to shape [miniBatch,4*layerSize,T], f order
+        // like outputs, so that each time step is a contiguous [mb,4H] matrix
+        //This is only done for backprop, which already keeps O(T) activations: for inference, the extra [mb,4H,T] array
+        // would make memory grow with the sequence length, so the input contributions are computed at every step instead
+        INDArray ifogInputActivations = null;
+        if (forBackprop && !is2dInput && timeSeriesLength > 1) {
+            INDArray input2d = workspaceMgr.createUninitialized(ArrayType.BP_WORKING_MEM,
+                    new long[] {miniBatchSize, timeSeriesLength, input.size(1)}, 'f');
+            input2d.assign(input.permute(0, 2, 1));
+            input2d = input2d.reshape('f', (long) miniBatchSize * timeSeriesLength, input.size(1));
+
+            INDArray ifog2d = workspaceMgr.createUninitialized(ArrayType.BP_WORKING_MEM,
+                    new long[] {(long) miniBatchSize * timeSeriesLength, 4 * hiddenLayerSize}, 'f');
+            Nd4j.gemm(input2d, inputWeights, ifog2d, false, false, 1.0, 0.0);
+
+            ifogInputActivations = workspaceMgr.createUninitialized(ArrayType.BP_WORKING_MEM,
+                    new long[] {miniBatchSize, 4 * hiddenLayerSize, timeSeriesLength}, 'f');
+            ifogInputActivations.assign(ifog2d.reshape('f', miniBatchSize, timeSeriesLength, 4 * hiddenLayerSize)
+                    .permute(0, 2, 1));
+        }
+
         for (int iTimeIndex = 0; iTimeIndex < timeSeriesLength; iTimeIndex++) {
             try(MemoryWorkspace ws = workspaceMgr.notifyScopeEntered(ArrayType.RNN_FF_LOOP_WORKING_MEM)) {
                 int time = iTimeIndex;
@@ -203,16 +226,19 @@ public class LSTMHelpers {
                     time = timeSeriesLength - iTimeIndex - 1;
                 }
 
-
-                INDArray miniBatchData = (is2dInput ? input : input.tensorAlongDimension(time, 1, 0)); //[Expected shape: [m,nIn]. Also deals with edge case of T=1, with 'time series' data of shape [m,nIn], equiv. to [m,nIn,1]
-                miniBatchData = Shape.toMmulCompatible(miniBatchData);
-
-                // if we're using cache here - let's create ifogActivations within cache workspace, so all views from this array will be valid in cache
-                cacheEnter(training, cacheMode, workspaceMgr);
-
                 //Calculate activations for: network input + forget, output, input modulation gates. Next 3 lines are first part of those
-                INDArray ifogActivations = miniBatchData.mmul(inputWeights); //Shape: [miniBatch,4*layerSize]
-                cacheExit(training, cacheMode, workspaceMgr);
+                INDArray ifogActivations; //Shape: [miniBatch,4*layerSize]
+                if (ifogInputActivations != null) {
+                    ifogActivations = ifogInputActivations.tensorAlongDimension(time, 1, 0); //f order and contiguous
+                } else {
+                    INDArray miniBatchData = (is2dInput ? input : input.tensorAlongDimension(time, 1, 0)); //[Expected shape: [m,nIn]. Also deals with edge case of T=1, with 'time series' data of shape [m,nIn], equiv. to [m,nIn,1]
+                    miniBatchData = Shape.toMmulCompatible(miniBatchData);
+
+                    // if we're using cache here - let's create ifogActivations within cache workspace, so all views from this array will be valid in cache
+                    cacheEnter(training, cacheMode, workspaceMgr);
+                    ifogActivations = miniBatchData.mmul(inputWeights);
+                    cacheExit(training, cacheMode, workspaceMgr);
+                }
 
                 Nd4j.gemm(prevOutputActivations, recurrentWeightsIFOG, ifogActivations, false, false, 1.0, 1.0);
                 ifogActivations.addiRowVector(biases);
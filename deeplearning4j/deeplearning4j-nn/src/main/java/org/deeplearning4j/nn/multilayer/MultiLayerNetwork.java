@@ -49,6 +49,7 @@ import org.deeplearning4j.nn.workspace.ArrayType;
 import org.deeplearning4j.nn.workspace.LayerWorkspaceMgr;
 import org.deeplearning4j.optimize.Solver;
 import org.deeplearning4j.optimize.api.ConvexOptimizer;
+import org.deeplearning4j.optimize.api.LayerListener;
 import org.deeplearning4j.optimize.api.TrainingListener;
 import org.deeplearning4j.optimize.solvers.accumulation.GradientsAccumulator;
 import org.deeplearning4j.util.ModelSerializer;
@@ -804,6 +805,31 @@ public class MultiLayerNetwork implements Serializable, Classifier, Layer, Neura
     }
 
 
+    /**
+     * Notify all {@link LayerListener} instances about start/end of a single layer forward or backward pass
+     */
+    protected void fireLayerEvent(int layerIdx, boolean forward, boolean training, boolean start) {
+        if (trainingListeners.isEmpty())
+            return;
+        for (TrainingListener tl : trainingListeners) {
+            if (!(tl instanceof LayerListener))
+                continue;
+            LayerListener l = (LayerListener) tl;
+            String name = layers[layerIdx].conf().getLayer().getLayerName();
+            if (forward) {
+                if (start)
+                    l.onLayerForwardStart(this, layerIdx, name, training);
+                else
+                    l.onLayerForwardEnd(this, layerIdx, name, training);
+            } else {
+                if (start)
+                    l.onLayerBackwardStart(this, layerIdx, name);
+                else
+                    l.onLayerBackwardEnd(this, layerIdx, name);
+            }
+        }
+    }
+
     protected void validateArrayWorkspaces(LayerWorkspaceMgr mgr, INDArray array, ArrayType arrayType, int layerIdx,
                                            boolean isPreprocessor, String op){
         try{
@@ -879,6 +905,7 @@ public class MultiLayerNetwork implements Serializable, Classifier, Layer, Neura
                     validateArrayWorkspaces(workspaceMgr, input, ArrayType.ACTIVATIONS, i, true, "Feed forward to layer (inference)");
                 }
 
+                fireLayerEvent(i, true, train, true);
                 if(fwdPassType == FwdPassType.STANDARD){
                     input = layers[i].activate(input, train, workspaceMgr);
                 } else if (fwdPassType == FwdPassType.RNN_ACTIVATE_WITH_STORED_STATE) {
@@ -894,6 +921,7 @@ public class MultiLayerNetwork implements Serializable, Classifier, Layer, Neura
                 } else {
                     throw new IllegalStateException("Forward pass type not supported for this method: " + fwdPassType);
                 }
+                fireLayerEvent(i, true, train, false);
 
                 //Validation: Exception if invalid (bad layer implementation)
                 validateArrayWorkspaces(workspaceMgr, input, ArrayType.ACTIVATIONS, i, false, "Feed forward to layer (inference)");
@@ -966,6 +994,7 @@ public class MultiLayerNetwork implements Serializable, Classifier, Layer, Neura
                     validateArrayWorkspaces(workspaceMgr, input, ArrayType.ACTIVATIONS, i, true, "Feed forward to layer (training)");
                 }
 
+                fireLayerEvent(i, true, true, true);
                 if(fwdPassType == FwdPassType.STANDARD){
                     input = layers[i].activate(input, true, workspaceMgr);
                 } else if(fwdPassType == FwdPassType.RNN_ACTIVATE_WITH_STORED_STATE){
@@ -980,6 +1009,7 @@ public class MultiLayerNetwork implements Serializable, Classifier, Layer, Neura
                 } else {
                     throw new IllegalStateException("FwdPassType not supported for this method: " + fwdPassType);
                 }
+                fireLayerEvent(i, true, true, false);
 
                 if(input == null){
                     throw new IllegalStateException("Layer " + i + " returned null activations");
@@ -1097,6 +1127,7 @@ public class MultiLayerNetwork implements Serializable, Classifier, Layer, Neura
                         mgr.setScopedOutFor(ArrayType.ACTIVATIONS);
                     }
 
+                    fireLayerEvent(i, true, train, true);
                     if(fwdPassType == FwdPassType.STANDARD){
                         //Standard feed-forward case
                         input = layers[i].activate(input, train, mgr);
@@ -1112,6 +1143,7 @@ public class MultiLayerNetwork implements Serializable, Classifier, Layer, Neura
                     } else {
                         throw new IllegalArgumentException("Unsupported forward pass type for this method: " + fwdPassType);
                     }
+                    fireLayerEvent(i, true, train, false);
                     layers[i].clear();
                     //Validation: Exception if invalid (bad layer implementation)
                     validateArrayWorkspaces(mgr, input, ArrayType.ACTIVATIONS, i, false, "Output of layer (inference)");
@@ -1669,6 +1701,7 @@ public class MultiLayerNetwork implements Serializable, Classifier, Layer, Neura
 
                     INDArray eps = (i == layers.length - 1 ? epsilon : currPair.getRight());  //eps is null for OutputLayer
 
+                    fireLayerEvent(i, false, true, true);
                     if(!tbptt){
                         //Standard case
                         currPair = layers[i].backpropGradient(eps, workspaceMgr);
@@ -1681,6 +1714,7 @@ public class MultiLayerNetwork implements Serializable, Classifier, Layer, Neura
                             currPair = layers[i].backpropGradient(currPair.getSecond(), workspaceMgr);
                         }
                     }
+                    fireLayerEvent(i, false, true, false);
 
                     if(currPair.getSecond() != null) {
                         //Edge case: may be null for Embedding layer, for example
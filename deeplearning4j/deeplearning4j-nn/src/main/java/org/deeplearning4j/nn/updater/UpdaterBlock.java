@@ -4,13 +4,17 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.val;
 import org.deeplearning4j.nn.api.Layer;
+import org.deeplearning4j.nn.api.layers.SparseGradientLayer;
 import org.deeplearning4j.nn.conf.NeuralNetConfiguration;
 import org.deeplearning4j.nn.conf.layers.BaseLayer;
 import org.deeplearning4j.nn.layers.FrozenLayer;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.custom.ScatterUpdate;
+import org.nd4j.linalg.api.shape.Shape;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.indexing.NDArrayIndex;
 import org.nd4j.linalg.learning.GradientUpdater;
+import org.nd4j.linalg.learning.config.IUpdater;
 import org.nd4j.linalg.ops.transforms.Transforms;
 
 import java.util.ArrayList;
@@ -36,6 +40,8 @@ public class UpdaterBlock {
 
     private GradientUpdater gradientUpdater;
 
+    private static final int[] ROW_DIM = new int[] {1};
+
 
     @AllArgsConstructor
     @Data
@@ -139,8 +145,10 @@ public class UpdaterBlock {
             return;
         }
 
-        //Apply the updater itself
-        gradientUpdater.applyUpdater(blockGradViewArray, iteration, epoch);
+        //Apply the updater itself: only on the rows with a gradient for sparse gradients
+        if (externalGradient || !applySparseUpdater(blockGradViewArray, iteration, epoch)) {
+            gradientUpdater.applyUpdater(blockGradViewArray, iteration, epoch);
+        }
 
         //Post apply: l1 and l2 by params
         for (ParamState p : layersAndVariablesInBlock) {
@@ -160,6 +168,100 @@ public class UpdaterBlock {
         }
     }
 
+    /**
+     * Apply the updater lazily, if a parameter in this block has a sparse gradient (see {@link SparseGradientLayer}):
+     * for these parameters, only the rows with a gradient and their updater state are gathered and updated.
+     * The other parameters of the block are updated as usual.
+     *
+     * @return false if no parameter has a sparse gradient: the updater was not applied
+     */
+    protected boolean applySparseUpdater(INDArray blockGradViewArray, int iteration, int epoch) {
+        if (updaterView == null) {
+            //No updater state (SGD, NoOp): the update of zero gradient rows is zero anyway
+            return false;
+        }
+        int[][] sparseRows = new int[layersAndVariablesInBlock.size()][0];
+        boolean anySparse = false;
+        for (int i = 0; i < sparseRows.length; i++) {
+            ParamState p = layersAndVariablesInBlock.get(i);
+            sparseRows[i] = p.getLayer() instanceof SparseGradientLayer
+                            ? ((SparseGradientLayer) p.getLayer()).getSparseGradientRows(p.getParamName()) : null;
+            anySparse |= sparseRows[i] != null;
+        }
+        if (!anySparse) {
+            return false;
+        }
+
+        ParamState p0 = layersAndVariablesInBlock.get(0);
+        IUpdater updaterConfig = p0.getLayer().conf().getLayer().getUpdaterByParam(p0.getParamName());
+        long blockLength = blockGradViewArray.length();
+        int numStateArrays = (int) (updaterView.length() / blockLength);
+        for (int i = 0; i < sparseRows.length; i++) {
+            ParamState p = layersAndVariablesInBlock.get(i);
+            long start = p.getParamOffsetStart() - paramOffsetStart;
+            long end = p.getParamOffsetEnd() - paramOffsetStart;
+            if (start == end) {
+                continue;
+            }
+            INDArray grad = blockGradViewArray.get(NDArrayIndex.point(0), NDArrayIndex.interval(start, end));
+            INDArray[] states = new INDArray[numStateArrays];
+            for (int s = 0; s < numStateArrays; s++) {
+                states[s] = updaterView.get(NDArrayIndex.point(0),
+                                NDArrayIndex.interval(s * blockLength + start, s * blockLength + end));
+            }
+
+            if (sparseRows[i] == null) {
+                applyOnCopy(updaterConfig, grad, states, iteration, epoch);
+            } else if (sparseRows[i].length > 0) {
+                //Parameters are flattened in 'f' order
+                long[] shape = p.getLayer().getParam(p.getParamName()).shape();
+                INDArray grad2d = Shape.newShapeNoCopy(grad, shape, true);
+                INDArray gradRows = Nd4j.pullRows(grad2d, 1, sparseRows[i]);
+                INDArray[] stateRows = new INDArray[numStateArrays];
+                INDArray[] states2d = new INDArray[numStateArrays];
+                for (int s = 0; s < numStateArrays; s++) {
+                    states2d[s] = Shape.newShapeNoCopy(states[s], shape, true);
+                    stateRows[s] = Nd4j.pullRows(states2d[s], 1, sparseRows[i]);
+                }
+
+                applyOnCopy(updaterConfig, gradRows, stateRows, iteration, epoch);
+
+                Nd4j.getExecutioner().exec(new ScatterUpdate(grad2d, gradRows, sparseRows[i], ROW_DIM,
+                                ScatterUpdate.UpdateOp.ASSIGN));
+                for (int s = 0; s < numStateArrays; s++) {
+                    Nd4j.getExecutioner().exec(new ScatterUpdate(states2d[s], stateRows[s], sparseRows[i], ROW_DIM,
+                                    ScatterUpdate.UpdateOp.ASSIGN));
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Apply an updater to the given gradient (in place), with a copy of its updater state arrays: the state arrays
+     * are updated in place.
+     */
+    private static void applyOnCopy(IUpdater updaterConfig, INDArray gradient, INDArray[] states, int iteration,
+                    int epoch) {
+        long length = gradient.length();
+        INDArray flatGradient = gradient.reshape('c', 1, length);
+        INDArray state = Nd4j.createUninitialized(new long[] {1, states.length * length}, 'c');
+        for (int s = 0; s < states.length; s++) {
+            state.get(NDArrayIndex.point(0), NDArrayIndex.interval(s * length, (s + 1) * length))
+                            .assign(states[s].reshape('c', 1, length));
+        }
+
+        updaterConfig.instantiate(state, false).applyUpdater(flatGradient, iteration, epoch);
+
+        for (int s = 0; s < states.length; s++) {
+            states[s].assign(state.get(NDArrayIndex.point(0), NDArrayIndex.interval(s * length, (s + 1) * length))
+                            .reshape('c', states[s].shape()));
+        }
+        if (flatGradient != gradient && flatGradient.data() != gradient.data()) {
+            gradient.assign(flatGradient.reshape('c', gradient.shape()));
+        }
+    }
+
     /**
      * Apply L1 and L2 regularization, if necessary. Note that L1/L2 may differ for different layers in the same block
      *
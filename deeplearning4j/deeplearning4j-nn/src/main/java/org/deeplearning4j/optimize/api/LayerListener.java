@@ -0,0 +1,39 @@
+package org.deeplearning4j.optimize.api;
+
+import org.deeplearning4j.nn.api.Model;
+
+/**
+ * An extension of the {@link TrainingListener} interface for listeners that need to be notified before and after
+ * each layer (or graph vertex) performs its forward or backward pass.<br>
+ * MultiLayerNetwork and ComputationGraph only issue these notifications to listeners implementing this interface,
+ * so there is no per-layer overhead for other listeners.<br>
+ * Notifications are issued on the thread doing the forward/backward pass. Calls may be nested, if one of the
+ * layers is itself a MultiLayerNetwork with the same listener.
+ */
+public interface LayerListener extends TrainingListener {
+
+    /**
+     * Called before the layer performs forward pass
+     *
+     * @param model     Model the layer belongs to
+     * @param layerIdx  Index of the layer (or vertex index for ComputationGraph)
+     * @param layerName Name of the layer or vertex
+     * @param training  Whether the forward pass is in training mode
+     */
+    void onLayerForwardStart(Model model, int layerIdx, String layerName, boolean training);
+
+    /**
+     * Called after the layer performed forward pass
+     */
+    void onLayerForwardEnd(Model model, int layerIdx, String layerName, boolean training);
+
+    /**
+     * Called before the layer performs backward pass
+     */
+    void onLayerBackwardStart(Model model, int layerIdx, String layerName);
+
+    /**
+     * Called after the layer performed backward pass
+     */
+    void onLayerBackwardEnd(Model model, int layerIdx, String layerName);
+}
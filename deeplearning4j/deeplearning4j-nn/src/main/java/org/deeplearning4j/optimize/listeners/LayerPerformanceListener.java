@@ -0,0 +1,278 @@
+package org.deeplearning4j.optimize.listeners;
+
+import com.google.common.base.Preconditions;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bytedeco.javacpp.Pointer;
+import org.deeplearning4j.nn.api.Model;
+import org.deeplearning4j.optimize.api.BaseTrainingListener;
+import org.deeplearning4j.optimize.api.LayerListener;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Listener that records per layer (per vertex for ComputationGraph) breakdown of forward/backward pass time and
+ * memory use, for both training and inference:<br>
+ * - Forward pass time and backward pass time<br>
+ * - Workspace memory: bytes allocated in workspaces while the layer was executed<br>
+ * - External memory: growth of off-heap memory allocated outside of workspaces while the layer was executed. This is
+ * measured process-wide ({@link Pointer#totalBytes()}): allocations made concurrently by other threads, including
+ * other layers executed in parallel, are counted too<br>
+ * Statistics are aggregated (mean and max) over a sliding window of the last {@code windowSize} passes of each layer,
+ * and are available via {@link #getStats()}. Every {@code frequency} iterations they're also reported via
+ * {@link #report(Model, int, int, Map)}, which logs them by default.<br>
+ * <br>
+ * Overhead is a couple of timer reads and workspace counter reads per layer. Note that timings are measured on the
+ * host side: for asynchronous backends, time may be attributed to the layer that waits for the results.
+ * Memory values are approximate: external memory may be freed by GC at any time.
+ */
+@Slf4j
+public class LayerPerformanceListener extends BaseTrainingListener implements LayerListener, Serializable {
+
+    /**
+     * Snapshot of aggregated statistics for a single layer
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LayerStats implements Serializable {
+        private String layerName;
+        private int layerIdx;
+        private long forwardCount;
+        private double meanForwardMs;
+        private double maxForwardMs;
+        private long backwardCount;
+        private double meanBackwardMs;
+        private double maxBackwardMs;
+        private double meanWorkspaceBytes;
+        private long maxWorkspaceBytes;
+        private double meanExternalBytes;
+        private long maxExternalBytes;
+
+        @Override
+        public String toString() {
+            return String.format("%-20s fwd: %8.3f ms (max %8.3f), bwd: %8.3f ms (max %8.3f), workspace: %,12.0f B "
+                            + "(max %,d), external: %,12.0f B (max %,d)", layerName, meanForwardMs, maxForwardMs,
+                            meanBackwardMs, maxBackwardMs, meanWorkspaceBytes, maxWorkspaceBytes, meanExternalBytes,
+                            maxExternalBytes);
+        }
+    }
+
+    /**
+     * Fixed size window of the most recent values
+     */
+    private static class Window {
+        private final long[] values;
+        private int size;
+        private int next;
+        private long count;
+
+        private Window(int windowSize) {
+            this.values = new long[windowSize];
+        }
+
+        private void add(long value) {
+            values[next] = value;
+            next = (next + 1) % values.length;
+            size = Math.min(size + 1, values.length);
+            count++;
+        }
+
+        private double mean() {
+            if (size == 0)
+                return 0.0;
+            double sum = 0;
+            for (int i = 0; i < size; i++)
+                sum += values[i];
+            return sum / size;
+        }
+
+        private long max() {
+            long max = 0;
+            for (int i = 0; i < size; i++)
+                max = Math.max(max, values[i]);
+            return max;
+        }
+    }
+
+    private static class LayerWindows {
+        private final String name;
+        private final int idx;
+        private final Window forward;
+        private final Window backward;
+        private final Window workspace;
+        private final Window external;
+
+        private LayerWindows(String name, int idx, int windowSize) {
+            this.name = name;
+            this.idx = idx;
+            this.forward = new Window(windowSize);
+            this.backward = new Window(windowSize);
+            this.workspace = new Window(windowSize);
+            this.external = new Window(windowSize);
+        }
+    }
+
+    private final int frequency;
+    private final int windowSize;
+    private transient ConcurrentMap<String, LayerWindows> layers = new ConcurrentHashMap<>();
+    //Start values of the passes in progress on each thread, by layer and direction
+    private transient ThreadLocal<Map<Integer, long[]>> started = new ThreadLocal<>();
+
+    /**
+     * @param frequency Report frequency, in iterations
+     */
+    public LayerPerformanceListener(int frequency) {
+        this(frequency, 100);
+    }
+
+    /**
+     * @param frequency  Report frequency, in iterations
+     * @param windowSize Number of most recent passes of each layer to aggregate statistics over
+     */
+    public LayerPerformanceListener(int frequency, int windowSize) {
+        Preconditions.checkArgument(frequency > 0, "Invalid frequency, must be > 0: Got " + frequency);
+        Preconditions.checkArgument(windowSize > 0, "Invalid window size, must be > 0: Got " + windowSize);
+        this.frequency = frequency;
+        this.windowSize = windowSize;
+    }
+
+    @Override
+    public void onLayerForwardStart(Model model, int layerIdx, String layerName, boolean training) {
+        start(layerIdx, true);
+    }
+
+    @Override
+    public void onLayerForwardEnd(Model model, int layerIdx, String layerName, boolean training) {
+        end(layerIdx, layerName, true);
+    }
+
+    @Override
+    public void onLayerBackwardStart(Model model, int layerIdx, String layerName) {
+        start(layerIdx, false);
+    }
+
+    @Override
+    public void onLayerBackwardEnd(Model model, int layerIdx, String layerName) {
+        end(layerIdx, layerName, false);
+    }
+
+    @Override
+    public void iterationDone(Model model, int iteration, int epoch) {
+        if (iteration % frequency == 0)
+            report(model, iteration, epoch, getStats());
+    }
+
+    /**
+     * Report statistics. Logs them by default, override this method to export them elsewhere.
+     *
+     * @param stats Statistics, as returned by {@link #getStats()}
+     */
+    protected void report(Model model, int iteration, int epoch, Map<String, LayerStats> stats) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Layer performance at iteration ").append(iteration).append(", epoch ").append(epoch);
+        for (LayerStats s : stats.values())
+            sb.append("\n").append(s);
+        log.info(sb.toString());
+    }
+
+    /**
+     * Returns statistics for all layers seen so far, ordered by layer index
+     */
+    public Map<String, LayerStats> getStats() {
+        List<LayerWindows> list = new ArrayList<>(layers.values());
+        Collections.sort(list, new Comparator<LayerWindows>() {
+            @Override
+            public int compare(LayerWindows o1, LayerWindows o2) {
+                return Integer.compare(o1.idx, o2.idx);
+            }
+        });
+
+        Map<String, LayerStats> ret = new LinkedHashMap<>();
+        for (LayerWindows w : list) {
+            synchronized (w) {
+                ret.put(w.name, new LayerStats(w.name, w.idx, w.forward.count, w.forward.mean() / 1e6,
+                                w.forward.max() / 1e6, w.backward.count, w.backward.mean() / 1e6,
+                                w.backward.max() / 1e6, w.workspace.mean(), w.workspace.max(), w.external.mean(),
+                                w.external.max()));
+            }
+        }
+        return ret;
+    }
+
+    public int getFrequency() {
+        return frequency;
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    /**
+     * Removes all collected statistics
+     */
+    public void reset() {
+        layers.clear();
+    }
+
+    private void start(int layerIdx, boolean forward) {
+        Map<Integer, long[]> map = started.get();
+        if (map == null) {
+            map = new HashMap<>();
+            started.set(map);
+        }
+        //A pass interrupted by an exception never ends: its start values are replaced by the next pass of the layer
+        map.put(key(layerIdx, forward), new long[] {System.nanoTime(), workspaceAllocations(), Pointer.totalBytes()});
+    }
+
+    private void end(int layerIdx, String layerName, boolean forward) {
+        Map<Integer, long[]> map = started.get();
+        long[] start = (map == null ? null : map.remove(key(layerIdx, forward)));
+        if (start == null)
+            return;
+        long time = System.nanoTime() - start[0];
+        long workspace = Math.max(0, workspaceAllocations() - start[1]);
+        long external = Math.max(0, Pointer.totalBytes() - start[2]);
+
+        String name = layerName != null ? layerName : String.valueOf(layerIdx);
+        LayerWindows w = layers.get(name);
+        if (w == null) {
+            w = new LayerWindows(name, layerIdx, windowSize);
+            LayerWindows prev = layers.putIfAbsent(name, w);
+            if (prev != null)
+                w = prev;
+        }
+
+        synchronized (w) {
+            (forward ? w.forward : w.backward).add(time);
+            w.workspace.add(workspace);
+            w.external.add(external);
+        }
+    }
+
+    private static int key(int layerIdx, boolean forward) {
+        return 2 * layerIdx + (forward ? 0 : 1);
+    }
+
+    private static long workspaceAllocations() {
+        long sum = 0;
+        for (MemoryWorkspace ws : Nd4j.getWorkspaceManager().getAllWorkspacesForCurrentThread())
+            sum += ws.getThisCycleAllocations();
+        return sum;
+    }
+
+    private void readObject(ObjectInputStream ois) throws IOException, ClassNotFoundException {
+        ois.defaultReadObject();
+        layers = new ConcurrentHashMap<>();
+        started = new ThreadLocal<>();
+    }
+}
@@ -16,6 +16,7 @@ import org.deeplearning4j.optimize.api.TrainingListener;
 import org.deeplearning4j.parallelism.ParallelWrapper;
 import org.nd4j.linalg.api.concurrency.AffinityManager;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.rng.PhiloxRandom;
 import org.nd4j.linalg.dataset.api.DataSet;
 import org.nd4j.linalg.dataset.api.MultiDataSet;
 import org.nd4j.linalg.factory.Nd4j;
@@ -309,8 +310,13 @@ public class DefaultTrainer extends Thread implements Trainer {
                 }
             }
 
-            if (replicatedModel == null)
+            if (replicatedModel == null) {
                 log.error("replicatedModel is NULL at worker_{}", threadId);
+            } else {
+                // each worker gets its own RNG stream derived from model seed, so dropout masks etc are
+                // independent across workers, yet reproducible between runs
+                Nd4j.getRandom().setSeed(PhiloxRandom.deriveSeed(replicatedModel.conf().getSeed(), threadId));
+            }
 
             // classes that extend DefaultTrainer might hook something there
             postInit();
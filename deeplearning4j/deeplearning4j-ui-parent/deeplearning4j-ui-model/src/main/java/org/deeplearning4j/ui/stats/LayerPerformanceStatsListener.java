@@ -0,0 +1,97 @@
+package org.deeplearning4j.ui.stats;
+
+import org.deeplearning4j.api.storage.StatsStorageRouter;
+import org.deeplearning4j.api.storage.listener.RoutingIterationListener;
+import org.deeplearning4j.nn.api.Model;
+import org.deeplearning4j.optimize.listeners.LayerPerformanceListener;
+import org.deeplearning4j.ui.storage.impl.JavaStorageMetaData;
+import org.deeplearning4j.util.UIDProvider;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * {@link LayerPerformanceListener} that posts per layer time and memory statistics to a {@link StatsStorageRouter}
+ * (such as a StatsStorage instance attached to the UI), as {@link LayerPerformancePersistable} updates.
+ */
+public class LayerPerformanceStatsListener extends LayerPerformanceListener implements RoutingIterationListener {
+
+    private transient StatsStorageRouter router;
+    private String sessionID;
+    private String workerID;
+    private boolean metaDataPosted = false;
+
+    /**
+     * @param router    Router (StatsStorage) to post statistics to
+     * @param frequency Report frequency, in iterations
+     */
+    public LayerPerformanceStatsListener(StatsStorageRouter router, int frequency) {
+        this(router, frequency, 100, null, null);
+    }
+
+    /**
+     * @param router     Router (StatsStorage) to post statistics to
+     * @param frequency  Report frequency, in iterations
+     * @param windowSize Number of most recent passes of each layer to aggregate statistics over
+     * @param sessionID  Session ID. May be null, in which case random session ID is used
+     * @param workerID   Worker ID. May be null, in which case JVM UID + thread ID is used
+     */
+    public LayerPerformanceStatsListener(StatsStorageRouter router, int frequency, int windowSize, String sessionID,
+                    String workerID) {
+        super(frequency, windowSize);
+        this.router = router;
+        this.sessionID = sessionID != null ? sessionID : UUID.randomUUID().toString();
+        this.workerID = workerID != null ? workerID : UIDProvider.getJVMUID() + "_" + Thread.currentThread().getId();
+    }
+
+    @Override
+    protected void report(Model model, int iteration, int epoch, Map<String, LayerStats> stats) {
+        if (router == null)
+            return;
+
+        long time = System.currentTimeMillis();
+        if (!metaDataPosted) {
+            router.putStorageMetaData(new JavaStorageMetaData(time, sessionID, LayerPerformancePersistable.TYPE_ID,
+                            workerID, null, LayerPerformancePersistable.class));
+            metaDataPosted = true;
+        }
+        router.putUpdate(new LayerPerformancePersistable(sessionID, workerID, time, iteration, epoch,
+                        new LinkedHashMap<>(stats)));
+    }
+
+    @Override
+    public void setStorageRouter(StatsStorageRouter router) {
+        this.router = router;
+    }
+
+    @Override
+    public StatsStorageRouter getStorageRouter() {
+        return router;
+    }
+
+    @Override
+    public void setWorkerID(String workerID) {
+        this.workerID = workerID;
+    }
+
+    @Override
+    public String getWorkerID() {
+        return workerID;
+    }
+
+    @Override
+    public void setSessionID(String sessionID) {
+        this.sessionID = sessionID;
+    }
+
+    @Override
+    public String getSessionID() {
+        return sessionID;
+    }
+
+    @Override
+    public LayerPerformanceStatsListener clone() {
+        return new LayerPerformanceStatsListener(router, getFrequency(), getWindowSize(), sessionID, null);
+    }
+}
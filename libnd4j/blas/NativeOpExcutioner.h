@@ -459,6 +459,50 @@ public:
                               Nd4jLong *tadShapeInfo,
                               Nd4jLong *tadOffsets);
 
+    /**
+     * Fused execution of two elementwise ops (scalar, transform or pairwise transform) over the same buffer:
+     * opA is applied to dx (and dy, if opA is pairwise) and stored to dz, then opB is applied in place to dz
+     * (and dy, if opB is pairwise). Buffer is processed in cache-sized chunks, so opB reads values
+     * produced by opA while they're still in cache.
+     *
+     * opType values: 0 - scalar, 1 - transform, 2 - pairwise transform
+     */
+    static void execMetaPredicateStrided(int opTypeA,
+                                         int opNumA,
+                                         int opTypeB,
+                                         int opNumB,
+                                         Nd4jLong N,
+                                         T *dx,
+                                         Nd4jLong xStride,
+                                         T *dy,
+                                         Nd4jLong yStride,
+                                         T *dz,
+                                         Nd4jLong zStride,
+                                         T *extraA,
+                                         T *extraB,
+                                         T scalarA,
+                                         T scalarB);
+
+    /**
+     * Shape-based version of execMetaPredicateStrided(), used when element-wise strides can't be used.
+     * Ops are applied one after another over the whole buffer here.
+     */
+    static void execMetaPredicateShape(int opTypeA,
+                                       int opNumA,
+                                       int opTypeB,
+                                       int opNumB,
+                                       Nd4jLong N,
+                                       T *dx,
+                                       Nd4jLong *xShapeInfo,
+                                       T *dy,
+                                       Nd4jLong *yShapeInfo,
+                                       T *dz,
+                                       Nd4jLong *zShapeInfo,
+                                       T *extraA,
+                                       T *extraB,
+                                       T scalarA,
+                                       T scalarB);
+
     static void execAggregate(int opNum,
                               T **arguments,
                               int numArguments,
@@ -377,6 +377,75 @@ void NativeOpExcutioner<T>::execReduce3(int opNum, T *x, Nd4jLong *xShapeInfo, T
 }
 
 
+////////////////////////////////////////////////////////////////////////
+// single elementwise op over strided buffers, used as building block for meta ops
+template<typename T>
+static inline void execElementwiseStrided(int opType, int opNum, T *dx, Nd4jLong xStride, T *dy, Nd4jLong yStride, T *dz, Nd4jLong zStride, T *extraParams, T scalar, Nd4jLong n) {
+    switch (opType) {
+        case 0:
+            functions::scalar::ScalarTransform<T>::transform(opNum, dx, xStride, dz, zStride, scalar, extraParams, n);
+            break;
+        case 1:
+            functions::transform::Transform<T>::exec(opNum, dx, xStride, dz, zStride, extraParams, n);
+            break;
+        case 2:
+            functions::pairwise_transforms::PairWiseTransform<T>::exec(opNum, dx, xStride, dy, yStride, dz, zStride, extraParams, n);
+            break;
+        default:
+            printf("Unsupported meta op type: [%i]\n", opType);
+    }
+}
+
+template<typename T>
+static inline void execElementwiseShaped(int opType, int opNum, T *dx, Nd4jLong *xShapeInfo, T *dy, Nd4jLong *yShapeInfo, T *dz, Nd4jLong *zShapeInfo, T *extraParams, T scalar) {
+    switch (opType) {
+        case 0:
+            functions::scalar::ScalarTransform<T>::transform(opNum, dx, xShapeInfo, dz, zShapeInfo, scalar, extraParams);
+            break;
+        case 1:
+            functions::transform::Transform<T>::exec(opNum, dx, xShapeInfo, dz, zShapeInfo, extraParams, nullptr, nullptr);
+            break;
+        case 2:
+            functions::pairwise_transforms::PairWiseTransform<T>::exec(opNum, dx, xShapeInfo, dy, yShapeInfo, dz, zShapeInfo, extraParams);
+            break;
+        default:
+            printf("Unsupported meta op type: [%i]\n", opType);
+    }
+}
+
+////////////////////////////////////////////////////////////////////////
+template<typename T>
+void NativeOpExcutioner<T>::execMetaPredicateStrided(int opTypeA, int opNumA, int opTypeB, int opNumB, Nd4jLong N, T *dx, Nd4jLong xStride, T *dy, Nd4jLong yStride, T *dz, Nd4jLong zStride, T *extraA, T *extraB, T scalarA, T scalarB) {
+    // chunk is small enough to stay in L1/L2 between opA and opB, and below ELEMENT_THRESHOLD, so ops don't spawn threads on their own
+    const Nd4jLong chunk = 2048;
+    Nd4jLong numChunks = N / chunk + (N % chunk == 0 ? 0 : 1);
+
+    int _threads = nd4j::math::nd4j_max<int>(1, N / ELEMENT_THRESHOLD);
+    _threads = nd4j::math::nd4j_min<int>(_threads, omp_get_max_threads());
+
+#pragma omp parallel for schedule(static) num_threads(_threads) if (_threads > 1) proc_bind(AFFINITY) default(shared)
+    for (Nd4jLong c = 0; c < numChunks; c++) {
+        Nd4jLong start = c * chunk;
+        Nd4jLong length = nd4j::math::nd4j_min<Nd4jLong>(chunk, N - start);
+
+        T *x = dx + start * xStride;
+        T *y = dy == nullptr ? nullptr : dy + start * yStride;
+        T *z = dz + start * zStride;
+
+        // y operand belongs to the pairwise op, if any
+        execElementwiseStrided<T>(opTypeA, opNumA, x, xStride, y, yStride, z, zStride, extraA, scalarA, length);
+        execElementwiseStrided<T>(opTypeB, opNumB, z, zStride, y, yStride, z, zStride, extraB, scalarB, length);
+    }
+}
+
+////////////////////////////////////////////////////////////////////////
+template<typename T>
+void NativeOpExcutioner<T>::execMetaPredicateShape(int opTypeA, int opNumA, int opTypeB, int opNumB, Nd4jLong N, T *dx, Nd4jLong *xShapeInfo, T *dy, Nd4jLong *yShapeInfo, T *dz, Nd4jLong *zShapeInfo, T *extraA, T *extraB, T scalarA, T scalarB) {
+    execElementwiseShaped<T>(opTypeA, opNumA, dx, xShapeInfo, dy, yShapeInfo, dz, zShapeInfo, extraA, scalarA);
+    execElementwiseShaped<T>(opTypeB, opNumB, dz, zShapeInfo, dy, yShapeInfo, dz, zShapeInfo, extraB, scalarB);
+}
+
+
 template class ND4J_EXPORT NativeOpExcutioner<float16>;
 template class ND4J_EXPORT NativeOpExcutioner<float>;
 template class ND4J_EXPORT NativeOpExcutioner<double>;
@@ -73,24 +73,29 @@ namespace nd4j {
                     CBLAS_TRANSPOSE tA = (CBLAS_TRANSPOSE) transA;
                     CBLAS_TRANSPOSE tB = (CBLAS_TRANSPOSE) transB;
 
-#pragma omp parallel for
+#pragma omp parallel for schedule(guided) if (vA.size() > 1)
                     for (int p = 0; p < vA.size(); ++p) {
                         auto A = vA.at(p)->buffer();
                         auto B = vB.at(p)->buffer();
                         auto C = vC.at(p)->buffer();
                         auto alpha = alphas->getScalar(p);
                         auto beta = betas->getScalar(p);
-                        for (int m = 0; m < M; ++m) {
-                            for (int n = 0; n < N; ++n) {
+                        // C is column-major, so rows are iterated in the inner loop
+                        for (int n = 0; n < N; ++n) {
+                            for (int m = 0; m < M; ++m) {
                                 T c_mnp = 0;
 
                                 #pragma omp simd
                                 for (int k = 0; k < K; ++k)
                                     c_mnp += A[tA == CblasNoTrans ? (m + k * ldA) : (m * ldA + k)] * B[tB == CblasNoTrans ? (k + n * ldB) : (k * ldB + n)];
 
-                                C[m + n * ldC] = alpha * c_mnp + beta * C[m + n * ldC];
-                            } 
-                        } 
+                                // as in BLAS, C isn't read if beta is 0, so it may be uninitialized
+                                if (beta == (T) 0.0f)
+                                    C[m + n * ldC] = alpha * c_mnp;
+                                else
+                                    C[m + n * ldC] = alpha * c_mnp + beta * C[m + n * ldC];
+                            }
+                        }
                     }
                 }
             };
@@ -1086,6 +1086,17 @@ public class DifferentialFunctionFactory {
         return mmul(x, y, MMulTranspose.allFalse());
     }
 
+    public SDVariable[] batchMmul(SDVariable[] matricesA,
+                                  SDVariable[] matricesB,
+                                  boolean transposeA,
+                                  boolean transposeB) {
+        for (SDVariable matrix : matricesA)
+            validateDifferentialFunctionsameDiff(matrix);
+        for (SDVariable matrix : matricesB)
+            validateDifferentialFunctionsameDiff(matrix);
+        return new BatchMmul(sameDiff(), matricesA, matricesB, transposeA, transposeB).outputVariables();
+    }
+
 
     public SDVariable tensorMmul(SDVariable x,
                                  SDVariable y,
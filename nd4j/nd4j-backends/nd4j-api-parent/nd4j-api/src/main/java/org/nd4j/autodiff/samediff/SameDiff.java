@@ -3124,6 +3124,30 @@ public class SameDiff {
         return mmul(null, x, y);
     }
 
+    /**
+     * Batched matrix multiplication: i-th output is matricesA[i] x matricesB[i], computed for all matrices
+     * with single native call. All matrices within batch must have the same shapes.
+     *
+     * @param matricesA  first operands
+     * @param matricesB  second operands
+     * @param transposeA if true: transpose each of matricesA before mmul
+     * @param transposeB if true: transpose each of matricesB before mmul
+     * @return products, one per pair of matrices
+     */
+    public SDVariable[] batchMmul(SDVariable[] matricesA, SDVariable[] matricesB, boolean transposeA,
+                                  boolean transposeB) {
+        return batchMmul(null, matricesA, matricesB, transposeA, transposeB);
+    }
+
+    /**
+     * @param matricesA
+     * @param matricesB
+     * @return
+     */
+    public SDVariable[] batchMmul(SDVariable[] matricesA, SDVariable[] matricesB) {
+        return batchMmul(null, matricesA, matricesB, false, false);
+    }
+
     /**
      * @param x
      * @param y
@@ -4191,6 +4215,20 @@ public class SameDiff {
         return mmul(name, x, y, MMulTranspose.allFalse());
     }
 
+    /**
+     * @param names      names of the outputs, may be null
+     * @param matricesA
+     * @param matricesB
+     * @param transposeA
+     * @param transposeB
+     * @return
+     */
+    public SDVariable[] batchMmul(String[] names, SDVariable[] matricesA, SDVariable[] matricesB, boolean transposeA,
+                                  boolean transposeB) {
+        SDVariable[] result = functionFactory.batchMmul(matricesA, matricesB, transposeA, transposeB);
+        return updateVariableNamesAndReferences(result, names);
+    }
+
     /**
      * @param x
      * @param y
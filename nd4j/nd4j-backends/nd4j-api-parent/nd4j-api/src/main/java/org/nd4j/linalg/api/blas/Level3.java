@@ -48,6 +48,24 @@ public interface Level3 {
      */
     void gemm(INDArray A, INDArray B, INDArray C, boolean transposeA, boolean transposeB, double alpha, double beta);
 
+    /**
+     * Batched gemm: C[i] = alpha*op(A[i])*op(B[i]) + beta*C[i] for every i, executed as single native call
+     * parallelized over the batch. Meant for many small matrices, where per-call overhead of gemm dominates.
+     * All A, all B and all C matrices must have the same shapes; any order, offset and strides are accepted
+     * (though matrices that don't fit layout of the rest of the batch are copied).
+     * Note that on CPU, BLAS batched gemm is only used when available (MKL, float and double): otherwise each product
+     * is computed with a plain loop, so when all A (or all B) can be stacked, a single regular gemm is faster.
+     */
+    void gemmBatched(INDArray[] A, INDArray[] B, INDArray[] C, boolean transposeA, boolean transposeB, double alpha,
+                    double beta);
+
+    /**
+     * Batched gemm over strided 3d tensors: A is [batch, m, k], B is [batch, k, n] and C is [batch, m, n]
+     * (before transposes, which are applied to each matrix of the batch)
+     */
+    void gemmBatched(INDArray A, INDArray B, INDArray C, boolean transposeA, boolean transposeB, double alpha,
+                    double beta);
+
 
     /**
      * her2k performs a rank-2k update of an n-by-n Hermitian matrix c, that is, one of the following operations:
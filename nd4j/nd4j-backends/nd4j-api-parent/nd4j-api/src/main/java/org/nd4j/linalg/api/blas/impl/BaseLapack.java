@@ -18,6 +18,8 @@ public abstract class BaseLapack implements Lapack {
 
     @Override
     public INDArray getrf(INDArray A) {
+        // ops queued by GridExecutioner may still be pending for the operands
+        Nd4j.getExecutioner().push();
 
         // FIXME: int cast
         if (A.rows() > Integer.MAX_VALUE || A.columns() > Integer.MAX_VALUE)
@@ -70,6 +72,7 @@ public abstract class BaseLapack implements Lapack {
 
     @Override
     public void potrf(INDArray A, boolean lower) {
+        Nd4j.getExecutioner().push();
 
         // FIXME: int cast
         if (A.columns() > Integer.MAX_VALUE)
@@ -116,6 +119,7 @@ public abstract class BaseLapack implements Lapack {
 
     @Override
     public void geqrf(INDArray A, INDArray R) {
+        Nd4j.getExecutioner().push();
 
         // FIXME: int cast
         if (A.rows() > Integer.MAX_VALUE || A.columns() > Integer.MAX_VALUE)
@@ -163,6 +167,7 @@ public abstract class BaseLapack implements Lapack {
 
     @Override
     public int syev(char jobz, char uplo, INDArray A, INDArray V) {
+        Nd4j.getExecutioner().push();
 
         if (A.rows() != A.columns()) {
             throw new Error("syev: A must be square.");
@@ -205,6 +210,8 @@ public abstract class BaseLapack implements Lapack {
 
     @Override
     public void gesvd(INDArray A, INDArray S, INDArray U, INDArray VT) {
+        Nd4j.getExecutioner().push();
+
         // FIXME: int cast
         if (A.rows() > Integer.MAX_VALUE || A.columns() > Integer.MAX_VALUE)
             throw new ND4JArraySizeException();
@@ -37,6 +37,8 @@ public abstract class BaseLevel1 extends BaseLevel implements Level1 {
         if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
             OpProfiler.getInstance().processBlasCall(false, X, Y);
 
+        Nd4j.getExecutioner().push();
+
         if (X.isSparse() && !Y.isSparse()) {
             return Nd4j.getSparseBlasWrapper().level1().dot(n, alpha, X, Y);
         } else if (!X.isSparse() && Y.isSparse()) {
@@ -61,6 +63,8 @@ public abstract class BaseLevel1 extends BaseLevel implements Level1 {
 
     @Override
     public double dot(long n, DataBuffer x, int offsetX, int incrX, DataBuffer y, int offsetY, int incrY) {
+        Nd4j.getExecutioner().push();
+
         if (supportsDataBufferL1Ops()) {
             if (x.dataType() == DataBuffer.Type.FLOAT) {
                 return sdot(n, x, offsetX, incrX, y, offsetY, incrY);
@@ -108,6 +112,10 @@ public abstract class BaseLevel1 extends BaseLevel implements Level1 {
         }
         if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
             OpProfiler.getInstance().processBlasCall(false, arr);
+
+
+        Nd4j.getExecutioner().push();
+
         if (arr.isSparse()) {
             return Nd4j.getSparseBlasWrapper().level1().nrm2(arr);
         }
@@ -147,6 +155,8 @@ public abstract class BaseLevel1 extends BaseLevel implements Level1 {
         if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
             OpProfiler.getInstance().processBlasCall(false, arr);
 
+        Nd4j.getExecutioner().push();
+
         if (arr.data().dataType() == DataBuffer.Type.DOUBLE) {
             DefaultOpExecutioner.validateDataType(DataBuffer.Type.DOUBLE, arr);
             return dasum(arr.length(), arr, BlasBufferUtil.getBlasStride(arr));
@@ -161,6 +171,8 @@ public abstract class BaseLevel1 extends BaseLevel implements Level1 {
 
     @Override
     public double asum(long n, DataBuffer x, int offsetX, int incrX) {
+        Nd4j.getExecutioner().push();
+
         if (supportsDataBufferL1Ops()) {
             if (x.dataType() == DataBuffer.Type.FLOAT) {
                 return sasum(n, x, offsetX, incrX);
@@ -196,6 +208,8 @@ public abstract class BaseLevel1 extends BaseLevel implements Level1 {
         if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
             OpProfiler.getInstance().processBlasCall(false, arr);
 
+        Nd4j.getExecutioner().push();
+
         if (arr.data().dataType() == DataBuffer.Type.DOUBLE) {
             DefaultOpExecutioner.validateDataType(DataBuffer.Type.DOUBLE, arr);
             return idamax(n, arr, stride);
@@ -207,6 +221,8 @@ public abstract class BaseLevel1 extends BaseLevel implements Level1 {
 
     @Override
     public int iamax(long n, DataBuffer x, int offsetX, int incrX) {
+        Nd4j.getExecutioner().push();
+
         if (supportsDataBufferL1Ops()) {
             if (x.dataType() == DataBuffer.Type.FLOAT) {
                 return isamax(n, x, offsetX, incrX);
@@ -236,6 +252,8 @@ public abstract class BaseLevel1 extends BaseLevel implements Level1 {
         if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
             OpProfiler.getInstance().processBlasCall(false, arr);
 
+        Nd4j.getExecutioner().push();
+
         if (arr.data().dataType() == DataBuffer.Type.DOUBLE) {
             DefaultOpExecutioner.validateDataType(DataBuffer.Type.DOUBLE, arr);
             return idamax(arr.length(), arr, BlasBufferUtil.getBlasStride(arr));
@@ -296,6 +314,8 @@ public abstract class BaseLevel1 extends BaseLevel implements Level1 {
         if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
             OpProfiler.getInstance().processBlasCall(false, x, y);
 
+        Nd4j.getExecutioner().push();
+
         if (x.isSparse() || y.isSparse()) {
             Nd4j.getSparseBlasWrapper().level1().swap(x, y);
             return;
@@ -330,6 +350,8 @@ public abstract class BaseLevel1 extends BaseLevel implements Level1 {
         if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
             OpProfiler.getInstance().processBlasCall(false, x, y);
 
+        Nd4j.getExecutioner().push();
+
         if (x.isSparse() || y.isSparse()) {
             Nd4j.getSparseBlasWrapper().level1().copy(x, y);
             return;
@@ -349,6 +371,8 @@ public abstract class BaseLevel1 extends BaseLevel implements Level1 {
     public void copy(long n, DataBuffer x, int offsetX, int incrX, DataBuffer y, int offsetY, int incrY) {
 
 
+        Nd4j.getExecutioner().push();
+
         if (supportsDataBufferL1Ops()) {
             if (x.dataType() == DataBuffer.Type.DOUBLE) {
                 dcopy(n, x, offsetX, incrX, y, offsetY, incrY);
@@ -398,6 +422,9 @@ public abstract class BaseLevel1 extends BaseLevel implements Level1 {
         if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
             OpProfiler.getInstance().processBlasCall(false, x, y);
 
+        // ops queued by GridExecutioner may still be pending for x or y
+        Nd4j.getExecutioner().push();
+
         if (x.isSparse() && !y.isSparse()) {
             Nd4j.getSparseBlasWrapper().level1().axpy(n, alpha, x, y);
         } else if (x.data().dataType() == DataBuffer.Type.DOUBLE) {
@@ -414,6 +441,8 @@ public abstract class BaseLevel1 extends BaseLevel implements Level1 {
 
     @Override
     public void axpy(long n, double alpha, DataBuffer x, int offsetX, int incrX, DataBuffer y, int offsetY, int incrY) {
+        Nd4j.getExecutioner().push();
+
         if (supportsDataBufferL1Ops()) {
             if (x.dataType() == DataBuffer.Type.DOUBLE) {
                 daxpy(n, alpha, x, offsetX, incrX, y, offsetY, incrY);
@@ -477,6 +506,8 @@ public abstract class BaseLevel1 extends BaseLevel implements Level1 {
         if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
             OpProfiler.getInstance().processBlasCall(false, X, Y);
 
+        Nd4j.getExecutioner().push();
+
         if (X.isSparse() && !Y.isSparse()) {
             Nd4j.getSparseBlasWrapper().level1().rot(N, X, Y, c, s);
         } else if (X.data().dataType() == DataBuffer.Type.DOUBLE) {
@@ -543,6 +574,8 @@ public abstract class BaseLevel1 extends BaseLevel implements Level1 {
         if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
             OpProfiler.getInstance().processBlasCall(false, X);
 
+        Nd4j.getExecutioner().push();
+
         if (X.isSparse()) {
             Nd4j.getSparseBlasWrapper().level1().scal(N, alpha, X);
         } else if (X.data().dataType() == DataBuffer.Type.DOUBLE)
@@ -41,6 +41,9 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
         if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
             OpProfiler.getInstance().processBlasCall(false, A, X, Y);
 
+        // pending GridExecutioner ops have to be applied before BLAS reads operands
+        Nd4j.getExecutioner().push();
+
         if (A.isSparse() && !X.isSparse()) {
             Nd4j.getSparseBlasWrapper().level2().gemv(order, transA, alpha, A, X, beta, Y);
             return;
@@ -85,6 +88,8 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
         if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
             OpProfiler.getInstance().processBlasCall(false, A, X, Y);
 
+        Nd4j.getExecutioner().push();
+
         GemvParameters parameters = new GemvParameters(A, X, Y);
 
         if (A.data().dataType() == DataBuffer.Type.DOUBLE)
@@ -119,6 +124,8 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
         if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
             OpProfiler.getInstance().processBlasCall(false, A, X, Y);
 
+        Nd4j.getExecutioner().push();
+
         // FIXME: int cast
 
         if (A.data().dataType() == DataBuffer.Type.DOUBLE) {
@@ -181,6 +188,8 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
         if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
             OpProfiler.getInstance().processBlasCall(false, A, X, Y);
 
+        Nd4j.getExecutioner().push();
+
         // FIXME: int cast
 
         if (X.data().dataType() == DataBuffer.Type.DOUBLE) {
@@ -364,6 +373,8 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
         if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
             OpProfiler.getInstance().processBlasCall(false, A, X, Y);
 
+        Nd4j.getExecutioner().push();
+
         // FIXME: int cast
 
         if (X.data().dataType() == DataBuffer.Type.DOUBLE) {
@@ -393,6 +404,8 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
         if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
             OpProfiler.getInstance().processBlasCall(false, Ap, X, Y);
 
+        Nd4j.getExecutioner().push();
+
         // FIXME: int cast
 
         if (Ap.data().dataType() == DataBuffer.Type.DOUBLE) {
@@ -421,6 +434,8 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
         if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
             OpProfiler.getInstance().processBlasCall(false, Ap, X);
 
+        Nd4j.getExecutioner().push();
+
 
         // FIXME: int cast
 
@@ -451,6 +466,8 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
         if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
             OpProfiler.getInstance().processBlasCall(false, A, X, Y);
 
+        Nd4j.getExecutioner().push();
+
         // FIXME int cast
 
         if (X.data().dataType() == DataBuffer.Type.DOUBLE) {
@@ -482,6 +499,8 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
         if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
             OpProfiler.getInstance().processBlasCall(false, A, X, Y);
 
+        Nd4j.getExecutioner().push();
+
         // FIXME: int cast
 
         if (X.data().dataType() == DataBuffer.Type.DOUBLE) {
@@ -512,6 +531,8 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
         if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
             OpProfiler.getInstance().processBlasCall(false, A, X);
 
+        Nd4j.getExecutioner().push();
+
         // FIXME: int cast
 
         if (X.data().dataType() == DataBuffer.Type.DOUBLE) {
@@ -538,6 +559,8 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
         if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
             OpProfiler.getInstance().processBlasCall(false, A, X, Y);
 
+        Nd4j.getExecutioner().push();
+
         // FIXME: int cast
 
         if (X.data().dataType() == DataBuffer.Type.DOUBLE) {
@@ -567,6 +590,8 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
         if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
             OpProfiler.getInstance().processBlasCall(false, A, X);
 
+        Nd4j.getExecutioner().push();
+
         // FIXME: int cast
 
         if (X.data().dataType() == DataBuffer.Type.DOUBLE) {
@@ -593,6 +618,8 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
         if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
             OpProfiler.getInstance().processBlasCall(false, A, X);
 
+        Nd4j.getExecutioner().push();
+
         // FIXME: int cast
 
         if (X.data().dataType() == DataBuffer.Type.DOUBLE) {
@@ -620,6 +647,8 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
         if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
             OpProfiler.getInstance().processBlasCall(false, Ap, X);
 
+        Nd4j.getExecutioner().push();
+
         // FIXME: int cast
 
         if (X.data().dataType() == DataBuffer.Type.DOUBLE) {
@@ -648,6 +677,8 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
         if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
             OpProfiler.getInstance().processBlasCall(false, Ap, X);
 
+        Nd4j.getExecutioner().push();
+
         // FIXME: int cast
 
         if (X.data().dataType() == DataBuffer.Type.DOUBLE) {
@@ -676,6 +707,8 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
         if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
             OpProfiler.getInstance().processBlasCall(false, A, X);
 
+        Nd4j.getExecutioner().push();
+
         // FIXME: int cast
 
         if (A.data().dataType() == DataBuffer.Type.DOUBLE) {
@@ -704,6 +737,8 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
         if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
             OpProfiler.getInstance().processBlasCall(false, A, X);
 
+        Nd4j.getExecutioner().push();
+
         // FIXME: int cast
 
         if (X.data().dataType() == DataBuffer.Type.DOUBLE) {
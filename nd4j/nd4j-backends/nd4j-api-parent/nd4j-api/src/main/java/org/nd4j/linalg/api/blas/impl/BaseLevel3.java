@@ -9,6 +9,7 @@ import org.nd4j.linalg.api.complex.IComplexFloat;
 import org.nd4j.linalg.api.complex.IComplexNDArray;
 import org.nd4j.linalg.api.complex.IComplexNumber;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.impl.accum.BatchMmul;
 import org.nd4j.linalg.api.ops.executioner.DefaultOpExecutioner;
 import org.nd4j.linalg.api.ops.executioner.OpExecutioner;
 import org.nd4j.linalg.api.ops.executioner.OpExecutionerUtil;
@@ -16,6 +17,8 @@ import org.nd4j.linalg.factory.NDArrayFactory;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.profiler.OpProfiler;
 
+import java.util.Arrays;
+
 /**
  * Base class for level 3 functions, abstract headers pulled from:
  * http://www.netlib.org/blas/blast-forum/cblas.h
@@ -45,6 +48,9 @@ public abstract class BaseLevel3 extends BaseLevel implements Level3 {
         if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
             OpProfiler.getInstance().processBlasCall(true, A, B, C);
 
+        // elementwise ops queued by GridExecutioner have to be applied before BLAS call
+        Nd4j.getExecutioner().push();
+
         GemmParams params = new GemmParams(A, B, C);
 
         int charOder = Order;
@@ -73,6 +79,13 @@ public abstract class BaseLevel3 extends BaseLevel implements Level3 {
         if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
             OpProfiler.getInstance().processBlasCall(true, A, B, C);
 
+        Nd4j.getExecutioner().push();
+
+        if (A.isSparse() && !B.isSparse()) {
+            Nd4j.getSparseBlasWrapper().level3().gemm(A, B, C, transposeA, transposeB, alpha, beta);
+            return;
+        }
+
         GemmParams params = new GemmParams(A, B, C, transposeA, transposeB);
         if (A.data().dataType() == DataBuffer.Type.DOUBLE) {
             DefaultOpExecutioner.validateDataType(DataBuffer.Type.DOUBLE, params.getA(), params.getB(), C);
@@ -94,6 +107,68 @@ public abstract class BaseLevel3 extends BaseLevel implements Level3 {
         OpExecutionerUtil.checkForAny(C);
     }
 
+    /**{@inheritDoc}
+     */
+    @Override
+    public void gemmBatched(INDArray[] A, INDArray[] B, INDArray[] C, boolean transposeA, boolean transposeB,
+                    double alpha, double beta) {
+        if (A.length != B.length || A.length != C.length)
+            throw new IllegalArgumentException("Number of A, B and C matrices should be equal, got " + A.length + ", "
+                            + B.length + " and " + C.length);
+        if (A.length == 0)
+            return;
+
+        if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
+            OpProfiler.getInstance().processBlasCall(true, A[0], B[0], C[0]);
+
+        Nd4j.getExecutioner().push();
+
+        // results are written to C as is, so if they don't share layout - we use temporary f order arrays
+        INDArray[] target = C;
+        if (!BatchMmul.isSharedLayout(C)) {
+            target = new INDArray[C.length];
+            for (int e = 0; e < C.length; e++)
+                target[e] = beta == 0.0 ? Nd4j.createUninitialized(C[e].shape(), 'f') : C[e].dup('f');
+        }
+
+        Nd4j.getExecutioner().exec(new BatchMmul(A, B, target, transposeA, transposeB, alpha, beta));
+
+        if (target != C) {
+            for (int e = 0; e < C.length; e++)
+                C[e].assign(target[e]);
+        }
+
+        for (INDArray c : C)
+            OpExecutionerUtil.checkForAny(c);
+    }
+
+    /**{@inheritDoc}
+     */
+    @Override
+    public void gemmBatched(INDArray A, INDArray B, INDArray C, boolean transposeA, boolean transposeB, double alpha,
+                    double beta) {
+        if (A.rank() != 3 || B.rank() != 3 || C.rank() != 3)
+            throw new IllegalArgumentException("A, B and C should be rank 3 arrays, got shapes "
+                            + Arrays.toString(A.shape()) + ", " + Arrays.toString(B.shape()) + " and "
+                            + Arrays.toString(C.shape()));
+        if (A.size(0) != B.size(0) || A.size(0) != C.size(0))
+            throw new IllegalArgumentException("Batch sizes of A, B and C should be equal, got shapes "
+                            + Arrays.toString(A.shape()) + ", " + Arrays.toString(B.shape()) + " and "
+                            + Arrays.toString(C.shape()));
+
+        int batchSize = (int) A.size(0);
+        INDArray[] matricesA = new INDArray[batchSize];
+        INDArray[] matricesB = new INDArray[batchSize];
+        INDArray[] matricesC = new INDArray[batchSize];
+        for (int e = 0; e < batchSize; e++) {
+            matricesA[e] = A.tensorAlongDimension(e, 1, 2);
+            matricesB[e] = B.tensorAlongDimension(e, 1, 2);
+            matricesC[e] = C.tensorAlongDimension(e, 1, 2);
+        }
+
+        gemmBatched(matricesA, matricesB, matricesC, transposeA, transposeB, alpha, beta);
+    }
+
 
     /**
      * her2k performs a rank-2k update of an n-by-n Hermitian matrix c, that is, one of the following operations:
@@ -3,12 +3,21 @@ package org.nd4j.linalg.api.blas.impl;
 import org.nd4j.linalg.api.blas.Level3;
 import org.nd4j.linalg.api.complex.IComplexNDArray;
 import org.nd4j.linalg.api.complex.IComplexNumber;
+import org.nd4j.linalg.api.ndarray.BaseSparseNDArrayCSR;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.custom.ScatterUpdate;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.Arrays;
+
+import static org.nd4j.base.Preconditions.checkArgument;
 
 /**
  * @author Audrey Loeffel
  */
 public class SparseBaseLevel3 extends SparseBaseLevel implements Level3 {
+    private static final int[] ROW_DIM = new int[] {1};
+
     @Override
     public void gemm(char Order, char TransA, char TransB, double alpha, INDArray A, INDArray B, double beta,
                     INDArray C) {
@@ -18,7 +27,101 @@ public class SparseBaseLevel3 extends SparseBaseLevel implements Level3 {
     @Override
     public void gemm(INDArray A, INDArray B, INDArray C, boolean transposeA, boolean transposeB, double alpha,
                     double beta) {
-
+        if (!(A instanceof BaseSparseNDArrayCSR) || B.isSparse() || C.isSparse())
+            throw new UnsupportedOperationException("Only sparse CSR x dense matrix multiplication is supported");
+        checkArgument(A.rank() == 2 && B.rank() == 2 && C.rank() == 2, "A, B and C must be matrices");
+
+        BaseSparseNDArrayCSR csr = (BaseSparseNDArrayCSR) A;
+        INDArray b = transposeB ? B.transpose() : B;
+        int m = csr.rows();
+        int k = csr.columns();
+        if (transposeA) {
+            checkArgument(b.rows() == m && C.rows() == k && C.columns() == b.columns(),
+                            "Invalid shapes for A^T x B = C: A %s, B %s, C %s", A.shape(), b.shape(), C.shape());
+        } else {
+            checkArgument(b.rows() == k && C.rows() == m && C.columns() == b.columns(),
+                            "Invalid shapes for A x B = C: A %s, B %s, C %s", A.shape(), b.shape(), C.shape());
+        }
+
+        int n = (int) b.columns();
+        double[] values = csr.getDoubleValues();
+        int[] columns = csr.getVectorCoordinates().asInt();
+        int[] pointerB = csr.getPointerBArray();
+        int[] pointerE = csr.getPointerEArray();
+        int[] nonZeroColumns = sortedUnique(columns);
+
+        if (!transposeA) {
+            //C = A x B: only the rows of B for the non-zero columns of A are used
+            double[] bRows = nonZeroColumns.length == 0 ? new double[0]
+                            : Nd4j.pullRows(b, 1, nonZeroColumns, 'c').data().asDouble();
+            double[] out = new double[m * n];
+            for (int row = 0; row < m; row++) {
+                int outOffset = row * n;
+                for (int idx = pointerB[row]; idx < pointerE[row]; idx++) {
+                    int bOffset = Arrays.binarySearch(nonZeroColumns, columns[idx]) * n;
+                    double v = alpha * values[idx];
+                    for (int j = 0; j < n; j++)
+                        out[outOffset + j] += v * bRows[bOffset + j];
+                }
+            }
+
+            INDArray result = Nd4j.create(out, new int[] {m, n}, 'c');
+            if (beta == 0.0) {
+                C.assign(result);
+            } else {
+                C.muli(beta).addi(result);
+            }
+        } else {
+            //C = A^T x B: only the rows of C for the non-zero columns of A are non-zero (beta == 0)
+            double[] bData = b.dup('c').data().asDouble();
+            double[] out = new double[nonZeroColumns.length * n];
+            for (int row = 0; row < m; row++) {
+                int bOffset = row * n;
+                for (int idx = pointerB[row]; idx < pointerE[row]; idx++) {
+                    int outOffset = Arrays.binarySearch(nonZeroColumns, columns[idx]) * n;
+                    double v = alpha * values[idx];
+                    for (int j = 0; j < n; j++)
+                        out[outOffset + j] += v * bData[bOffset + j];
+                }
+            }
+
+            if (beta == 0.0) {
+                C.assign(0.0);
+            } else if (beta != 1.0) {
+                C.muli(beta);
+            }
+            if (nonZeroColumns.length > 0) {
+                INDArray rows = Nd4j.create(out, new int[] {nonZeroColumns.length, n}, 'c');
+                Nd4j.getExecutioner().exec(new ScatterUpdate(C, rows, nonZeroColumns, ROW_DIM,
+                                ScatterUpdate.UpdateOp.ADD));
+            }
+        }
+    }
+
+    /**
+     * Returns the sorted distinct values of the given array
+     */
+    protected static int[] sortedUnique(int[] values) {
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int n = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (n == 0 || sorted[i] != sorted[n - 1])
+                sorted[n++] = sorted[i];
+        }
+        return Arrays.copyOf(sorted, n);
+    }
+
+    @Override
+    public void gemmBatched(INDArray[] A, INDArray[] B, INDArray[] C, boolean transposeA, boolean transposeB,
+                    double alpha, double beta) {
+        throw new UnsupportedOperationException("Batched gemm isn't supported for sparse matrices");
+    }
+
+    @Override
+    public void gemmBatched(INDArray A, INDArray B, INDArray C, boolean transposeA, boolean transposeB, double alpha,
+                    double beta) {
+        throw new UnsupportedOperationException("Batched gemm isn't supported for sparse matrices");
     }
 
     @Override
@@ -5662,6 +5662,9 @@ public abstract class BaseNDArray implements INDArray, Iterable {
     }
 
     protected void autoProcessScalarCall() {
+        // scalar access goes directly to memory, so ops queued by GridExecutioner have to be applied first
+        Nd4j.getExecutioner().push();
+
        /* if (Nd4j.getExecutioner().getProfilingMode() != OpExecutioner.ProfilingMode.DISABLED && Nd4j.getExecutioner().getProfilingMode() != OpExecutioner.ProfilingMode.SCOPE_PANIC)
             OpProfiler.getInstance().processScalarCall();*/
     }
@@ -1209,6 +1209,11 @@ public abstract class BaseSparseNDArray implements ISparseNDArray {
             return other.muli(getDouble(0), result);
         }
 
+        if (getFormat() == SparseFormat.CSR && !other.isSparse()) {
+            Nd4j.getSparseBlasWrapper().level3().gemm(this, other, result, false, false, 1.0, 0.0);
+            return result;
+        }
+
         /* check sizes and resize if necessary */
 
 
@@ -2033,12 +2038,13 @@ public abstract class BaseSparseNDArray implements ISparseNDArray {
 
     @Override
     public INDArray detach() {
-        return null;
+        //Sparse arrays are never attached to a workspace
+        return this;
     }
 
     @Override
     public INDArray leverage() {
-        return null;
+        return this;
     }
 
     @Override
@@ -2047,12 +2053,12 @@ public abstract class BaseSparseNDArray implements ISparseNDArray {
     }
 
     public INDArray leverageTo(String id, boolean enforceExistence) throws Nd4jNoSuchWorkspaceException {
-        return null;
+        return this;
     }
 
     @Override
     public INDArray leverageOrDetach(String id){
-        return null;
+        return this;
     }
 
     @Override
@@ -2062,7 +2068,7 @@ public abstract class BaseSparseNDArray implements ISparseNDArray {
 
     @Override
     public INDArray migrate(boolean detachIfNoWs){
-        return null;
+        return this;
     }
 
     @Override
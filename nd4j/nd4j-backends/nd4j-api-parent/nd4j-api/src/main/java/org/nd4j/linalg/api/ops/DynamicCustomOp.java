@@ -397,6 +397,25 @@ public class DynamicCustomOp extends DifferentialFunction implements CustomOp {
         outputArguments.set(index, output);
     }
 
+    /**
+     * This method replaces all input and output arrays, without validation against SameDiff args.
+     * Used by ops that are executed on views of the actual arrays (i.e. transposed), so shapes differ.
+     *
+     * @param inputs
+     * @param outputs
+     */
+    protected void replaceArrays(INDArray[] inputs, INDArray[] outputs) {
+        inputArguments = new ArrayList<>(Arrays.asList(inputs));
+        outputArguments = new ArrayList<>(Arrays.asList(outputs));
+    }
+
+    /**
+     * This method removes all integer arguments
+     */
+    protected void clearIArguments() {
+        iArguments.clear();
+    }
+
     @Override
     public int numInputArguments() {
         return inputArguments.size();
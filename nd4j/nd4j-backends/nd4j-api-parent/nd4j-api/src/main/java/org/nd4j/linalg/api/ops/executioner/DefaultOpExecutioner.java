@@ -36,6 +36,7 @@ import org.nd4j.linalg.cache.TADManager;
 import org.nd4j.linalg.exception.ND4JIllegalStateException;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.profiler.OpProfiler;
+import org.nd4j.linalg.profiler.WorkspaceProfiler;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -432,13 +433,16 @@ public class DefaultOpExecutioner implements OpExecutioner {
             if (ws.getWorkspaceType() != MemoryWorkspace.Type.CIRCULAR) {
 
                 if (!ws.isScopeActive()) {
+                    WorkspaceProfiler.getInstance().recordLeak(ws, opName, array.data());
                     throw new ND4JIllegalStateException("Op [" + opName + "] X argument uses leaked workspace pointer from workspace ["
                             + ws.getId() + "]\nAll open workspaces: " + allOpenWorkspaces() + "\n" + SCOPE_PANIC_MSG);
                 }
 
-                if (ws.getGenerationId() != array.data().getGenerationId())
+                if (ws.getGenerationId() != array.data().getGenerationId()) {
+                    WorkspaceProfiler.getInstance().recordLeak(ws, opName, array.data());
                     throw new ND4JIllegalStateException("Op [" + opName + "] X argument uses outdated workspace pointer from workspace ["
                             + ws.getId() + "]\nAll open workspaces: " + allOpenWorkspaces() + "\n" + SCOPE_PANIC_MSG);
+                }
             }
         }
     }
@@ -465,6 +469,40 @@ public class DefaultOpExecutioner implements OpExecutioner {
             checkWorkspace(op.opName(), z);
     }
 
+    /**
+     * This method records op arguments leaked out of workspace scope in WorkspaceProfiler, without throwing.
+     * Used when WorkspaceProfiler is enabled and profiling mode isn't SCOPE_PANIC
+     */
+    protected void recordWorkspaceLeak(String opName, INDArray array) {
+        if (array == null || !array.isAttached())
+            return;
+
+        val ws = array.data().getParentWorkspace();
+        if (ws.getWorkspaceType() != MemoryWorkspace.Type.CIRCULAR
+                && (!ws.isScopeActive() || ws.getGenerationId() != array.data().getGenerationId()))
+            WorkspaceProfiler.getInstance().recordLeak(ws, opName, array.data());
+    }
+
+    protected void recordWorkspaceLeaks(CustomOp op) {
+        if (!WorkspaceProfiler.getInstance().isEnabled())
+            return;
+
+        for (val input: op.inputArguments())
+            recordWorkspaceLeak(op.opName(), input);
+
+        for (val output: op.outputArguments())
+            recordWorkspaceLeak(op.opName(), output);
+    }
+
+    protected void recordWorkspaceLeaks(Op op) {
+        if (!WorkspaceProfiler.getInstance().isEnabled())
+            return;
+
+        recordWorkspaceLeak(op.opName(), op.x());
+        recordWorkspaceLeak(op.opName(), op.y());
+        recordWorkspaceLeak(op.opName(), op.z());
+    }
+
     private static List<String> allOpenWorkspaces(){
         List<MemoryWorkspace> l = Nd4j.getWorkspaceManager().getAllWorkspacesForCurrentThread();
         List<String> workspaces = new ArrayList<>(l.size());
@@ -477,6 +515,9 @@ public class DefaultOpExecutioner implements OpExecutioner {
     }
 
     public long profilingHookIn(Op op) {
+        if (profilingMode != ProfilingMode.SCOPE_PANIC)
+            recordWorkspaceLeaks(op);
+
         switch (profilingMode) {
             case ALL:
                 OpProfiler.getInstance().processOpCall(op);
@@ -498,6 +539,9 @@ public class DefaultOpExecutioner implements OpExecutioner {
     }
 
     public long profilingHookIn(CustomOp op) {
+        if (profilingMode != ProfilingMode.SCOPE_PANIC)
+            recordWorkspaceLeaks(op);
+
         switch (profilingMode) {
             case ALL:
                 OpProfiler.getInstance().processOpCall(op);
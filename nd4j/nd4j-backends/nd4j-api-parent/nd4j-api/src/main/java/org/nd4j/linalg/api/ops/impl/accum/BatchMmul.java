@@ -0,0 +1,271 @@
+package org.nd4j.linalg.api.ops.impl.accum;
+
+import org.nd4j.autodiff.samediff.SDVariable;
+import org.nd4j.autodiff.samediff.SameDiff;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.DynamicCustomOp;
+import org.nd4j.linalg.api.ops.executioner.DefaultOpExecutioner;
+import org.nd4j.linalg.api.shape.Shape;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.*;
+
+/**
+ * Batched matrix multiplication: C[i] = alpha * op(A[i]) * op(B[i]) + beta * C[i] for every i in the batch,
+ * executed as single native call, parallelized over the batch (or MKL batched gemm, if available).
+ * All matrices within batch must have the same shapes.
+ *
+ * Native op works on column-major buffers with shared leading dimensions, so arrays are mapped to it here:
+ * c order matrices are passed as transposed, row-major C is computed as C^T = op(B)^T * op(A)^T, and only
+ * operands that don't fit layout of the rest of the batch (i.e. views with unit stride in neither dimension) are copied.
+ * Outputs are used as is, so all of them have to share the same layout: see Level3.gemmBatched() for arbitrary outputs.
+ */
+public class BatchMmul extends DynamicCustomOp {
+
+    protected boolean transposeA;
+    protected boolean transposeB;
+    protected int batchSize;
+
+    // logical shape of the outputs
+    protected long rows;
+    protected long columns;
+
+    public BatchMmul(SameDiff sameDiff, SDVariable[] matricesA, SDVariable[] matricesB, boolean transposeA,
+                    boolean transposeB) {
+        super(null, sameDiff, concat(matricesA, matricesB));
+        if (matricesA.length != matricesB.length)
+            throw new ND4JIllegalStateException("Number of A and B matrices should be equal, got " + matricesA.length
+                            + " and " + matricesB.length);
+
+        this.batchSize = matricesA.length;
+        this.transposeA = transposeA;
+        this.transposeB = transposeB;
+    }
+
+    public BatchMmul(INDArray[] matricesA, INDArray[] matricesB, INDArray[] matricesC, boolean transposeA,
+                    boolean transposeB, double alpha, double beta) {
+        super(null);
+        this.batchSize = matricesA.length;
+        this.transposeA = transposeA;
+        this.transposeB = transposeB;
+        configure(matricesA, matricesB, matricesC, alpha, beta);
+    }
+
+    public BatchMmul() {}
+
+    @Override
+    public String opName() {
+        return "batched_gemm";
+    }
+
+    /**
+     * This method maps given matrices to native op arguments
+     */
+    protected void configure(INDArray[] matricesA, INDArray[] matricesB, INDArray[] matricesC, double alpha,
+                    double beta) {
+        if (batchSize < 1 || matricesB.length != batchSize || matricesC.length != batchSize)
+            throw new ND4JIllegalStateException("Number of A, B and C matrices should be equal and positive, got "
+                            + matricesA.length + ", " + matricesB.length + " and " + matricesC.length);
+
+        INDArray[] a = new INDArray[batchSize];
+        INDArray[] b = new INDArray[batchSize];
+        INDArray[] c = new INDArray[batchSize];
+
+        // if C can't be used as column-major, we compute C^T instead, which is column-major then
+        boolean swap = columnMajorLd(matricesC[0]) < 0;
+        for (int e = 0; e < batchSize; e++) {
+            if (matricesA[e].rank() != 2 || matricesB[e].rank() != 2 || matricesC[e].rank() != 2)
+                throw new ND4JIllegalStateException("BatchMmul: all arrays should be matrices, got shapes "
+                                + Arrays.toString(matricesA[e].shape()) + ", " + Arrays.toString(matricesB[e].shape())
+                                + " and " + Arrays.toString(matricesC[e].shape()) + " at index " + e);
+
+            INDArray opA = transposeA ? matricesA[e].transpose() : matricesA[e];
+            INDArray opB = transposeB ? matricesB[e].transpose() : matricesB[e];
+            if (swap) {
+                a[e] = opB.transpose();
+                b[e] = opA.transpose();
+                c[e] = matricesC[e].transpose();
+            } else {
+                a[e] = opA;
+                b[e] = opB;
+                c[e] = matricesC[e];
+            }
+        }
+
+        long m = a[0].rows();
+        long k = a[0].columns();
+        long n = b[0].columns();
+        for (int e = 0; e < batchSize; e++) {
+            if (a[e].rows() != m || a[e].columns() != k || b[e].rows() != k || b[e].columns() != n
+                            || c[e].rows() != m || c[e].columns() != n)
+                throw new ND4JIllegalStateException("BatchMmul: all matrices within batch should have the same shapes,"
+                                + " got incompatible shapes " + Arrays.toString(matricesA[e].shape()) + ", "
+                                + Arrays.toString(matricesB[e].shape()) + " and "
+                                + Arrays.toString(matricesC[e].shape()) + " at index " + e);
+        }
+
+        if (!isSharedLayout(matricesC))
+            throw new ND4JIllegalStateException("BatchMmul: all outputs should have unit stride along the same "
+                            + "dimension, and the same leading dimension");
+        long ldc = columnMajorLd(c[0]);
+
+        DefaultOpExecutioner.validateDataType(Nd4j.dataType(), a);
+        DefaultOpExecutioner.validateDataType(Nd4j.dataType(), b);
+        DefaultOpExecutioner.validateDataType(Nd4j.dataType(), c);
+
+        boolean transA = normalize(a);
+        boolean transB = normalize(b);
+        long lda = transA ? rowMajorLd(a[0]) : columnMajorLd(a[0]);
+        long ldb = transB ? rowMajorLd(b[0]) : columnMajorLd(b[0]);
+
+        INDArray[] inputs = new INDArray[2 * batchSize + 2];
+        inputs[0] = Nd4j.valueArrayOf(new long[] {1, batchSize}, alpha);
+        inputs[1] = Nd4j.valueArrayOf(new long[] {1, batchSize}, beta);
+        System.arraycopy(a, 0, inputs, 2, batchSize);
+        System.arraycopy(b, 0, inputs, 2 + batchSize, batchSize);
+        replaceArrays(inputs, c);
+
+        clearIArguments();
+        addIArgument(transA ? 1 : 0, transB ? 1 : 0, m, n, k, lda, ldb, ldc, batchSize);
+
+        rows = swap ? n : m;
+        columns = swap ? m : n;
+    }
+
+    /**
+     * This method checks, if given matrices can be used as outputs of this op as is: all of them have to be
+     * either column-major or row-major, with the same leading dimension
+     *
+     * @param matrices
+     * @return
+     */
+    public static boolean isSharedLayout(INDArray... matrices) {
+        boolean rowMajor = columnMajorLd(matrices[0]) < 0;
+        long ld = rowMajor ? rowMajorLd(matrices[0]) : columnMajorLd(matrices[0]);
+        if (ld < 0)
+            return false;
+
+        for (int e = 1; e < matrices.length; e++) {
+            if ((rowMajor ? rowMajorLd(matrices[e]) : columnMajorLd(matrices[e])) != ld)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * This method picks layout shared by all matrices, copying the ones that don't fit it
+     *
+     * @return true if matrices are row-major, and have to be passed as transposed
+     */
+    protected static boolean normalize(INDArray[] matrices) {
+        if (isSharedLayout(matrices))
+            return columnMajorLd(matrices[0]) < 0;
+
+        // dense column-major matrices have leading dimension equal to number of rows
+        for (int e = 0; e < matrices.length; e++) {
+            if (columnMajorLd(matrices[e]) != matrices[e].rows())
+                matrices[e] = matrices[e].dup('f');
+        }
+
+        return false;
+    }
+
+    /**
+     * @return leading dimension if matrix has unit stride along rows, or -1
+     */
+    protected static long columnMajorLd(INDArray matrix) {
+        long ld = matrix.stride(1);
+        return matrix.stride(0) == 1 && ld >= Math.max(1, matrix.rows()) ? ld : -1;
+    }
+
+    /**
+     * @return leading dimension if matrix has unit stride along columns, or -1
+     */
+    protected static long rowMajorLd(INDArray matrix) {
+        long ld = matrix.stride(0);
+        return matrix.stride(1) == 1 && ld >= Math.max(1, matrix.columns()) ? ld : -1;
+    }
+
+    /**
+     * SameDiff arrays are resolved right before execution, since their layout may be different on each run
+     */
+    protected void configureFromSameDiff() {
+        SDVariable[] args = args();
+        SDVariable[] outputs = outputVariables();
+        INDArray[] a = new INDArray[batchSize];
+        INDArray[] b = new INDArray[batchSize];
+        INDArray[] c = new INDArray[batchSize];
+        for (int e = 0; e < batchSize; e++) {
+            a[e] = args[e].getArr();
+            b[e] = args[batchSize + e].getArr();
+            c[e] = outputs[e].getArr();
+            if (a[e] == null || b[e] == null || c[e] == null)
+                throw new ND4JIllegalStateException("BatchMmul: arrays aren't available for batch index " + e);
+        }
+
+        configure(a, b, c, 1.0, 0.0);
+    }
+
+    @Override
+    public void populateInputsAndOutputsFromSameDiff() {
+        super.populateInputsAndOutputsFromSameDiff();
+        configureFromSameDiff();
+    }
+
+    @Override
+    public void updateInputsFromSameDiff() {
+        configureFromSameDiff();
+    }
+
+    @Override
+    public List<long[]> calculateOutputShape() {
+        List<long[]> ret = new ArrayList<>(batchSize);
+        if (sameDiff == null) {
+            for (int e = 0; e < batchSize; e++)
+                ret.add(new long[] {rows, columns});
+            return ret;
+        }
+
+        SDVariable[] args = args();
+        for (int e = 0; e < batchSize; e++) {
+            long[] aShape = args[e].getShape();
+            long[] bShape = args[batchSize + e].getShape();
+            if (aShape == null || bShape == null || Shape.isPlaceholderShape(aShape)
+                            || Shape.isPlaceholderShape(bShape))
+                return Collections.emptyList();
+
+            ret.add(new long[] {transposeA ? aShape[1] : aShape[0], transposeB ? bShape[0] : bShape[1]});
+        }
+        return ret;
+    }
+
+    @Override
+    public List<SDVariable> doDiff(List<SDVariable> i_v1) {
+        SDVariable[] args = args();
+        SDVariable[] matricesA = Arrays.copyOfRange(args, 0, batchSize);
+        SDVariable[] matricesB = Arrays.copyOfRange(args, batchSize, 2 * batchSize);
+        SDVariable[] grads = new SDVariable[batchSize];
+        for (int e = 0; e < batchSize; e++)
+            grads[e] = sameDiff.setupFunction(i_v1.get(e));
+
+        // dL/dop(A) = dL/dC * op(B)^T and dL/dop(B) = op(A)^T * dL/dC, transposed back if op is transpose
+        SDVariable[] gradA = transposeA ? f().batchMmul(matricesB, grads, transposeB, true)
+                        : f().batchMmul(grads, matricesB, false, !transposeB);
+        SDVariable[] gradB = transposeB ? f().batchMmul(grads, matricesA, true, transposeA)
+                        : f().batchMmul(matricesA, grads, !transposeA, false);
+
+        List<SDVariable> ret = new ArrayList<>(2 * batchSize);
+        for (SDVariable grad : gradA)
+            ret.add(sameDiff.setupFunction(grad));
+        for (SDVariable grad : gradB)
+            ret.add(sameDiff.setupFunction(grad));
+        return ret;
+    }
+
+    private static SDVariable[] concat(SDVariable[] matricesA, SDVariable[] matricesB) {
+        SDVariable[] ret = Arrays.copyOf(matricesA, matricesA.length + matricesB.length);
+        System.arraycopy(matricesB, 0, ret, matricesA.length, matricesB.length);
+        return ret;
+    }
+}
@@ -0,0 +1,579 @@
+package org.nd4j.linalg.api.rng;
+
+import org.bytedeco.javacpp.Pointer;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.executors.ExecutorServiceProvider;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.util.ArrayUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Counter-based random number generator: Philox4x32-10, as described in
+ * "Parallel Random Numbers: As Easy as 1, 2, 3" by Salmon et al.
+ *
+ * Each block of 4 random ints is a pure function of (seed, stream, position), which gives us:
+ * - O(1) skip-ahead: skip() just moves the counter
+ * - independent streams derived from a single seed without any shared state: stream(id) returns generator working
+ *   over separate part of counter space, so each thread or worker can have its own generator
+ * - bulk generation (fillUniform, fillGaussian, fillBernoulli) split into chunks that are generated in parallel,
+ *   with results not depending on number of threads used
+ *
+ * Instances aren't synchronized, use one instance per thread instead.
+ *
+ * Please note: this implementation can't be used for NativeOps execution
+ */
+public class PhiloxRandom implements Random {
+    private static final int M0 = 0xD2511F53;
+    private static final int M1 = 0xCD9E8D57;
+    private static final int W0 = 0x9E3779B9;
+    private static final int W1 = 0xBB67AE85;
+    private static final int ROUNDS = 10;
+
+    // key used for seeds derivation, so derived seeds don't match values generated from the original seed
+    private static final long DERIVATION_KEY = 0x5851F42D4C957F2DL;
+
+    private static final double DOUBLE_UNIT = 1.0 / (1L << 53);
+    private static final float FLOAT_UNIT = 1.0f / (1 << 24);
+    private static final double TWO_32 = 4294967296.0;
+
+    // number of blocks generated by single task during bulk generation
+    protected static final int CHUNK_BLOCKS = 8192;
+
+    protected long seed;
+    protected long stream;
+    // index of the next block to be generated
+    protected long position;
+
+    private final int[] block = new int[4];
+    private int blockIndex = 4;
+
+    private double nextGaussian;
+    private boolean haveNextGaussian;
+
+    /**
+     * Initialize with a System.currentTimeMillis()
+     * seed
+     */
+    public PhiloxRandom() {
+        this(System.currentTimeMillis());
+    }
+
+    public PhiloxRandom(long seed) {
+        this(seed, 0L);
+    }
+
+    public PhiloxRandom(long seed, long stream) {
+        this.seed = seed;
+        this.stream = stream;
+    }
+
+    /**
+     * This method computes single Philox4x32-10 block
+     *
+     * @param seed 64-bit key
+     * @param stream upper 64 bits of the counter
+     * @param position lower 64 bits of the counter
+     * @param out array of 4 ints to store result to
+     */
+    public static void block(long seed, long stream, long position, int[] out) {
+        int c0 = (int) position;
+        int c1 = (int) (position >>> 32);
+        int c2 = (int) stream;
+        int c3 = (int) (stream >>> 32);
+        int k0 = (int) seed;
+        int k1 = (int) (seed >>> 32);
+
+        for (int r = 0; r < ROUNDS; r++) {
+            long p0 = (M0 & 0xFFFFFFFFL) * (c0 & 0xFFFFFFFFL);
+            long p1 = (M1 & 0xFFFFFFFFL) * (c2 & 0xFFFFFFFFL);
+
+            c0 = (int) (p1 >>> 32) ^ c1 ^ k0;
+            c1 = (int) p1;
+            c2 = (int) (p0 >>> 32) ^ c3 ^ k1;
+            c3 = (int) p0;
+
+            k0 += W0;
+            k1 += W1;
+        }
+
+        out[0] = c0;
+        out[1] = c1;
+        out[2] = c2;
+        out[3] = c3;
+    }
+
+    /**
+     * This method derives independent 64-bit seed from the given seed and stream id.
+     * Useful for seeding other generators (i.e. NativeRandom of each worker thread) from one seed.
+     *
+     * @param seed
+     * @param streamId
+     * @return
+     */
+    public static long deriveSeed(long seed, long streamId) {
+        int[] out = new int[4];
+        block(seed ^ DERIVATION_KEY, streamId, 0L, out);
+        return ((long) out[0] << 32) | (out[1] & 0xFFFFFFFFL);
+    }
+
+    /**
+     * This method returns new generator with the same seed, over the separate stream.
+     * Streams don't overlap, since stream id is the upper half of the 128-bit counter
+     *
+     * @param streamId
+     * @return
+     */
+    public PhiloxRandom stream(long streamId) {
+        return new PhiloxRandom(seed, streamId);
+    }
+
+    public long getStream() {
+        return stream;
+    }
+
+    /**
+     * This method returns position of this generator within its stream, in 32-bit values
+     *
+     * @return
+     */
+    public long getPosition() {
+        return position * 4 - (4 - blockIndex);
+    }
+
+    /**
+     * This method skips given number of 32-bit values, in constant time.
+     * Calling skip(n) is equal to n calls of nextInt()
+     *
+     * @param count
+     */
+    public void skip(long count) {
+        if (count < 0)
+            throw new IllegalArgumentException("Can't skip negative number of values: " + count);
+
+        haveNextGaussian = false;
+        int buffered = 4 - blockIndex;
+        if (count <= buffered) {
+            blockIndex += (int) count;
+            return;
+        }
+
+        count -= buffered;
+        position += count / 4;
+        blockIndex = 4;
+
+        int remainder = (int) (count % 4);
+        if (remainder > 0) {
+            nextBlock();
+            blockIndex = remainder;
+        }
+    }
+
+    private void nextBlock() {
+        block(seed, stream, position++, block);
+        blockIndex = 0;
+    }
+
+    protected void reset() {
+        position = 0;
+        blockIndex = 4;
+        haveNextGaussian = false;
+    }
+
+    @Override
+    public void setSeed(int seed) {
+        setSeed((long) seed);
+    }
+
+    @Override
+    public void setSeed(int[] seed) {
+        if (seed == null || seed.length == 0)
+            throw new IllegalArgumentException("Seed can't be empty");
+
+        setSeed(seed.length == 1 ? seed[0] : ((long) seed[1] << 32) | (seed[0] & 0xFFFFFFFFL));
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        this.seed = seed;
+        reset();
+    }
+
+    @Override
+    public long getSeed() {
+        return seed;
+    }
+
+    @Override
+    public void nextBytes(byte[] bytes) {
+        for (int i = 0; i < bytes.length;) {
+            for (int rnd = nextInt(), n = Math.min(bytes.length - i, 4); n-- > 0; rnd >>= 8)
+                bytes[i++] = (byte) rnd;
+        }
+    }
+
+    @Override
+    public int nextInt() {
+        if (blockIndex == 4)
+            nextBlock();
+
+        return block[blockIndex++];
+    }
+
+    @Override
+    public int nextInt(int n) {
+        if (n <= 0)
+            throw new IllegalArgumentException("n must be positive, got " + n);
+
+        if ((n & -n) == n)
+            return (int) ((n * (long) (nextInt() >>> 1)) >> 31);
+
+        int bits;
+        int val;
+        do {
+            bits = nextInt() >>> 1;
+            val = bits % n;
+        } while (bits - val + (n - 1) < 0);
+
+        return val;
+    }
+
+    @Override
+    public long nextLong() {
+        return ((long) nextInt() << 32) | (nextInt() & 0xFFFFFFFFL);
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        return nextInt() < 0;
+    }
+
+    @Override
+    public float nextFloat() {
+        return (nextInt() >>> 8) * FLOAT_UNIT;
+    }
+
+    @Override
+    public double nextDouble() {
+        int a = nextInt();
+        return toDouble(a, nextInt());
+    }
+
+    /**
+     * Gaussian values are generated in pairs via Box-Muller transform, each pair takes 4 ints
+     *
+     * @return
+     */
+    @Override
+    public double nextGaussian() {
+        if (haveNextGaussian) {
+            haveNextGaussian = false;
+            return nextGaussian;
+        }
+
+        double u1 = nextDouble();
+        double u2 = nextDouble();
+        double r = Math.sqrt(-2.0 * Math.log(1.0 - u1));
+        double theta = 2.0 * Math.PI * u2;
+
+        nextGaussian = r * Math.sin(theta);
+        haveNextGaussian = true;
+        return r * Math.cos(theta);
+    }
+
+    /**
+     * Uniform double in [0, 1), built from 53 bits of two ints
+     */
+    private static double toDouble(int a, int b) {
+        return (((long) (a >>> 6) << 27) + (b >>> 5)) * DOUBLE_UNIT;
+    }
+
+    /**
+     * This method fills given array with values drawn from uniform distribution in range [from, to)
+     *
+     * @param target
+     * @param from
+     * @param to
+     * @return target
+     */
+    public INDArray fillUniform(INDArray target, final double from, final double to) {
+        final double range = to - from;
+        return fill(target, new BlockTransform(2) {
+            @Override
+            protected void apply(int[] block, double[] out, int offset, int count) {
+                out[offset] = from + range * toDouble(block[0], block[1]);
+                if (count > 1)
+                    out[offset + 1] = from + range * toDouble(block[2], block[3]);
+            }
+        });
+    }
+
+    /**
+     * This method fills given array with values drawn from gaussian distribution
+     *
+     * @param target
+     * @param mean
+     * @param stddev
+     * @return target
+     */
+    public INDArray fillGaussian(INDArray target, final double mean, final double stddev) {
+        return fill(target, new BlockTransform(2) {
+            @Override
+            protected void apply(int[] block, double[] out, int offset, int count) {
+                double r = Math.sqrt(-2.0 * Math.log(1.0 - toDouble(block[0], block[1])));
+                double theta = 2.0 * Math.PI * toDouble(block[2], block[3]);
+
+                out[offset] = mean + stddev * r * Math.cos(theta);
+                if (count > 1)
+                    out[offset + 1] = mean + stddev * r * Math.sin(theta);
+            }
+        });
+    }
+
+    /**
+     * This method fills given array with 1.0 with probability p, and 0.0 otherwise
+     *
+     * @param target
+     * @param p probability of 1.0
+     * @return target
+     */
+    public INDArray fillBernoulli(INDArray target, double p) {
+        if (p < 0.0 || p > 1.0)
+            throw new IllegalArgumentException("Probability should be in range [0, 1], got " + p);
+
+        final long threshold = (long) (p * TWO_32);
+        return fill(target, new BlockTransform(4) {
+            @Override
+            protected void apply(int[] block, double[] out, int offset, int count) {
+                for (int e = 0; e < count; e++)
+                    out[offset + e] = (block[e] & 0xFFFFFFFFL) < threshold ? 1.0 : 0.0;
+            }
+        });
+    }
+
+    /**
+     * This method fills given array with ints in range [0, n).
+     * Unlike nextInt(n), multiply-shift is used here, so each value takes exactly one int
+     */
+    protected INDArray fillInt(INDArray target, final int n) {
+        return fill(target, new BlockTransform(4) {
+            @Override
+            protected void apply(int[] block, double[] out, int offset, int count) {
+                for (int e = 0; e < count; e++)
+                    out[offset + e] = n > 0 ? (int) (((block[e] & 0xFFFFFFFFL) * n) >>> 32) : block[e];
+            }
+        });
+    }
+
+    /**
+     * This method generates values for the whole array, in logical c order.
+     * Value at index i depends only on seed, stream and position of this generator, so results are the same for
+     * any number of threads. Bulk generation always starts at the new block, and advances position past blocks used.
+     */
+    protected INDArray fill(INDArray target, final BlockTransform transform) {
+        long length = target.lengthLong();
+        if (length > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Bulk generation isn't supported for arrays longer than "
+                            + Integer.MAX_VALUE + " elements");
+
+        final int n = (int) length;
+        final int perBlock = transform.perBlock;
+        final long start = position;
+        final long blocks = (n + perBlock - 1) / perBlock;
+
+        position += blocks;
+        blockIndex = 4;
+        haveNextGaussian = false;
+
+        final double[] values = new double[n];
+        final long seed = this.seed;
+        final long stream = this.stream;
+
+        int chunks = (int) ((blocks + CHUNK_BLOCKS - 1) / CHUNK_BLOCKS);
+        if (chunks <= 1) {
+            generate(seed, stream, start, 0, blocks, n, transform, values);
+        } else {
+            final List<RecursiveAction> tasks = new ArrayList<>(chunks);
+            for (int c = 0; c < chunks; c++) {
+                final long first = (long) c * CHUNK_BLOCKS;
+                final long last = Math.min(blocks, first + CHUNK_BLOCKS);
+                tasks.add(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        generate(seed, stream, start, first, last, n, transform, values);
+                    }
+                });
+            }
+
+            RecursiveAction all = new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    ForkJoinTask.invokeAll(tasks);
+                }
+            };
+
+            if (ForkJoinTask.inForkJoinPool())
+                all.invoke();
+            else
+                ExecutorServiceProvider.getForkJoinPool().invoke(all);
+        }
+
+        return target.assign(Nd4j.create(values, target.shape(), 'c'));
+    }
+
+    private static void generate(long seed, long stream, long start, long first, long last, int n,
+                    BlockTransform transform, double[] values) {
+        int[] block = new int[4];
+        int perBlock = transform.perBlock;
+        for (long b = first; b < last; b++) {
+            block(seed, stream, start + b, block);
+
+            int offset = (int) (b * perBlock);
+            transform.apply(block, values, offset, Math.min(perBlock, n - offset));
+        }
+    }
+
+    /**
+     * Maps single block of 4 random ints to a fixed number of output values
+     */
+    protected abstract static class BlockTransform {
+        protected final int perBlock;
+
+        protected BlockTransform(int perBlock) {
+            this.perBlock = perBlock;
+        }
+
+        protected abstract void apply(int[] block, double[] out, int offset, int count);
+    }
+
+    @Override
+    public INDArray nextGaussian(long[] shape) {
+        return nextGaussian(Nd4j.order(), shape);
+    }
+
+    @Override
+    public INDArray nextGaussian(int[] shape) {
+        return nextGaussian(Nd4j.order(), shape);
+    }
+
+    @Override
+    public INDArray nextGaussian(char order, int[] shape) {
+        return nextGaussian(order, ArrayUtil.toLongArray(shape));
+    }
+
+    @Override
+    public INDArray nextGaussian(char order, long[] shape) {
+        return fillGaussian(Nd4j.create(shape, order), 0.0, 1.0);
+    }
+
+    @Override
+    public INDArray nextDouble(long[] shape) {
+        return nextDouble(Nd4j.order(), shape);
+    }
+
+    @Override
+    public INDArray nextDouble(int[] shape) {
+        return nextDouble(Nd4j.order(), shape);
+    }
+
+    @Override
+    public INDArray nextDouble(char order, int[] shape) {
+        return nextDouble(order, ArrayUtil.toLongArray(shape));
+    }
+
+    @Override
+    public INDArray nextDouble(char order, long[] shape) {
+        return fillUniform(Nd4j.create(shape, order), 0.0, 1.0);
+    }
+
+    @Override
+    public INDArray nextFloat(long[] shape) {
+        return nextFloat(Nd4j.order(), shape);
+    }
+
+    @Override
+    public INDArray nextFloat(int[] shape) {
+        return nextFloat(Nd4j.order(), shape);
+    }
+
+    @Override
+    public INDArray nextFloat(char order, int[] shape) {
+        return nextFloat(order, ArrayUtil.toLongArray(shape));
+    }
+
+    @Override
+    public INDArray nextFloat(char order, long[] shape) {
+        return nextDouble(order, shape);
+    }
+
+    @Override
+    public INDArray nextInt(int[] shape) {
+        return nextInt(ArrayUtil.toLongArray(shape));
+    }
+
+    @Override
+    public INDArray nextInt(long[] shape) {
+        return fillInt(Nd4j.create(shape), 0);
+    }
+
+    @Override
+    public INDArray nextInt(int n, int[] shape) {
+        return nextInt(n, ArrayUtil.toLongArray(shape));
+    }
+
+    @Override
+    public INDArray nextInt(int n, long[] shape) {
+        if (n <= 0)
+            throw new IllegalArgumentException("n must be positive, got " + n);
+
+        return fillInt(Nd4j.create(shape), n);
+    }
+
+    /**
+     * This method returns pointer to RNG state structure.
+     * Please note: PhiloxRandom implementation returns NULL here, making it impossible to use with RandomOps
+     *
+     * @return
+     */
+    @Override
+    public Pointer getStatePointer() {
+        return null;
+    }
+
+    /**
+     * This method returns pointer to RNG buffer
+     *
+     * @return
+     */
+    @Override
+    public DataBuffer getStateBuffer() {
+        return null;
+    }
+
+    @Override
+    public void close() throws Exception {
+        //
+    }
+
+    /**
+     * Identical to setSeed(System.currentTimeMillis());
+     */
+    @Override
+    public void reSeed() {
+        reSeed(System.currentTimeMillis());
+    }
+
+    /**
+     * Identical to setSeed(seed);
+     *
+     * @param seed
+     */
+    @Override
+    public void reSeed(long seed) {
+        setSeed(seed);
+    }
+}
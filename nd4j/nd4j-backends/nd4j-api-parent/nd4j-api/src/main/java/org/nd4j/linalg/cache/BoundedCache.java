@@ -0,0 +1,202 @@
+package org.nd4j.linalg.cache;
+
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Size-bounded concurrent cache, used for shape info, TAD and constant buffers.
+ *
+ * Lookups are lock-free: they only touch ConcurrentHashMap and a couple of counters.
+ * Once number of entries or number of cached bytes goes above the limit, the least recently used entries
+ * (ties broken by number of hits) are evicted down to 90% of the limit, so eviction cost is amortized
+ * over many insertions. Evicted buffers are not released explicitly: they are released by GC once
+ * the last array referencing them is gone.
+ *
+ * @param <K> key type, i.e. ShapeDescriptor or TadDescriptor
+ * @param <V> cached value type
+ */
+public class BoundedCache<K, V> implements CacheMetrics {
+    private static final double LOW_WATERMARK = 0.9;
+
+    /**
+     * This interface describes memory used by a single cached value
+     */
+    public interface Weigher<V> {
+        long weigh(V value);
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final long bytes;
+        private volatile long lastAccess;
+        private volatile int hits;
+
+        private Entry(V value, long bytes, long lastAccess) {
+            this.value = value;
+            this.bytes = bytes;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    private final ConcurrentHashMap<K, Entry<V>> map = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final int maxEntries;
+    private final long maxBytes;
+    private final Weigher<V> weigher;
+
+    // logical clock, advanced on insertion only, so cache hits never write to shared state besides counters
+    private final AtomicLong clock = new AtomicLong(0);
+    private final AtomicLong bytes = new AtomicLong(0);
+    private final AtomicLong hits = new AtomicLong(0);
+    private final AtomicLong misses = new AtomicLong(0);
+    private final AtomicLong evictions = new AtomicLong(0);
+
+    /**
+     * @param maxEntries Maximum number of cached entries
+     * @param maxBytes   Maximum number of cached bytes, as reported by weigher. 0 or less for no limit.
+     * @param weigher    Memory used by a single value
+     */
+    public BoundedCache(int maxEntries, long maxBytes, @NonNull Weigher<V> weigher) {
+        if (maxEntries < 1)
+            throw new IllegalArgumentException("Maximum number of entries must be positive, got " + maxEntries);
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.weigher = weigher;
+    }
+
+    /**
+     * This method returns cached value, or null if key isn't cached
+     *
+     * @param key
+     * @return
+     */
+    public V get(K key) {
+        Entry<V> entry = map.get(key);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+
+        hits.incrementAndGet();
+        long now = clock.get();
+        if (entry.lastAccess != now)
+            entry.lastAccess = now;
+        entry.hits++;
+        return entry.value;
+    }
+
+    /**
+     * This method caches value, unless other value was cached for the same key concurrently.
+     *
+     * @param key
+     * @param value
+     * @return value that is cached for the key after this call
+     */
+    public V putIfAbsent(K key, V value) {
+        Entry<V> entry = new Entry<>(value, weigher.weigh(value), clock.incrementAndGet());
+        Entry<V> existing = map.putIfAbsent(key, entry);
+        if (existing != null)
+            return existing.value;
+
+        bytes.addAndGet(entry.bytes);
+        if (map.size() > maxEntries || (maxBytes > 0 && bytes.get() > maxBytes))
+            evict();
+
+        return value;
+    }
+
+    private void evict() {
+        // only one thread evicts at a time, others just go on: limits are soft by design
+        if (!evictionLock.tryLock())
+            return;
+
+        try {
+            List<Map.Entry<K, Entry<V>>> entries = new ArrayList<>(map.entrySet());
+            Collections.sort(entries, new Comparator<Map.Entry<K, Entry<V>>>() {
+                @Override
+                public int compare(Map.Entry<K, Entry<V>> o1, Map.Entry<K, Entry<V>> o2) {
+                    int cmp = Long.compare(o1.getValue().lastAccess, o2.getValue().lastAccess);
+                    return cmp != 0 ? cmp : Integer.compare(o1.getValue().hits, o2.getValue().hits);
+                }
+            });
+
+            long targetEntries = (long) (maxEntries * LOW_WATERMARK);
+            long targetBytes = (long) (maxBytes * LOW_WATERMARK);
+            for (Map.Entry<K, Entry<V>> e : entries) {
+                if (map.size() <= targetEntries && (maxBytes <= 0 || bytes.get() <= targetBytes))
+                    break;
+
+                if (map.remove(e.getKey(), e.getValue())) {
+                    bytes.addAndGet(-e.getValue().bytes);
+                    evictions.incrementAndGet();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * This method removes all cached entries. Counters are left intact.
+     */
+    public void clear() {
+        for (Map.Entry<K, Entry<V>> e : map.entrySet()) {
+            if (map.remove(e.getKey(), e.getValue()))
+                bytes.addAndGet(-e.getValue().bytes);
+        }
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    @Override
+    public long getHits() {
+        return hits.get();
+    }
+
+    @Override
+    public long getMisses() {
+        return misses.get();
+    }
+
+    @Override
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    @Override
+    public long getCachedBytes() {
+        return bytes.get();
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public double getHitRate() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0.0 : h / (double) total;
+    }
+
+    @Override
+    public String toString() {
+        return "BoundedCache(size=" + size() + ", bytes=" + getCachedBytes() + ", hits=" + getHits() + ", misses="
+                        + getMisses() + ", evictions=" + getEvictions() + ")";
+    }
+}
@@ -0,0 +1,50 @@
+package org.nd4j.linalg.cache;
+
+/**
+ * This interface describes counters exported by
+ * shape, TAD and constant buffer caches.
+ */
+public interface CacheMetrics {
+
+    /**
+     * This method returns number of lookups served from cache
+     *
+     * @return
+     */
+    long getHits();
+
+    /**
+     * This method returns number of lookups that required buffer creation
+     *
+     * @return
+     */
+    long getMisses();
+
+    /**
+     * This method returns number of entries evicted so far
+     *
+     * @return
+     */
+    long getEvictions();
+
+    /**
+     * This method returns memory used for cache, in bytes
+     *
+     * @return
+     */
+    long getCachedBytes();
+
+    /**
+     * This method returns number of cached entries
+     *
+     * @return
+     */
+    int size();
+
+    /**
+     * This method returns hits / (hits + misses), or 0.0 if cache wasn't used yet
+     *
+     * @return
+     */
+    double getHitRate();
+}
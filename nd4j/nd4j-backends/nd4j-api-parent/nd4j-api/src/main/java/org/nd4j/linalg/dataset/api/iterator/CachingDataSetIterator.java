@@ -78,6 +78,7 @@ public class CachingDataSetIterator implements DataSetIterator {
     public void reset() {
         sourceIterator.reset();
         currentIndex = 0;
+        usingCache = cache.isComplete(namespace);
     }
 
     @Override
@@ -113,7 +114,18 @@ public class CachingDataSetIterator implements DataSetIterator {
     @Override
     public boolean hasNext() {
         if (usingCache) {
-            return cache.contains(makeKey(currentIndex));
+            if (cache.contains(makeKey(currentIndex)) || cache.isComplete(namespace)) {
+                return cache.contains(makeKey(currentIndex));
+            }
+            //Bounded caches may evict data sets: continue from the source iterator
+            log.debug("Data set {} of namespace {} was evicted from the cache, using the source iterator", currentIndex,
+                            namespace);
+            usingCache = false;
+            sourceIterator.reset();
+            for (int i = 0; i < currentIndex && sourceIterator.hasNext(); i++) {
+                sourceIterator.next();
+            }
+            return hasNext();
         } else {
             if (sourceIterator.hasNext()) {
                 return true;
@@ -0,0 +1,447 @@
+package org.nd4j.linalg.dataset.api.iterator.cache;
+
+import org.apache.commons.io.FileUtils;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.compression.BasicNDArrayCompressor;
+import org.nd4j.linalg.dataset.DataSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A {@link DataSetCache} with two tiers:
+ * <ul>
+ *     <li>a memory tier holding serialized DataSets in off-heap (direct) buffers, bounded by a byte budget,
+ *     evicting the least recently used DataSets when the budget is exceeded</li>
+ *     <li>an optional disk tier holding every DataSet put in the cache, optionally compressed with one of the
+ *     {@link BasicNDArrayCompressor} codecs. Files are written asynchronously by a background thread
+ *     (write-behind): DataSets waiting to be written are served from memory</li>
+ * </ul>
+ * DataSets read from the disk tier are promoted to the memory tier.
+ * <p>
+ * Without a disk tier, DataSets evicted from memory are lost: the cache then reports every namespace as incomplete,
+ * so that a {@link org.nd4j.linalg.dataset.api.iterator.CachingDataSetIterator} goes back to its source iterator.
+ * Data sets larger than the memory budget should use a disk tier.
+ * <p>
+ * Hit and miss counts are available for both tiers, see {@link #getMemoryHits()}, {@link #getDiskHits()},
+ * {@link #getMisses()} and {@link #getEvictions()}.
+ */
+public class TieredDataSetCache implements DataSetCache, Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(TieredDataSetCache.class);
+
+    private final long maxMemoryBytes;
+    private final File cacheDirectory;
+    private final String compression;
+    private final InFileDataSetCache namespaces;
+
+    //Access ordered: iteration starts at the least recently used entry
+    private final LinkedHashMap<String, ByteBuffer> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryBytes;
+    private final Set<String> completeNamespaces = new HashSet<>();
+    private boolean lostEvictedData;
+
+    private final ConcurrentMap<String, byte[]> pendingWrites = new ConcurrentHashMap<>();
+    private final Set<String> onDisk = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    private final ExecutorService writer;
+    private final AtomicReference<Throwable> writeError = new AtomicReference<>();
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Memory only cache
+     *
+     * @param maxMemoryBytes maximum size of the serialized DataSets held in memory
+     */
+    public TieredDataSetCache(long maxMemoryBytes) {
+        this(maxMemoryBytes, null, null);
+    }
+
+    /**
+     * @param maxMemoryBytes maximum size of the serialized DataSets held in memory
+     * @param cacheDirectory directory of the disk tier, null for a memory only cache
+     * @param compression    compression algorithm of the disk tier (for example "GZIP", see
+     *                       {@link BasicNDArrayCompressor#getAvailableCompressors()}), null for no compression
+     */
+    public TieredDataSetCache(long maxMemoryBytes, File cacheDirectory, String compression) {
+        if (maxMemoryBytes < 0) {
+            throw new IllegalArgumentException("Memory budget must be >= 0, got " + maxMemoryBytes);
+        }
+        if (compression != null && cacheDirectory == null) {
+            throw new IllegalArgumentException("Compression is only used by the disk tier: no cache directory given");
+        }
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.cacheDirectory = cacheDirectory;
+        this.compression = compression == null ? null : compression.toUpperCase();
+
+        if (cacheDirectory != null) {
+            namespaces = new InFileDataSetCache(cacheDirectory);
+            writer = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "TieredDataSetCache-writer");
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+        } else {
+            namespaces = null;
+            writer = null;
+        }
+    }
+
+    @Override
+    public boolean isComplete(String namespace) {
+        if (namespaces != null) {
+            return namespaces.isComplete(namespace);
+        }
+        synchronized (memory) {
+            return completeNamespaces.contains(namespace);
+        }
+    }
+
+    @Override
+    public void setComplete(String namespace, boolean value) {
+        if (namespaces != null) {
+            if (value) {
+                //Only mark as complete once all the DataSets are on disk
+                flush();
+            }
+            namespaces.setComplete(namespace, value);
+            return;
+        }
+
+        synchronized (memory) {
+            if (!value) {
+                completeNamespaces.remove(namespace);
+            } else if (lostEvictedData) {
+                log.warn("DataSets were evicted from the memory tier and no disk tier is configured: namespace {} "
+                                + "can not be fully cached", namespace);
+            } else {
+                completeNamespaces.add(namespace);
+            }
+        }
+    }
+
+    @Override
+    public DataSet get(String key) {
+        ByteBuffer buffer;
+        synchronized (memory) {
+            buffer = memory.get(key);
+        }
+        if (buffer != null) {
+            memoryHits.incrementAndGet();
+            return load(new ByteBufferInputStream(buffer.duplicate()));
+        }
+
+        byte[] pending = pendingWrites.get(key);
+        if (pending != null) {
+            memoryHits.incrementAndGet();
+            return load(new ByteArrayInputStream(pending));
+        }
+
+        File file = cacheDirectory == null ? null : resolveKey(key);
+        if (file == null || !onDisk.contains(key) && !file.isFile()) {
+            misses.incrementAndGet();
+            return null;
+        }
+
+        diskHits.incrementAndGet();
+        DataSet ds = new DataSet();
+        ds.load(file);
+        decompress(ds);
+        putInMemory(key, serialize(ds));
+        return ds;
+    }
+
+    @Override
+    public void put(String key, DataSet dataSet) {
+        //Serialize right away: the caller may modify the DataSet afterwards
+        byte[] bytes = serialize(dataSet);
+        putInMemory(key, bytes);
+
+        if (writer != null) {
+            checkWriteError();
+            pendingWrites.put(key, bytes);
+            final String k = key;
+            writer.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        write(k);
+                    } catch (Throwable t) {
+                        log.error("Error writing DataSet {} to the cache directory", k, t);
+                        writeError.compareAndSet(null, t);
+                    }
+                }
+            });
+        }
+    }
+
+    @Override
+    public boolean contains(String key) {
+        synchronized (memory) {
+            if (memory.containsKey(key)) {
+                return true;
+            }
+        }
+        return cacheDirectory != null
+                        && (pendingWrites.containsKey(key) || onDisk.contains(key) || resolveKey(key).isFile());
+    }
+
+    /**
+     * Wait until all the DataSets put in the cache are written to the disk tier
+     */
+    public void flush() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.submit(new Runnable() {
+                @Override
+                public void run() {
+                    //No op: the writer is single threaded, all the previous writes are done when this one runs
+                }
+            }).get();
+        } catch (Exception e) {
+            throw new RuntimeException("Error waiting for the DataSet cache writes", e);
+        }
+        checkWriteError();
+    }
+
+    /**
+     * Write the pending DataSets to disk and stop the writer thread. The disk tier stays readable.
+     */
+    @Override
+    public void close() {
+        if (writer == null) {
+            return;
+        }
+        flush();
+        writer.shutdown();
+        try {
+            writer.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return the number of gets served by the memory tier (including the DataSets not yet written to disk)
+     */
+    public long getMemoryHits() {
+        return memoryHits.get();
+    }
+
+    /**
+     * @return the number of gets served by the disk tier
+     */
+    public long getDiskHits() {
+        return diskHits.get();
+    }
+
+    /**
+     * @return the number of gets of keys absent from the cache
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return the number of DataSets evicted from the memory tier
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * @return the fraction of the gets served by the memory tier, 0 if there was no get
+     */
+    public double getMemoryHitRate() {
+        long total = memoryHits.get() + diskHits.get() + misses.get();
+        return total == 0 ? 0.0 : memoryHits.get() / (double) total;
+    }
+
+    /**
+     * @return the size of the serialized DataSets currently held in memory
+     */
+    public long getMemoryBytes() {
+        synchronized (memory) {
+            return memoryBytes;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "TieredDataSetCache(memoryBytes=" + getMemoryBytes() + "/" + maxMemoryBytes + ", memoryHits="
+                        + memoryHits + ", diskHits=" + diskHits + ", misses=" + misses + ", evictions=" + evictions
+                        + ")";
+    }
+
+    private void putInMemory(String key, byte[] bytes) {
+        synchronized (memory) {
+            ByteBuffer previous = memory.remove(key);
+            if (previous != null) {
+                memoryBytes -= previous.capacity();
+            }
+
+            if (bytes.length > maxMemoryBytes) {
+                evicted(key);
+                return;
+            }
+            Iterator<Map.Entry<String, ByteBuffer>> iter = memory.entrySet().iterator();
+            while (memoryBytes + bytes.length > maxMemoryBytes && iter.hasNext()) {
+                Map.Entry<String, ByteBuffer> lru = iter.next();
+                memoryBytes -= lru.getValue().capacity();
+                iter.remove();
+                evicted(lru.getKey());
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+            buffer.put(bytes);
+            buffer.flip();
+            memory.put(key, buffer);
+            memoryBytes += bytes.length;
+        }
+    }
+
+    //Must hold the memory lock
+    private void evicted(String key) {
+        evictions.incrementAndGet();
+        if (cacheDirectory == null) {
+            if (!lostEvictedData) {
+                log.debug("Evicted DataSet {} from a memory only cache: no namespace is complete anymore", key);
+            }
+            lostEvictedData = true;
+            completeNamespaces.clear();
+        }
+    }
+
+    private void write(String key) throws IOException {
+        byte[] bytes = pendingWrites.get(key);
+        if (bytes == null) {
+            return;
+        }
+
+        File file = resolveKey(key);
+        File parentDir = file.getParentFile();
+        if (!parentDir.exists() && !parentDir.mkdirs()) {
+            throw new IllegalStateException("ERROR: cannot create parent directory: " + parentDir);
+        }
+
+        if (compression == null) {
+            FileUtils.writeByteArrayToFile(file, bytes);
+        } else {
+            DataSet ds = load(new ByteArrayInputStream(bytes));
+            BasicNDArrayCompressor compressor = BasicNDArrayCompressor.getInstance();
+            ds.setFeatures(compress(compressor, ds.getFeatures()));
+            ds.setLabels(compress(compressor, ds.getLabels()));
+            ds.setFeaturesMaskArray(compress(compressor, ds.getFeaturesMaskArray()));
+            ds.setLabelsMaskArray(compress(compressor, ds.getLabelsMaskArray()));
+            try (OutputStream os = new FileOutputStream(file)) {
+                ds.save(os);
+            }
+        }
+
+        onDisk.add(key);
+        pendingWrites.remove(key, bytes);
+    }
+
+    private INDArray compress(BasicNDArrayCompressor compressor, INDArray array) {
+        return array == null ? null : compressor.compress(array, compression);
+    }
+
+    private static void decompress(DataSet ds) {
+        BasicNDArrayCompressor compressor = BasicNDArrayCompressor.getInstance();
+        if (ds.getFeatures() != null && ds.getFeatures().isCompressed()) {
+            ds.setFeatures(compressor.decompress(ds.getFeatures()));
+        }
+        if (ds.getLabels() != null && ds.getLabels().isCompressed()) {
+            ds.setLabels(compressor.decompress(ds.getLabels()));
+        }
+        if (ds.getFeaturesMaskArray() != null && ds.getFeaturesMaskArray().isCompressed()) {
+            ds.setFeaturesMaskArray(compressor.decompress(ds.getFeaturesMaskArray()));
+        }
+        if (ds.getLabelsMaskArray() != null && ds.getLabelsMaskArray().isCompressed()) {
+            ds.setLabelsMaskArray(compressor.decompress(ds.getLabelsMaskArray()));
+        }
+    }
+
+    private void checkWriteError() {
+        Throwable t = writeError.get();
+        if (t != null) {
+            throw new RuntimeException("Error writing to the DataSet cache directory " + cacheDirectory, t);
+        }
+    }
+
+    private File resolveKey(String key) {
+        String filename = key.replaceAll("[^a-zA-Z0-9.-]", "_");
+        return new File(cacheDirectory, filename);
+    }
+
+    private static byte[] serialize(DataSet dataSet) {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        dataSet.save(os);
+        return os.toByteArray();
+    }
+
+    private static DataSet load(InputStream is) {
+        DataSet ds = new DataSet();
+        ds.load(is);
+        return ds;
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            len = Math.min(len, buffer.remaining());
+            buffer.get(b, off, len);
+            return len;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -10,6 +10,11 @@ import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
 import org.nd4j.linalg.dataset.api.preprocessor.stats.NormalizerStats;
 import org.nd4j.linalg.exception.ND4JIllegalStateException;
 
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
 /**
  * Abstract base class for normalizers
  * that act upon {@link DataSet} instances
@@ -85,22 +90,158 @@ public abstract class AbstractDataSetNormalizer<S extends NormalizerStats> exten
      */
     @Override
     public void fit(DataSetIterator iterator) {
-        S.Builder featureNormBuilder = newBuilder();
-        S.Builder labelNormBuilder = newBuilder();
+        fit(iterator, 1);
+    }
+
+    /**
+     * Fit the given model, computing the statistics of the batches on multiple threads. Every thread accumulates
+     * the statistics of the batches it processes, the statistics of all the threads are merged at the end
+     * (see {@link NormalizerStats.MergeableBuilder#merge(NormalizerStats.Builder)}). Statistics that cannot be
+     * merged are computed on a single thread.
+     *
+     * @param iterator   for the data to iterate over
+     * @param numThreads number of threads computing the statistics
+     */
+    public void fit(DataSetIterator iterator, int numThreads) {
+        fit(iterator, numThreads, 1.0, 0);
+    }
+
+    /**
+     * Fit the given model on a random sample of the batches of the iterator: every batch is used with probability
+     * {@code sampleFraction}. See {@link NormalizerStandardize#fitSample(DataSetIterator, int, double, long)} to also
+     * get error bounds of the estimated means.
+     *
+     * @param iterator       for the data to iterate over
+     * @param numThreads     number of threads computing the statistics
+     * @param sampleFraction fraction of the batches to use, in (0, 1]
+     * @param seed           seed of the batch sampling
+     */
+    public void fit(DataSetIterator iterator, int numThreads, double sampleFraction, long seed) {
+        NormalizerStats.Builder[] builders = fitBuilders(iterator, numThreads, sampleFraction, seed);
+        featureStats = (S) builders[0].build();
+        if (fitLabels) {
+            labelStats = (S) builders[1].build();
+        }
+    }
+
+    /**
+     * Accumulate the statistics of the features (and labels, if {@link #isFitLabel()}) of the given iterator,
+     * without setting them on this normalizer
+     *
+     * @param iterator       for the data to iterate over
+     * @param numThreads     number of threads computing the statistics
+     * @param sampleFraction fraction of the batches to use, in (0, 1]
+     * @param seed           seed of the batch sampling
+     * @return the feature statistics builder and the label statistics builder (null if labels are not fitted)
+     */
+    protected NormalizerStats.Builder[] fitBuilders(DataSetIterator iterator, int numThreads, double sampleFraction,
+                    long seed) {
+        if (numThreads < 1) {
+            throw new IllegalArgumentException("Number of threads must be >= 1, got " + numThreads);
+        }
+        if (sampleFraction <= 0.0 || sampleFraction > 1.0) {
+            throw new IllegalArgumentException("Sample fraction must be in (0, 1], got " + sampleFraction);
+        }
+        Random random = sampleFraction < 1.0 ? new Random(seed) : null;
+        if (!(newBuilder() instanceof NormalizerStats.MergeableBuilder)) {
+            numThreads = 1;
+        }
+
+        final NormalizerStats.Builder[] featureBuilders = new NormalizerStats.Builder[numThreads];
+        final NormalizerStats.Builder[] labelBuilders = new NormalizerStats.Builder[numThreads];
+        for (int i = 0; i < numThreads; i++) {
+            featureBuilders[i] = newBuilder();
+            labelBuilders[i] = fitLabels ? newBuilder() : null;
+        }
 
         iterator.reset();
-        while (iterator.hasNext()) {
-            DataSet next = iterator.next();
-            featureNormBuilder.addFeatures(next);
-            if (fitLabels) {
-                labelNormBuilder.addLabels(next);
+        if (numThreads == 1) {
+            while (iterator.hasNext()) {
+                DataSet next = iterator.next();
+                if (random == null || random.nextDouble() < sampleFraction) {
+                    addToBuilders(next, featureBuilders[0], labelBuilders[0]);
+                }
+            }
+        } else {
+            final BlockingQueue<DataSet> queue = new ArrayBlockingQueue<>(2 * numThreads);
+            final AtomicReference<Throwable> error = new AtomicReference<>();
+            final DataSet endOfData = new org.nd4j.linalg.dataset.DataSet();
+            Thread[] workers = new Thread[numThreads];
+            for (int i = 0; i < numThreads; i++) {
+                final int worker = i;
+                workers[i] = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        while (true) {
+                            DataSet next;
+                            try {
+                                next = queue.take();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                                return;
+                            }
+                            if (next == endOfData) {
+                                return;
+                            }
+                            //Keep draining the queue after a failure, so the producer never blocks
+                            if (error.get() == null) {
+                                try {
+                                    addToBuilders(next, featureBuilders[worker], labelBuilders[worker]);
+                                } catch (Throwable t) {
+                                    error.compareAndSet(null, t);
+                                }
+                            }
+                        }
+                    }
+                }, "NormalizerFit-" + i);
+                workers[i].setDaemon(true);
+                workers[i].start();
+            }
+
+            try {
+                while (iterator.hasNext() && error.get() == null) {
+                    DataSet next = iterator.next();
+                    if (random == null || random.nextDouble() < sampleFraction) {
+                        //The batch is used after the iterator moved on: it must not live in a reused workspace
+                        next.detach();
+                        queue.put(next);
+                    }
+                }
+                for (int i = 0; i < numThreads; i++) {
+                    queue.put(endOfData);
+                }
+                for (Thread worker : workers) {
+                    worker.join();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                for (Thread worker : workers) {
+                    worker.interrupt();
+                }
+                throw new RuntimeException("Interrupted while fitting normalizer", e);
+            }
+            if (error.get() != null) {
+                throw new RuntimeException("Error fitting normalizer", error.get());
+            }
+
+            for (int i = 1; i < numThreads; i++) {
+                ((NormalizerStats.MergeableBuilder) featureBuilders[0]).merge(featureBuilders[i]);
+                if (fitLabels) {
+                    ((NormalizerStats.MergeableBuilder) labelBuilders[0]).merge(labelBuilders[i]);
+                }
             }
-        }
-        featureStats = (S) featureNormBuilder.build();
-        if (fitLabels) {
-            labelStats = (S) labelNormBuilder.build();
         }
         iterator.reset();
+
+        return new NormalizerStats.Builder[] {featureBuilders[0], labelBuilders[0]};
+    }
+
+    private void addToBuilders(DataSet next, NormalizerStats.Builder featureBuilder,
+                    NormalizerStats.Builder labelBuilder) {
+        featureBuilder.addFeatures(next);
+        if (labelBuilder != null) {
+            labelBuilder.addLabels(next);
+        }
     }
 
     protected abstract S.Builder newBuilder();
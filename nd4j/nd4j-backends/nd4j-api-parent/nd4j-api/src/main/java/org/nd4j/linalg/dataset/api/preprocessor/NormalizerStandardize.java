@@ -3,6 +3,7 @@ package org.nd4j.linalg.dataset.api.preprocessor;
 import lombok.EqualsAndHashCode;
 import lombok.NonNull;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
 import org.nd4j.linalg.dataset.api.preprocessor.serializer.NormalizerSerializer;
 import org.nd4j.linalg.dataset.api.preprocessor.serializer.NormalizerType;
 import org.nd4j.linalg.dataset.api.preprocessor.stats.DistributionStats;
@@ -57,6 +58,28 @@ public class NormalizerStandardize extends AbstractDataSetNormalizer<Distributio
         return getLabelStats().getStd();
     }
 
+    /**
+     * Fit on a random sample of the batches of the iterator (see
+     * {@link #fit(DataSetIterator, int, double, long)}) and return the standard error of the estimated feature
+     * means: the means of the full data set lie within about 2 standard errors of {@link #getMean()} with 95%
+     * confidence.
+     *
+     * @param iterator       for the data to iterate over
+     * @param numThreads     number of threads computing the statistics
+     * @param sampleFraction fraction of the batches to use, in (0, 1]
+     * @param seed           seed of the batch sampling
+     * @return row vector of the standard errors of the feature means
+     */
+    public INDArray fitSample(DataSetIterator iterator, int numThreads, double sampleFraction, long seed) {
+        NormalizerStats.Builder[] builders = fitBuilders(iterator, numThreads, sampleFraction, seed);
+        DistributionStats.Builder featureBuilder = (DistributionStats.Builder) builders[0];
+        setFeatureStats(featureBuilder.build());
+        if (isFitLabel()) {
+            setLabelStats(((DistributionStats.Builder) builders[1]).build());
+        }
+        return featureBuilder.standardErrorOfMean();
+    }
+
     /**
      * Load the means and standard deviations from the file system
      *
@@ -68,7 +68,7 @@ public class DistributionStats implements NormalizerStats {
      * DynamicCustomOpsBuilder class that can incrementally update a running mean and variance in order to create statistics for a
      * large set of data
      */
-    public static class Builder implements NormalizerStats.Builder<DistributionStats> {
+    public static class Builder implements NormalizerStats.MergeableBuilder<DistributionStats> {
         private long runningCount = 0;
         private INDArray runningMean;
         private INDArray runningVariance;
@@ -106,38 +106,75 @@ public class DistributionStats implements NormalizerStats {
             INDArray variance = data.var(false, 0);
             long count = data.size(0);
 
+            if (runningMean == null && data.size(0) == 1) {
+                //Handle edge case: currently, reduction ops may return the same array
+                //But we don't want to modify this array in-place later
+                mean = mean.dup();
+                variance = variance.dup();
+            }
+            return merge(mean, variance, count);
+        }
+
+        /**
+         * Merge the statistics of another builder in to this one, for example when the data was split in partitions
+         * fitted in parallel. The other builder is not modified.
+         *
+         * @param other the builder to merge
+         */
+        @Override
+        public Builder merge(@NonNull NormalizerStats.Builder<DistributionStats> other) {
+            Builder o = (Builder) other;
+            if (o.runningMean == null) {
+                return this;
+            }
+            return merge(o.runningMean.dup(), o.runningVariance.dup(), o.runningCount);
+        }
+
+        private Builder merge(INDArray mean, INDArray variance, long count) {
             if (runningMean == null) {
                 // First batch
                 runningMean = mean;
                 runningVariance = variance;
                 runningCount = count;
-
-                if (data.size(0) == 1) {
-                    //Handle edge case: currently, reduction ops may return the same array
-                    //But we don't want to modify this array in-place later
-                    runningMean = runningMean.dup();
-                    runningVariance = runningVariance.dup();
-                }
             } else {
-                // Update running variance
-                INDArray deltaSquared = Transforms.pow(mean.subRowVector(runningMean), 2);
+                // Chan et al. parallel variance: combine the (population) variances and the means of both parts
+                double total = runningCount + count;
+                INDArray delta = mean.subRowVector(runningMean);
+                INDArray deltaSquared = delta.mul(delta);
                 INDArray mB = variance.muli(count);
                 runningVariance.muli(runningCount).addiRowVector(mB)
-                                .addiRowVector(deltaSquared
-                                                .muli((float) (runningCount * count) / (runningCount + count)))
-                                .divi(runningCount + count);
+                                .addiRowVector(deltaSquared.muli(runningCount * (double) count / total))
+                                .divi(total);
 
-                // Update running count
+                // Update running mean and count
+                runningMean.addi(delta.muli(count / total));
                 runningCount += count;
-
-                // Update running mean
-                INDArray xMinusMean = data.subRowVector(runningMean);
-                runningMean.addi(xMinusMean.sum(0).divi(runningCount));
             }
 
             return this;
         }
 
+        /**
+         * @return the number of rows added so far
+         */
+        public long getCount() {
+            return runningCount;
+        }
+
+        /**
+         * Standard error of the means computed so far (standard deviation / sqrt(count)). When the statistics are
+         * fitted on a random sample of the data, the true means lie within about 2 standard errors of the
+         * estimates with 95% confidence.
+         *
+         * @return row vector of standard errors
+         */
+        public INDArray standardErrorOfMean() {
+            if (runningMean == null) {
+                throw new RuntimeException("No data was added, statistics cannot be determined");
+            }
+            return Transforms.sqrt(runningVariance.div(runningCount), false);
+        }
+
         /**
          * Create a DistributionStats object from the data ingested so far. Can be used multiple times when updating
          * online.
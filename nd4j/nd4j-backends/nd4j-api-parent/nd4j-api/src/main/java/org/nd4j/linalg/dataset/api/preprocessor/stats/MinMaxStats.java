@@ -71,7 +71,7 @@ public class MinMaxStats implements NormalizerStats {
      * DynamicCustomOpsBuilder class that can incrementally update a running lower and upper bound in order to create statistics for a
      * large set of data
      */
-    public static class Builder implements NormalizerStats.Builder<MinMaxStats> {
+    public static class Builder implements NormalizerStats.MergeableBuilder<MinMaxStats> {
         private INDArray runningLower;
         private INDArray runningUpper;
 
@@ -124,6 +124,28 @@ public class MinMaxStats implements NormalizerStats {
             return this;
         }
 
+        /**
+         * Merge the bounds of another builder in to this one. The other builder is not modified.
+         *
+         * @param other the builder to merge
+         */
+        @Override
+        public MinMaxStats.Builder merge(@NonNull NormalizerStats.Builder<MinMaxStats> other) {
+            MinMaxStats.Builder o = (MinMaxStats.Builder) other;
+            if (o.runningLower == null) {
+                return this;
+            }
+            if (runningLower == null) {
+                runningLower = o.runningLower.dup();
+                runningUpper = o.runningUpper.dup();
+            } else {
+                Transforms.min(runningLower, o.runningLower, false);
+                Transforms.max(runningUpper, o.runningUpper, false);
+            }
+
+            return this;
+        }
+
         /**
          * Create a DistributionStats object from the data ingested so far. Can be used multiple times when updating
          * online.
@@ -34,4 +34,18 @@ public interface NormalizerStats extends Serializable {
          */
         S build();
     }
+
+    /**
+     * Builder whose statistics can be merged, used to fit partitions of the data in parallel. Normalizers fit
+     * statistics with other builders on a single thread.
+     */
+    interface MergeableBuilder<S extends NormalizerStats> extends Builder<S> {
+        /**
+         * Merge the statistics of another builder of the same type in to this one, as if all the data added to the
+         * other builder had been added to this one.
+         *
+         * @param other the builder to merge, not modified
+         */
+        MergeableBuilder<S> merge(Builder<S> other);
+    }
 }
@@ -16,6 +16,8 @@ import org.nd4j.linalg.api.memory.pointers.PointersPair;
 import org.nd4j.linalg.exception.ND4JIllegalStateException;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.memory.MemoryManager;
+import org.nd4j.linalg.profiler.WorkspaceProfiler;
+import org.nd4j.linalg.profiler.data.WorkspaceStatistics;
 
 import java.io.BufferedOutputStream;
 import java.io.File;
@@ -110,6 +112,9 @@ public abstract class Nd4jWorkspace implements MemoryWorkspace {
 
     protected AtomicLong generationId = new AtomicLong(0);
 
+    // allocation statistics, only used if WorkspaceProfiler is enabled
+    protected WorkspaceStatistics statistics;
+
     // this memory manager implementation will be used to allocate real memory for this workspace
 
     public Nd4jWorkspace(@NonNull WorkspaceConfiguration configuration) {
@@ -299,6 +304,20 @@ public abstract class Nd4jWorkspace implements MemoryWorkspace {
         return alloc(requiredMemory, MemoryKind.HOST, type, initialize);
     }
 
+    /**
+     * This method returns allocation statistics of this workspace if WorkspaceProfiler is enabled, null otherwise
+     * @return
+     */
+    protected WorkspaceStatistics statistics() {
+        if (!WorkspaceProfiler.getInstance().isEnabled())
+            return null;
+
+        if (statistics == null)
+            statistics = WorkspaceProfiler.getInstance().getStatistics(this);
+
+        return statistics;
+    }
+
     /**
      * This method enabled debugging mode for this workspace
      *
@@ -332,6 +351,10 @@ public abstract class Nd4jWorkspace implements MemoryWorkspace {
 
             externalAllocations.add(new PointersPair(pointer, null));
 
+            WorkspaceStatistics stats = statistics();
+            if (stats != null)
+                stats.recordExternal(requiredMemory, WorkspaceProfiler.getInstance().sampleSite(stats.getExternal()));
+
             return pointer;
         }
 
@@ -366,6 +389,11 @@ public abstract class Nd4jWorkspace implements MemoryWorkspace {
             if (initialize)
                 Pointer.memset(ptr, 0, requiredMemory);
 
+            WorkspaceStatistics stats = statistics();
+            if (stats != null)
+                stats.recordAllocation(requiredMemory, ptr.address(), generationId.get(),
+                                WorkspaceProfiler.getInstance().sampleSite(stats.getAllocations()));
+
             return ptr;
         } else {
             // if current workspace isn't enough - we allocate it separately as spilled (or pinned, in case of circular mode)
@@ -388,6 +416,14 @@ public abstract class Nd4jWorkspace implements MemoryWorkspace {
                 log.info("Workspace [{}]: step: {}, spilled  {} bytes, capacity of {} elements", id, stepsCount.get(),
                                 requiredMemory, numElements);
 
+            WorkspaceStatistics stats = statistics();
+            if (stats != null && workspaceConfiguration.getPolicySpill() != SpillPolicy.FAIL) {
+                if (!trimmer)
+                    stats.recordSpill(requiredMemory, WorkspaceProfiler.getInstance().sampleSite(stats.getSpills()));
+                else
+                    stats.recordPinned(requiredMemory, WorkspaceProfiler.getInstance().sampleSite(stats.getPinned()));
+            }
+
             switch (workspaceConfiguration.getPolicySpill()) {
                 case REALLOCATE:
                 case EXTERNAL:
@@ -608,6 +644,10 @@ public abstract class Nd4jWorkspace implements MemoryWorkspace {
             maxCycle.set(cycleAllocations.get());
         }
 
+        WorkspaceStatistics stats = statistics();
+        if (stats != null)
+            stats.recordCycle(cycleAllocations.get(), currentSize.get());
+
         // checking, if we should reallocate this workspace to higher amount of memory
         if (workspaceConfiguration.getPolicyLearning() != LearningPolicy.NONE && maxCycle.get() > 0) {
             //log.info("Delayed workspace {}, device_{} initialization starts...", id, Nd4j.getAffinityManager().getDeviceForCurrentThread());
@@ -10,6 +10,9 @@ import org.nd4j.linalg.api.memory.pointers.PointersPair;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.memory.abstracts.DummyWorkspace;
 import org.nd4j.linalg.memory.abstracts.Nd4jWorkspace;
+import org.nd4j.linalg.profiler.WorkspaceProfiler;
+import org.nd4j.linalg.profiler.data.WorkspaceRecommendation;
+import org.nd4j.linalg.profiler.data.WorkspaceStatistics;
 import org.nd4j.util.StringUtils;
 
 import java.lang.ref.ReferenceQueue;
@@ -320,6 +323,47 @@ public abstract class BasicWorkspaceManager implements MemoryWorkspaceManager {
                     StringUtils.TraditionalBinaryPrefix.long2String(pinned, "", 2),
                     current, spilled, pinned));
         }
+
+        if (WorkspaceProfiler.getInstance().isEnabled()) {
+            for (String key : map.keySet())
+                log.info(WorkspaceProfiler.getInstance().getStatistics(map.get(key)).asString());
+        }
+    }
+
+    /**
+     * This method enables or disables workspace instrumentation, see {@link WorkspaceProfiler}
+     *
+     * @param enabled
+     */
+    public void setProfilingEnabled(boolean enabled) {
+        WorkspaceProfiler.getInstance().setEnabled(enabled);
+    }
+
+    /**
+     * This method returns allocation statistics for workspaces allocated in current thread.
+     * Statistics are collected only while workspace profiling is enabled.
+     *
+     * @return
+     */
+    public List<WorkspaceStatistics> getStatisticsForCurrentThread() {
+        ensureThreadExistense();
+        List<WorkspaceStatistics> ret = new ArrayList<>();
+        for (MemoryWorkspace workspace : backingMap.get().values())
+            ret.add(WorkspaceProfiler.getInstance().getStatistics(workspace));
+        return ret;
+    }
+
+    /**
+     * This method returns suggested configurations for workspaces allocated in current thread,
+     * based on statistics collected while workspace profiling was enabled
+     *
+     * @return
+     */
+    public List<WorkspaceRecommendation> recommendConfigurationsForCurrentThread() {
+        List<WorkspaceRecommendation> ret = new ArrayList<>();
+        for (WorkspaceStatistics stats : getStatisticsForCurrentThread())
+            ret.add(WorkspaceProfiler.getInstance().recommend(stats));
+        return ret;
     }
 
 
@@ -85,6 +85,11 @@ public class OpProfiler {
     @Getter
     private StringCounter blasOrderCounter = new StringCounter();
 
+    // ops executed by GridExecutioner, as part of MetaOp or on their own
+    private AtomicLong fusedCount = new AtomicLong(0);
+    private AtomicLong unfusedCount = new AtomicLong(0);
+    private StringCounter fusedPairsCounter = new StringCounter();
+
 
     private final long THRESHOLD = 100000;
 
@@ -140,6 +145,10 @@ public class OpProfiler {
         blasAggregator.reset();
         blasOrderCounter.reset();
 
+        fusedCount.set(0);
+        unfusedCount.set(0);
+        fusedPairsCounter.reset();
+
         orderCounter.reset();
         listeners.clear();
     }
@@ -201,6 +210,27 @@ public class OpProfiler {
         scalarAggregator.incrementCount();
     }
 
+    /**
+     * This method tracks ops fused into single MetaOp by GridExecutioner
+     *
+     * @param opA first op of the MetaOp
+     * @param opB second op of the MetaOp
+     */
+    public void processFusedCall(Op opA, Op opB) {
+        fusedCount.addAndGet(2);
+        fusedPairsCounter.incrementCount(opA.opName() + " + " + opB.opName());
+    }
+
+    /**
+     * This method tracks ops that went through GridExecutioner, but weren't fused with any other op
+     *
+     * @param op
+     */
+    public void processUnfusedCall(Op op) {
+        unfusedCount.incrementAndGet();
+        fusedPairsCounter.totalsIncrement();
+    }
+
     /**
      * This method tracks op calls
      *
@@ -409,6 +439,9 @@ public class OpProfiler {
         log.info("--- Matching inverts Op calls statistics: ---");
         System.out.println(matchingCounterInverted.asString());
         System.out.println();
+        log.info("--- Op fusion statistics: fused ops: {}, unfused ops: {} ---", fusedCount.get(), unfusedCount.get());
+        System.out.println(fusedPairsCounter.asString());
+        System.out.println();
         log.info("--- Time for OpClass calls statistics: ---");
         System.out.println(classAggergator.asString());
         System.out.println();
@@ -464,6 +497,20 @@ public class OpProfiler {
         return invocationsCount.get();
     }
 
+    /**
+     * Returns number of ops executed as part of fused MetaOps
+     */
+    public long getFusedOpsCount() {
+        return fusedCount.get();
+    }
+
+    /**
+     * Returns number of ops that went through GridExecutioner without being fused
+     */
+    public long getUnfusedOpsCount() {
+        return unfusedCount.get();
+    }
+
 
 
     /**
@@ -0,0 +1,304 @@
+package org.nd4j.linalg.profiler;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
+import org.nd4j.linalg.api.memory.conf.WorkspaceConfiguration;
+import org.nd4j.linalg.api.memory.enums.AllocationPolicy;
+import org.nd4j.linalg.api.memory.enums.ResetPolicy;
+import org.nd4j.linalg.api.memory.enums.SpillPolicy;
+import org.nd4j.linalg.profiler.data.WorkspaceRecommendation;
+import org.nd4j.linalg.profiler.data.WorkspaceStatistics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * This class provides opt-in instrumentation of workspaces: when enabled, every Nd4jWorkspace reports its
+ * allocations, spills, pinned and external allocations, cycle peaks and arrays leaked out of scope here,
+ * with allocation sites sampled every {@link #getSamplingFrequency()} events.
+ *
+ * Collected {@link WorkspaceStatistics} can be used to get suggested {@link WorkspaceConfiguration} values, via
+ * {@link #recommend(WorkspaceStatistics)}, i.e. to size workspaces so that training loops run without spills.
+ *
+ * Disabled by default, can be enabled via {@link #setEnabled(boolean)} or with
+ * -Dorg.nd4j.linalg.workspace.profiler=true
+ */
+@Slf4j
+public class WorkspaceProfiler {
+    public static final String ENABLED_PROPERTY = "org.nd4j.linalg.workspace.profiler";
+    public static final String SAMPLING_PROPERTY = "org.nd4j.linalg.workspace.profiler.sampling";
+
+    private static final WorkspaceProfiler INSTANCE = new WorkspaceProfiler();
+
+    // frames of these packages are skipped when allocation site is resolved
+    private static final String[] INTERNAL_PACKAGES = {"java.", "sun.", "org.nd4j.linalg.memory.",
+                    "org.nd4j.linalg.profiler.", "org.nd4j.linalg.api.buffer.", "org.nd4j.linalg.api.ndarray.",
+                    "org.nd4j.linalg.api.shape.", "org.nd4j.linalg.api.ops.executioner.", "org.nd4j.linalg.factory.",
+                    "org.nd4j.linalg.cpu.", "org.nd4j.linalg.jcublas.", "org.nd4j.jita."};
+
+    private volatile boolean enabled = Boolean.getBoolean(ENABLED_PROPERTY);
+    private volatile int samplingFrequency = Integer.getInteger(SAMPLING_PROPERTY, 100);
+    private volatile double headroom = 0.1;
+
+    private final ConcurrentMap<String, WorkspaceStatistics> statistics = new ConcurrentHashMap<>();
+
+    protected WorkspaceProfiler() {}
+
+    public static WorkspaceProfiler getInstance() {
+        return INSTANCE;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * This method enables or disables workspace instrumentation. Statistics collected so far are kept.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getSamplingFrequency() {
+        return samplingFrequency;
+    }
+
+    /**
+     * This method sets how often allocation sites are captured: every N-th allocation (and every N-th spill or leak)
+     * of each workspace. Capturing a site costs a stack trace. 0 disables site sampling.
+     */
+    public void setSamplingFrequency(int samplingFrequency) {
+        if (samplingFrequency < 0)
+            throw new IllegalArgumentException("Sampling frequency must be >= 0, got " + samplingFrequency);
+        this.samplingFrequency = samplingFrequency;
+    }
+
+    public double getHeadroom() {
+        return headroom;
+    }
+
+    /**
+     * This method sets fraction of max observed cycle added on top of it in recommended workspace sizes. Default 0.1
+     */
+    public void setHeadroom(double headroom) {
+        if (headroom < 0)
+            throw new IllegalArgumentException("Headroom must be >= 0, got " + headroom);
+        this.headroom = headroom;
+    }
+
+    /**
+     * This method returns statistics holder for given workspace, creating it if necessary
+     */
+    public WorkspaceStatistics getStatistics(@NonNull MemoryWorkspace workspace) {
+        String key = key(workspace.getId(), workspace.getThreadId());
+        WorkspaceStatistics stats = statistics.get(key);
+        if (stats == null) {
+            stats = new WorkspaceStatistics(workspace.getId(), workspace.getThreadId(),
+                            workspace.getWorkspaceConfiguration());
+            WorkspaceStatistics prev = statistics.putIfAbsent(key, stats);
+            if (prev != null)
+                stats = prev;
+        }
+        return stats;
+    }
+
+    /**
+     * This method returns statistics of all workspaces observed so far, in all threads
+     */
+    public List<WorkspaceStatistics> getAllStatistics() {
+        return new ArrayList<>(statistics.values());
+    }
+
+    /**
+     * This method resets all collected statistics
+     */
+    public void reset() {
+        for (WorkspaceStatistics stats : statistics.values())
+            stats.reset();
+    }
+
+    /**
+     * This method returns allocation site for event with given sequence number, if it should be sampled, or null
+     */
+    public String sampleSite(long eventNumber) {
+        int freq = samplingFrequency;
+        if (freq <= 0 || eventNumber % freq != 0)
+            return null;
+        return callSite();
+    }
+
+    /**
+     * This method records use of workspace array outside of its scope. Called from scope panic checks.
+     *
+     * @param workspace parent workspace of the leaked array
+     * @param opName    name of the op that used the array
+     * @param buffer    leaked buffer
+     */
+    public void recordLeak(@NonNull MemoryWorkspace workspace, String opName, @NonNull DataBuffer buffer) {
+        if (!enabled)
+            return;
+
+        WorkspaceStatistics stats = getStatistics(workspace);
+        String useSite = sampleSite(stats.getLeaks());
+        if (useSite == null) {
+            stats.recordLeak(0L, 0L, null);
+            return;
+        }
+
+        DataBuffer original = buffer.originalDataBuffer() != null ? buffer.originalDataBuffer() : buffer;
+        stats.recordLeak(original.address(), buffer.getGenerationId(), "op [" + opName + "] at " + useSite);
+    }
+
+    /**
+     * This method returns suggested configurations for all workspaces observed so far
+     */
+    public List<WorkspaceRecommendation> recommend() {
+        List<WorkspaceRecommendation> ret = new ArrayList<>();
+        for (WorkspaceStatistics stats : statistics.values())
+            ret.add(recommend(stats));
+        return ret;
+    }
+
+    /**
+     * This method suggests configuration for workspace with given statistics:
+     * initialSize is set so that workspace (after overallocation, if any) fits the biggest observed cycle plus
+     * headroom, spill policy is switched to REALLOCATE if cycles vary in size and spill, maxSize is raised if it
+     * prevented workspace from growing.
+     */
+    public WorkspaceRecommendation recommend(@NonNull WorkspaceStatistics stats) {
+        WorkspaceConfiguration current = stats.getConfiguration() != null ? stats.getConfiguration()
+                        : WorkspaceConfiguration.builder().build();
+        WorkspaceConfiguration rec = copy(current);
+        List<String> notes = new ArrayList<>();
+
+        if (stats.getCycles() == 0) {
+            notes.add("No complete cycles observed, nothing to recommend yet");
+            return new WorkspaceRecommendation(stats.getWorkspaceId(), stats.getThreadId(), current, rec, notes);
+        }
+
+        long peak = stats.getMaxCycleBytes();
+        double mean = stats.getMeanCycleBytes();
+        long target = align((long) Math.ceil(peak * (1.0 + headroom)));
+        boolean circular = current.getPolicyReset() == ResetPolicy.ENDOFBUFFER_REACHED;
+
+        // scoped workspace is overallocated on init, so initialSize is reduced to get target size after that.
+        // circular workspace keeps (1 + limit) blocks of initialSize, each block has to fit full cycle
+        long initialSize = target;
+        if (!circular && current.getPolicyAllocation() == AllocationPolicy.OVERALLOCATE
+                        && current.getOverallocationLimit() > 0)
+            initialSize = align((long) Math.ceil(target / (1.0 + current.getOverallocationLimit())));
+
+        if (initialSize != current.getInitialSize()) {
+            rec.setInitialSize(initialSize);
+            notes.add(String.format("Max cycle is %,d B (mean %,.0f B): initialSize %,d B avoids learning phase and "
+                            + "fits max cycle with %.0f%% headroom", peak, mean, initialSize, headroom * 100));
+        }
+
+        if (current.getMaxSize() > 0 && current.getMaxSize() < target) {
+            rec.setMaxSize(target);
+            notes.add(String.format("maxSize %,d B is below max cycle %,d B, so workspace can't grow to fit it",
+                            current.getMaxSize(), peak));
+        }
+
+        if (current.getMinSize() > 0 && current.getMinSize() > target)
+            notes.add(String.format("minSize %,d B is above what's needed (%,d B)", current.getMinSize(), target));
+
+        long spilled = stats.getSpills() + stats.getPinned();
+        if (spilled > 0) {
+            notes.add(String.format("%,d of %,d cycles spilled: %,d spilled allocations (%,d B), %,d pinned (%,d B)",
+                            stats.getCyclesWithSpills(), stats.getCycles(), stats.getSpills(),
+                            stats.getSpilledBytes(), stats.getPinned(), stats.getPinnedBytes()));
+
+            double variability = mean > 0 ? peak / mean : 1.0;
+            if (current.getPolicySpill() == SpillPolicy.EXTERNAL && variability > 1.5) {
+                rec.setPolicySpill(SpillPolicy.REALLOCATE);
+                notes.add(String.format("Cycle sizes vary (max is %.1fx mean): REALLOCATE lets workspace grow to "
+                                + "new peaks instead of spilling on each of them", variability));
+            }
+
+            Map<String, Long> sites = stats.getSpillSites();
+            if (!sites.isEmpty())
+                notes.add("Most frequent spill site: " + sites.keySet().iterator().next());
+        }
+
+        if (stats.getExternal() > 0)
+            notes.add(String.format("%,d allocations (%,d B) were issued while workspace use was toggled off",
+                            stats.getExternal(), stats.getExternalBytes()));
+
+        if (stats.getLeaks() > 0) {
+            notes.add(String.format("%,d arrays were used outside of workspace scope, consider detach() or "
+                            + "leverageTo() for them", stats.getLeaks()));
+
+            Map<String, Long> sites = stats.getLeakSites();
+            if (!sites.isEmpty())
+                notes.add("Most frequent leak: " + sites.keySet().iterator().next());
+        }
+
+        return new WorkspaceRecommendation(stats.getWorkspaceId(), stats.getThreadId(), current, rec, notes);
+    }
+
+    /**
+     * This method logs statistics and recommendations for all workspaces observed so far
+     */
+    public void printStatistics() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Workspace profiler statistics: ---------------------------------\n");
+        for (WorkspaceStatistics stats : statistics.values()) {
+            sb.append(stats.asString());
+            sb.append(recommend(stats));
+        }
+        log.info(sb.toString());
+    }
+
+    protected static String key(String id, Long threadId) {
+        return id + "_" + threadId;
+    }
+
+    protected static long align(long bytes) {
+        long div = bytes % 8;
+        return div == 0 ? bytes : bytes + 8 - div;
+    }
+
+    protected static WorkspaceConfiguration copy(WorkspaceConfiguration c) {
+        return WorkspaceConfiguration.builder().policyAllocation(c.getPolicyAllocation())
+                        .policySpill(c.getPolicySpill()).policyMirroring(c.getPolicyMirroring())
+                        .policyLearning(c.getPolicyLearning()).policyReset(c.getPolicyReset())
+                        .policyLocation(c.getPolicyLocation()).tempFilePath(c.getTempFilePath())
+                        .initialSize(c.getInitialSize()).minSize(c.getMinSize()).maxSize(c.getMaxSize())
+                        .cyclesBeforeInitialization(c.getCyclesBeforeInitialization())
+                        .overallocationLimit(c.getOverallocationLimit()).stepsNumber(c.getStepsNumber()).build();
+    }
+
+    /**
+     * Returns first stack frame outside of ND4J memory management internals
+     */
+    protected static String callSite() {
+        StackTraceElement[] stack = Thread.currentThread().getStackTrace();
+        StackTraceElement fallback = null;
+        for (StackTraceElement e : stack) {
+            String cls = e.getClassName();
+            if (cls.equals(Thread.class.getName()) || cls.equals(WorkspaceProfiler.class.getName()))
+                continue;
+
+            if (fallback == null)
+                fallback = e;
+
+            boolean internal = false;
+            for (String p : INTERNAL_PACKAGES) {
+                if (cls.startsWith(p)) {
+                    internal = true;
+                    break;
+                }
+            }
+
+            if (!internal)
+                return e.toString();
+        }
+        return fallback != null ? fallback.toString() : "<unknown>";
+    }
+}
@@ -0,0 +1,35 @@
+package org.nd4j.linalg.profiler.data;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.nd4j.linalg.api.memory.conf.WorkspaceConfiguration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration suggested by {@link org.nd4j.linalg.profiler.WorkspaceProfiler} for a single workspace,
+ * based on its observed {@link WorkspaceStatistics}, along with human-readable reasons for suggested changes
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkspaceRecommendation {
+    private String workspaceId;
+    private long threadId;
+    private WorkspaceConfiguration currentConfiguration;
+    private WorkspaceConfiguration recommendedConfiguration;
+    private List<String> notes = new ArrayList<>();
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Workspace [").append(workspaceId).append("], thread ").append(threadId).append(":\n");
+        sb.append("  current:     ").append(currentConfiguration).append("\n");
+        sb.append("  recommended: ").append(recommendedConfiguration).append("\n");
+        for (String note : notes)
+            sb.append("  - ").append(note).append("\n");
+        return sb.toString();
+    }
+}
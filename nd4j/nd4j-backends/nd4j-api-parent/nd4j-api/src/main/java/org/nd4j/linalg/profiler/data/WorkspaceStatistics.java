@@ -0,0 +1,368 @@
+package org.nd4j.linalg.profiler.data;
+
+import lombok.Getter;
+import lombok.NonNull;
+import org.nd4j.linalg.api.memory.conf.WorkspaceConfiguration;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Allocation statistics of a single workspace, collected by {@link org.nd4j.linalg.profiler.WorkspaceProfiler}:
+ * cycle peaks, in-workspace, spilled, pinned and external allocations, plus log2 histograms of allocation and cycle
+ * sizes (allocation heatmap), and sampled allocation sites for spills and leaks.
+ *
+ * PLEASE NOTE: counters are updated by the thread owning the workspace, and may be read from any thread.
+ */
+public class WorkspaceStatistics {
+    public static final int NUM_BUCKETS = 64;
+
+    /**
+     * Max number of distinct allocation sites kept per category
+     */
+    protected static final int MAX_SITES = 1000;
+
+    /**
+     * Max number of sampled allocation addresses kept for leak attribution
+     */
+    protected static final int MAX_SAMPLED_ADDRESSES = 10000;
+
+    @Getter
+    protected final String workspaceId;
+    @Getter
+    protected final long threadId;
+    @Getter
+    protected final WorkspaceConfiguration configuration;
+
+    protected final AtomicLong cycles = new AtomicLong(0);
+    protected final AtomicLong cyclesWithSpills = new AtomicLong(0);
+    protected final AtomicLong maxCycleBytes = new AtomicLong(0);
+    protected final AtomicLong totalCycleBytes = new AtomicLong(0);
+    protected final AtomicLong workspaceSize = new AtomicLong(0);
+
+    protected final AtomicLong allocations = new AtomicLong(0);
+    protected final AtomicLong allocatedBytes = new AtomicLong(0);
+    protected final AtomicLong spills = new AtomicLong(0);
+    protected final AtomicLong spilledBytes = new AtomicLong(0);
+    protected final AtomicLong pinned = new AtomicLong(0);
+    protected final AtomicLong pinnedBytes = new AtomicLong(0);
+    protected final AtomicLong external = new AtomicLong(0);
+    protected final AtomicLong externalBytes = new AtomicLong(0);
+    protected final AtomicLong leaks = new AtomicLong(0);
+
+    // spills observed during the current cycle, reset on each cycle end
+    protected final AtomicLong cycleSpills = new AtomicLong(0);
+
+    protected final AtomicLongArray allocationHistogram = new AtomicLongArray(NUM_BUCKETS);
+    protected final AtomicLongArray cycleHistogram = new AtomicLongArray(NUM_BUCKETS);
+
+    protected final ConcurrentMap<String, AtomicLong> spillSites = new ConcurrentHashMap<>();
+    protected final ConcurrentMap<String, AtomicLong> leakSites = new ConcurrentHashMap<>();
+    protected final ConcurrentMap<Long, SampledSite> sampledAddresses = new ConcurrentHashMap<>();
+
+    protected static class SampledSite {
+        protected final long generationId;
+        protected final String site;
+
+        protected SampledSite(long generationId, String site) {
+            this.generationId = generationId;
+            this.site = site;
+        }
+    }
+
+    public WorkspaceStatistics(@NonNull String workspaceId, long threadId, WorkspaceConfiguration configuration) {
+        this.workspaceId = workspaceId;
+        this.threadId = threadId;
+        this.configuration = configuration;
+    }
+
+    /**
+     * Records allocation served from workspace memory
+     *
+     * @param site allocation site, or null if this allocation wasn't sampled
+     */
+    public void recordAllocation(long bytes, long address, long generationId, String site) {
+        allocations.incrementAndGet();
+        allocatedBytes.addAndGet(bytes);
+        allocationHistogram.incrementAndGet(bucket(bytes));
+
+        if (site != null) {
+            if (sampledAddresses.size() >= MAX_SAMPLED_ADDRESSES)
+                sampledAddresses.clear();
+            sampledAddresses.put(address, new SampledSite(generationId, site));
+        }
+    }
+
+    /**
+     * Records allocation spilled out of workspace, because workspace was too small
+     */
+    public void recordSpill(long bytes, String site) {
+        spills.incrementAndGet();
+        spilledBytes.addAndGet(bytes);
+        cycleSpills.incrementAndGet();
+        allocationHistogram.incrementAndGet(bucket(bytes));
+        countSite(spillSites, site);
+    }
+
+    /**
+     * Records pinned allocation, i.e. spill of circular workspace
+     */
+    public void recordPinned(long bytes, String site) {
+        pinned.incrementAndGet();
+        pinnedBytes.addAndGet(bytes);
+        cycleSpills.incrementAndGet();
+        allocationHistogram.incrementAndGet(bucket(bytes));
+        countSite(spillSites, site);
+    }
+
+    /**
+     * Records allocation issued while workspace use was toggled off
+     */
+    public void recordExternal(long bytes, String site) {
+        external.incrementAndGet();
+        externalBytes.addAndGet(bytes);
+        countSite(spillSites, site);
+    }
+
+    /**
+     * Records use of workspace array after its scope was closed, or after the workspace was reset
+     *
+     * @param address      address of the leaked buffer, used to look up sampled allocation site
+     * @param generationId generation of the leaked buffer
+     * @param useSite      description of the place where leaked array was used, or null if this leak wasn't sampled
+     */
+    public void recordLeak(long address, long generationId, String useSite) {
+        leaks.incrementAndGet();
+        if (useSite == null)
+            return;
+
+        SampledSite allocSite = sampledAddresses.get(address);
+        String allocation = allocSite != null && allocSite.generationId == generationId ? allocSite.site
+                        : "<allocation site not sampled>";
+        countSite(leakSites, "allocated at " + allocation + "; used at " + useSite);
+    }
+
+    /**
+     * Records end of workspace cycle
+     *
+     * @param cycleBytes    number of bytes allocated during this cycle
+     * @param workspaceSize current workspace size
+     */
+    public void recordCycle(long cycleBytes, long workspaceSize) {
+        cycles.incrementAndGet();
+        totalCycleBytes.addAndGet(cycleBytes);
+        this.workspaceSize.set(workspaceSize);
+        cycleHistogram.incrementAndGet(bucket(cycleBytes));
+
+        long max;
+        while (cycleBytes > (max = maxCycleBytes.get()) && !maxCycleBytes.compareAndSet(max, cycleBytes));
+
+        if (cycleSpills.getAndSet(0) > 0)
+            cyclesWithSpills.incrementAndGet();
+    }
+
+    protected void countSite(ConcurrentMap<String, AtomicLong> sites, String site) {
+        if (site == null)
+            return;
+
+        AtomicLong counter = sites.get(site);
+        if (counter == null) {
+            if (sites.size() >= MAX_SITES)
+                return;
+            counter = new AtomicLong(0);
+            AtomicLong prev = sites.putIfAbsent(site, counter);
+            if (prev != null)
+                counter = prev;
+        }
+        counter.incrementAndGet();
+    }
+
+    /**
+     * Histogram bucket for given number of bytes: bucket N holds values in range [2^N, 2^(N+1))
+     */
+    public static int bucket(long bytes) {
+        if (bytes <= 0)
+            return 0;
+        return 63 - Long.numberOfLeadingZeros(bytes);
+    }
+
+    public long getCycles() {
+        return cycles.get();
+    }
+
+    public long getCyclesWithSpills() {
+        return cyclesWithSpills.get();
+    }
+
+    public long getMaxCycleBytes() {
+        return maxCycleBytes.get();
+    }
+
+    public double getMeanCycleBytes() {
+        long c = cycles.get();
+        return c == 0 ? 0.0 : totalCycleBytes.get() / (double) c;
+    }
+
+    public long getWorkspaceSize() {
+        return workspaceSize.get();
+    }
+
+    public long getAllocations() {
+        return allocations.get();
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes.get();
+    }
+
+    public long getSpills() {
+        return spills.get();
+    }
+
+    public long getSpilledBytes() {
+        return spilledBytes.get();
+    }
+
+    public long getPinned() {
+        return pinned.get();
+    }
+
+    public long getPinnedBytes() {
+        return pinnedBytes.get();
+    }
+
+    public long getExternal() {
+        return external.get();
+    }
+
+    public long getExternalBytes() {
+        return externalBytes.get();
+    }
+
+    public long getLeaks() {
+        return leaks.get();
+    }
+
+    /**
+     * Returns histogram of individual allocation sizes: element N is number of allocations in range [2^N, 2^(N+1)) bytes
+     */
+    public long[] getAllocationHistogram() {
+        return toArray(allocationHistogram);
+    }
+
+    /**
+     * Returns histogram of per-cycle allocations: element N is number of cycles in range [2^N, 2^(N+1)) bytes
+     */
+    public long[] getCycleHistogram() {
+        return toArray(cycleHistogram);
+    }
+
+    /**
+     * Returns sampled spill (and external/pinned allocation) sites, most frequent first
+     */
+    public Map<String, Long> getSpillSites() {
+        return sorted(spillSites);
+    }
+
+    /**
+     * Returns sampled leak sites, most frequent first
+     */
+    public Map<String, Long> getLeakSites() {
+        return sorted(leakSites);
+    }
+
+    public void reset() {
+        for (AtomicLong l : new AtomicLong[] {cycles, cyclesWithSpills, maxCycleBytes, totalCycleBytes, allocations,
+                        allocatedBytes, spills, spilledBytes, pinned, pinnedBytes, external, externalBytes, leaks,
+                        cycleSpills})
+            l.set(0);
+
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            allocationHistogram.set(i, 0);
+            cycleHistogram.set(i, 0);
+        }
+
+        spillSites.clear();
+        leakSites.clear();
+        sampledAddresses.clear();
+    }
+
+    protected static long[] toArray(AtomicLongArray array) {
+        long[] ret = new long[array.length()];
+        for (int i = 0; i < ret.length; i++)
+            ret[i] = array.get(i);
+        return ret;
+    }
+
+    protected static Map<String, Long> sorted(Map<String, AtomicLong> sites) {
+        List<Map.Entry<String, AtomicLong>> entries = new ArrayList<>(sites.entrySet());
+        Collections.sort(entries, new Comparator<Map.Entry<String, AtomicLong>>() {
+            @Override
+            public int compare(Map.Entry<String, AtomicLong> o1, Map.Entry<String, AtomicLong> o2) {
+                return Long.compare(o2.getValue().get(), o1.getValue().get());
+            }
+        });
+
+        Map<String, Long> ret = new LinkedHashMap<>();
+        for (Map.Entry<String, AtomicLong> e : entries)
+            ret.put(e.getKey(), e.getValue().get());
+        return ret;
+    }
+
+    /**
+     * Renders statistics, allocation heatmap and top sites as human-readable text
+     */
+    public String asString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Workspace [%s], thread %d: %d cycles (%d with spills), max cycle: %,d B, mean cycle: "
+                        + "%,.0f B, workspace size: %,d B%n", workspaceId, threadId, getCycles(),
+                        getCyclesWithSpills(), getMaxCycleBytes(), getMeanCycleBytes(), getWorkspaceSize()));
+        sb.append(String.format("  allocations: %,d (%,d B), spilled: %,d (%,d B), pinned: %,d (%,d B), "
+                        + "external: %,d (%,d B), leaks: %,d%n", getAllocations(), getAllocatedBytes(), getSpills(),
+                        getSpilledBytes(), getPinned(), getPinnedBytes(), getExternal(), getExternalBytes(),
+                        getLeaks()));
+
+        sb.append("  allocation sizes:\n");
+        appendHistogram(sb, getAllocationHistogram());
+        sb.append("  cycle sizes:\n");
+        appendHistogram(sb, getCycleHistogram());
+
+        appendSites(sb, "  top spill sites:", getSpillSites());
+        appendSites(sb, "  top leak sites:", getLeakSites());
+        return sb.toString();
+    }
+
+    protected static void appendHistogram(StringBuilder sb, long[] histogram) {
+        long max = 0;
+        for (long l : histogram)
+            max = Math.max(max, l);
+
+        if (max == 0)
+            return;
+
+        for (int i = 0; i < histogram.length; i++) {
+            if (histogram[i] == 0)
+                continue;
+            int width = (int) Math.max(1, histogram[i] * 40 / max);
+            char[] bar = new char[width];
+            Arrays.fill(bar, '#');
+            sb.append(String.format("    [2^%-2d, 2^%-2d) %-40s %,d%n", i, i + 1, new String(bar), histogram[i]));
+        }
+    }
+
+    protected static void appendSites(StringBuilder sb, String header, Map<String, Long> sites) {
+        if (sites.isEmpty())
+            return;
+
+        sb.append(header).append("\n");
+        int cnt = 0;
+        for (Map.Entry<String, Long> e : sites.entrySet()) {
+            if (cnt++ >= 10)
+                break;
+            sb.append(String.format("    %,8d  %s%n", e.getValue(), e.getKey()));
+        }
+    }
+}
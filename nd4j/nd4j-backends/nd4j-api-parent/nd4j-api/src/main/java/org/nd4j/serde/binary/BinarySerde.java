@@ -64,12 +64,13 @@ public class BinarySerde {
         //get the shape buffer length to create the shape information buffer
         int shapeBufferLength = Shape.shapeInfoLength(rank);
         //create the ndarray shape information
-        DataBuffer shapeBuff = Nd4j.createBufferDetached(new int[shapeBufferLength]);
+        DataBuffer shapeBuff = Nd4j.createBufferDetached(new long[shapeBufferLength]);
 
         //compute the databuffer opType from the index
         DataBuffer.Type type = DataBuffer.Type.values()[byteBuffer.getInt()];
+        //shape information is written as is, and it's long buffer
         for (int i = 0; i < shapeBufferLength; i++) {
-            shapeBuff.put(i, byteBuffer.getInt());
+            shapeBuff.put(i, byteBuffer.getLong());
         }
 
         //after the rank,data opType, shape buffer (of length shape buffer length) * sizeof(int)
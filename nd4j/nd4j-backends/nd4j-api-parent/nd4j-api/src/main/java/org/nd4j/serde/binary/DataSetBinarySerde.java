@@ -0,0 +1,402 @@
+package org.nd4j.serde.binary;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.dataset.MultiDataSet;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.io.*;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Versioned binary format for {@link DataSet} and {@link MultiDataSet}, built on top of {@link BinarySerde}.<br>
+ * Layout (header is big endian, array records are in native byte order, as written by BinarySerde):
+ * <pre>
+ * int     magic
+ * int     version
+ * byte    kind (DataSet or MultiDataSet)
+ * byte    flags (labels are the same array as features)
+ * short   reserved
+ * int[4]  number of features, labels, features mask, labels mask arrays (-1 if null)
+ * per array: long offset, long length (offset is -1 for null arrays)
+ * long    metadata offset, long metadata length (offset is -1 if there's no example metadata)
+ * [records, each one aligned to 64 bytes]
+ * </pre>
+ * Files are read via memory mapping instead of through an intermediate heap byte[]: each array is copied out of the
+ * mapped file (see {@link BinarySerde#toArray(ByteBuffer)}), and the file is unmapped once all arrays are read.<br>
+ * Features and labels may optionally be compressed with any codec supported by {@link Nd4j#getCompressor()},
+ * i.e. GZIP (lossless), FLOAT16 or INT8. Mask arrays are never compressed.
+ */
+@Slf4j
+public class DataSetBinarySerde {
+    public static final int MAGIC = 0x4E443444;
+    public static final int VERSION = 1;
+
+    private static final byte KIND_DATASET = 0;
+    private static final byte KIND_MULTIDATASET = 1;
+    private static final byte FLAG_LABELS_SAME_AS_FEATURES = 1;
+    private static final int ALIGNMENT = 64;
+    private static final int GROUPS = 4;
+
+    private DataSetBinarySerde() {}
+
+    /**
+     * Write a DataSet to file without compression
+     */
+    public static void write(DataSet dataSet, File file) throws IOException {
+        write(dataSet, file, null);
+    }
+
+    /**
+     * Write a DataSet to file
+     *
+     * @param compression Codec used for features and labels. May be null for no compression
+     */
+    public static void write(@NonNull DataSet dataSet, @NonNull File file, String compression) throws IOException {
+        try (FileOutputStream fos = new FileOutputStream(file, false)) {
+            write(dataSet, fos, compression);
+        }
+    }
+
+    /**
+     * Write a DataSet to output stream. Stream is not closed.
+     *
+     * @param compression Codec used for features and labels. May be null for no compression
+     */
+    public static void write(@NonNull DataSet dataSet, @NonNull OutputStream to, String compression)
+                    throws IOException {
+        boolean sameLabels = dataSet.getLabels() != null && dataSet.getLabels() == dataSet.getFeatures();
+        INDArray[][] groups = new INDArray[][] {wrap(dataSet.getFeatures()),
+                        sameLabels ? null : wrap(dataSet.getLabels()), wrap(dataSet.getFeaturesMaskArray()),
+                        wrap(dataSet.getLabelsMaskArray())};
+        write(KIND_DATASET, sameLabels ? FLAG_LABELS_SAME_AS_FEATURES : 0, groups, dataSet.getExampleMetaData(), to,
+                        compression);
+    }
+
+    /**
+     * Write a MultiDataSet to file without compression
+     */
+    public static void write(MultiDataSet multiDataSet, File file) throws IOException {
+        write(multiDataSet, file, null);
+    }
+
+    /**
+     * Write a MultiDataSet to file
+     *
+     * @param compression Codec used for features and labels. May be null for no compression
+     */
+    public static void write(@NonNull MultiDataSet multiDataSet, @NonNull File file, String compression)
+                    throws IOException {
+        try (FileOutputStream fos = new FileOutputStream(file, false)) {
+            write(multiDataSet, fos, compression);
+        }
+    }
+
+    /**
+     * Write a MultiDataSet to output stream. Stream is not closed.
+     *
+     * @param compression Codec used for features and labels. May be null for no compression
+     */
+    public static void write(@NonNull MultiDataSet multiDataSet, @NonNull OutputStream to, String compression)
+                    throws IOException {
+        INDArray[][] groups = new INDArray[][] {multiDataSet.getFeatures(), multiDataSet.getLabels(),
+                        multiDataSet.getFeaturesMaskArrays(), multiDataSet.getLabelsMaskArrays()};
+        write(KIND_MULTIDATASET, (byte) 0, groups, multiDataSet.getExampleMetaData(), to, compression);
+    }
+
+    /**
+     * Read a DataSet from file, via memory mapping
+     */
+    public static DataSet readDataSet(@NonNull File file) throws IOException {
+        MappedByteBuffer buffer = map(file);
+        try {
+            return toDataSet(buffer);
+        } finally {
+            unmap(buffer);
+        }
+    }
+
+    /**
+     * Read a DataSet from input stream. Stream is not closed.
+     */
+    public static DataSet readDataSet(@NonNull InputStream from) throws IOException {
+        return toDataSet(readFully(from));
+    }
+
+    /**
+     * Read a MultiDataSet from file, via memory mapping
+     */
+    public static MultiDataSet readMultiDataSet(@NonNull File file) throws IOException {
+        MappedByteBuffer buffer = map(file);
+        try {
+            return toMultiDataSet(buffer);
+        } finally {
+            unmap(buffer);
+        }
+    }
+
+    /**
+     * Read a MultiDataSet from input stream. Stream is not closed.
+     */
+    public static MultiDataSet readMultiDataSet(@NonNull InputStream from) throws IOException {
+        return toMultiDataSet(readFully(from));
+    }
+
+    /**
+     * @return True if the file starts with the magic number of this format
+     */
+    public static boolean isBinaryFormat(@NonNull File file) {
+        if (file.length() < 8)
+            return false;
+        try (DataInputStream dis = new DataInputStream(new FileInputStream(file))) {
+            return dis.readInt() == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static INDArray[] wrap(INDArray array) {
+        return array == null ? null : new INDArray[] {array};
+    }
+
+    private static INDArray first(INDArray[] arrays) {
+        return arrays == null ? null : arrays[0];
+    }
+
+    private static long align(long position) {
+        return (position + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+
+    private static void write(byte kind, byte flags, INDArray[][] groups, List<? extends Serializable> metaData,
+                    OutputStream to, String compression) throws IOException {
+        List<ByteBuffer> records = new ArrayList<>();
+        int numArrays = 0;
+        for (int g = 0; g < GROUPS; g++) {
+            if (groups[g] == null)
+                continue;
+            boolean compress = compression != null && g < 2;
+            for (INDArray arr : groups[g]) {
+                numArrays++;
+                if (arr == null) {
+                    records.add(null);
+                } else {
+                    if (compress && !arr.isCompressed())
+                        arr = Nd4j.getCompressor().compress(arr, compression);
+                    records.add(BinarySerde.toByteBuffer(arr));
+                }
+            }
+        }
+
+        ByteBuffer meta = null;
+        if (metaData != null && !metaData.isEmpty()) {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+                oos.writeObject(new ArrayList<>(metaData));
+            }
+            meta = ByteBuffer.wrap(baos.toByteArray());
+        }
+
+        //magic, version, kind/flags/reserved, array counts, array offsets and lengths, metadata offset and length
+        int headerLength = 3 * 4 + 4 * GROUPS + 16 * numArrays + 16;
+        ByteBuffer header = ByteBuffer.allocate(headerLength).order(ByteOrder.BIG_ENDIAN);
+        header.putInt(MAGIC);
+        header.putInt(VERSION);
+        header.put(kind);
+        header.put(flags);
+        header.putShort((short) 0);
+        for (int g = 0; g < GROUPS; g++)
+            header.putInt(groups[g] == null ? -1 : groups[g].length);
+
+        long position = align(headerLength);
+        for (ByteBuffer record : records) {
+            if (record == null) {
+                header.putLong(-1);
+                header.putLong(0);
+            } else {
+                header.putLong(position);
+                header.putLong(record.remaining());
+                position = align(position + record.remaining());
+            }
+        }
+        header.putLong(meta == null ? -1 : position);
+        header.putLong(meta == null ? 0 : meta.remaining());
+        header.flip();
+
+        WritableByteChannel channel = Channels.newChannel(to);
+        position = writeFully(channel, header, 0);
+        for (ByteBuffer record : records) {
+            if (record != null)
+                position = writeFully(channel, record, position);
+        }
+        if (meta != null)
+            writeFully(channel, meta, position);
+        to.flush();
+    }
+
+    /**
+     * Pads output up to the next alignment boundary, and writes the buffer
+     */
+    private static long writeFully(WritableByteChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long aligned = align(position);
+        if (aligned > position) {
+            ByteBuffer padding = ByteBuffer.allocate((int) (aligned - position));
+            while (padding.hasRemaining())
+                channel.write(padding);
+        }
+
+        long length = buffer.remaining();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        return aligned + length;
+    }
+
+    private static MappedByteBuffer map(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+            //Mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * Release the mapping without waiting for GC: until then, the file can't be modified or deleted on Windows.
+     * Only valid because arrays read from the buffer don't reference it.
+     */
+    private static void unmap(MappedByteBuffer buffer) {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Method invokeCleaner;
+            try {
+                invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            } catch (NoSuchMethodException e) {
+                invokeCleaner = null;
+            }
+
+            if (invokeCleaner != null) {
+                //Java 9+
+                Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+                theUnsafe.setAccessible(true);
+                invokeCleaner.invoke(theUnsafe.get(null), buffer);
+            } else {
+                Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                Object cleaner = cleanerMethod.invoke(buffer);
+                if (cleaner != null)
+                    cleaner.getClass().getMethod("clean").invoke(cleaner);
+            }
+        } catch (Exception e) {
+            log.debug("Could not unmap file buffer, it will be released on garbage collection", e);
+        }
+    }
+
+    private static ByteBuffer readFully(InputStream from) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        byte[] buffer = new byte[64 * 1024];
+        int read;
+        while ((read = from.read(buffer)) != -1)
+            baos.write(buffer, 0, read);
+
+        byte[] bytes = baos.toByteArray();
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes);
+        direct.flip();
+        return direct;
+    }
+
+    private static DataSet toDataSet(ByteBuffer buffer) throws IOException {
+        Contents contents = read(buffer, KIND_DATASET);
+        INDArray features = first(contents.groups[0]);
+        INDArray labels = (contents.flags & FLAG_LABELS_SAME_AS_FEATURES) != 0 ? features
+                        : first(contents.groups[1]);
+        DataSet ds = new DataSet(features, labels, first(contents.groups[2]), first(contents.groups[3]));
+        if (contents.metaData != null)
+            ds.setExampleMetaData(contents.metaData);
+        return ds;
+    }
+
+    private static MultiDataSet toMultiDataSet(ByteBuffer buffer) throws IOException {
+        Contents contents = read(buffer, KIND_MULTIDATASET);
+        MultiDataSet mds = new MultiDataSet(contents.groups[0], contents.groups[1], contents.groups[2],
+                        contents.groups[3]);
+        if (contents.metaData != null)
+            mds.setExampleMetaData(contents.metaData);
+        return mds;
+    }
+
+    private static class Contents {
+        private byte flags;
+        private INDArray[][] groups = new INDArray[GROUPS][];
+        private List<Serializable> metaData;
+    }
+
+    private static Contents read(ByteBuffer buffer, byte expectedKind) throws IOException {
+        ByteBuffer header = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+        header.position(0);
+        if (header.remaining() < 16 || header.getInt() != MAGIC)
+            throw new IOException("Not a binary DataSet/MultiDataSet: invalid magic number");
+        int version = header.getInt();
+        if (version > VERSION)
+            throw new IOException("Unsupported binary DataSet format version " + version + ", latest supported is "
+                            + VERSION);
+        byte kind = header.get();
+        if (kind != expectedKind)
+            throw new IOException("Expected " + (expectedKind == KIND_DATASET ? "DataSet" : "MultiDataSet")
+                            + " but file contains " + (kind == KIND_DATASET ? "DataSet" : "MultiDataSet"));
+
+        Contents contents = new Contents();
+        contents.flags = header.get();
+        header.getShort();
+
+        int[] counts = new int[GROUPS];
+        for (int g = 0; g < GROUPS; g++)
+            counts[g] = header.getInt();
+
+        for (int g = 0; g < GROUPS; g++) {
+            if (counts[g] < 0)
+                continue;
+            INDArray[] arrays = new INDArray[counts[g]];
+            for (int i = 0; i < counts[g]; i++) {
+                long offset = header.getLong();
+                long length = header.getLong();
+                if (offset >= 0)
+                    arrays[i] = readArray(buffer, offset, length);
+            }
+            contents.groups[g] = arrays;
+        }
+
+        long metaOffset = header.getLong();
+        long metaLength = header.getLong();
+        if (metaOffset >= 0) {
+            byte[] bytes = new byte[(int) metaLength];
+            ByteBuffer meta = buffer.duplicate();
+            meta.position((int) metaOffset);
+            meta.get(bytes);
+            try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                contents.metaData = (List<Serializable>) ois.readObject();
+            } catch (ClassNotFoundException e) {
+                throw new IOException("Error reading example metadata", e);
+            }
+        }
+        return contents;
+    }
+
+    private static INDArray readArray(ByteBuffer buffer, long offset, long length) {
+        ByteBuffer record = buffer.duplicate();
+        record.position((int) offset);
+        record.limit((int) (offset + length));
+        INDArray arr = BinarySerde.toArray(record.slice());
+        if (arr.isCompressed())
+            arr = Nd4j.getCompressor().decompress(arr);
+        return arr;
+    }
+}
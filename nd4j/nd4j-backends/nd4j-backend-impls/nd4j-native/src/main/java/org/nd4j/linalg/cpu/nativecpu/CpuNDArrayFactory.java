@@ -639,6 +639,9 @@ public class CpuNDArrayFactory extends BaseNDArrayFactory {
 
     @Override
     public INDArray toFlattened(char order, Collection<INDArray> matrices) {
+        // ops queued by GridExecutioner have to be applied before we access memory directly
+        Nd4j.getExecutioner().push();
+
         int length = 0;
         for (INDArray m : matrices)
             length += m.length();
@@ -700,6 +703,8 @@ public class CpuNDArrayFactory extends BaseNDArrayFactory {
     }
 
     public INDArray[] tear(INDArray tensor, int... dimensions) {
+        Nd4j.getExecutioner().push();
+
         if (tensor.isCompressed())
             Nd4j.getCompressor().decompressi(tensor);
 
@@ -767,6 +772,8 @@ public class CpuNDArrayFactory extends BaseNDArrayFactory {
         if (toConcat.length == 1)
             return toConcat[0];
 
+        Nd4j.getExecutioner().push();
+
         // if reusable var wasn't created for this thread, or is smaller then needed - set it to new value
         if (extrazA.get() == null || extrazB.get() == null || extrazSize.get() == null || extrazSize.get() < toConcat.length) {
             extrazA.set(new PointerPointer(toConcat.length));
@@ -899,6 +906,8 @@ public class CpuNDArrayFactory extends BaseNDArrayFactory {
         if (indexes == null || indexes.length < 1)
             throw new IllegalStateException("Indexes can't be null or zero-length");
 
+        Nd4j.getExecutioner().push();
+
         long[] shape = null;
         if (sourceDimension == 1)
             shape = new long[] {indexes.length, source.shape()[sourceDimension]};
@@ -975,6 +984,8 @@ public class CpuNDArrayFactory extends BaseNDArrayFactory {
         if (arrays.length == 1)
             return target.addi(arrays[0]);
 
+        Nd4j.getExecutioner().push();
+
         long len = target.lengthLong();
 
         PointerPointer dataPointers = new PointerPointer(arrays.length);
@@ -1017,6 +1028,8 @@ public class CpuNDArrayFactory extends BaseNDArrayFactory {
         if (arrays.length == 1)
             return target.assign(arrays[0]);
 
+        Nd4j.getExecutioner().push();
+
         long len = target != null ? target.lengthLong() : arrays[0].length();
 
         PointerPointer dataPointers = new PointerPointer(arrays.length);
@@ -1109,6 +1122,8 @@ public class CpuNDArrayFactory extends BaseNDArrayFactory {
      */
     @Override
     public void shuffle(List<INDArray> arrays, Random rnd, List<int[]> dimensions) {
+        Nd4j.getExecutioner().push();
+
         if (dimensions == null || dimensions.size() == 0)
             throw new RuntimeException("Dimension can't be null or 0-length");
 
@@ -1328,6 +1343,7 @@ public class CpuNDArrayFactory extends BaseNDArrayFactory {
     @Override
     public void convertDataEx(DataBuffer.TypeEx typeSrc, Pointer source, DataBuffer.TypeEx typeDst, Pointer target,
                               long length) {
+        Nd4j.getExecutioner().push();
         nativeOps.convertTypes(null, typeSrc.ordinal(), source, length, typeDst.ordinal(), target);
     }
 
@@ -1484,6 +1500,8 @@ public class CpuNDArrayFactory extends BaseNDArrayFactory {
         if (x.isScalar())
             return x;
 
+        Nd4j.getExecutioner().push();
+
         if (x.data().dataType() == DataBuffer.Type.FLOAT) {
             NativeOpsHolder.getInstance().getDeviceNativeOps().sortFloat(null, (FloatPointer) x.data().addressPointer(), (LongPointer) x.shapeInfoDataBuffer().addressPointer(), descending);
         } else if (x.data().dataType() == DataBuffer.Type.DOUBLE) {
@@ -1499,6 +1517,8 @@ public class CpuNDArrayFactory extends BaseNDArrayFactory {
         if (x.isScalar())
             return x;
 
+        Nd4j.getExecutioner().push();
+
         Arrays.sort(dimension);
         Pair<DataBuffer, DataBuffer> tadBuffers = Nd4j.getExecutioner().getTADManager().getTADOnlyShapeInfo(x, dimension);
 
@@ -9,6 +9,8 @@ import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.buffer.IntBuffer;
 import org.nd4j.linalg.api.buffer.LongBuffer;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.cache.BoundedCache;
+import org.nd4j.linalg.cache.CacheMetrics;
 import org.nd4j.linalg.cache.ConstantHandler;
 import org.nd4j.linalg.cache.TADManager;
 import org.nd4j.linalg.cache.TadDescriptor;
@@ -17,21 +19,32 @@ import org.nd4j.nativeblas.LongPointerWrapper;
 import org.nd4j.nativeblas.NativeOps;
 
 import java.util.Arrays;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
 
 /**
+ * TAD cache is bounded: least recently used TADs are evicted once there's more than
+ * {@link #MAX_ENTRIES_PROPERTY} TADs (default 1000) or more than {@link #MAX_BYTES_PROPERTY} bytes
+ * (default 64MB) cached.
+ *
  * @author raver119@gmail.com
  */
 public class CpuTADManager implements TADManager {
-    private Map<TadDescriptor, Pair<DataBuffer, DataBuffer>> cache = new ConcurrentHashMap<>();
+    public static final String MAX_ENTRIES_PROPERTY = "org.nd4j.linalg.cpu.tad.cache.maxEntries";
+    public static final String MAX_BYTES_PROPERTY = "org.nd4j.linalg.cpu.tad.cache.maxBytes";
+
+    private static final BoundedCache.Weigher<Pair<DataBuffer, DataBuffer>> WEIGHER =
+                    new BoundedCache.Weigher<Pair<DataBuffer, DataBuffer>>() {
+                        @Override
+                        public long weigh(Pair<DataBuffer, DataBuffer> value) {
+                            return value.getFirst().length() * value.getFirst().getElementSize()
+                                            + value.getSecond().length() * value.getSecond().getElementSize();
+                        }
+                    };
+
+    private final BoundedCache<TadDescriptor, Pair<DataBuffer, DataBuffer>> cache =
+                    new BoundedCache<>(Integer.getInteger(MAX_ENTRIES_PROPERTY, 1000),
+                                    Long.getLong(MAX_BYTES_PROPERTY, 64L * 1024 * 1024), WEIGHER);
     private NativeOps nativeOps;
     private ConstantHandler constantHandler;
-    private AtomicLong bytes = new AtomicLong(0);
-    private AtomicInteger counter = new AtomicInteger(0);
-    private static final int MAX_ENTRIES = 100;
 
     public CpuTADManager() {
         //
@@ -47,7 +60,7 @@ public class CpuTADManager implements TADManager {
      */
     @Override
     public void purgeBuffers() {
-        cache = new ConcurrentHashMap<>();
+        cache.clear();
     }
 
     @Override
@@ -60,7 +73,8 @@ public class CpuTADManager implements TADManager {
         } else {
             TadDescriptor descriptor = new TadDescriptor(array, dimension);
 
-            if (!cache.containsKey(descriptor)) {
+            Pair<DataBuffer, DataBuffer> cached = cache.get(descriptor);
+            if (cached == null) {
                 int dimensionLength = dimension.length;
 
                 // FIXME: this is fast triage, remove it later
@@ -90,21 +104,24 @@ public class CpuTADManager implements TADManager {
                 // If the line below will be uncommented, shapes from JVM will be used on native side
                 //outputBuffer = array.tensorAlongDimension(0, dimension).shapeInfoDataBuffer();
                 Pair<DataBuffer, DataBuffer> pair = new Pair<>(outputBuffer, offsetsBuffer);
-                if (counter.get() < MAX_ENTRIES) {
-                    counter.incrementAndGet();
-                    cache.put(descriptor, pair);
-
-                    bytes.addAndGet((outputBuffer.length() * 4) + (offsetsBuffer.length() * 8));
-                }
-                return pair;
+                return cache.putIfAbsent(descriptor, pair);
             }
 
-            return cache.get(descriptor);
+            return cached;
         }
     }
 
     @Override
     public long getCachedBytes() {
-        return bytes.get();
+        return cache.getCachedBytes();
+    }
+
+    /**
+     * This method returns hit/miss/eviction counters of TAD cache
+     *
+     * @return
+     */
+    public CacheMetrics getCacheMetrics() {
+        return cache;
     }
 }
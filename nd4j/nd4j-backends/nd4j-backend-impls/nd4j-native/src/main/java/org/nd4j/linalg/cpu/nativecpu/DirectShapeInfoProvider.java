@@ -2,26 +2,41 @@ package org.nd4j.linalg.cpu.nativecpu;
 
 import lombok.extern.slf4j.Slf4j;
 import org.nd4j.linalg.api.shape.LongShapeDescriptor;
+import org.nd4j.linalg.cache.BoundedCache;
+import org.nd4j.linalg.cache.CacheMetrics;
 import org.nd4j.linalg.primitives.Pair;
 import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.ndarray.BaseShapeInfoProvider;
 import org.nd4j.linalg.api.shape.ShapeDescriptor;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
-
 /**
+ * Shape info cache is bounded: least recently used shapes are evicted once there's more than
+ * {@link #MAX_ENTRIES_PROPERTY} shapes (default 5000) cached.
+ *
  * @author raver119@gmail.com
  */
 @Slf4j
 public class DirectShapeInfoProvider extends BaseShapeInfoProvider {
+    public static final String MAX_ENTRIES_PROPERTY = "org.nd4j.linalg.cpu.shape.cache.maxEntries";
+
+    private static final BoundedCache.Weigher<Pair<DataBuffer, long[]>> WEIGHER =
+                    new BoundedCache.Weigher<Pair<DataBuffer, long[]>>() {
+                        @Override
+                        public long weigh(Pair<DataBuffer, long[]> value) {
+                            // off-heap buffer + java-side copy
+                            return value.getFirst().length() * value.getFirst().getElementSize()
+                                            + value.getSecond().length * 8;
+                        }
+                    };
+
     // TODO: to be removed
-    private Map<ShapeDescriptor, Pair<DataBuffer, long[]>> shapeCache = new ConcurrentHashMap<>();
+    private final BoundedCache<ShapeDescriptor, Pair<DataBuffer, long[]>> shapeCache = newCache();
+
+    private final BoundedCache<LongShapeDescriptor, Pair<DataBuffer, long[]>> longCache = newCache();
 
-    private Map<LongShapeDescriptor, Pair<DataBuffer, long[]>> longCache = new ConcurrentHashMap<>();
-    private AtomicInteger counter = new AtomicInteger(0);
-    private static final int MAX_ENTRIES = 1000;
+    private static <K> BoundedCache<K, Pair<DataBuffer, long[]>> newCache() {
+        return new BoundedCache<>(Integer.getInteger(MAX_ENTRIES_PROPERTY, 5000), 0, WEIGHER);
+    }
 
     @Override
     public Pair<DataBuffer, long[]> createShapeInformation(int[] shape, int[] stride, long offset, int elementWiseStride, char order) {
@@ -29,27 +44,12 @@ public class DirectShapeInfoProvider extends BaseShapeInfoProvider {
         offset = 0;
 
         ShapeDescriptor descriptor = new ShapeDescriptor(shape, stride, offset, elementWiseStride, order);
-        if (!shapeCache.containsKey(descriptor)) {
-            if (counter.get() < MAX_ENTRIES) {
-                synchronized (this) {
-                    if (!shapeCache.containsKey(descriptor)) {
-                        counter.incrementAndGet();
-                        Pair<DataBuffer, long[]> buffer =
-                                        super.createShapeInformation(shape, stride, offset, elementWiseStride, order);
-                        shapeCache.put(descriptor, buffer);
-
-                        bytes.addAndGet(buffer.getFirst().length() * 4 * 2);
-
-                        return buffer;
-                    } else
-                        return shapeCache.get(descriptor);
-                }
-            } else {
-                return super.createShapeInformation(shape, stride, offset, elementWiseStride, order);
-            }
-        }
-
-        return shapeCache.get(descriptor);
+        Pair<DataBuffer, long[]> buffer = shapeCache.get(descriptor);
+        if (buffer == null)
+            buffer = shapeCache.putIfAbsent(descriptor,
+                            super.createShapeInformation(shape, stride, offset, elementWiseStride, order));
+
+        return buffer;
     }
 
 
@@ -59,30 +59,31 @@ public class DirectShapeInfoProvider extends BaseShapeInfoProvider {
         offset = 0;
 
         LongShapeDescriptor descriptor = new LongShapeDescriptor(shape, stride, offset, elementWiseStride, order);
-        if (!shapeCache.containsKey(descriptor)) {
-            if (counter.get() < MAX_ENTRIES) {
-                synchronized (this) {
-                    if (!longCache.containsKey(descriptor)) {
-                        counter.incrementAndGet();
-                        Pair<DataBuffer, long[]> buffer = super.createShapeInformation(shape, stride, offset, elementWiseStride, order);
-                        longCache.put(descriptor, buffer);
-
-                        bytes.addAndGet(buffer.getFirst().length() * 4 * 2);
-
-                        return buffer;
-                    } else
-                        return longCache.get(descriptor);
-                }
-            } else {
-                return super.createShapeInformation(shape, stride, offset, elementWiseStride, order);
-            }
-        }
-
-        return longCache.get(descriptor);
+        Pair<DataBuffer, long[]> buffer = longCache.get(descriptor);
+        if (buffer == null)
+            buffer = longCache.putIfAbsent(descriptor,
+                            super.createShapeInformation(shape, stride, offset, elementWiseStride, order));
+
+        return buffer;
     }
 
     @Override
     public void purgeCache() {
-        shapeCache = new ConcurrentHashMap<>();
+        shapeCache.clear();
+        longCache.clear();
+    }
+
+    @Override
+    public long getCachedBytes() {
+        return shapeCache.getCachedBytes() + longCache.getCachedBytes();
+    }
+
+    /**
+     * This method returns hit/miss/eviction counters of long shape cache, which is used by all INDArrays
+     *
+     * @return
+     */
+    public CacheMetrics getCacheMetrics() {
+        return longCache;
     }
 }
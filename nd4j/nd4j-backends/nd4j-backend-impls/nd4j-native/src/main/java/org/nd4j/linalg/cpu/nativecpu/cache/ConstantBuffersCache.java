@@ -3,39 +3,41 @@ package org.nd4j.linalg.cpu.nativecpu.cache;
 import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.cache.ArrayDescriptor;
 import org.nd4j.linalg.cache.BasicConstantHandler;
+import org.nd4j.linalg.cache.BoundedCache;
+import org.nd4j.linalg.cache.CacheMetrics;
 import org.nd4j.linalg.factory.Nd4j;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
-
 /**
+ * Constant buffers cache is bounded: least recently used buffers are evicted once there's more than
+ * {@link #MAX_ENTRIES_PROPERTY} buffers (default 1000) or more than {@link #MAX_BYTES_PROPERTY} bytes
+ * (default 16MB) cached.
+ *
  * @author raver119@gmail.com
  */
 public class ConstantBuffersCache extends BasicConstantHandler {
-    protected Map<ArrayDescriptor, DataBuffer> buffersCache = new ConcurrentHashMap<>();
-    private AtomicInteger counter = new AtomicInteger(0);
-    private AtomicLong bytes = new AtomicLong(0);
-    private static final int MAX_ENTRIES = 1000;
+    public static final String MAX_ENTRIES_PROPERTY = "org.nd4j.linalg.cpu.constant.cache.maxEntries";
+    public static final String MAX_BYTES_PROPERTY = "org.nd4j.linalg.cpu.constant.cache.maxBytes";
+
+    private static final BoundedCache.Weigher<DataBuffer> WEIGHER = new BoundedCache.Weigher<DataBuffer>() {
+        @Override
+        public long weigh(DataBuffer value) {
+            return value.length() * value.getElementSize();
+        }
+    };
+
+    protected final BoundedCache<ArrayDescriptor, DataBuffer> buffersCache =
+                    new BoundedCache<>(Integer.getInteger(MAX_ENTRIES_PROPERTY, 1000),
+                                    Long.getLong(MAX_BYTES_PROPERTY, 16L * 1024 * 1024), WEIGHER);
 
     @Override
     public DataBuffer getConstantBuffer(int[] array) {
         ArrayDescriptor descriptor = new ArrayDescriptor(array);
 
-        if (!buffersCache.containsKey(descriptor)) {
-            DataBuffer buffer = Nd4j.createBufferDetached(array);
-
-            // we always allow int arrays with length < 3. 99.9% it's just dimension array. we don't want to recreate them over and over
-            if (counter.get() < MAX_ENTRIES || array.length < 4) {
-                counter.incrementAndGet();
-                buffersCache.put(descriptor, buffer);
-                bytes.addAndGet(array.length * 4);
-            }
-            return buffer;
-        }
+        DataBuffer buffer = buffersCache.get(descriptor);
+        if (buffer == null)
+            buffer = buffersCache.putIfAbsent(descriptor, Nd4j.createBufferDetached(array));
 
-        return buffersCache.get(descriptor);
+        return buffer;
     }
 
     /**
@@ -43,68 +45,53 @@ public class ConstantBuffersCache extends BasicConstantHandler {
      */
     @Override
     public void purgeConstants() {
-        buffersCache = new ConcurrentHashMap<>();
+        buffersCache.clear();
     }
 
     @Override
     public DataBuffer getConstantBuffer(float[] array) {
         ArrayDescriptor descriptor = new ArrayDescriptor(array);
 
-        if (!buffersCache.containsKey(descriptor)) {
-            DataBuffer buffer = Nd4j.createBufferDetached(array);
-
-            if (counter.get() < MAX_ENTRIES) {
-                counter.incrementAndGet();
-                buffersCache.put(descriptor, buffer);
+        DataBuffer buffer = buffersCache.get(descriptor);
+        if (buffer == null)
+            buffer = buffersCache.putIfAbsent(descriptor, Nd4j.createBufferDetached(array));
 
-                bytes.addAndGet(array.length * Nd4j.sizeOfDataType());
-            }
-            return buffer;
-        }
-
-        return buffersCache.get(descriptor);
+        return buffer;
     }
 
     @Override
     public DataBuffer getConstantBuffer(double[] array) {
         ArrayDescriptor descriptor = new ArrayDescriptor(array);
 
-        if (!buffersCache.containsKey(descriptor)) {
-            DataBuffer buffer = Nd4j.createBufferDetached(array);
-
-            if (counter.get() < MAX_ENTRIES) {
-                counter.incrementAndGet();
-                buffersCache.put(descriptor, buffer);
+        DataBuffer buffer = buffersCache.get(descriptor);
+        if (buffer == null)
+            buffer = buffersCache.putIfAbsent(descriptor, Nd4j.createBufferDetached(array));
 
-                bytes.addAndGet(array.length * Nd4j.sizeOfDataType());
-            }
-            return buffer;
-        }
-
-        return buffersCache.get(descriptor);
+        return buffer;
     }
 
     @Override
     public DataBuffer getConstantBuffer(long[] array) {
         ArrayDescriptor descriptor = new ArrayDescriptor(array);
 
-        if (!buffersCache.containsKey(descriptor)) {
-            DataBuffer buffer = Nd4j.createBufferDetached(array);
-
-            if (counter.get() < MAX_ENTRIES) {
-                counter.incrementAndGet();
-                buffersCache.put(descriptor, buffer);
-
-                bytes.addAndGet(array.length * Nd4j.sizeOfDataType());
-            }
-            return buffer;
-        }
+        DataBuffer buffer = buffersCache.get(descriptor);
+        if (buffer == null)
+            buffer = buffersCache.putIfAbsent(descriptor, Nd4j.createBufferDetached(array));
 
-        return buffersCache.get(descriptor);
+        return buffer;
     }
 
     @Override
     public long getCachedBytes() {
-        return bytes.get();
+        return buffersCache.getCachedBytes();
+    }
+
+    /**
+     * This method returns hit/miss/eviction counters of constant buffers cache
+     *
+     * @return
+     */
+    public CacheMetrics getCacheMetrics() {
+        return buffersCache;
     }
 }
@@ -0,0 +1,391 @@
+package org.nd4j.linalg.cpu.nativecpu.ops;
+
+import lombok.NonNull;
+import org.bytedeco.javacpp.DoublePointer;
+import org.bytedeco.javacpp.FloatPointer;
+import org.bytedeco.javacpp.Pointer;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.complex.IComplexNDArray;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.*;
+import org.nd4j.linalg.api.ops.aggregates.Aggregate;
+import org.nd4j.linalg.api.ops.aggregates.Batch;
+import org.nd4j.linalg.api.ops.executioner.GridExecutioner;
+import org.nd4j.linalg.api.ops.grid.OpDescriptor;
+import org.nd4j.linalg.api.ops.impl.accum.Variance;
+import org.nd4j.linalg.api.ops.impl.meta.InvertedPredicateMetaOp;
+import org.nd4j.linalg.api.ops.impl.meta.PredicateMetaOp;
+import org.nd4j.linalg.api.rng.Random;
+import org.nd4j.linalg.profiler.OpProfiler;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * GridExecutioner implementation for CPU.
+ *
+ * Elementwise ops without dimensions (Scalar, Transform and PairwiseTransform) are queued, and if the next op is
+ * applied in place to the result of the queued op, both ops are fused into single MetaOp, executed as one pass over
+ * memory: libnd4j applies both ops chunk by chunk, while the chunk is still in cache. Any other op flushes the queue
+ * first, so ops are always executed in order.
+ *
+ * Since queued op is executed only when the next op, push() or commit() arrives, direct memory access
+ * (i.e. INDArray.data().asDouble() or custom JNI code) requires Nd4j.getExecutioner().commit() call first.
+ * INDArray scalar getters/setters, gemm/gemv/axpy calls and workspaces are doing that on their own.
+ * Queue is thread-local, so arrays passed to other threads have to be committed by the producer thread.
+ *
+ * PLEASE NOTE: This executioner is experimental, and it's not used by default.
+ * Use -Dopexec=org.nd4j.linalg.cpu.nativecpu.ops.CpuGridExecutioner to enable it.
+ */
+public class CpuGridExecutioner extends NativeOpExecutioner implements GridExecutioner {
+
+    private ThreadLocal<OpDescriptor> lastOp = new ThreadLocal<>();
+
+    private AtomicLong metaCounter = new AtomicLong(0);
+    private AtomicLong execCounter = new AtomicLong(0);
+
+    public CpuGridExecutioner() {
+        super();
+    }
+
+    /**
+     * This is the only entry point for ops that can be fused
+     *
+     * @param op
+     * @return
+     */
+    @Override
+    public Op exec(Op op) {
+        if (isQueueable(op)) {
+            processAsGridOp(op);
+            return op;
+        }
+
+        flushQueue();
+        profileUnfused(op);
+
+        return super.exec(op);
+    }
+
+    /**
+     * Number of MetaOps executed so far, each of them covers 2 original ops
+     */
+    public long getMetaCounter() {
+        return metaCounter.get();
+    }
+
+    /**
+     * Number of ops, that passed through queue, but were executed without fusion
+     */
+    public long getExecutionCounter() {
+        return execCounter.get();
+    }
+
+    protected void processAsGridOp(Op op) {
+        OpDescriptor last = lastOp.get();
+        if (last != null) {
+            lastOp.remove();
+
+            if (isMatchingZX(last.getOp(), op)) {
+                OpDescriptor current = new OpDescriptor(op);
+                if (last.getOp().y() != null)
+                    exec(new InvertedPredicateMetaOp(last, current));
+                else
+                    exec(new PredicateMetaOp(last, current));
+
+                return;
+            }
+
+            pushToGrid(last);
+        }
+
+        lastOp.set(new OpDescriptor(op));
+    }
+
+    /**
+     * This method executes queued op as is
+     *
+     * @param descriptor
+     */
+    protected void pushToGrid(OpDescriptor descriptor) {
+        execCounter.incrementAndGet();
+        profileUnfused(descriptor.getOp());
+
+        super.exec(descriptor.getOp());
+    }
+
+    /**
+     * This method checks, if op can be queued for possible fusion: it has to be linear elementwise op,
+     * with all operands available via elementwise stride
+     *
+     * @param op
+     * @return
+     */
+    protected boolean isQueueable(Op op) {
+        if (executionMode() != ExecutionMode.NATIVE || op.isExecSpecial() || op.isPassThrough()
+                        || op.x() instanceof IComplexNDArray)
+            return false;
+
+        if (op instanceof ScalarOp) {
+            if (((ScalarOp) op).getDimension() != null)
+                return false;
+        } else if (op instanceof TransformOp && !(op instanceof GradientOp)) {
+            // Pow & IsMax are getting special treatment within NativeOpExecutioner
+            if ((op.y() != null && op.opNum() == 7) || (op.y() == null && op.opNum() == 41))
+                return false;
+        } else
+            return false;
+
+        DataBuffer.Type dtype = op.x().data().dataType();
+        if (dtype != DataBuffer.Type.FLOAT && dtype != DataBuffer.Type.DOUBLE)
+            return false;
+
+        return isStrided(op.x(), op.z(), dtype) && (op.y() == null || isStrided(op.x(), op.y(), dtype));
+    }
+
+    protected boolean isStrided(INDArray x, INDArray other, DataBuffer.Type dtype) {
+        return other.data().dataType() == dtype && other.lengthLong() == x.lengthLong()
+                        && other.ordering() == x.ordering() && x.elementWiseStride() >= 1
+                        && other.elementWiseStride() >= 1;
+    }
+
+    /**
+     * This method checks, if opB can be fused with opA: opB has to be applied in place to opA result,
+     * only one of ops can be pairwise, and none of opA inputs can be partially overlapping with result,
+     * since fused ops are applied chunk by chunk
+     *
+     * @param opA
+     * @param opB
+     * @return
+     */
+    protected boolean isMatchingZX(Op opA, Op opB) {
+        if (opB.x() != opB.z() || opB.z() != opA.z())
+            return false;
+
+        if (opA.y() != null && opB.y() != null)
+            return false;
+
+        INDArray y = opA.y() != null ? opA.y() : opB.y();
+
+        return isIndependent(opA.x(), opA.z()) && (y == null || isIndependent(y, opA.z()));
+    }
+
+    protected boolean isIndependent(INDArray operand, INDArray z) {
+        if (operand == z)
+            return true;
+
+        long elementSize = z.data().getElementSize();
+        long startA = operand.data().address();
+        long endA = startA + operand.data().length() * elementSize;
+        long startB = z.data().address();
+        long endB = startB + z.data().length() * elementSize;
+
+        return endA <= startB || endB <= startA;
+    }
+
+    @Override
+    public void exec(MetaOp op) {
+        Op first = op.getFirstOp();
+        Op second = op.getSecondOp();
+
+        long st = profilingHookIn(first);
+        profilingHookIn(second);
+
+        // y belongs to the pairwise op, if any
+        INDArray x = first.x();
+        INDArray y = first.y() != null ? first.y() : second.y();
+        INDArray z = second.z();
+
+        int typeA = BaseOp.getOpType(first).ordinal();
+        int typeB = BaseOp.getOpType(second).ordinal();
+
+        double scalarA = first instanceof ScalarOp ? ((ScalarOp) first).scalar().doubleValue() : 0.0;
+        double scalarB = second instanceof ScalarOp ? ((ScalarOp) second).scalar().doubleValue() : 0.0;
+
+        Pointer yPointer = y == null ? null : y.data().addressPointer();
+        long yStride = y == null ? -1 : y.elementWiseStride();
+
+        if (x.data().dataType() == DataBuffer.Type.DOUBLE) {
+            loop.execMetaPredicateStridedDouble(null, typeA, first.opNum(), typeB, second.opNum(), x.lengthLong(),
+                            (DoublePointer) x.data().addressPointer(), x.elementWiseStride(),
+                            (DoublePointer) yPointer, yStride, (DoublePointer) z.data().addressPointer(),
+                            z.elementWiseStride(), (DoublePointer) getPointerForExtraArgs(first),
+                            (DoublePointer) getPointerForExtraArgs(second), scalarA, scalarB);
+        } else {
+            loop.execMetaPredicateStridedFloat(null, typeA, first.opNum(), typeB, second.opNum(), x.lengthLong(),
+                            (FloatPointer) x.data().addressPointer(), x.elementWiseStride(),
+                            (FloatPointer) yPointer, yStride, (FloatPointer) z.data().addressPointer(),
+                            z.elementWiseStride(), (FloatPointer) getPointerForExtraArgs(first),
+                            (FloatPointer) getPointerForExtraArgs(second), (float) scalarA, (float) scalarB);
+        }
+
+        metaCounter.incrementAndGet();
+        if (getProfilingMode() != ProfilingMode.DISABLED)
+            OpProfiler.getInstance().processFusedCall(first, second);
+
+        profilingHookOut(second, st);
+    }
+
+    protected void profileUnfused(Op op) {
+        if (getProfilingMode() != ProfilingMode.DISABLED)
+            OpProfiler.getInstance().processUnfusedCall(op);
+    }
+
+    /**
+     * This method returns number of queued ops for current thread
+     *
+     * @return
+     */
+    @Override
+    public int getQueueLength() {
+        return lastOp.get() == null ? 0 : 1;
+    }
+
+    /**
+     * This method forces all currently enqueued ops to be executed immediately
+     */
+    @Override
+    public void flushQueue() {
+        OpDescriptor op = lastOp.get();
+        if (op != null) {
+            lastOp.remove();
+            pushToGrid(op);
+        }
+    }
+
+    /**
+     * CPU execution is synchronous, so this method is equal to flushQueue()
+     */
+    @Override
+    public void flushQueueBlocking() {
+        flushQueue();
+    }
+
+    /**
+     * Aggregates are executed immediately on CPU
+     *
+     * @param op
+     */
+    @Override
+    public void aggregate(Aggregate op) {
+        exec(op);
+    }
+
+    /**
+     * Aggregates are executed immediately on CPU, so key is ignored
+     *
+     * @param op
+     * @param key
+     */
+    @Override
+    public void aggregate(Aggregate op, long key) {
+        exec(op);
+    }
+
+    @Override
+    public void push() {
+        flushQueue();
+    }
+
+    @Override
+    public void commit() {
+        flushQueueBlocking();
+    }
+
+    @Override
+    public Op exec(Op op, int... dimension) {
+        flushQueue();
+        return super.exec(op, dimension);
+    }
+
+    @Override
+    public INDArray exec(IndexAccumulation op, int... dimension) {
+        flushQueue();
+        return super.exec(op, dimension);
+    }
+
+    @Override
+    public INDArray exec(Accumulation op, int... dimension) {
+        flushQueue();
+        return super.exec(op, dimension);
+    }
+
+    @Override
+    public INDArray exec(Variance accumulation, boolean biasCorrected, int... dimension) {
+        flushQueue();
+        return super.exec(accumulation, biasCorrected, dimension);
+    }
+
+    @Override
+    public INDArray exec(BroadcastOp op, int... dimension) {
+        flushQueue();
+        return super.exec(op, dimension);
+    }
+
+    @Override
+    public void exec(ShapeOp op) {
+        flushQueue();
+        super.exec(op);
+    }
+
+    @Override
+    public <T extends Aggregate> void exec(Batch<T> batch) {
+        flushQueue();
+        super.exec(batch);
+    }
+
+    @Override
+    public void exec(List<Aggregate> batch) {
+        flushQueue();
+        super.exec(batch);
+    }
+
+    @Override
+    public void exec(Aggregate op) {
+        flushQueue();
+        super.exec(op);
+    }
+
+    @Override
+    public INDArray exec(RandomOp op, Random rng) {
+        flushQueue();
+        return super.exec(op, rng);
+    }
+
+    @Override
+    public void exec(@NonNull CustomOp op) {
+        flushQueue();
+        super.exec(op);
+    }
+
+    @Override
+    public INDArray thresholdEncode(INDArray input, double threshold, Integer boundary) {
+        flushQueue();
+        return super.thresholdEncode(input, threshold, boundary);
+    }
+
+    @Override
+    public INDArray thresholdDecode(INDArray encoded, INDArray target) {
+        flushQueue();
+        return super.thresholdDecode(encoded, target);
+    }
+
+    @Override
+    public long bitmapEncode(INDArray indArray, INDArray target, double threshold) {
+        flushQueue();
+        return super.bitmapEncode(indArray, target, threshold);
+    }
+
+    @Override
+    public INDArray bitmapDecode(INDArray encoded, INDArray target) {
+        flushQueue();
+        return super.bitmapDecode(encoded, target);
+    }
+
+    @Override
+    public Map<String, INDArray> executeGraph(long id, Map<String, INDArray> map) {
+        flushQueue();
+        return super.executeGraph(id, map);
+    }
+}
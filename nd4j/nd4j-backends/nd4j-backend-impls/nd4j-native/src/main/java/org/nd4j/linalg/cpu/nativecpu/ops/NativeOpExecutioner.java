@@ -53,7 +53,7 @@ import java.util.*;
  */
 @Slf4j
 public class NativeOpExecutioner extends DefaultOpExecutioner {
-    private NativeOps loop = NativeOpsHolder.getInstance().getDeviceNativeOps();
+    protected NativeOps loop = NativeOpsHolder.getInstance().getDeviceNativeOps();
     private ConstantHandler constantHandler = Nd4j.getConstantHandler();
     @Getter
     private CpuTADManager tadManager = new CpuTADManager();
@@ -671,7 +671,7 @@ public class NativeOpExecutioner extends DefaultOpExecutioner {
         }
     }
 
-    private Pointer getPointerForExtraArgs(Op op) {
+    protected Pointer getPointerForExtraArgs(Op op) {
         if (op.extraArgs() != null)
             return op.extraArgsDataBuff().addressPointer();
         return null;
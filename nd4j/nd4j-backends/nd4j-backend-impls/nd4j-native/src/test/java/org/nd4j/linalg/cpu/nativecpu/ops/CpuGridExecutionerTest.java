@@ -0,0 +1,140 @@
+package org.nd4j.linalg.cpu.nativecpu.ops;
+
+import org.junit.Test;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.executioner.OpExecutioner;
+import org.nd4j.linalg.api.ops.impl.accum.Sum;
+import org.nd4j.linalg.api.ops.impl.scalar.ScalarAdd;
+import org.nd4j.linalg.api.ops.impl.scalar.ScalarMultiplication;
+import org.nd4j.linalg.api.ops.impl.transforms.Sigmoid;
+import org.nd4j.linalg.api.ops.impl.transforms.Tanh;
+import org.nd4j.linalg.api.ops.impl.transforms.arithmetic.OldAddOp;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+import org.nd4j.linalg.ops.transforms.Transforms;
+
+import java.lang.reflect.Field;
+
+import static org.junit.Assert.assertEquals;
+
+public class CpuGridExecutionerTest {
+
+    @Test
+    public void testScalarChain() {
+        CpuGridExecutioner executioner = new CpuGridExecutioner();
+        INDArray array = Nd4j.linspace(1, 10000, 10000);
+        INDArray exp = array.add(1.0).muli(2.0).addi(3.0);
+
+        executioner.exec(new ScalarAdd(array, 1.0));
+        assertEquals(1, executioner.getQueueLength());
+        executioner.exec(new ScalarMultiplication(array, 2.0));
+        assertEquals(0, executioner.getQueueLength());
+        executioner.exec(new ScalarAdd(array, 3.0));
+        assertEquals(1, executioner.getQueueLength());
+
+        executioner.commit();
+        assertEquals(0, executioner.getQueueLength());
+        assertEquals(exp, array);
+
+        assertEquals(1, executioner.getMetaCounter());
+        assertEquals(1, executioner.getExecutionCounter());
+    }
+
+    @Test
+    public void testPairwiseThenTransform() {
+        CpuGridExecutioner executioner = new CpuGridExecutioner();
+        INDArray x = Nd4j.rand(1, 7919);
+        INDArray y = Nd4j.rand(1, 7919);
+        INDArray z = Nd4j.create(1, 7919);
+        INDArray exp = Transforms.sigmoid(x.add(y));
+
+        executioner.exec(new OldAddOp(x, y, z));
+        executioner.exec(new Sigmoid(z));
+        executioner.commit();
+
+        assertEquals(exp, z);
+        assertEquals(1, executioner.getMetaCounter());
+    }
+
+    @Test
+    public void testQueueFlushedByOtherOps() {
+        CpuGridExecutioner executioner = new CpuGridExecutioner();
+        INDArray a = Nd4j.linspace(1, 100, 100);
+        INDArray b = Nd4j.linspace(1, 100, 100);
+        INDArray expA = Transforms.tanh(a.add(1.0));
+
+        executioner.exec(new ScalarAdd(a, 1.0));
+        // different array, can't be fused
+        executioner.exec(new Tanh(b));
+        assertEquals(1, executioner.getQueueLength());
+        executioner.exec(new Tanh(a));
+        executioner.commit();
+
+        assertEquals(expA, a);
+        assertEquals(0, executioner.getMetaCounter());
+
+        // accumulation has to see results of queued op
+        executioner.exec(new ScalarMultiplication(a, 0.0));
+        double sum = executioner.execAndReturn(new Sum(a)).getFinalResult().doubleValue();
+        assertEquals(0, executioner.getQueueLength());
+        assertEquals(0.0, sum, 1e-5);
+    }
+
+    @Test
+    public void testOverlappingViewsNotFused() {
+        CpuGridExecutioner executioner = new CpuGridExecutioner();
+        INDArray buffer = Nd4j.linspace(1, 4000, 4000);
+        INDArray z = buffer.get(NDArrayIndex.all(), NDArrayIndex.interval(0, 2000));
+        INDArray y = buffer.get(NDArrayIndex.all(), NDArrayIndex.interval(1000, 3000));
+        INDArray exp = z.add(y).muli(2.0);
+
+        executioner.exec(new OldAddOp(z, y, z));
+        executioner.exec(new ScalarMultiplication(z, 2.0));
+        executioner.commit();
+
+        assertEquals(0, executioner.getMetaCounter());
+        assertEquals(exp, z);
+    }
+
+    @Test
+    public void testDirectMemoryAccessAfterQueuedOp() throws Exception {
+        INDArray a = Nd4j.linspace(1, 100, 100).reshape(10, 10);
+        INDArray b = Nd4j.linspace(101, 200, 100).reshape(10, 10);
+        INDArray expConcat = Nd4j.concat(0, a.add(1.0), b);
+        INDArray expPulled = Nd4j.pullRows(a.mul(2.0), 1, new int[] {1, 3});
+        double expDot = Nd4j.getBlasWrapper().dot(a.add(3.0), b);
+
+        CpuGridExecutioner executioner = new CpuGridExecutioner();
+        OpExecutioner original = setExecutioner(executioner);
+        try {
+            // concat, pullRows and BLAS calls read memory directly, so queued op has to be flushed before
+            INDArray x = a.dup();
+            executioner.exec(new ScalarAdd(x, 1.0));
+            assertEquals(1, executioner.getQueueLength());
+            INDArray concat = Nd4j.concat(0, x, b);
+            assertEquals(0, executioner.getQueueLength());
+            assertEquals(expConcat, concat);
+
+            x = a.dup();
+            executioner.exec(new ScalarMultiplication(x, 2.0));
+            assertEquals(1, executioner.getQueueLength());
+            assertEquals(expPulled, Nd4j.pullRows(x, 1, new int[] {1, 3}));
+
+            x = a.dup();
+            executioner.exec(new ScalarAdd(x, 3.0));
+            assertEquals(1, executioner.getQueueLength());
+            assertEquals(expDot, Nd4j.getBlasWrapper().dot(x, b), 1e-3);
+            assertEquals(0, executioner.getQueueLength());
+        } finally {
+            setExecutioner(original);
+        }
+    }
+
+    private static OpExecutioner setExecutioner(OpExecutioner executioner) throws Exception {
+        Field field = Nd4j.class.getDeclaredField("OP_EXECUTIONER_INSTANCE");
+        field.setAccessible(true);
+        OpExecutioner previous = (OpExecutioner) field.get(null);
+        field.set(null, executioner);
+        return previous;
+    }
+}
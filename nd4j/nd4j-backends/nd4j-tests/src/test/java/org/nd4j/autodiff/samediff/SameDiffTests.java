@@ -1982,6 +1982,31 @@ public class SameDiffTests {
         SDVariable output = sameDiffOuter.mmul(x, w);
     }
 
+    @Test
+    public void testBatchMmul() {
+        Nd4j.getRandom().setSeed(12345);
+        SameDiff sd = SameDiff.create();
+        INDArray[] arrA = new INDArray[3];
+        INDArray[] arrB = new INDArray[3];
+        SDVariable[] matricesA = new SDVariable[3];
+        SDVariable[] matricesB = new SDVariable[3];
+        for (int e = 0; e < 3; e++) {
+            arrA[e] = Nd4j.rand(new int[] {4, 3});
+            arrB[e] = Nd4j.rand(new int[] {5, 3});
+            matricesA[e] = sd.var("a" + e, arrA[e]);
+            matricesB[e] = sd.var("b" + e, arrB[e]);
+        }
+
+        SDVariable[] products = sd.batchMmul(matricesA, matricesB, false, true);
+        assertEquals(3, products.length);
+        sd.exec();
+
+        for (int e = 0; e < 3; e++) {
+            assertArrayEquals(new long[] {4, 5}, products[e].getShape());
+            assertEquals(arrA[e].mmul(arrB[e].transpose()), products[e].getArr());
+        }
+    }
+
 
     @Test
     public void testGraphBuilding() {
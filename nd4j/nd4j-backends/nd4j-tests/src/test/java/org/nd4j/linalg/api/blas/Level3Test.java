@@ -1,5 +1,7 @@
 package org.nd4j.linalg.api.blas;
 
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
@@ -7,12 +9,14 @@ import org.nd4j.linalg.BaseNd4jTest;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.factory.Nd4jBackend;
+import org.nd4j.linalg.indexing.NDArrayIndex;
 
 import static org.junit.Assert.assertEquals;
 
 /**
  * @author raver119@gmail.com
  */
+@Slf4j
 @RunWith(Parameterized.class)
 public class Level3Test extends BaseNd4jTest {
     public Level3Test(Nd4jBackend backend) {
@@ -105,6 +109,137 @@ public class Level3Test extends BaseNd4jTest {
         assertEquals(1.32831E7f, array3.data().getFloat(21), 5f);
     }
 
+    @Test
+    public void testGemmBatched1() {
+        Nd4j.getRandom().setSeed(12345);
+        int batchSize = 7;
+        INDArray[] a = new INDArray[batchSize];
+        INDArray[] b = new INDArray[batchSize];
+        INDArray[] c = new INDArray[batchSize];
+        INDArray[] exp = new INDArray[batchSize];
+        for (int e = 0; e < batchSize; e++) {
+            // mixed orders: passed to native op as transposed or copied
+            a[e] = Nd4j.rand(e % 2 == 0 ? 'c' : 'f', new int[] {3, 5});
+            b[e] = Nd4j.rand(e % 3 == 0 ? 'f' : 'c', new int[] {5, 4});
+            c[e] = Nd4j.rand('f', new int[] {3, 4});
+            exp[e] = a[e].mmul(b[e]).muli(2.0).addi(c[e].mul(0.5));
+        }
+
+        Nd4j.getBlasWrapper().level3().gemmBatched(a, b, c, false, false, 2.0, 0.5);
+
+        for (int e = 0; e < batchSize; e++)
+            assertEquals(exp[e], c[e]);
+    }
+
+    @Test
+    public void testGemmBatchedTransposes() {
+        Nd4j.getRandom().setSeed(12345);
+        int batchSize = 5;
+        INDArray[] a = new INDArray[batchSize];
+        INDArray[] b = new INDArray[batchSize];
+        INDArray[] c = new INDArray[batchSize];
+        INDArray[] exp = new INDArray[batchSize];
+        for (int e = 0; e < batchSize; e++) {
+            a[e] = Nd4j.rand(new int[] {6, 2});
+            b[e] = Nd4j.rand(new int[] {3, 6});
+            // c order outputs are computed as transposed product
+            c[e] = Nd4j.create(new int[] {2, 3}, 'c');
+            exp[e] = a[e].transpose().mmul(b[e].transpose());
+        }
+
+        Nd4j.getBlasWrapper().level3().gemmBatched(a, b, c, true, true, 1.0, 0.0);
+
+        for (int e = 0; e < batchSize; e++)
+            assertEquals(exp[e], c[e]);
+    }
+
+    @Test
+    public void testGemmBatchedViews() {
+        Nd4j.getRandom().setSeed(12345);
+        INDArray source = Nd4j.rand('f', new int[] {10, 20});
+        INDArray weights = Nd4j.rand(new int[] {4, 6});
+        INDArray output = Nd4j.create(new int[] {10, 12}, 'f');
+
+        // column blocks of f order matrices: strided, but with unit stride along rows
+        INDArray[] a = new INDArray[5];
+        INDArray[] b = new INDArray[5];
+        INDArray[] c = new INDArray[5];
+        for (int e = 0; e < 5; e++) {
+            a[e] = source.get(NDArrayIndex.all(), NDArrayIndex.interval(4 * e, 4 * e + 4));
+            b[e] = weights;
+        }
+        c[0] = output.get(NDArrayIndex.all(), NDArrayIndex.interval(0, 6));
+        c[1] = output.get(NDArrayIndex.all(), NDArrayIndex.interval(6, 12));
+        // outputs of different layout are computed in temporary arrays
+        for (int e = 2; e < 5; e++)
+            c[e] = Nd4j.create(new int[] {10, 6}, e % 2 == 0 ? 'c' : 'f');
+
+        Nd4j.getBlasWrapper().level3().gemmBatched(a, b, c, false, false, 1.0, 0.0);
+
+        for (int e = 0; e < 5; e++)
+            assertEquals(a[e].mmul(weights), c[e]);
+    }
+
+    @Test
+    public void testGemmBatched3d() {
+        Nd4j.getRandom().setSeed(12345);
+        INDArray a = Nd4j.rand(new int[] {8, 4, 3});
+        INDArray b = Nd4j.rand(new int[] {8, 3, 5});
+        INDArray c = Nd4j.create(new int[] {8, 4, 5}, 'c');
+
+        Nd4j.getBlasWrapper().level3().gemmBatched(a, b, c, false, false, 1.0, 0.0);
+
+        for (int e = 0; e < 8; e++) {
+            INDArray exp = a.tensorAlongDimension(e, 1, 2).mmul(b.tensorAlongDimension(e, 1, 2));
+            assertEquals(exp, c.tensorAlongDimension(e, 1, 2));
+        }
+    }
+
+    @Test
+    @Ignore
+    public void testGemmBatchedPerformance() {
+        int[] sizes = {4, 8, 16, 32, 64};
+        int batchSize = 1000;
+        int iterations = 100;
+
+        for (int size : sizes) {
+            INDArray a = Nd4j.rand(new int[] {batchSize, size, size});
+            INDArray b = Nd4j.rand(new int[] {batchSize, size, size});
+            INDArray c = Nd4j.create(new int[] {batchSize, size, size}, 'c');
+            INDArray[] matricesA = new INDArray[batchSize];
+            INDArray[] matricesB = new INDArray[batchSize];
+            INDArray[] matricesC = new INDArray[batchSize];
+            for (int e = 0; e < batchSize; e++) {
+                matricesA[e] = a.tensorAlongDimension(e, 1, 2);
+                matricesB[e] = b.tensorAlongDimension(e, 1, 2);
+                matricesC[e] = Nd4j.create(new int[] {size, size}, 'f');
+            }
+
+            for (int i = 0; i < 10; i++) {
+                Nd4j.getBlasWrapper().level3().gemmBatched(a, b, c, false, false, 1.0, 0.0);
+                for (int e = 0; e < batchSize; e++)
+                    Nd4j.gemm(matricesA[e], matricesB[e], matricesC[e], false, false, 1.0, 0.0);
+            }
+
+            long time1 = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                for (int e = 0; e < batchSize; e++)
+                    Nd4j.gemm(matricesA[e], matricesB[e], matricesC[e], false, false, 1.0, 0.0);
+            }
+            long time2 = System.nanoTime();
+            long timeLoop = (time2 - time1) / iterations;
+
+            time1 = System.nanoTime();
+            for (int i = 0; i < iterations; i++)
+                Nd4j.getBlasWrapper().level3().gemmBatched(a, b, c, false, false, 1.0, 0.0);
+            time2 = System.nanoTime();
+            long timeBatched = (time2 - time1) / iterations;
+
+            log.info("Matrix size: {}; batch size: {}; gemm loop: {} us; batched gemm: {} us", size, batchSize,
+                            timeLoop / 1000, timeBatched / 1000);
+        }
+    }
+
     @Override
     public char ordering() {
         return 'c';
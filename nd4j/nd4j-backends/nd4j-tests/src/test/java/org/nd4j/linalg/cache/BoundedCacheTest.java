@@ -0,0 +1,105 @@
+package org.nd4j.linalg.cache;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class BoundedCacheTest {
+
+    private static final BoundedCache.Weigher<long[]> WEIGHER = new BoundedCache.Weigher<long[]>() {
+        @Override
+        public long weigh(long[] value) {
+            return value.length * 8;
+        }
+    };
+
+    @Test
+    public void testLruEviction() {
+        BoundedCache<Integer, long[]> cache = new BoundedCache<>(10, 0, WEIGHER);
+        for (int i = 0; i < 10; i++)
+            cache.putIfAbsent(i, new long[i]);
+        assertEquals(10, cache.size());
+        assertEquals(0, cache.getEvictions());
+
+        //Touch first half, so second half is least recently used
+        for (int i = 0; i < 5; i++)
+            assertNotNull(cache.get(i));
+
+        cache.putIfAbsent(10, new long[10]);
+        assertTrue(cache.size() <= 9);
+        assertTrue(cache.getEvictions() >= 2);
+        for (int i = 0; i < 5; i++)
+            assertNotNull(cache.get(i));
+        assertNotNull(cache.get(10));
+        assertNull(cache.get(5));
+
+        assertEquals(11, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(11 / 12.0, cache.getHitRate(), 1e-9);
+
+        long bytes = 0;
+        for (int i = 0; i <= 10; i++) {
+            long[] v = cache.get(i);
+            if (v != null)
+                bytes += v.length * 8;
+        }
+        assertEquals(bytes, cache.getCachedBytes());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getCachedBytes());
+    }
+
+    @Test
+    public void testBytesLimit() {
+        BoundedCache<Integer, long[]> cache = new BoundedCache<>(1000, 8 * 100, WEIGHER);
+        for (int i = 0; i < 100; i++) {
+            long[] v = new long[10];
+            assertSame(v, cache.putIfAbsent(i, v));
+            assertTrue(cache.getCachedBytes() <= 8 * 100);
+        }
+        assertTrue(cache.size() <= 10);
+        assertEquals(100 - cache.size(), cache.getEvictions());
+
+        //Existing value is returned for duplicate keys
+        long[] first = cache.putIfAbsent(1000, new long[1]);
+        assertSame(first, cache.putIfAbsent(1000, new long[1]));
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        final BoundedCache<Integer, long[]> cache = new BoundedCache<>(64, 0, WEIGHER);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            final int seed = t;
+            futures.add(executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 10000; i++) {
+                        int key = (i * 31 + seed) % 200;
+                        long[] v = cache.get(key);
+                        if (v == null)
+                            v = cache.putIfAbsent(key, new long[] {key});
+                        assertEquals(key, v[0]);
+                    }
+                }
+            }));
+        }
+        for (Future<?> f : futures)
+            f.get();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        assertEquals(40000, cache.getHits() + cache.getMisses());
+        assertTrue(cache.size() <= 2 * 64);
+        assertEquals(cache.size() * 8, cache.getCachedBytes());
+    }
+}
@@ -13,6 +13,7 @@ import org.nd4j.linalg.dataset.api.iterator.SamplingDataSetIterator;
 import org.nd4j.linalg.dataset.api.iterator.cache.DataSetCache;
 import org.nd4j.linalg.dataset.api.iterator.cache.InFileDataSetCache;
 import org.nd4j.linalg.dataset.api.iterator.cache.InMemoryDataSetCache;
+import org.nd4j.linalg.dataset.api.iterator.cache.TieredDataSetCache;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.factory.Nd4jBackend;
 
@@ -54,6 +55,46 @@ public class CachingDataSetIteratorTest extends BaseNd4jTest {
         FileUtils.deleteDirectory(cacheDir.toFile());
     }
 
+    @Test
+    public void testTieredWithDisk() throws IOException {
+        Path cacheDir = Files.createTempDirectory("nd4j-data-set-cache-test");
+        //Room for about 2 of the 5 data sets in memory: the others are read from disk
+        TieredDataSetCache cache = new TieredDataSetCache(10000, cacheDir.toFile(), null);
+
+        runDataSetTest(cache);
+        cache.close();
+        assertTrue(cache.getEvictions() > 0);
+        assertTrue(cache.getDiskHits() > 0);
+        assertTrue(cache.getMemoryHits() > 0);
+        assertEquals(0, cache.getMisses());
+
+        FileUtils.deleteDirectory(cacheDir.toFile());
+    }
+
+    @Test
+    public void testTieredMemoryOnly() {
+        TieredDataSetCache cache = new TieredDataSetCache(1000000);
+        runDataSetTest(cache);
+        assertEquals(0, cache.getEvictions());
+
+        //Data sets evicted without disk tier: the iterator must use its source again
+        DataSet dataSet = new DataSet(Nd4j.ones(100, 100), Nd4j.zeros(100, 2));
+        DataSetIterator it = new SamplingDataSetIterator(dataSet, 10, 50);
+        TieredDataSetCache small = new TieredDataSetCache(10000);
+        CachingDataSetIterator cachedIt = new CachingDataSetIterator(it, small, "small");
+        for (int epoch = 0; epoch < 3; epoch++) {
+            int count = 0;
+            while (cachedIt.hasNext()) {
+                assertEquals(1000.0, cachedIt.next().getFeatures().sumNumber().doubleValue(), 0.0);
+                count++;
+            }
+            assertEquals(5, count);
+            assertFalse(small.isComplete("small"));
+            cachedIt.reset();
+        }
+        assertTrue(small.getEvictions() > 0);
+    }
+
     private void runDataSetTest(DataSetCache cache) {
         int rows = 500;
         int inputColumns = 100;
@@ -177,6 +177,18 @@ public class NormalizerMinMaxScalerTest extends BaseNd4jTest {
         assertEquals(sampleDataSet.getFeatures().sumNumber().doubleValue(), 100 * nFeatures * nSamples, 0.00001);
     }
 
+    @Test
+    public void testParallelFit() {
+        int nSamples = 1000;
+        INDArray featureSet = Nd4j.rand(nSamples, 5, 12345).muli(20).subi(10);
+        DataSet sampleDataSet = new DataSet(featureSet, Nd4j.zeros(nSamples, 1));
+
+        NormalizerMinMaxScaler myNormalizer = new NormalizerMinMaxScaler();
+        myNormalizer.fit(new TestDataSetIterator(sampleDataSet, 33), 3);
+        assertEquals(featureSet.min(0), myNormalizer.getMin());
+        assertEquals(featureSet.max(0), myNormalizer.getMax());
+    }
+
     @Override
     public char ordering() {
         return 'c';
@@ -268,6 +268,46 @@ public class NormalizerStandardizeTest extends BaseNd4jTest {
                         constant * tolerancePerc / 100.0);
     }
 
+    @Test
+    public void testParallelFit() {
+        int nSamples = 5000;
+        INDArray featureSet = Nd4j.rand(nSamples, 4, 12345).muli(10).addi(5);
+        INDArray labelSet = Nd4j.rand(nSamples, 2, 12345).muli(3);
+        DataSet sampleDataSet = new DataSet(featureSet, labelSet);
+
+        NormalizerStandardize expected = new NormalizerStandardize();
+        expected.fitLabel(true);
+        expected.fit(sampleDataSet);
+
+        for (int numThreads : new int[] {1, 2, 4}) {
+            NormalizerStandardize myNormalizer = new NormalizerStandardize();
+            myNormalizer.fitLabel(true);
+            myNormalizer.fit(new TestDataSetIterator(sampleDataSet, 37), numThreads);
+
+            assertEquals(expected.getMean(), myNormalizer.getMean());
+            assertEquals(expected.getStd(), myNormalizer.getStd());
+            assertEquals(expected.getLabelMean(), myNormalizer.getLabelMean());
+            assertEquals(expected.getLabelStd(), myNormalizer.getLabelStd());
+        }
+    }
+
+    @Test
+    public void testFitSample() {
+        int nSamples = 20000;
+        INDArray featureSet = Nd4j.randn(nSamples, 3, 12345).muli(2).addi(10);
+        DataSet sampleDataSet = new DataSet(featureSet, Nd4j.zeros(nSamples, 1));
+
+        NormalizerStandardize myNormalizer = new NormalizerStandardize();
+        INDArray standardError = myNormalizer.fitSample(new TestDataSetIterator(sampleDataSet, 100), 2, 0.2, 12345);
+
+        //About 20% of the data: standard error close to 2 / sqrt(4000)
+        INDArray meanDelta = Transforms.abs(featureSet.mean(0).sub(myNormalizer.getMean()));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(2.0 / Math.sqrt(4000), standardError.getDouble(i), 0.01);
+            assertTrue(meanDelta.getDouble(i) < 4 * standardError.getDouble(i));
+        }
+    }
+
     public class genRandomDataSet {
         /* generate random dataset from normally distributed mean 0, std 1
         based on given seed and scaling constants
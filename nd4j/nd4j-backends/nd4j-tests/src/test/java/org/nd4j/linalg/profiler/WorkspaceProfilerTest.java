@@ -0,0 +1,101 @@
+package org.nd4j.linalg.profiler;
+
+import org.junit.Test;
+import org.nd4j.linalg.api.memory.conf.WorkspaceConfiguration;
+import org.nd4j.linalg.api.memory.enums.AllocationPolicy;
+import org.nd4j.linalg.api.memory.enums.SpillPolicy;
+import org.nd4j.linalg.profiler.data.WorkspaceRecommendation;
+import org.nd4j.linalg.profiler.data.WorkspaceStatistics;
+
+import static org.junit.Assert.*;
+
+public class WorkspaceProfilerTest {
+
+    @Test
+    public void testStatisticsCounters() {
+        WorkspaceStatistics stats = new WorkspaceStatistics("WS", 1, WorkspaceConfiguration.builder().build());
+
+        stats.recordAllocation(1000, 100, 1, "site_alloc");
+        stats.recordAllocation(3000, 200, 1, null);
+        stats.recordSpill(5000, "site_spill");
+        stats.recordSpill(5000, "site_spill");
+        stats.recordCycle(14000, 4096);
+        stats.recordAllocation(1000, 100, 2, null);
+        stats.recordCycle(1000, 4096);
+
+        assertEquals(2, stats.getCycles());
+        assertEquals(1, stats.getCyclesWithSpills());
+        assertEquals(14000, stats.getMaxCycleBytes());
+        assertEquals(7500.0, stats.getMeanCycleBytes(), 1e-6);
+        assertEquals(3, stats.getAllocations());
+        assertEquals(2, stats.getSpills());
+        assertEquals(10000, stats.getSpilledBytes());
+        assertEquals(Long.valueOf(2), stats.getSpillSites().get("site_spill"));
+
+        long[] allocations = stats.getAllocationHistogram();
+        assertEquals(2, allocations[WorkspaceStatistics.bucket(1000)]);
+        assertEquals(2, allocations[WorkspaceStatistics.bucket(5000)]);
+        assertEquals(1, stats.getCycleHistogram()[13]);
+
+        // address 100 was sampled in generation 1
+        stats.recordLeak(100, 1, "use_site");
+        stats.recordLeak(200, 1, "use_site");
+        stats.recordLeak(300, 1, null);
+        assertEquals(3, stats.getLeaks());
+        assertEquals(Long.valueOf(1), stats.getLeakSites().get("allocated at site_alloc; used at use_site"));
+        assertEquals(2, stats.getLeakSites().size());
+
+        assertTrue(stats.asString().contains("WS"));
+
+        stats.reset();
+        assertEquals(0, stats.getCycles());
+        assertEquals(0, stats.getMaxCycleBytes());
+        assertTrue(stats.getSpillSites().isEmpty());
+    }
+
+    @Test
+    public void testRecommendationFitsMaxCycle() {
+        WorkspaceConfiguration conf = WorkspaceConfiguration.builder().initialSize(0)
+                        .policyAllocation(AllocationPolicy.OVERALLOCATE).overallocationLimit(0.25)
+                        .policySpill(SpillPolicy.EXTERNAL).maxSize(1000).build();
+        WorkspaceStatistics stats = new WorkspaceStatistics("WS", 1, conf);
+        for (int i = 0; i < 10; i++)
+            stats.recordCycle(10000, 10000);
+
+        WorkspaceProfiler profiler = new WorkspaceProfiler();
+        profiler.setHeadroom(0.1);
+        WorkspaceRecommendation rec = profiler.recommend(stats);
+        WorkspaceConfiguration r = rec.getRecommendedConfiguration();
+
+        // initialSize after overallocation has to fit max cycle plus headroom
+        assertEquals(0, r.getInitialSize() % 8);
+        assertTrue(r.getInitialSize() * (1 + conf.getOverallocationLimit()) >= 11000);
+        assertTrue(r.getInitialSize() < 11000);
+        assertTrue(r.getMaxSize() >= 11000);
+        assertEquals(SpillPolicy.EXTERNAL, r.getPolicySpill());
+        assertEquals(0, conf.getInitialSize());
+        assertFalse(rec.getNotes().isEmpty());
+    }
+
+    @Test
+    public void testRecommendationReallocateForVariableCycles() {
+        WorkspaceConfiguration conf = WorkspaceConfiguration.builder().policySpill(SpillPolicy.EXTERNAL).build();
+        WorkspaceStatistics stats = new WorkspaceStatistics("WS", 1, conf);
+        for (int i = 0; i < 9; i++)
+            stats.recordCycle(1000, 1300);
+        stats.recordSpill(9000, "site");
+        stats.recordCycle(10000, 1300);
+
+        WorkspaceRecommendation rec = new WorkspaceProfiler().recommend(stats);
+        assertEquals(SpillPolicy.REALLOCATE, rec.getRecommendedConfiguration().getPolicySpill());
+    }
+
+    @Test
+    public void testNoCycles() {
+        WorkspaceConfiguration conf = WorkspaceConfiguration.builder().initialSize(100).build();
+        WorkspaceRecommendation rec =
+                        new WorkspaceProfiler().recommend(new WorkspaceStatistics("WS", 1, conf));
+        assertEquals(100, rec.getRecommendedConfiguration().getInitialSize());
+        assertEquals(1, rec.getNotes().size());
+    }
+}
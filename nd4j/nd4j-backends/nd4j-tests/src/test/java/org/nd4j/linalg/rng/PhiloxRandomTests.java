@@ -0,0 +1,192 @@
+package org.nd4j.linalg.rng;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.buffer.util.DataTypeUtil;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.rng.PhiloxRandom;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static org.junit.Assert.*;
+
+@RunWith(Parameterized.class)
+public class PhiloxRandomTests extends BaseNd4jTest {
+
+    private DataBuffer.Type initialType;
+
+    public PhiloxRandomTests(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        initialType = Nd4j.dataType();
+        DataTypeUtil.setDTypeForContext(DataBuffer.Type.DOUBLE);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        DataTypeUtil.setDTypeForContext(initialType);
+    }
+
+    @Test
+    public void testKnownAnswers() {
+        // Random123 known answer vectors for philox4x32_10
+        int[] out = new int[4];
+        PhiloxRandom.block(0L, 0L, 0L, out);
+        assertArrayEquals(new int[] {0x6627e8d5, 0xe169c58d, 0xbc57ac4c, 0x9b00dbd8}, out);
+
+        PhiloxRandom.block(-1L, -1L, -1L, out);
+        assertArrayEquals(new int[] {0x408f276d, 0x41c83b0e, 0xa20bc7c6, 0x6d5451fd}, out);
+
+        PhiloxRandom.block(0x299f31d0a4093822L, 0x0370734413198a2eL, 0x85a308d3243f6a88L, out);
+        assertArrayEquals(new int[] {0xd16cfe09, 0x94fdcceb, 0x5001e420, 0x24126ea1}, out);
+    }
+
+    @Test
+    public void testSkipAhead() {
+        PhiloxRandom random = new PhiloxRandom(119);
+        int[] exp = new int[1000];
+        for (int e = 0; e < exp.length; e++)
+            exp[e] = random.nextInt();
+
+        for (int skip : new int[] {0, 1, 3, 4, 5, 17, 998}) {
+            PhiloxRandom skipped = new PhiloxRandom(119);
+            skipped.nextInt();
+            skipped.skip(skip);
+            assertEquals(skip + 1, skipped.getPosition());
+            assertEquals(exp[skip + 1], skipped.nextInt());
+        }
+    }
+
+    @Test
+    public void testReseed() {
+        PhiloxRandom random = new PhiloxRandom(119);
+        double a = random.nextDouble();
+        random.nextGaussian();
+
+        random.setSeed(119);
+        assertEquals(a, random.nextDouble(), 0.0);
+        assertNotEquals(a, new PhiloxRandom(120).nextDouble(), 0.0);
+    }
+
+    @Test
+    public void testStreamsIndependent() {
+        PhiloxRandom random = new PhiloxRandom(119);
+        PhiloxRandom stream0 = random.stream(0);
+        PhiloxRandom stream1 = random.stream(1);
+
+        assertEquals(random.getSeed(), stream1.getSeed());
+        assertEquals(1, stream1.getStream());
+
+        int matches = 0;
+        for (int e = 0; e < 1000; e++) {
+            int a = stream0.nextInt();
+            int b = stream1.nextInt();
+            assertEquals(a, random.nextInt());
+            if (a == b)
+                matches++;
+        }
+        assertTrue(matches < 5);
+
+        assertNotEquals(PhiloxRandom.deriveSeed(119, 0), PhiloxRandom.deriveSeed(119, 1));
+        assertEquals(PhiloxRandom.deriveSeed(119, 1), PhiloxRandom.deriveSeed(119, 1));
+    }
+
+    @Test
+    public void testStreamsAcrossThreads() throws Exception {
+        final int numThreads = 4;
+        final PhiloxRandom random = new PhiloxRandom(119);
+        final AtomicReferenceArray<INDArray> results = new AtomicReferenceArray<>(numThreads);
+
+        Thread[] threads = new Thread[numThreads];
+        for (int t = 0; t < numThreads; t++) {
+            final int streamId = t;
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    results.set(streamId, random.stream(streamId).nextGaussian(new long[] {100, 100}));
+                }
+            });
+            threads[t].start();
+        }
+
+        for (Thread thread : threads)
+            thread.join();
+
+        for (int t = 0; t < numThreads; t++) {
+            assertEquals(random.stream(t).nextGaussian(new long[] {100, 100}), results.get(t));
+            if (t > 0)
+                assertNotEquals(results.get(t - 1), results.get(t));
+        }
+    }
+
+    @Test
+    public void testBulkMatchesSequential() {
+        // long enough to be split into multiple chunks, generated in parallel
+        int length = 100003;
+
+        PhiloxRandom random = new PhiloxRandom(119);
+        INDArray uniform = random.fillUniform(Nd4j.create(1, length), 0.0, 1.0);
+        INDArray gaussian = random.fillGaussian(Nd4j.create(1, length), 0.0, 1.0);
+
+        PhiloxRandom sequential = new PhiloxRandom(119);
+        for (int e = 0; e < length; e++)
+            assertEquals(sequential.nextDouble(), uniform.getDouble(e), 0.0);
+
+        // bulk generation always starts at the new block
+        sequential.skip((4 - sequential.getPosition() % 4) % 4);
+        for (int e = 0; e < length; e++)
+            assertEquals(sequential.nextGaussian(), gaussian.getDouble(e), 1e-10);
+    }
+
+    @Test
+    public void testBulkOrderIndependent() {
+        INDArray c = new PhiloxRandom(119).fillUniform(Nd4j.create(new int[] {30, 40}, 'c'), -1.0, 1.0);
+        INDArray f = new PhiloxRandom(119).fillUniform(Nd4j.create(new int[] {30, 40}, 'f'), -1.0, 1.0);
+        assertEquals(c, f);
+
+        INDArray view = Nd4j.create(60, 40).get(NDArrayIndex.interval(10, 40), NDArrayIndex.all());
+        new PhiloxRandom(119).fillUniform(view, -1.0, 1.0);
+        assertEquals(c, view);
+    }
+
+    @Test
+    public void testBulkDistributions() {
+        PhiloxRandom random = new PhiloxRandom(119);
+
+        INDArray uniform = random.fillUniform(Nd4j.create(1000, 100), 2.0, 4.0);
+        assertTrue(uniform.minNumber().doubleValue() >= 2.0);
+        assertTrue(uniform.maxNumber().doubleValue() < 4.0);
+        assertEquals(3.0, uniform.meanNumber().doubleValue(), 0.01);
+
+        INDArray gaussian = random.fillGaussian(Nd4j.create(1000, 100), 1.0, 2.0);
+        assertEquals(1.0, gaussian.meanNumber().doubleValue(), 0.02);
+        assertEquals(2.0, gaussian.stdNumber().doubleValue(), 0.02);
+
+        INDArray bernoulli = random.fillBernoulli(Nd4j.create(1000, 100), 0.3);
+        assertEquals(0.3, bernoulli.meanNumber().doubleValue(), 0.01);
+        assertEquals(bernoulli.sumNumber().doubleValue(), bernoulli.mul(bernoulli).sumNumber().doubleValue(), 0.0);
+
+        assertEquals(0.0, random.fillBernoulli(Nd4j.create(10, 10), 0.0).sumNumber().doubleValue(), 0.0);
+        assertEquals(100.0, random.fillBernoulli(Nd4j.create(10, 10), 1.0).sumNumber().doubleValue(), 0.0);
+
+        INDArray ints = random.nextInt(10, new long[] {100, 100});
+        assertTrue(ints.minNumber().doubleValue() >= 0.0);
+        assertTrue(ints.maxNumber().doubleValue() <= 9.0);
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
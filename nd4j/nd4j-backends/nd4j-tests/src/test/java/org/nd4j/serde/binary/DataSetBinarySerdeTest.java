@@ -0,0 +1,123 @@
+package org.nd4j.serde.binary;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.dataset.MultiDataSet;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.Serializable;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class DataSetBinarySerdeTest {
+
+    @Rule
+    public TemporaryFolder testDir = new TemporaryFolder();
+
+    @Test
+    public void testDataSetRoundTrip() throws Exception {
+        INDArray f = Nd4j.rand(new int[] {3, 4, 5});
+        INDArray l = Nd4j.rand(new int[] {3, 2, 5});
+        INDArray fm = Nd4j.ones(3, 5);
+        INDArray lm = Nd4j.zeros(3, 5);
+        lm.getColumn(0).assign(1.0);
+
+        DataSet ds = new DataSet(f, l, fm, lm);
+        ds.setExampleMetaData(Arrays.<Serializable>asList("a", "b", "c"));
+
+        File file = testDir.newFile();
+        DataSetBinarySerde.write(ds, file);
+        assertTrue(DataSetBinarySerde.isBinaryFormat(file));
+
+        DataSet fromFile = DataSetBinarySerde.readDataSet(file);
+        assertEquals(ds, fromFile);
+        assertEquals(ds.getExampleMetaData(), fromFile.getExampleMetaData());
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DataSetBinarySerde.write(ds, baos, null);
+        DataSet fromStream = DataSetBinarySerde.readDataSet(new ByteArrayInputStream(baos.toByteArray()));
+        assertEquals(ds, fromStream);
+
+        //Legacy format isn't mistaken for binary one
+        File legacy = testDir.newFile();
+        ds.save(legacy);
+        assertFalse(DataSetBinarySerde.isBinaryFormat(legacy));
+    }
+
+    @Test
+    public void testDataSetSameLabelsAndNulls() throws Exception {
+        INDArray f = Nd4j.rand(10, 3);
+        DataSet ds = new DataSet(f, f);
+
+        File file = testDir.newFile();
+        DataSetBinarySerde.write(ds, file);
+        DataSet fromFile = DataSetBinarySerde.readDataSet(file);
+        assertEquals(f, fromFile.getFeatures());
+        assertTrue(fromFile.getFeatures() == fromFile.getLabels());
+        assertNull(fromFile.getFeaturesMaskArray());
+        assertNull(fromFile.getLabelsMaskArray());
+        assertNull(fromFile.getExampleMetaData());
+    }
+
+    @Test
+    public void testFileReleasedAfterRead() throws Exception {
+        File file = testDir.newFile();
+        DataSet first = new DataSet(Nd4j.rand(10, 3), Nd4j.rand(10, 2));
+        DataSetBinarySerde.write(first, file);
+        assertEquals(first, DataSetBinarySerde.readDataSet(file));
+
+        //File isn't mapped anymore: it can be overwritten (or deleted) right away, and arrays read stay valid
+        DataSet second = new DataSet(Nd4j.rand(5, 3), Nd4j.rand(5, 2));
+        DataSetBinarySerde.write(second, file);
+        DataSet fromFile = DataSetBinarySerde.readDataSet(file);
+        assertEquals(second, fromFile);
+        assertTrue(file.delete());
+        assertEquals(second.getFeatures(), fromFile.getFeatures());
+    }
+
+    @Test
+    public void testCompression() throws Exception {
+        INDArray f = Nd4j.rand(20, 30);
+        INDArray l = Nd4j.zeros(20, 3);
+        DataSet ds = new DataSet(f, l);
+
+        File file = testDir.newFile();
+        DataSetBinarySerde.write(ds, file, "GZIP");
+        assertEquals(ds, DataSetBinarySerde.readDataSet(file));
+
+        DataSetBinarySerde.write(ds, file, "FLOAT16");
+        DataSet lossy = DataSetBinarySerde.readDataSet(file);
+        assertFalse(lossy.getFeatures().isCompressed());
+        assertTrue(f.equalsWithEps(lossy.getFeatures(), 1e-2));
+        assertEquals(l, lossy.getLabels());
+    }
+
+    @Test
+    public void testMultiDataSetRoundTrip() throws Exception {
+        INDArray[] f = new INDArray[] {Nd4j.rand(5, 3), Nd4j.rand(new int[] {5, 2, 4})};
+        INDArray[] l = new INDArray[] {Nd4j.rand(5, 2)};
+        INDArray[] fm = new INDArray[] {null, Nd4j.ones(5, 4)};
+        MultiDataSet mds = new MultiDataSet(f, l, fm, null);
+
+        File file = testDir.newFile();
+        DataSetBinarySerde.write(mds, file);
+        MultiDataSet fromFile = DataSetBinarySerde.readMultiDataSet(file);
+        assertEquals(mds, fromFile);
+        assertNull(fromFile.getFeaturesMaskArrays()[0]);
+        assertNull(fromFile.getLabelsMaskArrays());
+
+        try {
+            DataSetBinarySerde.readDataSet(file);
+            fail("Expected exception");
+        } catch (Exception e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("MultiDataSet"));
+        }
+    }
+}
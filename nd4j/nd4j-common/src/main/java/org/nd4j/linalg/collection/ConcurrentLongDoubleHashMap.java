@@ -0,0 +1,156 @@
+package org.nd4j.linalg.collection;
+
+/**
+ * Thread-safe long to double hash map, split into independently locked {@link LongDoubleHashMap} stripes,
+ * so that concurrent updates of different keys rarely contend. Intended for counting from multiple threads,
+ * i.e. co-occurrence statistics, via {@link #addTo(long, double)}.<br>
+ * Missing keys are reported as value 0.0. Bulk operations ({@link #size()}, {@link #forEach(LongDoubleHashMap.Procedure)},
+ * {@link #keys()}) lock one stripe at a time, so they're not atomic snapshots under concurrent updates.
+ */
+public class ConcurrentLongDoubleHashMap {
+    public static final int DEFAULT_STRIPES = 64;
+
+    private final LongDoubleHashMap[] stripes;
+    private final int stripeShift;
+
+    public ConcurrentLongDoubleHashMap() {
+        this(DEFAULT_STRIPES, LongDoubleHashMap.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param numStripes           Number of independently locked stripes, rounded up to power of 2
+     * @param expectedSizePerStripe Expected number of entries in each stripe
+     */
+    public ConcurrentLongDoubleHashMap(int numStripes, int expectedSizePerStripe) {
+        if (numStripes <= 0 || numStripes > (1 << 16))
+            throw new IllegalArgumentException("Number of stripes must be in range [1, 65536], got " + numStripes);
+
+        int n = Integer.highestOneBit(numStripes);
+        if (n < numStripes)
+            n <<= 1;
+
+        stripes = new LongDoubleHashMap[n];
+        for (int i = 0; i < n; i++)
+            stripes[i] = new LongDoubleHashMap(expectedSizePerStripe);
+
+        // stripe is selected by high bits of the hash, stripe maps use low bits for slots
+        stripeShift = 32 - Integer.numberOfTrailingZeros(n);
+    }
+
+    private LongDoubleHashMap stripe(long key) {
+        return stripes.length == 1 ? stripes[0] : stripes[HashUtils.mix(key) >>> stripeShift];
+    }
+
+    public double get(long key) {
+        LongDoubleHashMap stripe = stripe(key);
+        synchronized (stripe) {
+            return stripe.get(key);
+        }
+    }
+
+    public boolean containsKey(long key) {
+        LongDoubleHashMap stripe = stripe(key);
+        synchronized (stripe) {
+            return stripe.containsKey(key);
+        }
+    }
+
+    /**
+     * @return previous value, or 0.0 if there was no such key
+     */
+    public double put(long key, double value) {
+        LongDoubleHashMap stripe = stripe(key);
+        synchronized (stripe) {
+            return stripe.put(key, value);
+        }
+    }
+
+    /**
+     * Atomically adds delta to the value of the given key, inserting the key if it's absent
+     *
+     * @return new value
+     */
+    public double addTo(long key, double delta) {
+        LongDoubleHashMap stripe = stripe(key);
+        synchronized (stripe) {
+            return stripe.addTo(key, delta);
+        }
+    }
+
+    /**
+     * @return removed value, or 0.0 if there was no such key
+     */
+    public double remove(long key) {
+        LongDoubleHashMap stripe = stripe(key);
+        synchronized (stripe) {
+            return stripe.remove(key);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (LongDoubleHashMap stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public void clear() {
+        for (LongDoubleHashMap stripe : stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+    }
+
+    /**
+     * Applies procedure to all entries. Procedure is called while holding the stripe lock, so it must not
+     * modify this map.
+     */
+    public void forEach(LongDoubleHashMap.Procedure procedure) {
+        for (LongDoubleHashMap stripe : stripes) {
+            synchronized (stripe) {
+                stripe.forEach(procedure);
+            }
+        }
+    }
+
+    /**
+     * Returns all keys, in no particular order
+     */
+    public long[] keys() {
+        long[][] parts = new long[stripes.length][];
+        int total = 0;
+        for (int i = 0; i < stripes.length; i++) {
+            synchronized (stripes[i]) {
+                parts[i] = stripes[i].keys();
+            }
+            total += parts[i].length;
+        }
+
+        long[] ret = new long[total];
+        int pos = 0;
+        for (long[] part : parts) {
+            System.arraycopy(part, 0, ret, pos, part.length);
+            pos += part.length;
+        }
+        return ret;
+    }
+
+    /**
+     * Returns approximate number of bytes used by this map. Doesn't lock, so it's cheap enough to be polled
+     * on every update.
+     */
+    public long memoryFootprint() {
+        long bytes = 0;
+        for (LongDoubleHashMap stripe : stripes)
+            bytes += stripe.memoryFootprint();
+        return bytes;
+    }
+}
@@ -0,0 +1,57 @@
+package org.nd4j.linalg.collection;
+
+/**
+ * Hashing helpers shared by the primitive open addressing collections
+ */
+class HashUtils {
+    static final int MAX_CAPACITY = 1 << 30;
+
+    private HashUtils() {}
+
+    /**
+     * MurmurHash3 finalizer: spreads entropy over all bits, so that masking out low bits is safe for sequential keys
+     */
+    static int mix(int key) {
+        int h = key;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    static long mix64(long key) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    static int mix(long key) {
+        return (int) mix64(key);
+    }
+
+    /**
+     * Returns power of 2 capacity that fits expected number of elements without resizing
+     */
+    static int capacityFor(int expectedSize, float loadFactor) {
+        if (expectedSize < 0)
+            throw new IllegalArgumentException("Expected size must be >= 0, got " + expectedSize);
+
+        long required = (long) Math.ceil(Math.max(expectedSize, 4) / (double) loadFactor) + 1;
+        if (required > MAX_CAPACITY)
+            throw new IllegalArgumentException("Expected size is too large: " + expectedSize);
+
+        int capacity = Integer.highestOneBit((int) required);
+        return capacity < required ? capacity << 1 : capacity;
+    }
+
+    static void checkCapacity(int capacity) {
+        if (capacity <= 0 || capacity > MAX_CAPACITY)
+            throw new IllegalStateException("Maximum capacity exceeded: " + MAX_CAPACITY + " slots");
+    }
+}
@@ -0,0 +1,95 @@
+package org.nd4j.linalg.collection;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Growable list of primitive ints, backed by a single int[], without boxing.<br>
+ * This class isn't thread-safe.
+ */
+public class IntArrayList implements Serializable {
+    public static final int DEFAULT_CAPACITY = 16;
+
+    private int[] data;
+    private int size;
+
+    public IntArrayList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntArrayList(int initialCapacity) {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException("Capacity must be >= 0, got " + initialCapacity);
+        data = new int[initialCapacity];
+    }
+
+    public void add(int value) {
+        ensureCapacity(size + 1);
+        data[size++] = value;
+    }
+
+    public void addAll(int[] values) {
+        ensureCapacity(size + values.length);
+        System.arraycopy(values, 0, data, size, values.length);
+        size += values.length;
+    }
+
+    public int get(int index) {
+        checkIndex(index);
+        return data[index];
+    }
+
+    /**
+     * @return previous value at the given index
+     */
+    public int set(int index, int value) {
+        checkIndex(index);
+        int prev = data[index];
+        data[index] = value;
+        return prev;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all elements, keeping allocated capacity
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(data, size);
+    }
+
+    public void ensureCapacity(int capacity) {
+        if (capacity > data.length) {
+            long newCapacity = Math.max(capacity, Math.max(DEFAULT_CAPACITY, data.length + (data.length >> 1)));
+            data = Arrays.copyOf(data, (int) Math.min(Integer.MAX_VALUE - 8, newCapacity));
+        }
+    }
+
+    /**
+     * Reduces capacity to the current size
+     */
+    public void trimToSize() {
+        if (data.length > size)
+            data = Arrays.copyOf(data, size);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
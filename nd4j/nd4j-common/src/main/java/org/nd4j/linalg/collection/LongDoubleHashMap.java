@@ -0,0 +1,273 @@
+package org.nd4j.linalg.collection;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Open addressing (linear probing) hash map from long keys to double values, without boxing and with no per-entry
+ * objects: all entries are stored in a long and a double array.<br>
+ * Missing keys are reported as value 0 by {@link #get(long)}, which makes this class suitable for counting via
+ * {@link #addTo(long, double)}.<br>
+ * This class isn't thread-safe.
+ */
+public class LongDoubleHashMap implements Serializable {
+    public static final int DEFAULT_CAPACITY = 16;
+    public static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+    /**
+     * Callback for {@link #forEach(Procedure)}
+     */
+    public interface Procedure {
+        void apply(long key, double value);
+    }
+
+    private final float loadFactor;
+    private long[] keys;
+    private double[] values;
+    private int mask;
+    private int assigned;
+    private int resizeAt;
+
+    // key 0 marks empty slots, so entry for key 0 is kept separately
+    private boolean hasZeroKey;
+    private double zeroValue;
+
+    public LongDoubleHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize Expected number of entries, map won't be resized until it's reached
+     */
+    public LongDoubleHashMap(int expectedSize) {
+        this(expectedSize, DEFAULT_LOAD_FACTOR);
+    }
+
+    public LongDoubleHashMap(int expectedSize, float loadFactor) {
+        if (loadFactor <= 0 || loadFactor >= 1)
+            throw new IllegalArgumentException("Load factor must be in range (0, 1), got " + loadFactor);
+        this.loadFactor = loadFactor;
+        allocate(HashUtils.capacityFor(expectedSize, loadFactor));
+    }
+
+    /**
+     * Returns value for the given key, or 0 if there's no such key
+     */
+    public double get(long key) {
+        return getOrDefault(key, 0);
+    }
+
+    public double getOrDefault(long key, double defaultValue) {
+        if (key == 0)
+            return hasZeroKey ? zeroValue : defaultValue;
+
+        int slot = HashUtils.mix(key) & mask;
+        long existing;
+        while ((existing = keys[slot]) != 0) {
+            if (existing == key)
+                return values[slot];
+            slot = (slot + 1) & mask;
+        }
+        return defaultValue;
+    }
+
+    public boolean containsKey(long key) {
+        if (key == 0)
+            return hasZeroKey;
+
+        int slot = HashUtils.mix(key) & mask;
+        long existing;
+        while ((existing = keys[slot]) != 0) {
+            if (existing == key)
+                return true;
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Puts value for the given key
+     *
+     * @return previous value, or 0 if there was no such key
+     */
+    public double put(long key, double value) {
+        if (key == 0) {
+            double prev = zeroValue;
+            hasZeroKey = true;
+            zeroValue = value;
+            return prev;
+        }
+
+        int slot = HashUtils.mix(key) & mask;
+        long existing;
+        while ((existing = keys[slot]) != 0) {
+            if (existing == key) {
+                double prev = values[slot];
+                values[slot] = value;
+                return prev;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        insert(slot, key, value);
+        return 0;
+    }
+
+    /**
+     * Adds delta to the value of the given key, inserting the key with value {@code delta} if it's absent
+     *
+     * @return new value
+     */
+    public double addTo(long key, double delta) {
+        if (key == 0) {
+            hasZeroKey = true;
+            return zeroValue += delta;
+        }
+
+        int slot = HashUtils.mix(key) & mask;
+        long existing;
+        while ((existing = keys[slot]) != 0) {
+            if (existing == key)
+                return values[slot] += delta;
+            slot = (slot + 1) & mask;
+        }
+
+        insert(slot, key, delta);
+        return delta;
+    }
+
+    /**
+     * Removes the given key
+     *
+     * @return removed value, or 0 if there was no such key
+     */
+    public double remove(long key) {
+        if (key == 0) {
+            double prev = zeroValue;
+            hasZeroKey = false;
+            zeroValue = 0;
+            return prev;
+        }
+
+        int slot = HashUtils.mix(key) & mask;
+        long existing;
+        while ((existing = keys[slot]) != 0) {
+            if (existing == key) {
+                double prev = values[slot];
+                shiftConflictingKeys(slot);
+                assigned--;
+                return prev;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return 0;
+    }
+
+    public int size() {
+        return assigned + (hasZeroKey ? 1 : 0);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Removes all entries, keeping allocated capacity
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, 0);
+        assigned = 0;
+        hasZeroKey = false;
+        zeroValue = 0;
+    }
+
+    public void forEach(Procedure procedure) {
+        if (hasZeroKey)
+            procedure.apply(0, zeroValue);
+
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0)
+                procedure.apply(keys[i], values[i]);
+        }
+    }
+
+    /**
+     * Returns all keys, in no particular order
+     */
+    public long[] keys() {
+        long[] ret = new long[size()];
+        int pos = 0;
+        if (hasZeroKey)
+            ret[pos++] = 0;
+        for (long k : keys) {
+            if (k != 0)
+                ret[pos++] = k;
+        }
+        return ret;
+    }
+
+    /**
+     * Returns approximate number of bytes used by this map
+     */
+    public long memoryFootprint() {
+        return 16L * keys.length;
+    }
+
+    private void insert(int slot, long key, double value) {
+        keys[slot] = key;
+        values[slot] = value;
+        if (++assigned >= resizeAt)
+            rehash(keys.length << 1);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new double[capacity];
+        mask = capacity - 1;
+        resizeAt = Math.min(capacity - 1, (int) Math.ceil(capacity * loadFactor));
+    }
+
+    private void rehash(int capacity) {
+        HashUtils.checkCapacity(capacity);
+        long[] oldKeys = keys;
+        double[] oldValues = values;
+        allocate(capacity);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != 0) {
+                int slot = HashUtils.mix(key) & mask;
+                while (keys[slot] != 0)
+                    slot = (slot + 1) & mask;
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Backward shift deletion: moves entries following the removed one, so that no probe chain is broken
+     */
+    private void shiftConflictingKeys(int gapSlot) {
+        int distance = 0;
+        while (true) {
+            int slot = (gapSlot + (++distance)) & mask;
+            long existing = keys[slot];
+            if (existing == 0)
+                break;
+
+            int idealSlot = HashUtils.mix(existing) & mask;
+            int shift = (slot - idealSlot) & mask;
+            if (shift >= distance) {
+                keys[gapSlot] = existing;
+                values[gapSlot] = values[slot];
+                gapSlot = slot;
+                distance = 0;
+            }
+        }
+
+        keys[gapSlot] = 0;
+        values[gapSlot] = 0;
+    }
+}
@@ -0,0 +1,273 @@
+package org.nd4j.linalg.collection;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Open addressing (linear probing) hash map from String keys to int values, that keeps key characters off-heap:
+ * keys are copied into a single direct buffer, and the heap only holds three int arrays (key offset, hash and value
+ * per slot). Lookups compare characters in place, so neither lookups nor updates of existing keys allocate.<br>
+ * This makes it suitable for large vocabularies and per-document token counting, where String keys and map entries
+ * would otherwise dominate heap usage and GC time.<br>
+ * <br>
+ * Some restrictions to be aware of:<br>
+ * - Keys can't be removed individually, only via {@link #clear()}<br>
+ * - Total size of keys is limited to 2GB (2 bytes per char, plus 4 bytes per key)<br>
+ * - Key Strings are created on iteration, via {@link #forEach(Procedure)} or {@link #keys()}<br>
+ * - Off-heap memory is released when the map is garbage collected<br>
+ * This class isn't thread-safe.
+ */
+public class StringIntHashMap {
+    public static final int DEFAULT_CAPACITY = 16;
+    public static final float DEFAULT_LOAD_FACTOR = 0.75f;
+    public static final int DEFAULT_KEY_BUFFER_BYTES = 4096;
+
+    /**
+     * Callback for {@link #forEach(Procedure)}
+     */
+    public interface Procedure {
+        void apply(String key, int value);
+    }
+
+    private final float loadFactor;
+
+    // offset of the key record in keyData + 1, 0 for empty slots
+    private int[] offsets;
+    private int[] hashes;
+    private int[] values;
+    private int mask;
+    private int assigned;
+    private int resizeAt;
+
+    // key records: [int length][char...]
+    private ByteBuffer keyData;
+    private int keyDataSize;
+
+    public StringIntHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize Expected number of entries, map won't be resized until it's reached
+     */
+    public StringIntHashMap(int expectedSize) {
+        this(expectedSize, DEFAULT_LOAD_FACTOR, DEFAULT_KEY_BUFFER_BYTES);
+    }
+
+    /**
+     * @param expectedSize   Expected number of entries
+     * @param loadFactor     Load factor, in range (0, 1)
+     * @param keyBufferBytes Initial size of the off-heap key buffer, in bytes
+     */
+    public StringIntHashMap(int expectedSize, float loadFactor, int keyBufferBytes) {
+        if (loadFactor <= 0 || loadFactor >= 1)
+            throw new IllegalArgumentException("Load factor must be in range (0, 1), got " + loadFactor);
+        this.loadFactor = loadFactor;
+        allocate(HashUtils.capacityFor(expectedSize, loadFactor));
+        keyData = ByteBuffer.allocateDirect(Math.max(64, keyBufferBytes)).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Returns value for the given key, or 0 if there's no such key
+     */
+    public int get(String key) {
+        return getOrDefault(key, 0);
+    }
+
+    public int getOrDefault(String key, int defaultValue) {
+        int slot = find(key);
+        return slot < 0 ? defaultValue : values[slot];
+    }
+
+    public boolean containsKey(String key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Puts value for the given key
+     *
+     * @return previous value, or 0 if there was no such key
+     */
+    public int put(String key, int value) {
+        int hash = HashUtils.mix(key.hashCode());
+        int slot = hash & mask;
+        int offset;
+        while ((offset = offsets[slot]) != 0) {
+            if (hashes[slot] == hash && keyEquals(offset - 1, key)) {
+                int prev = values[slot];
+                values[slot] = value;
+                return prev;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        insert(slot, hash, key, value);
+        return 0;
+    }
+
+    /**
+     * Adds delta to the value of the given key, inserting the key with value {@code delta} if it's absent
+     *
+     * @return new value
+     */
+    public int addTo(String key, int delta) {
+        int hash = HashUtils.mix(key.hashCode());
+        int slot = hash & mask;
+        int offset;
+        while ((offset = offsets[slot]) != 0) {
+            if (hashes[slot] == hash && keyEquals(offset - 1, key))
+                return values[slot] += delta;
+            slot = (slot + 1) & mask;
+        }
+
+        insert(slot, hash, key, delta);
+        return delta;
+    }
+
+    public int size() {
+        return assigned;
+    }
+
+    public boolean isEmpty() {
+        return assigned == 0;
+    }
+
+    /**
+     * Removes all entries, keeping allocated capacity and key buffer
+     */
+    public void clear() {
+        Arrays.fill(offsets, 0);
+        Arrays.fill(values, 0);
+        assigned = 0;
+        keyDataSize = 0;
+    }
+
+    public void forEach(Procedure procedure) {
+        for (int i = 0; i < offsets.length; i++) {
+            if (offsets[i] != 0)
+                procedure.apply(keyAt(offsets[i] - 1), values[i]);
+        }
+    }
+
+    /**
+     * Returns all keys, in no particular order
+     */
+    public List<String> keys() {
+        List<String> ret = new ArrayList<>(assigned);
+        for (int i = 0; i < offsets.length; i++) {
+            if (offsets[i] != 0)
+                ret.add(keyAt(offsets[i] - 1));
+        }
+        return ret;
+    }
+
+    /**
+     * Returns approximate number of heap bytes used by this map
+     */
+    public long memoryFootprint() {
+        return 12L * offsets.length;
+    }
+
+    /**
+     * Returns number of off-heap bytes allocated for keys
+     */
+    public long offHeapFootprint() {
+        return keyData.capacity();
+    }
+
+    private int find(String key) {
+        int hash = HashUtils.mix(key.hashCode());
+        int slot = hash & mask;
+        int offset;
+        while ((offset = offsets[slot]) != 0) {
+            if (hashes[slot] == hash && keyEquals(offset - 1, key))
+                return slot;
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private boolean keyEquals(int offset, String key) {
+        int length = keyData.getInt(offset);
+        if (length != key.length())
+            return false;
+
+        int pos = offset + 4;
+        for (int i = 0; i < length; i++, pos += 2) {
+            if (keyData.getChar(pos) != key.charAt(i))
+                return false;
+        }
+        return true;
+    }
+
+    private String keyAt(int offset) {
+        int length = keyData.getInt(offset);
+        char[] chars = new char[length];
+        int pos = offset + 4;
+        for (int i = 0; i < length; i++, pos += 2)
+            chars[i] = keyData.getChar(pos);
+        return new String(chars);
+    }
+
+    private int appendKey(String key) {
+        long required = keyDataSize + 4L + 2L * key.length();
+        if (required >= Integer.MAX_VALUE)
+            throw new IllegalStateException("Maximum total size of keys exceeded");
+
+        if (required > keyData.capacity()) {
+            long newCapacity = Math.max(required, Math.min(Integer.MAX_VALUE - 1L, 2L * keyData.capacity()));
+            ByteBuffer newData = ByteBuffer.allocateDirect((int) newCapacity).order(ByteOrder.nativeOrder());
+            ByteBuffer old = keyData.duplicate();
+            old.position(0);
+            old.limit(keyDataSize);
+            newData.put(old);
+            keyData = newData;
+        }
+
+        int offset = keyDataSize;
+        keyData.putInt(offset, key.length());
+        int pos = offset + 4;
+        for (int i = 0; i < key.length(); i++, pos += 2)
+            keyData.putChar(pos, key.charAt(i));
+        keyDataSize = pos;
+        return offset;
+    }
+
+    private void insert(int slot, int hash, String key, int value) {
+        offsets[slot] = appendKey(key) + 1;
+        hashes[slot] = hash;
+        values[slot] = value;
+        if (++assigned >= resizeAt)
+            rehash(offsets.length << 1);
+    }
+
+    private void allocate(int capacity) {
+        offsets = new int[capacity];
+        hashes = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        resizeAt = Math.min(capacity - 1, (int) Math.ceil(capacity * loadFactor));
+    }
+
+    private void rehash(int capacity) {
+        HashUtils.checkCapacity(capacity);
+        int[] oldOffsets = offsets;
+        int[] oldHashes = hashes;
+        int[] oldValues = values;
+        allocate(capacity);
+
+        for (int i = 0; i < oldOffsets.length; i++) {
+            if (oldOffsets[i] != 0) {
+                int slot = oldHashes[i] & mask;
+                while (offsets[slot] != 0)
+                    slot = (slot + 1) & mask;
+                offsets[slot] = oldOffsets[i];
+                hashes[slot] = oldHashes[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
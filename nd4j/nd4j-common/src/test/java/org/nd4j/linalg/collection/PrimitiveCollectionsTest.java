@@ -0,0 +1,159 @@
+package org.nd4j.linalg.collection;
+
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class PrimitiveCollectionsTest {
+
+    @Test
+    public void testIntIntHashMapAgainstHashMap() {
+        Random r = new Random(12345);
+        IntIntHashMap map = new IntIntHashMap(4);
+        Map<Integer, Integer> expected = new HashMap<>();
+
+        for (int i = 0; i < 200000; i++) {
+            int key = r.nextInt(5000) - 100;
+            int op = r.nextInt(10);
+            if (op < 6) {
+                int v = map.addTo(key, 1);
+                Integer prev = expected.get(key);
+                expected.put(key, prev == null ? 1 : prev + 1);
+                assertEquals((int) expected.get(key), v);
+            } else if (op < 8) {
+                Integer prev = expected.remove(key);
+                assertEquals(prev == null ? 0 : prev, map.remove(key));
+            } else {
+                Integer prev = expected.put(key, i);
+                assertEquals(prev == null ? 0 : prev, map.put(key, i));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (Map.Entry<Integer, Integer> e : expected.entrySet()) {
+            assertTrue(map.containsKey(e.getKey()));
+            assertEquals((int) e.getValue(), map.get(e.getKey()));
+        }
+
+        final Map<Integer, Integer> iterated = new HashMap<>();
+        map.forEach(new IntIntHashMap.Procedure() {
+            @Override
+            public void apply(int key, int value) {
+                iterated.put(key, value);
+            }
+        });
+        assertEquals(expected, iterated);
+        assertEquals(expected.size(), map.keys().length);
+
+        assertEquals(-1, map.getOrDefault(Integer.MIN_VALUE, -1));
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(0));
+    }
+
+    @Test
+    public void testLongDoubleHashMap() {
+        LongDoubleHashMap map = new LongDoubleHashMap();
+        for (long i = 0; i < 10000; i++) {
+            long key = (i << 32) | (i % 7);
+            map.addTo(key, 0.5);
+            map.addTo(key, 0.25);
+        }
+        assertEquals(10000, map.size());
+        assertEquals(0.75, map.get((5L << 32) | 5), 0.0);
+        assertEquals(0.75, map.get(0L), 0.0);
+        assertEquals(0.0, map.get(-1L), 0.0);
+
+        for (long i = 0; i < 10000; i += 2)
+            assertEquals(0.75, map.remove((i << 32) | (i % 7)), 0.0);
+        assertEquals(5000, map.size());
+        for (long i = 1; i < 10000; i += 2)
+            assertEquals(0.75, map.get((i << 32) | (i % 7)), 0.0);
+    }
+
+    @Test
+    public void testConcurrentLongDoubleHashMap() throws Exception {
+        final ConcurrentLongDoubleHashMap map = new ConcurrentLongDoubleHashMap(16, 16);
+        ExecutorService exec = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            futures.add(exec.submit(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 50000; i++)
+                        map.addTo(i % 1000, 1.0);
+                }
+            }));
+        }
+        for (Future<?> f : futures)
+            f.get();
+        exec.shutdown();
+
+        assertEquals(1000, map.size());
+        assertEquals(1000, map.keys().length);
+        for (int i = 0; i < 1000; i++)
+            assertEquals(200.0, map.get(i), 0.0);
+
+        assertEquals(200.0, map.remove(5), 0.0);
+        assertFalse(map.containsKey(5));
+        assertTrue(map.memoryFootprint() > 0);
+    }
+
+    @Test
+    public void testStringIntHashMap() {
+        StringIntHashMap map = new StringIntHashMap(2, 0.75f, 64);
+        Map<String, Integer> expected = new HashMap<>();
+        Random r = new Random(42);
+        for (int i = 0; i < 50000; i++) {
+            String key = "token_" + r.nextInt(3000) + (i % 3 == 0 ? "é中" : "");
+            Integer prev = expected.get(key);
+            expected.put(key, prev == null ? 1 : prev + 1);
+            assertEquals((int) expected.get(key), map.addTo(key, 1));
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (Map.Entry<String, Integer> e : expected.entrySet())
+            assertEquals((int) e.getValue(), map.get(e.getKey()));
+
+        assertEquals(0, map.get("missing"));
+        assertEquals(0, map.put("", 7));
+        assertEquals(7, map.put("", 8));
+        assertTrue(map.containsKey(""));
+
+        assertEquals(expected.size() + 1, new HashSet<>(map.keys()).size());
+        assertTrue(map.offHeapFootprint() > 64);
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey("token_1"));
+        assertEquals(1, map.addTo("token_1", 1));
+    }
+
+    @Test
+    public void testIntArrayList() {
+        IntArrayList list = new IntArrayList(0);
+        for (int i = 0; i < 1000; i++)
+            list.add(i);
+        list.addAll(new int[] {-1, -2});
+        assertEquals(1002, list.size());
+        assertEquals(999, list.get(999));
+        assertEquals(-2, list.get(1001));
+        assertEquals(5, list.set(5, 50));
+        assertEquals(50, list.toArray()[5]);
+
+        try {
+            list.get(1002);
+            fail();
+        } catch (IndexOutOfBoundsException e) {
+            //expected
+        }
+
+        list.clear();
+        assertTrue(list.isEmpty());
+    }
+}
@@ -1,5 +1,7 @@
 package org.deeplearning4j.rl4j.learning.async;
 
+import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.deeplearning4j.rl4j.learning.Learning;
 import org.deeplearning4j.rl4j.network.NeuralNet;
@@ -20,6 +22,13 @@ import org.nd4j.linalg.factory.Nd4j;
 public abstract class AsyncLearning<O extends Encodable, A, AS extends ActionSpace<A>, NN extends NeuralNet>
                 extends Learning<O, A, AS, NN> {
 
+    /**
+     * number of MDP instances stepped together by every thread,
+     * their observations being evaluated as a single batch
+     */
+    @Getter
+    @Setter
+    private int numEnvironments = 1;
 
     public AsyncLearning(AsyncConfiguration conf) {
         super(conf);
@@ -111,6 +111,14 @@ public abstract class AsyncThread<O extends Encodable, A, AS extends ActionSpace
         }
     }
 
+    protected void incrementStep(int steps) {
+        stepCounter += steps;
+    }
+
+    protected void incrementEpoch() {
+        epochCounter++;
+    }
+
     protected abstract NN getCurrent();
 
     protected abstract int getThreadNumber();
@@ -1,19 +1,28 @@
 package org.deeplearning4j.rl4j.learning.async;
 
 import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
 import org.deeplearning4j.gym.StepReply;
 import org.deeplearning4j.nn.gradient.Gradient;
 import org.deeplearning4j.rl4j.learning.IHistoryProcessor;
 import org.deeplearning4j.rl4j.learning.Learning;
 import org.deeplearning4j.rl4j.learning.sync.Transition;
+import org.deeplearning4j.rl4j.mdp.VectorizedMDP;
 import org.deeplearning4j.rl4j.network.NeuralNet;
 import org.deeplearning4j.rl4j.policy.Policy;
 import org.deeplearning4j.rl4j.space.DiscreteSpace;
 import org.deeplearning4j.rl4j.space.Encodable;
+import org.deeplearning4j.rl4j.util.DataManager;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.NDArrayIndex;
 import org.nd4j.linalg.util.ArrayUtil;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Stack;
 
 /**
@@ -21,12 +30,24 @@ import java.util.Stack;
  *
  * Async Learning specialized for the Discrete Domain
  *
+ * When a VectorizedMDP is set, the thread steps all its environments together
+ * and selects their actions with a single forward pass on a batch of observations,
+ * the n-step segments of all the environments being trained as one batch.
+ * This mode supports neither history processors nor recurrent networks.
+ *
  */
+@Slf4j
 public abstract class AsyncThreadDiscrete<O extends Encodable, NN extends NeuralNet>
                 extends AsyncThread<O, Integer, DiscreteSpace, NN> {
 
     @Getter
     private NN current;
+    /**
+     * Environments stepped together by this thread, null when it runs its single MDP
+     */
+    @Getter
+    @Setter
+    private VectorizedMDP<O, Integer, DiscreteSpace> vectorizedMdp;
 
     public AsyncThreadDiscrete(AsyncGlobal<NN> asyncGlobal, int threadNumber) {
         super(asyncGlobal, threadNumber);
@@ -35,6 +56,150 @@ public abstract class AsyncThreadDiscrete<O extends Encodable, NN extends Neural
         }
     }
 
+    @Override
+    public void run() {
+        if (vectorizedMdp == null || vectorizedMdp.size() == 1) {
+            super.run();
+        } else if (getHistoryProcessor() != null || current.isRecurrent()) {
+            log.warn("ThreadNum-" + getThreadNumber()
+                            + " vectorized environments do not support history processors or recurrent networks, using a single MDP");
+            vectorizedMdp.close();
+            super.run();
+        } else {
+            runVectorized();
+        }
+    }
+
+    protected void runVectorized() {
+        VectorizedMDP<O, Integer, DiscreteSpace> envs = vectorizedMdp;
+        try {
+            log.info("ThreadNum-" + getThreadNumber() + " Started with " + envs.size() + " environments!");
+            current.reset();
+            List<O> obs = envs.reset();
+            double[] rewards = new double[envs.size()];
+            int[] lengths = new int[envs.size()];
+            //no preEpoch()/postEpoch(): they only record videos with the history processor, not used here
+            while (!getAsyncGlobal().isTrainingComplete() && getAsyncGlobal().isRunning()) {
+                obs = trainSubEpoch(envs, obs, rewards, lengths, getConf().getNstep());
+            }
+        } catch (Exception e) {
+            log.error("Thread crashed: " + e.getCause());
+            getAsyncGlobal().setRunning(false);
+            e.printStackTrace();
+        } finally {
+            envs.close();
+        }
+    }
+
+    /**
+     * "Subepoch" over vectorized environments: nstep steps of every environment,
+     * an environment reaching the end of its episode is reset and starts a new segment
+     *
+     * @param envs the environments
+     * @param obs the obs to start from, one per environment
+     * @param rewards the rewards accumulated during the current episode of every environment
+     * @param lengths the length of the current episode of every environment
+     * @param nstep the number of steps of every environment
+     * @return the last obs of every environment
+     */
+    protected List<O> trainSubEpoch(VectorizedMDP<O, Integer, DiscreteSpace> envs, List<O> obs, double[] rewards,
+                    int[] lengths, int nstep) throws IOException {
+
+        synchronized (getAsyncGlobal()) {
+            current.copy(getAsyncGlobal().getCurrent());
+        }
+        int size = envs.size();
+        Policy<O, Integer> policy = getPolicy(current);
+
+        obs = new ArrayList<>(obs);
+        List<Stack<MiniTrans<Integer>>> segments = new ArrayList<>();
+        List<Stack<MiniTrans<Integer>>> open = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            open.add(new Stack<MiniTrans<Integer>>());
+
+        int steps = 0;
+        for (int t = 0; t < nstep; t++) {
+            INDArray batch = envs.batch(obs);
+            //the same forward pass selects the actions and is kept for the gradient
+            INDArray[] output = current.outputAll(batch);
+            List<Integer> actions = policy.nextActions(batch, output);
+            List<StepReply<O>> replies = envs.step(actions);
+
+            for (int i = 0; i < size; i++) {
+                StepReply<O> stepReply = replies.get(i);
+                open.get(i).add(new MiniTrans<>(batch.get(NDArrayIndex.interval(i, i + 1)), actions.get(i),
+                                getRows(output, i), stepReply.getReward() * getConf().getRewardFactor()));
+                rewards[i] += stepReply.getReward();
+                lengths[i]++;
+                steps++;
+
+                boolean done = stepReply.isDone();
+                if (done || lengths[i] >= getConf().getMaxEpochStep()) {
+                    if (done) {
+                        open.get(i).add(new MiniTrans<Integer>(null, null, null, 0));
+                    } else {
+                        INDArray next = envs.batch(Collections.singletonList(stepReply.getObservation()));
+                        open.get(i).add(bootstrap(next, 0));
+                    }
+                    segments.add(open.get(i));
+                    open.set(i, new Stack<MiniTrans<Integer>>());
+
+                    DataManager.StatEntry statEntry = new AsyncStatEntry(getStepCounter() + steps,
+                                    getEpochCounter(), rewards[i], lengths[i], current.getLatestScore());
+                    getDataManager().appendStat(statEntry);
+                    log.info("ThreadNum-" + getThreadNumber() + " Epoch: " + getEpochCounter() + ", reward: "
+                                    + statEntry.getReward());
+                    incrementEpoch();
+
+                    obs.set(i, envs.getMdp(i).reset());
+                    rewards[i] = 0;
+                    lengths[i] = 0;
+                } else {
+                    obs.set(i, stepReply.getObservation());
+                }
+            }
+        }
+
+        //bootstrap the segments still open with a single batched evaluation
+        INDArray batch = envs.batch(obs);
+        INDArray[] output = null;
+        for (int i = 0; i < size; i++) {
+            if (open.get(i).isEmpty())
+                continue;
+            if (output == null)
+                output = bootstrapOutput(batch);
+            open.get(i).add(new MiniTrans<Integer>(null, null, getRows(output, i),
+                            Nd4j.max(output[0].getRow(i)).getDouble(0)));
+            segments.add(open.get(i));
+        }
+
+        if (!segments.isEmpty())
+            getAsyncGlobal().enqueue(calcGradient(current, segments), steps);
+        incrementStep(steps);
+
+        return obs;
+    }
+
+    private MiniTrans<Integer> bootstrap(INDArray input, int row) {
+        INDArray[] output = bootstrapOutput(input);
+        return new MiniTrans<Integer>(null, null, getRows(output, row), Nd4j.max(output[0].getRow(row)).getDouble(0));
+    }
+
+    private INDArray[] bootstrapOutput(INDArray input) {
+        if (getConf().getTargetDqnUpdateFreq() == -1)
+            return current.outputAll(input);
+        synchronized (getAsyncGlobal()) {
+            return getAsyncGlobal().getTarget().outputAll(input);
+        }
+    }
+
+    private static INDArray[] getRows(INDArray[] output, int row) {
+        INDArray[] rows = new INDArray[output.length];
+        for (int j = 0; j < output.length; j++)
+            rows[j] = output[j].getRow(row);
+        return rows;
+    }
+
     /**
      * "Subepoch"  correspond to the t_max-step iterations
      * that stack rewards with t_max MiniTrans
@@ -153,4 +318,20 @@ public abstract class AsyncThreadDiscrete<O extends Encodable, NN extends Neural
     }
 
     public abstract Gradient[] calcGradient(NN nn, Stack<MiniTrans<Integer>> rewards);
+
+    /**
+     * Calc the gradients of several n-step segments (one or more per vectorized environment)
+     * as a single batch. Implementations supporting vectorized environments must override it,
+     * the default only handles a single segment.
+     *
+     * @param nn the network
+     * @param segments the segments, each one ending with its bootstrap MiniTrans
+     * @return the gradients
+     */
+    public Gradient[] calcGradient(NN nn, List<Stack<MiniTrans<Integer>>> segments) {
+        if (segments.size() != 1)
+            throw new UnsupportedOperationException(
+                            getClass().getSimpleName() + " does not support vectorized environments");
+        return calcGradient(nn, segments.get(0));
+    }
 }
@@ -6,6 +6,7 @@ import org.deeplearning4j.rl4j.learning.async.AsyncGlobal;
 import org.deeplearning4j.rl4j.learning.async.AsyncLearning;
 import org.deeplearning4j.rl4j.learning.async.AsyncThread;
 import org.deeplearning4j.rl4j.mdp.MDP;
+import org.deeplearning4j.rl4j.mdp.VectorizedMDP;
 import org.deeplearning4j.rl4j.network.ac.IActorCritic;
 import org.deeplearning4j.rl4j.policy.ACPolicy;
 import org.deeplearning4j.rl4j.space.DiscreteSpace;
@@ -48,7 +49,11 @@ public abstract class A3CDiscrete<O extends Encodable> extends AsyncLearning<O,
 
 
     protected AsyncThread newThread(int i) {
-        return new A3CThreadDiscrete(mdp.newInstance(), asyncGlobal, getConfiguration(), i, dataManager);
+        A3CThreadDiscrete<O> thread =
+                        new A3CThreadDiscrete<>(mdp.newInstance(), asyncGlobal, getConfiguration(), i, dataManager);
+        if (getNumEnvironments() > 1)
+            thread.setVectorizedMdp(new VectorizedMDP<>(thread.getMdp(), getNumEnvironments()));
+        return thread;
     }
 
     public IActorCritic getNeuralNet() {
@@ -17,6 +17,7 @@ import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.indexing.NDArrayIndex;
 
+import java.util.List;
 import java.util.Random;
 import java.util.Stack;
 
@@ -105,4 +106,47 @@ public class A3CThreadDiscrete<O extends Encodable> extends AsyncThreadDiscrete<
 
         return iac.gradient(input, new INDArray[] {targets, logSoftmax});
     }
+
+    /**
+     *  calc the gradients of the n-step segments of all the environments as a single batch
+     */
+    @Override
+    public Gradient[] calcGradient(IActorCritic iac, List<Stack<MiniTrans<Integer>>> segments) {
+        if (segments.size() == 1 || getAsyncGlobal().getCurrent().isRecurrent())
+            return super.calcGradient(iac, segments);
+
+        int size = 0;
+        for (Stack<MiniTrans<Integer>> rewards : segments)
+            size += rewards.size() - 1;
+
+        int[] shape = getHistoryProcessor() == null ? mdp.getObservationSpace().getShape()
+                        : getHistoryProcessor().getConf().getShape();
+        INDArray input = Nd4j.create(Learning.makeShape(size, shape));
+        INDArray targets = Nd4j.create(size, 1);
+        INDArray logSoftmax = Nd4j.zeros(size, mdp.getActionSpace().getSize());
+
+        int offset = 0;
+        for (Stack<MiniTrans<Integer>> rewards : segments) {
+            MiniTrans<Integer> minTrans = rewards.pop();
+            int length = rewards.size();
+
+            double r = minTrans.getReward();
+            for (int i = length - 1; i >= 0; i--) {
+                minTrans = rewards.pop();
+
+                r = minTrans.getReward() + conf.getGamma() * r;
+                input.putRow(offset + i, minTrans.getObs());
+
+                //the critic
+                targets.putScalar(offset + i, r);
+
+                //the actor
+                double expectedV = minTrans.getOutput()[0].getDouble(0);
+                logSoftmax.putScalar(offset + i, minTrans.getAction(), r - expectedV);
+            }
+            offset += length;
+        }
+
+        return iac.gradient(input, new INDArray[] {targets, logSoftmax});
+    }
 }
@@ -6,6 +6,7 @@ import org.deeplearning4j.rl4j.learning.async.AsyncGlobal;
 import org.deeplearning4j.rl4j.learning.async.AsyncLearning;
 import org.deeplearning4j.rl4j.learning.async.AsyncThread;
 import org.deeplearning4j.rl4j.mdp.MDP;
+import org.deeplearning4j.rl4j.mdp.VectorizedMDP;
 import org.deeplearning4j.rl4j.network.dqn.IDQN;
 import org.deeplearning4j.rl4j.policy.DQNPolicy;
 import org.deeplearning4j.rl4j.policy.Policy;
@@ -41,7 +42,11 @@ public abstract class AsyncNStepQLearningDiscrete<O extends Encodable>
 
 
     public AsyncThread newThread(int i) {
-        return new AsyncNStepQLearningThreadDiscrete(mdp.newInstance(), asyncGlobal, configuration, i, dataManager);
+        AsyncNStepQLearningThreadDiscrete<O> thread = new AsyncNStepQLearningThreadDiscrete<>(mdp.newInstance(),
+                        asyncGlobal, configuration, i, dataManager);
+        if (getNumEnvironments() > 1)
+            thread.setVectorizedMdp(new VectorizedMDP<>(thread.getMdp(), getNumEnvironments()));
+        return thread;
     }
 
     public IDQN getNeuralNet() {
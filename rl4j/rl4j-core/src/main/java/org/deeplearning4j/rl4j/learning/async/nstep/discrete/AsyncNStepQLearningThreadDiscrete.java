@@ -17,6 +17,8 @@ import org.deeplearning4j.rl4j.util.DataManager;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Random;
 import java.util.Stack;
 
@@ -60,10 +62,16 @@ public class AsyncNStepQLearningThreadDiscrete<O extends Encodable> extends Asyn
 
     //calc the gradient based on the n-step rewards
     public Gradient[] calcGradient(IDQN current, Stack<MiniTrans<Integer>> rewards) {
+        return calcGradient(current, Collections.singletonList(rewards));
+    }
 
-        MiniTrans<Integer> minTrans = rewards.pop();
+    //calc the gradient of the n-step segments of all the environments as a single batch
+    @Override
+    public Gradient[] calcGradient(IDQN current, List<Stack<MiniTrans<Integer>>> segments) {
 
-        int size = rewards.size();
+        int size = 0;
+        for (Stack<MiniTrans<Integer>> rewards : segments)
+            size += rewards.size() - 1;
 
         int[] shape = getHistoryProcessor() == null ? mdp.getObservationSpace().getShape()
                         : getHistoryProcessor().getConf().getShape();
@@ -71,15 +79,22 @@ public class AsyncNStepQLearningThreadDiscrete<O extends Encodable> extends Asyn
         INDArray input = Nd4j.create(nshape);
         INDArray targets = Nd4j.create(size, mdp.getActionSpace().getSize());
 
-        double r = minTrans.getReward();
-        for (int i = size - 1; i >= 0; i--) {
-            minTrans = rewards.pop();
-
-            r = minTrans.getReward() + conf.getGamma() * r;
-            input.putRow(i, minTrans.getObs());
-            INDArray row = minTrans.getOutput()[0];
-            row = row.putScalar(minTrans.getAction(), r);
-            targets.putRow(i, row);
+        int offset = 0;
+        for (Stack<MiniTrans<Integer>> rewards : segments) {
+            MiniTrans<Integer> minTrans = rewards.pop();
+            int length = rewards.size();
+
+            double r = minTrans.getReward();
+            for (int i = length - 1; i >= 0; i--) {
+                minTrans = rewards.pop();
+
+                r = minTrans.getReward() + conf.getGamma() * r;
+                input.putRow(offset + i, minTrans.getObs());
+                INDArray row = minTrans.getOutput()[0];
+                row = row.putScalar(minTrans.getAction(), r);
+                targets.putRow(offset + i, row);
+            }
+            offset += length;
         }
 
         return current.gradient(input, targets);
@@ -7,9 +7,8 @@ import java.util.ArrayList;
  *
  * Common Interface for Experience replays
  *
- * A prioritized Exp Replay could be implemented by changing the interface
- * and integrating the TD-error in the transition for ranking
- * Not a high priority feature right now
+ * See PrioritizedExpReplay for a prioritized implementation
+ * ranking the transitions by their TD-error
  *
  * The memory is optimised by using array of INDArray in the transitions
  * such that two same INDArrays are not allocated twice
@@ -17,7 +16,7 @@ import java.util.ArrayList;
 public interface IExpReplay<A> {
 
     /**
-     * @return a batch of uniformly sampled transitions
+     * @return a batch of sampled transitions
      */
     ArrayList<Transition<A>> getBatch();
 
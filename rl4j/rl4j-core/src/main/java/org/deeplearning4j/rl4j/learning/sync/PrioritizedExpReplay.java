@@ -0,0 +1,328 @@
+package org.deeplearning4j.rl4j.learning.sync;
+
+import lombok.Getter;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.compression.BasicNDArrayCompressor;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Prioritized Exp Replay (PER) backed by contiguous preallocated arrays
+ *
+ * https://arxiv.org/abs/1511.05952
+ *
+ * Every frame is written once into a single [frameCapacity, frameLength] INDArray
+ * and a transition only keeps the indexes of its frames, the same way
+ * the HistoryProcessor stacks frames to build an history. Consecutive
+ * transitions of an episode share the same INDArray instances for their history
+ * (see Transition.append), those are detected by identity and are not copied again.
+ * The frame buffer is sized for that case: maxSize + historyLength + 1 frames.
+ * Transitions that do not share their frames with the previous one take
+ * historyLength + 1 frames each and the oldest ones are evicted earlier,
+ * so that fewer than maxSize transitions are kept.
+ *
+ * Transitions are sampled proportionally to their priority through a SumTree
+ * and a batch is assembled with one row gather per history element directly
+ * into the [batchSize, historyLength * frameLength] observation arrays.
+ *
+ * @param <A> the action type
+ */
+@Slf4j
+public class PrioritizedExpReplay<A> implements IExpReplay<A> {
+
+    public static final double DEFAULT_ALPHA = 0.6;
+    public static final double DEFAULT_BETA = 0.4;
+    public static final double DEFAULT_BETA_INCREMENT = 1e-6;
+    public static final double DEFAULT_EPSILON = 1e-6;
+
+    final private int maxSize;
+    final private int batchSize;
+    final private Random random;
+    @Getter
+    final private double alpha;
+    @Getter
+    private double beta;
+    final private double betaIncrement;
+    final private double epsilon;
+
+    final private SumTree tree;
+    final private double[] rewards;
+    final private boolean[] terminals;
+    final private Object[] actions;
+    final private long[] firstFrame;
+    private int[][] observationFrames;
+    final private int[] nextFrames;
+    //id of the transition stored in each slot, -1 once evicted
+    final private long[] ids;
+    private long storedCounter = 0;
+
+    private INDArray frames;
+    private long[] frameShape;
+    private int frameLength;
+    private int historyLength;
+    private int frameCapacity;
+    private long frameCounter = 0;
+
+    //identity cache of the frames written by the previous transition
+    private INDArray[] lastArrays;
+    private long[] lastFrames;
+
+    private int head = 0;
+    @Getter
+    private int size = 0;
+    private double maxPriority = 1.0;
+
+    public PrioritizedExpReplay(int maxSize, int batchSize, int seed) {
+        this(maxSize, batchSize, seed, DEFAULT_ALPHA, DEFAULT_BETA, DEFAULT_BETA_INCREMENT, DEFAULT_EPSILON);
+    }
+
+    /**
+     * @param maxSize the maximum number of transitions stored
+     * @param batchSize the default size of a batch
+     * @param seed the seed of the sampling
+     * @param alpha how much prioritization is used, 0 being uniform sampling
+     * @param beta initial importance sampling correction exponent, annealed to 1
+     * @param betaIncrement increment of beta at every batch sampled
+     * @param epsilon small constant added to the absolute TD-error so that no transition has a zero priority
+     */
+    public PrioritizedExpReplay(int maxSize, int batchSize, int seed, double alpha, double beta, double betaIncrement,
+                    double epsilon) {
+        if (maxSize <= 0 || batchSize <= 0)
+            throw new IllegalArgumentException("maxSize and batchSize must be > 0");
+        this.maxSize = maxSize;
+        this.batchSize = batchSize;
+        this.random = new Random(seed);
+        this.alpha = alpha;
+        this.beta = beta;
+        this.betaIncrement = betaIncrement;
+        this.epsilon = epsilon;
+
+        tree = new SumTree(maxSize);
+        rewards = new double[maxSize];
+        terminals = new boolean[maxSize];
+        actions = new Object[maxSize];
+        firstFrame = new long[maxSize];
+        nextFrames = new int[maxSize];
+        ids = new long[maxSize];
+        Arrays.fill(ids, -1);
+    }
+
+    public void store(Transition<A> transition) {
+        INDArray[] observation = transition.getObservation();
+        if (frames == null)
+            allocate(observation);
+        else if (observation.length != historyLength)
+            throw new IllegalArgumentException("Expected an history of length " + historyLength + ", got "
+                            + observation.length);
+
+        int slot = head;
+        if (size == maxSize)
+            evict(slot);
+
+        long[] written = new long[historyLength];
+        long first = Long.MAX_VALUE;
+        for (int i = 0; i < historyLength; i++) {
+            written[i] = writeFrame(observation[i]);
+            first = Math.min(first, written[i]);
+        }
+        long next = writeFrame(transition.getNextObservation());
+        first = Math.min(first, next);
+
+        int[] obsFrames = observationFrames[slot];
+        for (int i = 0; i < historyLength; i++)
+            obsFrames[i] = (int) (written[i] % frameCapacity);
+        nextFrames[slot] = (int) (next % frameCapacity);
+        firstFrame[slot] = first;
+        rewards[slot] = transition.getReward();
+        terminals[slot] = transition.isTerminal();
+        actions[slot] = transition.getAction();
+        ids[slot] = storedCounter++;
+
+        lastArrays = Arrays.copyOf(observation, historyLength + 1);
+        lastArrays[historyLength] = transition.getNextObservation();
+        lastFrames = Arrays.copyOf(written, historyLength + 1);
+        lastFrames[historyLength] = next;
+
+        tree.set(slot, Math.pow(maxPriority, alpha));
+        head = (head + 1) % maxSize;
+        size++;
+    }
+
+    /**
+     * @return a batch of transitions sampled proportionally to their priorities,
+     * the observations being views of freshly assembled arrays (no dup needed)
+     */
+    public ArrayList<Transition<A>> getBatch() {
+        return getBatch(batchSize);
+    }
+
+    public ArrayList<Transition<A>> getBatch(int size) {
+        Batch<A> batch = sample(size);
+        int n = batch.getIndices().length;
+        ArrayList<Transition<A>> transitions = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            INDArray obsRow = batch.getObservations().getRow(i);
+            INDArray[] history = new INDArray[historyLength];
+            for (int j = 0; j < historyLength; j++)
+                history[j] = frameView(obsRow, j);
+            INDArray next = frameView(batch.getNextObservations().getRow(i), 0);
+            transitions.add(new Transition<>(history, batch.getActions().get(i), batch.getRewards()[i],
+                            batch.getTerminals()[i], next));
+        }
+        return transitions;
+    }
+
+    /**
+     * Sample a batch with stratified proportional sampling and assemble it
+     * into [size, historyLength * frameLength] observation arrays
+     *
+     * @param size the size of the batch
+     * @return the batch with its importance sampling weights, to pass to updatePriorities
+     */
+    public Batch<A> sample(int size) {
+        if (this.size == 0)
+            throw new IllegalStateException("Cannot sample from an empty experience replay");
+
+        int[] indices = new int[size];
+        long[] batchIds = new long[size];
+        double[] weights = new double[size];
+        double total = tree.total();
+        double segment = total / size;
+
+        beta = Math.min(1.0, beta + betaIncrement);
+        double maxWeight = Math.pow(this.size * tree.min() / total, -beta);
+
+        for (int i = 0; i < size; i++) {
+            double value = Math.min((i + random.nextDouble()) * segment, Math.nextAfter(total, 0));
+            int index = tree.find(value);
+            indices[i] = index;
+            batchIds[i] = ids[index];
+            double probability = tree.get(index) / total;
+            weights[i] = Math.pow(this.size * probability, -beta) / maxWeight;
+        }
+
+        int[][] obsIndexes = new int[historyLength][size];
+        int[][] nextIndexes = new int[historyLength][size];
+        double[] batchRewards = new double[size];
+        boolean[] batchTerminals = new boolean[size];
+        ArrayList<A> batchActions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int slot = indices[i];
+            int[] obsFrames = observationFrames[slot];
+            for (int j = 0; j < historyLength; j++)
+                obsIndexes[j][i] = obsFrames[j];
+            //next history is the history with the next frame appended, see Transition.append
+            nextIndexes[0][i] = nextFrames[slot];
+            for (int j = 1; j < historyLength; j++)
+                nextIndexes[j][i] = obsFrames[j - 1];
+            batchRewards[i] = rewards[slot];
+            batchTerminals[i] = terminals[slot];
+            batchActions.add((A) actions[slot]);
+        }
+
+        return new Batch<>(gather(obsIndexes), gather(nextIndexes), batchActions, batchRewards, batchTerminals,
+                        weights, indices, batchIds);
+    }
+
+    public Batch<A> sample() {
+        return sample(batchSize);
+    }
+
+    /**
+     * Update the priorities of sampled transitions from their new TD-errors.
+     * Transitions evicted since the batch was sampled are skipped, even if their slot was reused.
+     * @param batch the sampled batch
+     * @param tdErrors the TD-errors of the transitions of the batch
+     */
+    public void updatePriorities(Batch<A> batch, double[] tdErrors) {
+        int[] indices = batch.getIndices();
+        long[] batchIds = batch.getIds();
+        for (int i = 0; i < indices.length; i++) {
+            if (ids[indices[i]] != batchIds[i])
+                continue;
+            double priority = Math.abs(tdErrors[i]) + epsilon;
+            maxPriority = Math.max(maxPriority, priority);
+            tree.set(indices[i], Math.pow(priority, alpha));
+        }
+    }
+
+    /**
+     * @return the shape of a single stored frame
+     */
+    public long[] getFrameShape() {
+        return frameShape;
+    }
+
+    private void allocate(INDArray[] observation) {
+        INDArray first = observation[0];
+        frameShape = first.shape();
+        frameLength = (int) first.length();
+        historyLength = observation.length;
+        //worst case all the frames of the oldest transitions are still alive
+        frameCapacity = maxSize + historyLength + 1;
+        frames = Nd4j.create(frameCapacity, frameLength);
+        observationFrames = new int[maxSize][historyLength];
+        log.info("Allocated prioritized exp replay of {} frames of length {}", frameCapacity, frameLength);
+    }
+
+    private long writeFrame(INDArray frame) {
+        if (lastArrays != null) {
+            for (int i = 0; i < lastArrays.length; i++) {
+                if (lastArrays[i] == frame && frameCounter - lastFrames[i] < frameCapacity)
+                    return lastFrames[i];
+            }
+        }
+
+        long counter = frameCounter++;
+        //the frame slot we are about to overwrite must not be referenced anymore
+        while (size > 0 && firstFrame[oldest()] <= counter - frameCapacity)
+            evict(oldest());
+
+        INDArray decompressed = BasicNDArrayCompressor.getInstance().decompress(frame);
+        frames.getRow((int) (counter % frameCapacity)).assign(decompressed.reshape(1, frameLength));
+        return counter;
+    }
+
+    private int oldest() {
+        return (head - size + maxSize) % maxSize;
+    }
+
+    private void evict(int slot) {
+        if (slot != oldest())
+            throw new IllegalStateException("Transitions are evicted in FIFO order");
+        tree.set(slot, 0);
+        ids[slot] = -1;
+        actions[slot] = null;
+        size--;
+    }
+
+    private INDArray gather(int[][] indexes) {
+        INDArray[] columns = new INDArray[indexes.length];
+        for (int j = 0; j < indexes.length; j++)
+            columns[j] = Nd4j.pullRows(frames, 1, indexes[j]);
+        return columns.length == 1 ? columns[0] : Nd4j.hstack(columns);
+    }
+
+    private INDArray frameView(INDArray row, int index) {
+        return row.get(NDArrayIndex.interval(index * frameLength, (index + 1) * frameLength)).reshape(frameShape);
+    }
+
+    @Value
+    public static class Batch<A> {
+        INDArray observations;
+        INDArray nextObservations;
+        ArrayList<A> actions;
+        double[] rewards;
+        boolean[] terminals;
+        double[] weights;
+        int[] indices;
+        long[] ids;
+    }
+
+}
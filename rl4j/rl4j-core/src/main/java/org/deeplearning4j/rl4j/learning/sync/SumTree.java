@@ -0,0 +1,102 @@
+package org.deeplearning4j.rl4j.learning.sync;
+
+import java.util.Arrays;
+
+/**
+ * Binary segment tree over a fixed number of leaves used by the
+ * prioritized experience replay. Every internal node holds the sum
+ * and the min of its children so that sampling proportionally to the
+ * priorities and computing the max importance weight are both O(log n).
+ *
+ * Priorities are kept in flat primitive arrays, the leaves being stored
+ * at [capacity, 2 * capacity).
+ */
+public class SumTree {
+
+    final private int capacity;
+    final private double[] sums;
+    final private double[] mins;
+
+    public SumTree(int capacity) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("Capacity must be > 0, got " + capacity);
+        int size = 1;
+        while (size < capacity)
+            size <<= 1;
+        this.capacity = size;
+        this.sums = new double[2 * size];
+        this.mins = new double[2 * size];
+        Arrays.fill(mins, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * @return the number of leaves (rounded up to a power of two)
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Set the priority of a leaf and propagate the change to the root
+     * @param index the leaf index
+     * @param priority the new priority, must be >= 0
+     */
+    public void set(int index, double priority) {
+        if (priority < 0 || Double.isNaN(priority))
+            throw new IllegalArgumentException("Priority must be >= 0, got " + priority);
+        int node = index + capacity;
+        sums[node] = priority;
+        //empty leaves must not drive the min to zero
+        mins[node] = priority > 0 ? priority : Double.POSITIVE_INFINITY;
+        node >>= 1;
+        while (node >= 1) {
+            int left = node << 1;
+            sums[node] = sums[left] + sums[left + 1];
+            mins[node] = Math.min(mins[left], mins[left + 1]);
+            node >>= 1;
+        }
+    }
+
+    /**
+     * @param index the leaf index
+     * @return the priority of that leaf
+     */
+    public double get(int index) {
+        return sums[index + capacity];
+    }
+
+    /**
+     * @return the sum of all priorities
+     */
+    public double total() {
+        return sums[1];
+    }
+
+    /**
+     * @return the smallest non-zero priority, +infinity if the tree is empty
+     */
+    public double min() {
+        return mins[1];
+    }
+
+    /**
+     * Find the leaf such that the prefix sum of the priorities before it is <= value
+     * and the prefix sum including it is > value
+     * @param value a value in [0, total())
+     * @return the leaf index
+     */
+    public int find(double value) {
+        int node = 1;
+        while (node < capacity) {
+            int left = node << 1;
+            if (value < sums[left] || sums[left + 1] == 0) {
+                node = left;
+            } else {
+                value -= sums[left];
+                node = left + 1;
+            }
+        }
+        return node - capacity;
+    }
+
+}
@@ -30,11 +30,16 @@ public abstract class QLearning<O extends Encodable, A, AS extends ActionSpace<A
                 extends SyncLearning<O, A, AS, IDQN> {
 
     @Getter
-    final private IExpReplay<A> expReplay;
+    @Setter
+    private IExpReplay<A> expReplay;
 
     public QLearning(QLConfiguration conf) {
+        this(conf, new ExpReplay<A>(conf.getExpRepMaxSize(), conf.getBatchSize(), conf.getSeed()));
+    }
+
+    public QLearning(QLConfiguration conf, IExpReplay<A> expReplay) {
         super(conf);
-        expReplay = new ExpReplay<>(conf.getExpRepMaxSize(), conf.getBatchSize(), conf.getSeed());
+        this.expReplay = expReplay;
     }
 
     protected abstract EpsGreedy<O, A, AS> getEgPolicy();
@@ -5,6 +5,9 @@ import lombok.Setter;
 import org.nd4j.linalg.primitives.Pair;
 import org.deeplearning4j.gym.StepReply;
 import org.deeplearning4j.rl4j.learning.Learning;
+import org.deeplearning4j.rl4j.learning.sync.ExpReplay;
+import org.deeplearning4j.rl4j.learning.sync.IExpReplay;
+import org.deeplearning4j.rl4j.learning.sync.PrioritizedExpReplay;
 import org.deeplearning4j.rl4j.learning.sync.Transition;
 import org.deeplearning4j.rl4j.learning.sync.qlearning.QLearning;
 import org.deeplearning4j.rl4j.mdp.MDP;
@@ -57,7 +60,13 @@ public abstract class QLearningDiscrete<O extends Encodable> extends QLearning<O
 
     public QLearningDiscrete(MDP<O, Integer, DiscreteSpace> mdp, IDQN dqn, QLConfiguration conf,
                     DataManager dataManager, int epsilonNbStep) {
-        super(conf);
+        this(mdp, dqn, conf, dataManager, epsilonNbStep,
+                        new ExpReplay<Integer>(conf.getExpRepMaxSize(), conf.getBatchSize(), conf.getSeed()));
+    }
+
+    public QLearningDiscrete(MDP<O, Integer, DiscreteSpace> mdp, IDQN dqn, QLConfiguration conf,
+                    DataManager dataManager, int epsilonNbStep, IExpReplay<Integer> expReplay) {
+        super(conf, expReplay);
         this.configuration = conf;
         this.mdp = mdp;
         this.dataManager = dataManager;
@@ -160,7 +169,11 @@ public abstract class QLearningDiscrete<O extends Encodable> extends QLearning<O
             getExpReplay().store(trans);
 
             if (getStepCounter() > updateStart) {
-                Pair<INDArray, INDArray> targets = setTarget(getExpReplay().getBatch());
+                Pair<INDArray, INDArray> targets;
+                if (getExpReplay() instanceof PrioritizedExpReplay) {
+                    targets = setTarget((PrioritizedExpReplay<Integer>) getExpReplay());
+                } else
+                    targets = setTarget(getExpReplay().getBatch());
                 getCurrentDQN().fit(targets.getFirst(), targets.getSecond());
             }
 
@@ -211,6 +224,47 @@ public abstract class QLearningDiscrete<O extends Encodable> extends QLearning<O
                 }
             }
         }
+        double[] rewards = new double[size];
+        for (int i = 0; i < size; i++)
+            rewards[i] = transitions.get(i).getReward();
+
+        return setTarget(obs, nextObs, actions, rewards, areTerminal, null, null);
+    }
+
+    /**
+     * Compute the targets of a batch sampled from a PrioritizedExpReplay, the
+     * observations being already assembled in a single INDArray. The TD-errors are
+     * scaled by the importance sampling weights and fed back as new priorities.
+     * @param expReplay the prioritized exp replay to sample from
+     * @return the input and targets of the batch
+     */
+    protected Pair<INDArray, INDArray> setTarget(PrioritizedExpReplay<Integer> expReplay) {
+        PrioritizedExpReplay.Batch<Integer> batch = expReplay.sample();
+        int size = batch.getIndices().length;
+
+        int[] shape = getHistoryProcessor() == null ? getMdp().getObservationSpace().getShape()
+                        : getHistoryProcessor().getConf().getShape();
+        int[] nshape = makeShape(size, shape);
+        INDArray obs = batch.getObservations().reshape(nshape);
+        INDArray nextObs = batch.getNextObservations().reshape(nshape);
+        int[] actions = new int[size];
+        for (int i = 0; i < size; i++)
+            actions[i] = batch.getActions().get(i);
+
+        double[] tdErrors = new double[size];
+        Pair<INDArray, INDArray> targets = setTarget(obs, nextObs, actions, batch.getRewards(), batch.getTerminals(),
+                        batch.getWeights(), tdErrors);
+        expReplay.updatePriorities(batch, tdErrors);
+        return targets;
+    }
+
+    /**
+     * @param weights importance sampling weights scaling the (clamped) TD-errors, null for uniform
+     * @param tdErrors if not null, filled with the unclamped TD-errors
+     */
+    protected Pair<INDArray, INDArray> setTarget(INDArray obs, INDArray nextObs, int[] actions, double[] rewards,
+                    boolean[] areTerminal, double[] weights, double[] tdErrors) {
+        int size = actions.length;
         if (getHistoryProcessor() != null) {
             obs.muli(1.0 / getHistoryProcessor().getScale());
             nextObs.muli(1.0 / getHistoryProcessor().getScale());
@@ -232,7 +286,7 @@ public abstract class QLearningDiscrete<O extends Encodable> extends QLearning<O
 
 
         for (int i = 0; i < size; i++) {
-            double yTar = transitions.get(i).getReward();
+            double yTar = rewards[i];
             if (!areTerminal[i]) {
                 double q = 0;
                 if (getConfiguration().isDoubleDQN()) {
@@ -250,6 +304,11 @@ public abstract class QLearningDiscrete<O extends Encodable> extends QLearning<O
             double lowB = previousV - getConfiguration().getErrorClamp();
             double highB = previousV + getConfiguration().getErrorClamp();
             double clamped = Math.min(highB, Math.max(yTar, lowB));
+            if (tdErrors != null)
+                tdErrors[i] = yTar - previousV;
+            //for a squared loss, scaling the error by w scales the gradient by w
+            if (weights != null)
+                clamped = previousV + weights[i] * (clamped - previousV);
 
             dqnOutputAr.putScalar(i, actions[i], clamped);
         }
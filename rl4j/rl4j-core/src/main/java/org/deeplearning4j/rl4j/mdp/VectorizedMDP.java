@@ -0,0 +1,145 @@
+package org.deeplearning4j.rl4j.mdp;
+
+import org.deeplearning4j.gym.StepReply;
+import org.deeplearning4j.rl4j.learning.Learning;
+import org.deeplearning4j.rl4j.space.ActionSpace;
+import org.deeplearning4j.rl4j.space.Encodable;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * A set of MDP instances stepped together, the vectorized environment
+ * of the async learners.
+ *
+ * Every step applies one action per instance, in parallel on a small
+ * thread pool when the instances are expensive to step (gym, simulators),
+ * and the observations of all the instances can be stacked into a single
+ * batch so that the policy is evaluated with one forward pass.
+ *
+ * Instances are never reset implicitly, that is left to the caller
+ * which keeps track of the episodes.
+ */
+public class VectorizedMDP<O extends Encodable, A, AS extends ActionSpace<A>> {
+
+    final private List<MDP<O, A, AS>> mdps;
+    final private ExecutorService executor;
+
+    /**
+     * @param mdp the first instance, the others are created with {@link MDP#newInstance()}
+     * @param size the number of instances
+     * @param numThreads the number of threads stepping the instances, 1 to step them on the caller thread
+     */
+    public VectorizedMDP(MDP<O, A, AS> mdp, int size, int numThreads) {
+        if (size <= 0)
+            throw new IllegalArgumentException("Size must be > 0, got " + size);
+        mdps = new ArrayList<>(size);
+        mdps.add(mdp);
+        for (int i = 1; i < size; i++)
+            mdps.add(mdp.newInstance());
+
+        if (numThreads > 1 && size > 1) {
+            executor = Executors.newFixedThreadPool(Math.min(numThreads, size), new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread t = Executors.defaultThreadFactory().newThread(r);
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+        } else
+            executor = null;
+    }
+
+    public VectorizedMDP(MDP<O, A, AS> mdp, int size) {
+        this(mdp, size, size);
+    }
+
+    public int size() {
+        return mdps.size();
+    }
+
+    public MDP<O, A, AS> getMdp(int i) {
+        return mdps.get(i);
+    }
+
+    /**
+     * reset every instance
+     * @return the first observation of every instance
+     */
+    public List<O> reset() {
+        List<O> obs = new ArrayList<>(size());
+        for (MDP<O, A, AS> mdp : mdps)
+            obs.add(mdp.reset());
+        return obs;
+    }
+
+    /**
+     * Apply one action to every instance
+     * @param actions the action of every instance
+     * @return the reply of every instance
+     */
+    public List<StepReply<O>> step(final List<A> actions) {
+        if (actions.size() != size())
+            throw new IllegalArgumentException("Expected " + size() + " actions, got " + actions.size());
+
+        List<StepReply<O>> replies = new ArrayList<>(size());
+        if (executor == null) {
+            for (int i = 0; i < size(); i++)
+                replies.add(mdps.get(i).step(actions.get(i)));
+            return replies;
+        }
+
+        List<Callable<StepReply<O>>> tasks = new ArrayList<>(size());
+        for (int i = 0; i < size(); i++) {
+            final MDP<O, A, AS> mdp = mdps.get(i);
+            final A action = actions.get(i);
+            tasks.add(new Callable<StepReply<O>>() {
+                @Override
+                public StepReply<O> call() {
+                    return mdp.step(action);
+                }
+            });
+        }
+
+        try {
+            for (Future<StepReply<O>> future : executor.invokeAll(tasks))
+                replies.add(future.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+        return replies;
+    }
+
+    /**
+     * Stack the observations into a single batch of shape [size, observation shape]
+     * @param obs one observation per instance
+     * @return the batch
+     */
+    public INDArray batch(List<O> obs) {
+        int[] shape = mdps.get(0).getObservationSpace().getShape();
+        int[] nshape = Learning.makeShape(1, shape);
+        INDArray[] rows = new INDArray[obs.size()];
+        for (int i = 0; i < rows.length; i++)
+            rows[i] = Learning.getInput(mdps.get(i), obs.get(i)).reshape(nshape);
+        return Nd4j.concat(0, rows);
+    }
+
+    /**
+     * Stop the stepping threads and close the instances created by this object,
+     * the first instance is left to its owner
+     */
+    public void close() {
+        if (executor != null)
+            executor.shutdownNow();
+        for (int i = 1; i < size(); i++)
+            mdps.get(i).close();
+    }
+
+}
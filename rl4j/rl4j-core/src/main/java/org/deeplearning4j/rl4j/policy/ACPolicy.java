@@ -6,8 +6,11 @@ import org.deeplearning4j.rl4j.network.ac.ActorCriticSeparate;
 import org.deeplearning4j.rl4j.network.ac.IActorCritic;
 import org.deeplearning4j.rl4j.space.Encodable;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 
 /**
@@ -53,6 +56,31 @@ public class ACPolicy<O extends Encodable> extends Policy<O, Integer> {
         if (rd == null) {
             return Learning.getMaxAction(output);
         }
+        return sample(output);
+    }
+
+    @Override
+    public List<Integer> nextActions(INDArray batch) {
+        return nextActions(batch, IActorCritic.outputAll(batch));
+    }
+
+    @Override
+    public List<Integer> nextActions(INDArray batch, INDArray[] outputAll) {
+        INDArray output = outputAll[1];
+        int size = (int) batch.size(0);
+        List<Integer> actions = new ArrayList<>(size);
+        if (rd == null) {
+            INDArray maxActions = Nd4j.argMax(output, 1);
+            for (int i = 0; i < size; i++)
+                actions.add(maxActions.getInt(i));
+        } else {
+            for (int i = 0; i < size; i++)
+                actions.add(sample(output.getRow(i)));
+        }
+        return actions;
+    }
+
+    private Integer sample(INDArray output) {
         float rVal = rd.nextFloat();
         for (int i = 0; i < output.length(); i++) {
             //System.out.println(i + " " + rVal + " " + output.getFloat(i));
@@ -6,8 +6,11 @@ import org.deeplearning4j.rl4j.network.dqn.DQN;
 import org.deeplearning4j.rl4j.network.dqn.IDQN;
 import org.deeplearning4j.rl4j.space.Encodable;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * @author rubenfiszel (ruben.fiszel@epfl.ch) 7/18/16.
@@ -33,6 +36,25 @@ public class DQNPolicy<O extends Encodable> extends Policy<O, Integer> {
         return Learning.getMaxAction(output);
     }
 
+    @Override
+    public List<Integer> nextActions(INDArray batch) {
+        return maxActions(dqn.output(batch));
+    }
+
+    @Override
+    public List<Integer> nextActions(INDArray batch, INDArray[] output) {
+        return maxActions(output[0]);
+    }
+
+    private static List<Integer> maxActions(INDArray output) {
+        INDArray maxActions = Nd4j.argMax(output, 1);
+        int size = (int) output.size(0);
+        List<Integer> actions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            actions.add(maxActions.getInt(i));
+        return actions;
+    }
+
     public void save(String filename) throws IOException {
         dqn.save(filename);
     }
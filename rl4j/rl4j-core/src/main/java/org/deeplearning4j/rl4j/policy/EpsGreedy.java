@@ -9,6 +9,8 @@ import org.deeplearning4j.rl4j.space.ActionSpace;
 import org.deeplearning4j.rl4j.space.Encodable;
 import org.nd4j.linalg.api.ndarray.INDArray;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 
 /**
@@ -50,6 +52,31 @@ public class EpsGreedy<O extends Encodable, A, AS extends ActionSpace<A>> extend
 
     }
 
+    @Override
+    public List<A> nextActions(INDArray batch) {
+        return nextActions(batch, null);
+    }
+
+    @Override
+    public List<A> nextActions(INDArray batch, INDArray[] output) {
+        float ep = getEpsilon();
+        int size = (int) batch.size(0);
+        List<A> actions = new ArrayList<>(size);
+        boolean greedy = false;
+        boolean[] explore = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            explore[i] = rd.nextFloat() <= ep;
+            greedy |= !explore[i];
+        }
+        //only evaluate the underlying policy if at least one example needs it
+        List<A> greedyActions = null;
+        if (greedy)
+            greedyActions = output == null ? policy.nextActions(batch) : policy.nextActions(batch, output);
+        for (int i = 0; i < size; i++)
+            actions.add(explore[i] ? mdp.getActionSpace().randomAction() : greedyActions.get(i));
+        return actions;
+    }
+
     public float getEpsilon() {
         return Math.min(1f, Math.max(minEpsilon, 1f - (learning.getStepCounter() - updateStart) * 1f / epsilonNbStep));
     }
@@ -10,8 +10,12 @@ import org.deeplearning4j.rl4j.network.NeuralNet;
 import org.deeplearning4j.rl4j.space.ActionSpace;
 import org.deeplearning4j.rl4j.space.Encodable;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.indexing.NDArrayIndex;
 import org.nd4j.linalg.util.ArrayUtil;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * @author rubenfiszel (ruben.fiszel@epfl.ch) 7/18/16.
  *
@@ -25,6 +29,35 @@ public abstract class Policy<O extends Encodable, A> {
 
     public abstract A nextAction(INDArray input);
 
+    /**
+     * Choose one action per example of a batch. The default evaluates the
+     * examples one by one, implementations backed by a neural net override it
+     * to evaluate the whole batch with a single forward pass.
+     * @param batch the inputs, one example per row (first dimension)
+     * @return the action of every example
+     */
+    public List<A> nextActions(INDArray batch) {
+        int size = (int) batch.size(0);
+        List<A> actions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            INDArray example = batch.get(NDArrayIndex.interval(i, i + 1));
+            actions.add(nextAction(example));
+        }
+        return actions;
+    }
+
+    /**
+     * Choose one action per example of a batch, from the output of the policy's
+     * neural net already computed for that batch, to avoid a second forward pass.
+     * The default ignores the output and evaluates the batch again.
+     * @param batch the inputs, one example per row (first dimension)
+     * @param output the output of {@link NeuralNet#outputAll(INDArray)} for the batch
+     * @return the action of every example
+     */
+    public List<A> nextActions(INDArray batch, INDArray[] output) {
+        return nextActions(batch);
+    }
+
     public <AS extends ActionSpace<A>> double play(MDP<O, A, AS> mdp) {
         return play(mdp, (IHistoryProcessor)null);
     }
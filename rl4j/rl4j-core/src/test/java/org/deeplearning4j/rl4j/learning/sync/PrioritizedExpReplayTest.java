@@ -0,0 +1,151 @@
+package org.deeplearning4j.rl4j.learning.sync;
+
+import org.junit.Test;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PrioritizedExpReplayTest {
+
+    @Test
+    public void testSumTree() {
+        SumTree tree = new SumTree(5);
+        assertEquals(8, tree.capacity());
+        tree.set(0, 1.0);
+        tree.set(1, 2.0);
+        tree.set(4, 3.0);
+
+        assertEquals(6.0, tree.total(), 1e-9);
+        assertEquals(1.0, tree.min(), 1e-9);
+        assertEquals(0, tree.find(0.5));
+        assertEquals(1, tree.find(1.5));
+        assertEquals(4, tree.find(3.5));
+        assertEquals(4, tree.find(5.999));
+
+        tree.set(0, 0);
+        assertEquals(5.0, tree.total(), 1e-9);
+        assertEquals(2.0, tree.min(), 1e-9);
+        assertEquals(1, tree.find(0.0));
+    }
+
+    @Test
+    public void testStoreAndSample() {
+        int maxSize = 10;
+        PrioritizedExpReplay<Integer> expReplay = new PrioritizedExpReplay<>(maxSize, 4, 123);
+
+        INDArray[] history = new INDArray[] {Nd4j.create(new double[] {0, 0}), Nd4j.create(new double[] {-1, -1})};
+        for (int i = 0; i < 25; i++) {
+            INDArray next = Nd4j.create(new double[] {i + 1, i + 1});
+            expReplay.store(new Transition<>(history, i, i, false, next));
+            history = Transition.append(history, next);
+        }
+        assertEquals(maxSize, expReplay.getSize());
+
+        PrioritizedExpReplay.Batch<Integer> batch = expReplay.sample();
+        assertEquals(4, batch.getIndices().length);
+        for (int i = 0; i < 4; i++) {
+            int action = batch.getActions().get(i);
+            //only the last maxSize transitions are kept
+            assertTrue(action >= 15);
+            assertEquals(action, batch.getRewards()[i], 1e-9);
+            //observation is [s_t, s_t-1], next observation is [s_t+1, s_t]
+            INDArray obs = batch.getObservations().getRow(i);
+            INDArray next = batch.getNextObservations().getRow(i);
+            assertEquals(action, obs.getDouble(0), 1e-6);
+            assertEquals(action - 1, obs.getDouble(2), 1e-6);
+            assertEquals(action + 1, next.getDouble(0), 1e-6);
+            assertEquals(action, next.getDouble(2), 1e-6);
+            assertEquals(1.0, batch.getWeights()[i], 1e-9);
+        }
+
+        ArrayList<Transition<Integer>> transitions = expReplay.getBatch();
+        assertEquals(4, transitions.size());
+        assertEquals(2, transitions.get(0).getObservation().length);
+    }
+
+    @Test
+    public void testPrioritySampling() {
+        PrioritizedExpReplay<Integer> expReplay = new PrioritizedExpReplay<>(4, 100, 123, 1.0, 1.0, 0, 0);
+        store(expReplay, 4);
+        PrioritizedExpReplay.Batch<Integer> sampled = expReplay.sample(4);
+        expReplay.updatePriorities(sampled, tdErrors(sampled, 3, 1, 0));
+
+        PrioritizedExpReplay.Batch<Integer> batch = expReplay.sample();
+        for (int i = 0; i < 100; i++)
+            assertEquals(3, (int) batch.getActions().get(i));
+
+        //a zero priority is a legit priority: the transitions can still be updated
+        expReplay.updatePriorities(sampled, tdErrors(sampled, 3, 1, 1));
+        assertArrayEquals(new int[] {25, 25, 25, 25}, countActions(expReplay.sample(), 4));
+    }
+
+    @Test
+    public void testStaleBatch() {
+        PrioritizedExpReplay<Integer> expReplay = new PrioritizedExpReplay<>(4, 100, 123, 1.0, 1.0, 0, 0);
+        store(expReplay, 4);
+        PrioritizedExpReplay.Batch<Integer> stale = expReplay.sample(4);
+
+        //all the sampled transitions are evicted and their slots reused before the update: it is ignored
+        store(expReplay, 4);
+        expReplay.updatePriorities(stale, tdErrors(stale, 0, 100, 1));
+        assertEquals(4, expReplay.getSize());
+        assertArrayEquals(new int[] {25, 25, 25, 25}, countActions(expReplay.sample(), 4));
+    }
+
+    @Test
+    public void testUnsharedFrames() {
+        int maxSize = 10;
+        PrioritizedExpReplay<Integer> expReplay = new PrioritizedExpReplay<>(maxSize, 4, 123);
+
+        //copies instead of the shared history of Transition.append: 3 frames per transition
+        INDArray[] history = new INDArray[] {Nd4j.create(new double[] {0, 0}), Nd4j.create(new double[] {-1, -1})};
+        for (int i = 0; i < 25; i++) {
+            INDArray next = Nd4j.create(new double[] {i + 1, i + 1});
+            INDArray[] copy = new INDArray[] {history[0].dup(), history[1].dup()};
+            expReplay.store(new Transition<>(copy, i, i, false, next.dup()));
+            history = Transition.append(history, next);
+        }
+        //the frame buffer holds maxSize + historyLength + 1 = 13 frames: 4 transitions
+        assertEquals(4, expReplay.getSize());
+
+        PrioritizedExpReplay.Batch<Integer> batch = expReplay.sample();
+        for (int i = 0; i < 4; i++) {
+            int action = batch.getActions().get(i);
+            assertTrue(action >= 25 - expReplay.getSize());
+            INDArray obs = batch.getObservations().getRow(i);
+            INDArray next = batch.getNextObservations().getRow(i);
+            assertEquals(action, obs.getDouble(0), 1e-6);
+            assertEquals(action - 1, obs.getDouble(2), 1e-6);
+            assertEquals(action + 1, next.getDouble(0), 1e-6);
+            assertEquals(action, next.getDouble(2), 1e-6);
+        }
+    }
+
+    private static void store(PrioritizedExpReplay<Integer> expReplay, int n) {
+        for (int i = 0; i < n; i++) {
+            INDArray[] obs = new INDArray[] {Nd4j.create(new double[] {i})};
+            expReplay.store(new Transition<>(obs, i, 0, true, Nd4j.create(new double[] {i})));
+        }
+    }
+
+    private static double[] tdErrors(PrioritizedExpReplay.Batch<Integer> batch, int action, double tdError,
+                    double otherTdError) {
+        double[] tdErrors = new double[batch.getIndices().length];
+        for (int i = 0; i < tdErrors.length; i++)
+            tdErrors[i] = batch.getActions().get(i) == action ? tdError : otherTdError;
+        return tdErrors;
+    }
+
+    private static int[] countActions(PrioritizedExpReplay.Batch<Integer> batch, int numActions) {
+        int[] counts = new int[numActions];
+        for (int action : batch.getActions())
+            counts[action]++;
+        return counts;
+    }
+
+}
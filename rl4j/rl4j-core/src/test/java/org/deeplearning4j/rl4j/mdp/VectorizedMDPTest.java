@@ -0,0 +1,47 @@
+package org.deeplearning4j.rl4j.mdp;
+
+import org.deeplearning4j.gym.StepReply;
+import org.deeplearning4j.rl4j.mdp.toy.SimpleToy;
+import org.deeplearning4j.rl4j.mdp.toy.SimpleToyState;
+import org.deeplearning4j.rl4j.space.DiscreteSpace;
+import org.junit.Test;
+import org.nd4j.linalg.api.ndarray.INDArray;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class VectorizedMDPTest {
+
+    @Test
+    public void testStepAndBatch() {
+        VectorizedMDP<SimpleToyState, Integer, DiscreteSpace> envs =
+                        new VectorizedMDP<>(new SimpleToy(2), 4, 2);
+        try {
+            assertEquals(4, envs.size());
+            List<SimpleToyState> obs = envs.reset();
+
+            INDArray batch = envs.batch(obs);
+            assertArrayEquals(new long[] {4, 1}, batch.shape());
+            assertEquals(20.0, batch.getDouble(3, 0), 1e-6);
+
+            List<StepReply<SimpleToyState>> replies = envs.step(Arrays.asList(0, 1, 0, 1));
+            assertEquals(4, replies.size());
+            for (int i = 0; i < 4; i++) {
+                //first step rewards 1 - action
+                assertEquals(1 - i % 2, replies.get(i).getReward(), 1e-6);
+                assertEquals(1, replies.get(i).getObservation().getStep());
+            }
+
+            replies = envs.step(Arrays.asList(1, 1, 1, 1));
+            for (int i = 0; i < 4; i++)
+                assertTrue(replies.get(i).isDone());
+        } finally {
+            envs.close();
+        }
+    }
+
+}
@@ -26,6 +26,7 @@ import org.nd4j.linalg.factory.Nd4j;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.Arrays;
 import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
@@ -135,4 +136,16 @@ public class PolicyTest {
         assertTrue(count[2] < 40);
         assertTrue(count[3] < 50);
     }
+
+    @Test
+    public void testNextActionsFromOutput() {
+        ACPolicy policy = new ACPolicy(new DummyAC());
+
+        INDArray batch = Nd4j.create(new double[][] {{1.0, 0.0}, {0.0, 1.0}});
+        assertEquals(Arrays.asList(0, 1), policy.nextActions(batch));
+
+        //actions are selected from the output given, the batch isn't evaluated again
+        INDArray probs = Nd4j.create(new double[][] {{0.0, 1.0}, {1.0, 0.0}});
+        assertEquals(Arrays.asList(1, 0), policy.nextActions(batch, new INDArray[] {null, probs}));
+    }
 }